@@ -83,6 +83,9 @@ const plantRoutes = {
     // GET /plants/search - Search plants
     searchPlants: `${API_BASE_URL}/plants/search`,
     
+    // GET /plants/autocomplete?q=&limit= - Top-k name suggestions for the search box
+    autocompletePlants: (q, limit = 10) => `${API_BASE_URL}/plants/autocomplete?q=${encodeURIComponent(q)}&limit=${limit}`,
+    
     // GET /plants/:id - Get specific plant details
     getPlant: (id) => `${API_BASE_URL}/plants/${id}`,
     
@@ -0,0 +1,101 @@
+package plant_village.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import plant_village.model.Disease;
+import plant_village.model.Plant;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.time.Duration;
+
+/**
+ * Hibernate Second-Level Cache Configuration
+ *
+ * Plant and Disease are reference data (read on every prediction, written only by admins),
+ * so their entities and finder queries are served from a bounded in-JVM cache (Ehcache via JCache).
+ *
+ * Regions:
+ * - plant_village.model.Plant / plant_village.model.Disease   - entity cache (READ_WRITE)
+ * - default-query-results-region                              - cached finder results (ids only)
+ * - default-update-timestamps-region                          - table change stamps, invalidates query results
+ *
+ * Hibernate evicts entity entries on update/delete and invalidates cached query results
+ * whenever the Plant or Disease table is written, so no manual eviction is needed here.
+ * Hit ratios are exposed through GET /api/health/cache.
+ */
+@Slf4j
+@Configuration
+public class HibernateCacheConfig {
+
+    public static final String QUERY_RESULTS_REGION = RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME;
+    public static final String UPDATE_TIMESTAMPS_REGION = RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME;
+
+    @Value("${app.cache.catalog.max-entries:2000}")
+    private long catalogMaxEntries;
+
+    @Value("${app.cache.query.max-entries:1000}")
+    private long queryMaxEntries;
+
+    @Value("${app.cache.catalog.ttl-minutes:60}")
+    private long catalogTtlMinutes;
+
+    /**
+     * JCache manager holding the bounded regions used by Hibernate
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateJCacheManager() {
+        CacheManager cacheManager = Caching
+                .getCachingProvider(EhcacheCachingProvider.class.getName())
+                .getCacheManager();
+
+        Duration ttl = Duration.ofMinutes(catalogTtlMinutes);
+        createRegion(cacheManager, Plant.class.getName(), catalogMaxEntries, ttl);
+        createRegion(cacheManager, Disease.class.getName(), catalogMaxEntries, ttl);
+        createRegion(cacheManager, QUERY_RESULTS_REGION, queryMaxEntries, ttl);
+        // Timestamps must never expire before the query results they guard
+        createRegion(cacheManager, UPDATE_TIMESTAMPS_REGION, 1000, null);
+
+        log.info("✅ Second-level cache ready (catalog max={} entries, query max={} entries, ttl={} min)",
+                catalogMaxEntries, queryMaxEntries, catalogTtlMinutes);
+        return cacheManager;
+    }
+
+    /**
+     * Enable second-level + query cache and hand the JCache manager to Hibernate
+     */
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateJCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put("hibernate.javax.cache.cache_manager", hibernateJCacheManager);
+            properties.put("hibernate.javax.cache.missing_cache_strategy", "fail");
+            // Needed for per-region hit/miss counters
+            properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+        };
+    }
+
+    private void createRegion(CacheManager cacheManager, String name, long maxEntries, Duration ttl) {
+        if (cacheManager.getCache(name) != null) {
+            return; // devtools restart reuses the provider's manager
+        }
+        CacheConfigurationBuilder<Object, Object> builder = CacheConfigurationBuilder
+                .newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(maxEntries));
+        if (ttl != null) {
+            builder = builder.withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(ttl));
+        }
+        cacheManager.createCache(name, Eh107Configuration.fromEhcacheCacheConfiguration(builder));
+    }
+}
@@ -0,0 +1,26 @@
+package plant_village.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Jackson Configuration
+ *
+ * Module beans are registered by Spring Boot on the application ObjectMapper
+ * (MVC responses, JsonStreamWriter streams, STOMP messages).
+ */
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * Blackbird: bean getters, setters and constructors are called through generated lambdas
+     * (LambdaMetafactory) instead of reflection, for typed DTOs such as AnalyzeResponse.
+     * See AnalyzeResponseBenchmark (mvn -Pbenchmark test-compile exec:exec) for the effect.
+     */
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
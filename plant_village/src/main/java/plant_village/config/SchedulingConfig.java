@@ -0,0 +1,15 @@
+package plant_village.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Scheduling Configuration
+ *
+ * Enables @Scheduled background jobs (e.g. prediction archival).
+ * Each job has its own enabled flag and cron property.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -105,6 +105,8 @@ public class SecurityConfig {
                 // 🔐 Admin only endpoints
                 .requestMatchers("/api/admin/**").hasRole("ADMIN")
                 .requestMatchers("/api/predictions/approve-images").hasRole("ADMIN")
+                .requestMatchers("/api/predictions/feedback/bulk/approve",
+                                 "/api/predictions/feedback/bulk/reject").hasRole("ADMIN")
                 
                 // 🔐 Authenticated users only
                 .requestMatchers("/api/users/profile/**").authenticated()
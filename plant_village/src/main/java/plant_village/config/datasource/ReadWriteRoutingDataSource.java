@@ -0,0 +1,63 @@
+package plant_village.config.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Routes connections to the primary or the replica pool.
+ *
+ * A connection goes to the replica only when all of these hold:
+ * - the current transaction is read-only
+ * - the call came through an application-level @Transactional(readOnly = true) method
+ * - no read-your-writes guard forced the primary
+ * - {@link ReplicaLagGuard} reports the replica as healthy and within the allowed lag
+ *
+ * Must be wrapped in a LazyConnectionDataSourceProxy so the lookup happens on the first
+ * statement, after the transaction's read-only flag is known.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route { PRIMARY, REPLICA }
+
+    private final ReplicaLagGuard lagGuard;
+    private final AtomicLong primaryRoutes = new AtomicLong();
+    private final AtomicLong replicaRoutes = new AtomicLong();
+    private final AtomicLong fallbackRoutes = new AtomicLong();
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagGuard lagGuard) {
+        this.lagGuard = lagGuard;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean readOnly = TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        if (!readOnly || !ReplicaRoutingContext.isReplicaAllowed()) {
+            primaryRoutes.incrementAndGet();
+            return Route.PRIMARY;
+        }
+        if (!lagGuard.isReplicaUsable()) {
+            fallbackRoutes.incrementAndGet();
+            return Route.PRIMARY;
+        }
+        replicaRoutes.incrementAndGet();
+        return Route.REPLICA;
+    }
+
+    /**
+     * Routing counters for monitoring (GET /api/health/datasource)
+     */
+    public Map<String, Long> getRouteCounts() {
+        return Map.of(
+            "primary", primaryRoutes.get(),
+            "replica", replicaRoutes.get(),
+            "fallbackToPrimary", fallbackRoutes.get()
+        );
+    }
+}
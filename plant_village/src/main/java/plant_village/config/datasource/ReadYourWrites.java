@@ -0,0 +1,27 @@
+package plant_village.config.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Read-your-writes guard for replica routing.
+ *
+ * A read-only method annotated with this is sent to the primary instead of the replica
+ * when the same key (e.g. the user ID) was written by a {@link RecordsWrite} method
+ * within the configured window (app.datasource.replica.read-your-writes-seconds).
+ *
+ * Example: prediction history requested right after a new prediction was saved.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ReadYourWrites {
+
+    /**
+     * Name of the method parameter holding the key (default: "userId")
+     */
+    String key() default "userId";
+}
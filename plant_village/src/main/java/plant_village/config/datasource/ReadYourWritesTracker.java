@@ -0,0 +1,55 @@
+package plant_village.config.datasource;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers keys (user IDs) written in the last few seconds.
+ * Bounded: expired entries are dropped on write, and the oldest are dropped above maxKeys.
+ */
+public class ReadYourWritesTracker {
+
+    private final long windowMillis;
+    private final int maxKeys;
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(long windowSeconds, int maxKeys) {
+        this.windowMillis = windowSeconds * 1000;
+        this.maxKeys = maxKeys;
+    }
+
+    public void recordWrite(String key) {
+        long now = System.currentTimeMillis();
+        lastWrites.put(key, now);
+        if (lastWrites.size() > maxKeys) {
+            purge(now);
+        }
+    }
+
+    public boolean wroteRecently(String key) {
+        Long writtenAt = lastWrites.get(key);
+        if (writtenAt == null) {
+            return false;
+        }
+        if (System.currentTimeMillis() - writtenAt > windowMillis) {
+            lastWrites.remove(key, writtenAt);
+            return false;
+        }
+        return true;
+    }
+
+    public int size() {
+        return lastWrites.size();
+    }
+
+    private void purge(long now) {
+        lastWrites.values().removeIf(writtenAt -> now - writtenAt > windowMillis);
+        // Still over the limit: drop arbitrary entries (worst case: one stale replica read for that key)
+        Iterator<String> it = lastWrites.keySet().iterator();
+        while (lastWrites.size() > maxKeys && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package plant_village.config.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a method whose successful completion writes data for a key (e.g. the user ID).
+ * Following {@link ReadYourWrites} reads for that key are served by the primary
+ * until the replica has had time to catch up.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RecordsWrite {
+
+    /**
+     * Name of the method parameter holding the key (default: "userId")
+     */
+    String key() default "userId";
+}
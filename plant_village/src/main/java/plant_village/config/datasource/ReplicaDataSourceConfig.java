@@ -0,0 +1,145 @@
+package plant_village.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Read/Write DataSource Routing
+ *
+ * Active only when a replica is configured (app.datasource.replica.jdbc-url).
+ * Without it the default Spring Boot DataSource is used and the routing annotations are inert.
+ *
+ * Pools (each with its own Hikari settings):
+ * - primary: spring.datasource.* + spring.datasource.hikari.*  (all writes, default route)
+ * - replica: app.datasource.replica.*  (Hikari property names, e.g. jdbc-url, maximum-pool-size)
+ *
+ * Routing: see {@link ReadWriteRoutingDataSource}. Guards:
+ * - app.datasource.replica.max-lag-seconds / lag-query / check-interval-ms  (ReplicaLagGuard)
+ * - app.datasource.replica.read-your-writes-seconds                         (@ReadYourWrites / @RecordsWrite)
+ *
+ * Local testing with two embedded H2 databases:
+ *   app.datasource.replica.jdbc-url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1
+ *   app.datasource.replica.migrate=true
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.replica", name = "jdbc-url")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary-pool");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica-pool");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagGuard replicaLagGuard(
+            @Qualifier("replicaDataSource") DataSource replicaDataSource,
+            @Value("${app.datasource.replica.lag-query:}") String lagQuery,
+            @Value("${app.datasource.replica.max-lag-seconds:5}") long maxLagSeconds,
+            @Value("${app.datasource.replica.check-interval-ms:5000}") long checkIntervalMs) {
+        return new ReplicaLagGuard(replicaDataSource, lagQuery, maxLagSeconds, checkIntervalMs);
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource readWriteRoutingDataSource(
+            @Qualifier("primaryDataSource") DataSource primaryDataSource,
+            @Qualifier("replicaDataSource") DataSource replicaDataSource,
+            ReplicaLagGuard replicaLagGuard) {
+        return new ReadWriteRoutingDataSource(primaryDataSource, replicaDataSource, replicaLagGuard);
+    }
+
+    /**
+     * DataSource used by JPA, Flyway and JdbcTemplate.
+     * The lazy proxy delays the physical connection until the first statement,
+     * when the transaction's read-only flag is already set.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource readWriteRoutingDataSource) {
+        log.info("✅ Read/write routing enabled (read-only transactions → replica-pool)");
+        return new LazyConnectionDataSourceProxy(readWriteRoutingDataSource);
+    }
+
+    /**
+     * Spring's Hibernate adapter holds the first connection for the whole (open-in-view) session.
+     * Release it after each transaction instead, so a request that started on the replica
+     * gets a fresh routing decision (primary) for its next read-write transaction.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionAfterTransaction() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    @Bean
+    public static ReadYourWritesTracker readYourWritesTracker(
+            @Value("${app.datasource.replica.read-your-writes-seconds:10}") long windowSeconds,
+            @Value("${app.datasource.replica.read-your-writes-max-keys:10000}") int maxKeys) {
+        return new ReadYourWritesTracker(windowSeconds, maxKeys);
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor replicaRoutingAdvisor(ReadYourWritesTracker readYourWritesTracker) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+                ReplicaRoutingInterceptor.pointcut(), new ReplicaRoutingInterceptor(readYourWritesTracker));
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+
+    /**
+     * Embedded replicas (H2) start empty: apply the same migrations to them.
+     * Real replicas receive the schema through replication and must keep this off.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "app.datasource.replica", name = "migrate", havingValue = "true")
+    public InitializingBean replicaMigration(
+            @Qualifier("replicaDataSource") HikariDataSource replicaDataSource,
+            @Value("${spring.flyway.locations:classpath:db/migration/{vendor}}") String locations) {
+        return () -> {
+            String vendor = DatabaseDriver.fromJdbcUrl(replicaDataSource.getJdbcUrl()).getId();
+            Flyway.configure()
+                    .dataSource(replicaDataSource)
+                    .locations(locations.replace("{vendor}", vendor))
+                    .load()
+                    .migrate();
+            log.info("✅ Replica schema migrated ({})", vendor);
+        };
+    }
+}
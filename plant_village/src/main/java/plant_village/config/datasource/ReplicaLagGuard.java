@@ -0,0 +1,122 @@
+package plant_village.config.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically checks the replica and decides whether read-only work may use it.
+ *
+ * - Connection check: the replica must answer Connection.isValid()
+ * - Lag check (optional): app.datasource.replica.lag-query must return the replica delay in seconds,
+ *   e.g. on SQL Server (run against the readable secondary):
+ *   SELECT DATEDIFF(SECOND, MAX(last_commit_time), SYSDATETIME()) FROM sys.dm_hadr_database_replica_states WHERE is_local = 1
+ *
+ * The replica starts as unusable and is enabled after the first successful check,
+ * so reads never go to a replica that was not verified.
+ */
+@Slf4j
+public class ReplicaLagGuard implements InitializingBean, DisposableBean {
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final DataSource replica;
+    private final String lagQuery;
+    private final long maxLagSeconds;
+    private final long checkIntervalMs;
+
+    private ScheduledExecutorService scheduler;
+
+    private volatile boolean usable = false;
+    private volatile Long lastLagSeconds;
+    private volatile Instant lastCheckAt;
+    private volatile String lastError;
+
+    public ReplicaLagGuard(DataSource replica, String lagQuery, long maxLagSeconds, long checkIntervalMs) {
+        this.replica = replica;
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLagSeconds;
+        this.checkIntervalMs = checkIntervalMs;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "replica-lag-guard");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::check, 0, checkIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    public boolean isReplicaUsable() {
+        return usable;
+    }
+
+    /**
+     * Run one health/lag check and update the routing decision
+     */
+    void check() {
+        boolean nowUsable;
+        try (Connection connection = replica.getConnection()) {
+            if (lagQuery == null || lagQuery.isBlank()) {
+                nowUsable = connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+                lastLagSeconds = null;
+            } else {
+                try (Statement statement = connection.createStatement();
+                     ResultSet rs = statement.executeQuery(lagQuery)) {
+                    long lag = rs.next() ? rs.getLong(1) : Long.MAX_VALUE;
+                    lastLagSeconds = lag;
+                    nowUsable = lag <= maxLagSeconds;
+                }
+            }
+            lastError = null;
+        } catch (Exception e) {
+            nowUsable = false;
+            lastError = e.getMessage();
+        }
+        lastCheckAt = Instant.now();
+
+        if (nowUsable != usable) {
+            if (nowUsable) {
+                log.info("✅ Replica enabled for read-only transactions (lag: {})",
+                        lastLagSeconds != null ? lastLagSeconds + "s" : "not measured");
+            } else {
+                log.warn("⚠️ Replica disabled, reads fall back to primary (lag: {}s, max: {}s, error: {})",
+                        lastLagSeconds, maxLagSeconds, lastError);
+            }
+        }
+        usable = nowUsable;
+    }
+
+    /**
+     * Current guard status for monitoring
+     */
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("replicaUsable", usable);
+        status.put("lagSeconds", lastLagSeconds);
+        status.put("maxLagSeconds", maxLagSeconds);
+        status.put("lastCheckAt", lastCheckAt != null ? lastCheckAt.toString() : null);
+        status.put("lastError", lastError);
+        return status;
+    }
+}
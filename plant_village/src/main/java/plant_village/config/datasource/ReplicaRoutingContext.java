@@ -0,0 +1,53 @@
+package plant_village.config.datasource;
+
+/**
+ * Thread-bound routing hints for {@link ReadWriteRoutingDataSource}.
+ *
+ * - replicaAllowed: set while an application-level @Transactional(readOnly = true) method runs.
+ *   Spring Data's implicit read-only repository transactions do NOT set it, so
+ *   read-modify-write code outside a service transaction keeps reading from the primary.
+ * - primaryForced: set by {@link ReadYourWrites} when the key was written recently.
+ */
+public final class ReplicaRoutingContext {
+
+    private static final ThreadLocal<State> CURRENT = ThreadLocal.withInitial(() -> State.DEFAULT);
+
+    private ReplicaRoutingContext() {
+    }
+
+    /**
+     * Routing state of the current thread
+     */
+    public record State(boolean replicaAllowed, boolean primaryForced) {
+        static final State DEFAULT = new State(false, false);
+    }
+
+    public static State current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Enter a nested scope. Forcing the primary is sticky for nested calls.
+     *
+     * @return previous state, to be passed to {@link #restore(State)}
+     */
+    public static State enter(boolean replicaAllowed, boolean primaryForced) {
+        State previous = CURRENT.get();
+        CURRENT.set(new State(replicaAllowed || previous.replicaAllowed(),
+                primaryForced || previous.primaryForced()));
+        return previous;
+    }
+
+    public static void restore(State previous) {
+        if (previous == State.DEFAULT) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    public static boolean isReplicaAllowed() {
+        State state = CURRENT.get();
+        return state.replicaAllowed() && !state.primaryForced();
+    }
+}
@@ -0,0 +1,111 @@
+package plant_village.config.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+
+/**
+ * Sets {@link ReplicaRoutingContext} around application methods:
+ * - @Transactional(readOnly = true) → replica allowed
+ * - @ReadYourWrites → primary forced if the key was written recently
+ * - @RecordsWrite → key recorded after the method (and its transaction) completed
+ *
+ * Registered with highest precedence so it wraps the transaction interceptor.
+ */
+@Slf4j
+public class ReplicaRoutingInterceptor implements MethodInterceptor {
+
+    private static final String APPLICATION_PACKAGE = "plant_village.";
+
+    private final ReadYourWritesTracker tracker;
+    private final ParameterNameDiscoverer parameterNames = new DefaultParameterNameDiscoverer();
+
+    public ReplicaRoutingInterceptor(ReadYourWritesTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    /**
+     * Pointcut matching application methods that carry any of the routing annotations
+     */
+    public static StaticMethodMatcherPointcut pointcut() {
+        return new StaticMethodMatcherPointcut() {
+            @Override
+            public boolean matches(Method method, Class<?> targetClass) {
+                if (!targetClass.getName().startsWith(APPLICATION_PACKAGE)) {
+                    return false;
+                }
+                Method specific = AopUtils.getMostSpecificMethod(method, targetClass);
+                return isReadOnlyTransactional(specific, targetClass)
+                        || specific.isAnnotationPresent(ReadYourWrites.class)
+                        || specific.isAnnotationPresent(RecordsWrite.class);
+            }
+        };
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Class<?> targetClass = invocation.getThis() != null
+                ? ClassUtils.getUserClass(invocation.getThis())
+                : invocation.getMethod().getDeclaringClass();
+        Method method = AopUtils.getMostSpecificMethod(invocation.getMethod(), targetClass);
+
+        boolean readOnly = isReadOnlyTransactional(method, targetClass);
+        boolean forcePrimary = false;
+        ReadYourWrites readYourWrites = method.getAnnotation(ReadYourWrites.class);
+        if (readYourWrites != null) {
+            String key = resolveKey(method, invocation.getArguments(), readYourWrites.key());
+            forcePrimary = key != null && tracker.wroteRecently(key);
+            if (forcePrimary) {
+                log.debug("📍 Read-your-writes: {} for key {} served by primary", method.getName(), key);
+            }
+        }
+
+        ReplicaRoutingContext.State previous = ReplicaRoutingContext.enter(readOnly, forcePrimary);
+        Object result;
+        try {
+            result = invocation.proceed();
+        } finally {
+            ReplicaRoutingContext.restore(previous);
+        }
+
+        RecordsWrite recordsWrite = method.getAnnotation(RecordsWrite.class);
+        if (recordsWrite != null) {
+            String key = resolveKey(method, invocation.getArguments(), recordsWrite.key());
+            if (key != null) {
+                tracker.recordWrite(key);
+            }
+        }
+        return result;
+    }
+
+    private static boolean isReadOnlyTransactional(Method method, Class<?> targetClass) {
+        Transactional tx = AnnotatedElementUtils.findMergedAnnotation(method, Transactional.class);
+        if (tx == null) {
+            tx = AnnotatedElementUtils.findMergedAnnotation(targetClass, Transactional.class);
+        }
+        return tx != null && tx.readOnly();
+    }
+
+    private String resolveKey(Method method, Object[] args, String parameterName) {
+        String[] names = parameterNames.getParameterNames(method);
+        if (names == null) {
+            return null;
+        }
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(parameterName)) {
+                return args[i] != null ? String.valueOf(args[i]) : null;
+            }
+        }
+        log.warn("⚠️ Parameter '{}' not found on {} - read-your-writes guard skipped", parameterName, method);
+        return null;
+    }
+}
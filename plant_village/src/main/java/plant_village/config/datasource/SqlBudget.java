@@ -0,0 +1,23 @@
+package plant_village.config.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares how many JDBC statements one request to a controller method (or every method of a
+ * controller) is expected to need. {@link SqlBudgetFilter} logs requests that exceed it;
+ * undeclared handlers use app.sql-budget.default-statements.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface SqlBudget {
+
+    /**
+     * Maximum statements per request
+     */
+    int statements();
+}
@@ -0,0 +1,65 @@
+package plant_village.config.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+/**
+ * SQL statement budget instrumentation (on by default, app.sql-budget.enabled=false turns it off)
+ *
+ * - The "dataSource" bean (Boot's pool, or the routing proxy when a replica is configured)
+ *   is wrapped in a {@link StatementCountingDataSource}, so every JDBC statement is seen once
+ * - {@link SqlBudgetFilter} runs first in the filter chain, so security filter queries count too
+ * - {@link SqlBudgetInterceptor} records each controller call with its declared budget
+ *
+ * Properties:
+ *   app.sql-budget.default-statements  budget for handlers without @SqlBudget (default 20)
+ *   app.sql-budget.repeat-threshold    same SQL this many times = possible N+1 (default 10)
+ *   app.sql-budget.headers             X-SQL-* response headers, for dev (default false)
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "app.sql-budget", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SqlBudgetConfig implements WebMvcConfigurer {
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new SqlBudgetInterceptor());
+    }
+
+    @Bean
+    public static BeanPostProcessor statementCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource
+                        && !(bean instanceof StatementCountingDataSource)) {
+                    log.info("✅ SQL statement counting enabled on '{}' ({})", beanName, bean.getClass().getSimpleName());
+                    return new StatementCountingDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlBudgetFilter> sqlBudgetFilter(
+            @Value("${app.sql-budget.default-statements:20}") int defaultStatements,
+            @Value("${app.sql-budget.repeat-threshold:10}") int repeatThreshold,
+            @Value("${app.sql-budget.headers:false}") boolean headers) {
+        FilterRegistrationBean<SqlBudgetFilter> registration =
+                new FilterRegistrationBean<>(new SqlBudgetFilter(defaultStatements, repeatThreshold, headers));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
@@ -0,0 +1,207 @@
+package plant_village.config.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Map;
+
+/**
+ * Per-request SQL statement budget
+ *
+ * Opens a {@link SqlStatementStats} scope for every request and, when it ends:
+ * - logs a warning if the request executed more statements than its budget
+ *   ({@link SqlBudget} on the handler, else app.sql-budget.default-statements)
+ * - logs a possible N+1 when one SQL text ran at least app.sql-budget.repeat-threshold times
+ * With app.sql-budget.headers=true (dev) the counts are also sent as X-SQL-* response headers.
+ * Headers are written when the body starts, so statements issued while the body streams
+ * (or on async threads) appear in the log line but not in the headers.
+ */
+@Slf4j
+public class SqlBudgetFilter extends OncePerRequestFilter {
+
+    public static final String HEADER_STATEMENTS = "X-SQL-Statements";
+    public static final String HEADER_ROWS = "X-SQL-Rows";
+    public static final String HEADER_TIME = "X-SQL-Time-Ms";
+    public static final String HEADER_BUDGET = "X-SQL-Budget";
+
+    private final int defaultBudget;
+    private final int repeatThreshold;
+    private final boolean headers;
+
+    public SqlBudgetFilter(int defaultBudget, int repeatThreshold, boolean headers) {
+        this.defaultBudget = defaultBudget;
+        this.repeatThreshold = repeatThreshold;
+        this.headers = headers;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlStatementStats previous = SqlStatementStats.begin();
+        SqlStatementStats stats = SqlStatementStats.current();
+        HttpServletResponse target = headers ? new HeaderWritingResponse(response, request, stats) : response;
+        try {
+            chain.doFilter(request, target);
+        } finally {
+            if (target instanceof HeaderWritingResponse wrapper) {
+                wrapper.writeHeaders();
+            }
+            report(request, stats);
+            SqlStatementStats.end(previous);
+        }
+    }
+
+    private void report(HttpServletRequest request, SqlStatementStats stats) {
+        if (stats.getStatements() == 0) {
+            return;
+        }
+        int budget = budgetOf(request);
+        Map.Entry<String, Integer> repeated = stats.mostRepeated().orElse(null);
+        boolean overBudget = stats.getStatements() > budget;
+        boolean nPlusOne = repeated != null && repeated.getValue() >= repeatThreshold;
+        if (!overBudget && !nPlusOne) {
+            log.debug("SQL {} {} - {} statements, {} rows, {} ms", request.getMethod(), request.getRequestURI(),
+                    stats.getStatements(), stats.getRows(), stats.getMillis());
+            return;
+        }
+        log.warn("🐢 SQL {} {} [{}] - {} statements (budget {}), {} rows, {} ms{}",
+                request.getMethod(), request.getRequestURI(), handlerName(request),
+                stats.getStatements(), budget, stats.getRows(), stats.getMillis(),
+                nPlusOne ? " - possible N+1, x" + repeated.getValue() + ": " + abbreviate(repeated.getKey()) : "");
+    }
+
+    private int budgetOf(HttpServletRequest request) {
+        if (request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handler) {
+            SqlBudget budget = SqlBudgetInterceptor.budgetOf(handler);
+            if (budget != null) {
+                return budget.statements();
+            }
+        }
+        return defaultBudget;
+    }
+
+    private static String handlerName(HttpServletRequest request) {
+        if (request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handler) {
+            return SqlBudgetInterceptor.name(handler);
+        }
+        return "-";
+    }
+
+    private static String abbreviate(String sql) {
+        return sql.length() > 200 ? sql.substring(0, 200) + "..." : sql;
+    }
+
+    /**
+     * Adds the X-SQL-* headers just before the first body byte (or at the end for empty bodies)
+     */
+    private class HeaderWritingResponse extends HttpServletResponseWrapper {
+        private final HttpServletRequest request;
+        private final SqlStatementStats stats;
+        private boolean written;
+        private ServletOutputStream outputStream;
+
+        HeaderWritingResponse(HttpServletResponse response, HttpServletRequest request, SqlStatementStats stats) {
+            super(response);
+            this.request = request;
+            this.stats = stats;
+        }
+
+        void writeHeaders() {
+            if (written || isCommitted()) {
+                return;
+            }
+            written = true;
+            HttpServletResponse response = (HttpServletResponse) getResponse();
+            response.setHeader(HEADER_STATEMENTS, String.valueOf(stats.getStatements()));
+            response.setHeader(HEADER_ROWS, String.valueOf(stats.getRows()));
+            response.setHeader(HEADER_TIME, String.valueOf(stats.getMillis()));
+            response.setHeader(HEADER_BUDGET, String.valueOf(budgetOf(request)));
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                ServletOutputStream delegate = super.getOutputStream();
+                // Jackson asks for the stream before serializing; lazy loads during serialization
+                // still happen before its first write, so the headers are set on that write
+                outputStream = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        writeHeaders();
+                        delegate.write(b);
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        writeHeaders();
+                        delegate.write(b, off, len);
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        writeHeaders();
+                        delegate.flush();
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        writeHeaders();
+                        delegate.close();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return delegate.isReady();
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener listener) {
+                        delegate.setWriteListener(listener);
+                    }
+                };
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeaders();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeaders();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeaders();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeHeaders();
+            super.sendRedirect(location);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package plant_village.config.datasource;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Records every handler call in the current {@link SqlStatementStats} scope, with the
+ * {@link SqlBudget} declared on the handler and the statements executed from the handler
+ * being picked until the response is complete (including lazy loads during JSON serialization).
+ *
+ * The request scope of {@link SqlBudgetFilter} and the test scope of SqlBudgetExtension both read
+ * these records, so tests enforce the same budget the production log warns about.
+ */
+public class SqlBudgetInterceptor implements HandlerInterceptor {
+
+    private static final String START_ATTRIBUTE = SqlBudgetInterceptor.class.getName() + ".start";
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        SqlStatementStats stats = SqlStatementStats.current();
+        if (stats != null && handler instanceof HandlerMethod) {
+            request.setAttribute(START_ATTRIBUTE, stats.getStatements());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        SqlStatementStats stats = SqlStatementStats.current();
+        if (stats != null && handler instanceof HandlerMethod method
+                && request.getAttribute(START_ATTRIBUTE) instanceof Integer start) {
+            request.removeAttribute(START_ATTRIBUTE);
+            SqlBudget budget = budgetOf(method);
+            stats.recordHandler(name(method), budget != null ? budget.statements() : null,
+                    stats.getStatements() - start);
+        }
+    }
+
+    /**
+     * {@link SqlBudget} of the handler method, else of its controller, else null
+     */
+    static SqlBudget budgetOf(HandlerMethod handler) {
+        SqlBudget budget = AnnotatedElementUtils.findMergedAnnotation(handler.getMethod(), SqlBudget.class);
+        if (budget == null) {
+            budget = AnnotatedElementUtils.findMergedAnnotation(handler.getBeanType(), SqlBudget.class);
+        }
+        return budget;
+    }
+
+    static String name(HandlerMethod handler) {
+        return handler.getBeanType().getSimpleName() + "." + handler.getMethod().getName();
+    }
+}
@@ -0,0 +1,123 @@
+package plant_village.config.datasource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * JDBC work done on the current thread while a scope is open (one HTTP request, see {@link SqlBudgetFilter}).
+ *
+ * Filled by {@link StatementCountingDataSource}: statements executed, rows read or affected, time spent
+ * in execute calls, and how often each SQL text was executed. The same SQL repeated many times in
+ * one request is the usual N+1 signature (a lazy association loaded row by row).
+ * Threads without an open scope are not counted.
+ */
+public final class SqlStatementStats {
+
+    // Distinct SQL texts tracked per scope (bounds memory for dynamic SQL)
+    private static final int MAX_DISTINCT_SQL = 200;
+
+    private static final ThreadLocal<SqlStatementStats> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long rows;
+    private long nanos;
+    private final Map<String, Integer> executionsBySql = new LinkedHashMap<>();
+    private final List<HandlerCall> handlerCalls = new ArrayList<>();
+
+    /**
+     * One controller call in this scope (see {@link SqlBudgetInterceptor})
+     *
+     * @param handler    Controller.method
+     * @param budget     Statements declared with {@link SqlBudget}, null when the handler declares none
+     * @param statements Statements executed by the call
+     */
+    public record HandlerCall(String handler, Integer budget, int statements) {
+
+        public boolean overBudget() {
+            return budget != null && statements > budget;
+        }
+    }
+
+    private SqlStatementStats() {
+    }
+
+    /**
+     * Open a scope on the current thread
+     *
+     * @return previous scope (usually null), to be passed to {@link #end(SqlStatementStats)}
+     */
+    public static SqlStatementStats begin() {
+        SqlStatementStats previous = CURRENT.get();
+        CURRENT.set(new SqlStatementStats());
+        return previous;
+    }
+
+    public static void end(SqlStatementStats previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    /**
+     * Scope of the current thread, null when none is open
+     */
+    public static SqlStatementStats current() {
+        return CURRENT.get();
+    }
+
+    void recordExecution(String sql, long elapsedNanos) {
+        statements++;
+        nanos += elapsedNanos;
+        if (sql != null && (executionsBySql.size() < MAX_DISTINCT_SQL || executionsBySql.containsKey(sql))) {
+            executionsBySql.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    void recordHandler(String handler, Integer budget, int handlerStatements) {
+        handlerCalls.add(new HandlerCall(handler, budget, handlerStatements));
+    }
+
+    void recordRows(long count) {
+        rows += count;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getMillis() {
+        return nanos / 1_000_000;
+    }
+
+    /**
+     * Controller calls in this scope, in order
+     */
+    public List<HandlerCall> getHandlerCalls() {
+        return Collections.unmodifiableList(handlerCalls);
+    }
+
+    /**
+     * Distinct SQL texts executed in this scope, in order of first execution
+     */
+    public Set<String> getExecutedSql() {
+        return Collections.unmodifiableSet(executionsBySql.keySet());
+    }
+
+    /**
+     * SQL text executed most often in this scope, with its count
+     */
+    public Optional<Map.Entry<String, Integer>> mostRepeated() {
+        return executionsBySql.entrySet().stream().max(Map.Entry.comparingByValue());
+    }
+}
@@ -0,0 +1,141 @@
+package plant_village.config.datasource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * DataSource wrapper that reports JDBC work to the current {@link SqlStatementStats} scope.
+ *
+ * Connections, statements and result sets are JDK proxies around the pooled objects:
+ * - execute / executeQuery / executeUpdate / executeBatch count one statement each and are timed
+ * - ResultSet.next() returning true and update counts add to the row total
+ * Without an open scope every call goes straight to the delegate apart from one ThreadLocal read.
+ */
+public class StatementCountingDataSource extends DelegatingDataSource {
+
+    private static final Set<String> STATEMENT_FACTORIES = Set.of("createStatement", "prepareStatement", "prepareCall");
+
+    public StatementCountingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(Connection.class, obtainTargetDataSource().getConnection(), new ConnectionHandler());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(Connection.class, obtainTargetDataSource().getConnection(username, password), new ConnectionHandler());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T wrap(Class<T> type, T target, DelegatingHandler handler) {
+        handler.target = target;
+        return (T) Proxy.newProxyInstance(StatementCountingDataSource.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private abstract static class DelegatingHandler implements InvocationHandler {
+        Object target;
+
+        @Override
+        public final Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            // Identity semantics for the proxy itself (Hibernate keeps statements in hash maps)
+            if ("equals".equals(method.getName()) && args != null && args.length == 1) {
+                return proxy == args[0];
+            }
+            if ("hashCode".equals(method.getName()) && args == null) {
+                return System.identityHashCode(proxy);
+            }
+            return handle(method, args);
+        }
+
+        abstract Object handle(Method method, Object[] args) throws Throwable;
+
+        Object call(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+
+    private static class ConnectionHandler extends DelegatingHandler {
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            Object result = call(method, args);
+            if (result instanceof Statement statement && STATEMENT_FACTORIES.contains(method.getName())) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                return wrapStatement(statement, (Class<?>) method.getReturnType(), sql);
+            }
+            return result;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object wrapStatement(Statement statement, Class<?> type, String sql) {
+        return wrap((Class<Statement>) type, statement, new StatementHandler(sql));
+    }
+
+    private static class StatementHandler extends DelegatingHandler {
+        private final String preparedSql;
+
+        StatementHandler(String preparedSql) {
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            SqlStatementStats stats = SqlStatementStats.current();
+            if (stats == null) {
+                return call(method, args);
+            }
+            if (name.startsWith("execute")) {
+                String sql = preparedSql != null ? preparedSql
+                        : (args != null && args.length > 0 && args[0] instanceof String s ? s : null);
+                long start = System.nanoTime();
+                Object result = call(method, args);
+                stats.recordExecution(sql, System.nanoTime() - start);
+                if (result instanceof Integer count && count > 0) {
+                    stats.recordRows(count);
+                } else if (result instanceof Long count && count > 0) {
+                    stats.recordRows(count);
+                } else if (result instanceof int[] counts) {
+                    stats.recordRows(Arrays.stream(counts).filter(c -> c > 0).sum());
+                } else if (result instanceof ResultSet resultSet) {
+                    return wrap(ResultSet.class, resultSet, new ResultSetHandler());
+                }
+                return result;
+            }
+            if ("getResultSet".equals(name)) {
+                Object result = call(method, args);
+                return result instanceof ResultSet resultSet ? wrap(ResultSet.class, resultSet, new ResultSetHandler()) : result;
+            }
+            return call(method, args);
+        }
+    }
+
+    private static class ResultSetHandler extends DelegatingHandler {
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            Object result = call(method, args);
+            if ("next".equals(method.getName()) && Boolean.TRUE.equals(result)) {
+                SqlStatementStats stats = SqlStatementStats.current();
+                if (stats != null) {
+                    stats.recordRows(1);
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package plant_village.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import plant_village.dto.ArchivedPredictionDTO;
+import plant_village.service.PredictionArchiveService;
+import plant_village.util.JsonStreamWriter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Archive Controller
+ * Admin endpoints for the prediction archive (restricted to ADMIN by /api/admin/**)
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/admin/archive")
+@RequiredArgsConstructor
+@Tag(name = "Archive", description = "Prediction archival and archive lookup (admin)")
+public class ArchiveController {
+
+    private final PredictionArchiveService archiveService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Run the archival job now (same job as the nightly schedule)
+     * POST /api/admin/archive/run
+     */
+    @PostMapping("/run")
+    @Operation(summary = "Archive old predictions now")
+    public ResponseEntity<Map<String, Object>> runArchive() {
+        Map<String, Object> summary = archiveService.archiveOldPredictions();
+        HttpStatus status = "ALREADY_RUNNING".equals(summary.get("status")) ? HttpStatus.CONFLICT : HttpStatus.OK;
+        return ResponseEntity.status(status).body(summary);
+    }
+
+    /**
+     * Archive statistics and last run summary
+     * GET /api/admin/archive/stats
+     */
+    @GetMapping("/stats")
+    @Operation(summary = "Get archive statistics")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        return ResponseEntity.ok(archiveService.getArchiveStats());
+    }
+
+    /**
+     * Look up one archived prediction by ID
+     * GET /api/admin/archive/predictions/{predictionId}
+     */
+    @GetMapping("/predictions/{predictionId}")
+    @Operation(summary = "Get an archived prediction by ID")
+    public ResponseEntity<?> getArchivedPrediction(@PathVariable Integer predictionId) {
+        return archiveService.getArchivedById(predictionId)
+            .<ResponseEntity<?>>map(ResponseEntity::ok)
+            .orElseGet(() -> {
+                Map<String, Object> error = new HashMap<>();
+                error.put("success", false);
+                error.put("message", "Archived prediction not found: " + predictionId);
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+            });
+    }
+
+    /**
+     * Stream all archived predictions of a user, newest first
+     * GET /api/admin/archive/users/{userId}?format=json|ndjson
+     */
+    @GetMapping("/users/{userId}")
+    @Operation(summary = "Stream archived predictions of a user")
+    public ResponseEntity<StreamingResponseBody> getArchivedByUser(
+            @PathVariable Integer userId,
+            @RequestParam(defaultValue = "json") String format) {
+
+        return JsonStreamWriter.<ArchivedPredictionDTO>response(JsonStreamWriter.Format.from(format), objectMapper,
+            "archived predictions of user " + userId,
+            (gen, row) -> gen.writeObject(row),
+            sink -> archiveService.streamArchivedByUser(userId, sink));
+    }
+}
@@ -0,0 +1,73 @@
+package plant_village.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import plant_village.service.DatasetPackagerService;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Dataset Controller
+ * Admin endpoints for the sharded training dataset (restricted to ADMIN by /api/admin/**)
+ */
+@RestController
+@RequestMapping("/api/admin/dataset")
+@RequiredArgsConstructor
+@Tag(name = "Dataset", description = "Sharded training dataset packaging (admin)")
+public class DatasetController {
+
+    private final DatasetPackagerService packagerService;
+
+    /**
+     * Pack exported images that are not in a shard yet (same job as the nightly schedule)
+     * POST /api/admin/dataset/pack
+     */
+    @PostMapping("/pack")
+    @Operation(summary = "Pack new training images into shards")
+    public ResponseEntity<Map<String, Object>> pack() {
+        Map<String, Object> summary = packagerService.packNewImages();
+        HttpStatus status = "ALREADY_RUNNING".equals(summary.get("status")) ? HttpStatus.CONFLICT : HttpStatus.OK;
+        return ResponseEntity.status(status).body(summary);
+    }
+
+    /**
+     * Shard list and totals
+     * GET /api/admin/dataset/stats
+     */
+    @GetMapping("/stats")
+    @Operation(summary = "Get dataset statistics")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        return ResponseEntity.ok(packagerService.getDatasetStats());
+    }
+
+    /**
+     * One sample by global index: image bytes, labels in X-Sample-* headers
+     * GET /api/admin/dataset/samples/{index}
+     */
+    @GetMapping("/samples/{index}")
+    @Operation(summary = "Get a dataset sample by index")
+    public ResponseEntity<?> getSample(@PathVariable long index) {
+        return packagerService.readSample(index)
+            .<ResponseEntity<?>>map(sample -> ResponseEntity.ok()
+                .contentType(MediaTypeFactory.getMediaType(sample.fileName()).orElse(MediaType.APPLICATION_OCTET_STREAM))
+                .header("X-Sample-Shard", sample.shard())
+                .header("X-Sample-File", sample.fileName())
+                .header("X-Sample-Plant", String.valueOf(sample.metadata().get("plant")))
+                .header("X-Sample-Disease", String.valueOf(sample.metadata().get("disease")))
+                .header("X-Sample-Sha256", String.valueOf(sample.metadata().get("sha256")))
+                .body(sample.image()))
+            .orElseGet(() -> {
+                Map<String, Object> error = new HashMap<>();
+                error.put("success", false);
+                error.put("message", "Dataset sample not found: " + index);
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+            });
+    }
+}
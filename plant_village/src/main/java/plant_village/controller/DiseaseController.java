@@ -1,8 +1,10 @@
 package plant_village.controller;
 
 import plant_village.model.Disease;
-import plant_village.repository.DiseaseRepository;
+import plant_village.service.CatalogSearchService;
+import plant_village.service.DiseaseService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
@@ -16,6 +18,7 @@ import java.util.Optional;
  * GET    /api/diseases                    - Get all diseases
  * GET    /api/diseases/{id}               - Get disease by ID
  * GET    /api/diseases/search/{name}      - Search disease by name
+ * GET    /api/diseases/keyword/{keyword}  - Ranked keyword search
  * POST   /api/diseases                    - Create new disease
  * PUT    /api/diseases/{id}               - Update disease
  * DELETE /api/diseases/{id}               - Delete disease
@@ -25,7 +28,13 @@ import java.util.Optional;
 public class DiseaseController {
 
     @Autowired
-    private DiseaseRepository diseaseRepository;
+    private DiseaseService diseaseService;
+
+    @Autowired
+    private CatalogSearchService catalogSearchService;
+
+    @Value("${app.search.max-results:50}")
+    private int maxSearchResults;
 
     /**
      * GET /api/diseases
@@ -33,21 +42,18 @@ public class DiseaseController {
      */
     @GetMapping
     public ResponseEntity<List<Disease>> getAllDiseases() {
-        List<Disease> diseases = diseaseRepository.findAll();
+        List<Disease> diseases = diseaseService.getAllDiseases();
         return ResponseEntity.ok(diseases);
     }
 
     /**
      * GET /api/diseases/{id}
-     * Get disease by ID
+     * Get disease by ID (404 through ResourceNotFoundException)
      */
     @GetMapping("/{id}")
     public ResponseEntity<?> getDiseaseById(@PathVariable Integer id) {
-        Optional<Disease> disease = diseaseRepository.findById(id);
-        if (disease.isPresent()) {
-            return ResponseEntity.ok(disease.get());
-        }
-        return ResponseEntity.notFound().build();
+        Optional<Disease> disease = diseaseService.getDiseaseById(id);
+        return ResponseEntity.ok(disease.get());
     }
 
     /**
@@ -56,20 +62,20 @@ public class DiseaseController {
      */
     @GetMapping("/search/{name}")
     public ResponseEntity<?> searchByName(@PathVariable String name) {
-        Optional<Disease> disease = diseaseRepository.findByDiseaseNameIgnoreCase(name);
-        if (disease.isPresent()) {
-            return ResponseEntity.ok(disease.get());
+        List<Disease> diseases = catalogSearchService.findDiseasesByName(name);
+        if (!diseases.isEmpty()) {
+            return ResponseEntity.ok(diseases.get(0));
         }
         return ResponseEntity.notFound().build();
     }
 
     /**
      * GET /api/diseases/keyword/{keyword}
-     * Search diseases by keyword
+     * Search diseases by keyword (name, symptoms, cause, treatment, medicines), best match first
      */
     @GetMapping("/keyword/{keyword}")
     public ResponseEntity<List<Disease>> searchByKeyword(@PathVariable String keyword) {
-        List<Disease> diseases = diseaseRepository.findByDiseaseNameContainingIgnoreCase(keyword);
+        List<Disease> diseases = catalogSearchService.searchDiseases(keyword, maxSearchResults);
         return ResponseEntity.ok(diseases);
     }
 
@@ -80,7 +86,7 @@ public class DiseaseController {
     @PostMapping
     public ResponseEntity<?> createDisease(@RequestBody Disease disease) {
         try {
-            Disease savedDisease = diseaseRepository.save(disease);
+            Disease savedDisease = diseaseService.createDisease(disease);
             return ResponseEntity.status(201).body(savedDisease);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error creating disease: " + e.getMessage());
@@ -89,35 +95,21 @@ public class DiseaseController {
 
     /**
      * PUT /api/diseases/{id}
-     * Update disease
+     * Update disease (404 through ResourceNotFoundException)
      */
     @PutMapping("/{id}")
     public ResponseEntity<?> updateDisease(@PathVariable Integer id, @RequestBody Disease diseaseDetails) {
-        Optional<Disease> disease = diseaseRepository.findById(id);
-        if (disease.isPresent()) {
-            Disease existingDisease = disease.get();
-            if (diseaseDetails.getDiseaseName() != null) existingDisease.setDiseaseName(diseaseDetails.getDiseaseName());
-            if (diseaseDetails.getSymptomDescription() != null) existingDisease.setSymptomDescription(diseaseDetails.getSymptomDescription());
-            if (diseaseDetails.getCause() != null) existingDisease.setCause(diseaseDetails.getCause());
-            if (diseaseDetails.getTreatment() != null) existingDisease.setTreatment(diseaseDetails.getTreatment());
-            
-            Disease updatedDisease = diseaseRepository.save(existingDisease);
-            return ResponseEntity.ok(updatedDisease);
-        }
-        return ResponseEntity.notFound().build();
+        Disease updatedDisease = diseaseService.updateDisease(id, diseaseDetails);
+        return ResponseEntity.ok(updatedDisease);
     }
 
     /**
      * DELETE /api/diseases/{id}
-     * Delete disease
+     * Delete disease (404 through ResourceNotFoundException)
      */
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteDisease(@PathVariable Integer id) {
-        Optional<Disease> disease = diseaseRepository.findById(id);
-        if (disease.isPresent()) {
-            diseaseRepository.deleteById(id);
-            return ResponseEntity.ok("Disease deleted successfully");
-        }
-        return ResponseEntity.notFound().build();
+        diseaseService.deleteDisease(id);
+        return ResponseEntity.ok("Disease deleted successfully");
     }
 }
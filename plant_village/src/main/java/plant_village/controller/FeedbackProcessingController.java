@@ -0,0 +1,46 @@
+package plant_village.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import plant_village.service.PredictionFeedbackService;
+
+import java.util.Map;
+
+/**
+ * Feedback Processing Controller
+ * Admin endpoints for the pending feedback image job (restricted to ADMIN by /api/admin/**)
+ */
+@RestController
+@RequestMapping("/api/admin/feedback-processing")
+@RequiredArgsConstructor
+@Tag(name = "Feedback Processing", description = "Pending feedback image processing (admin)")
+public class FeedbackProcessingController {
+
+    private final PredictionFeedbackService feedbackService;
+
+    /**
+     * Process pending feedback now (same job as the schedule)
+     * POST /api/admin/feedback-processing/run
+     */
+    @PostMapping("/run")
+    @Operation(summary = "Process pending feedback now")
+    public ResponseEntity<Map<String, Object>> run() {
+        Map<String, Object> summary = feedbackService.processPendingFeedback();
+        HttpStatus status = "ALREADY_RUNNING".equals(summary.get("status")) ? HttpStatus.CONFLICT : HttpStatus.OK;
+        return ResponseEntity.status(status).body(summary);
+    }
+
+    /**
+     * Backlog size, checkpoint and last run summary
+     * GET /api/admin/feedback-processing/status
+     */
+    @GetMapping("/status")
+    @Operation(summary = "Get pending feedback processing status")
+    public ResponseEntity<Map<String, Object>> getStatus() {
+        return ResponseEntity.ok(feedbackService.getPendingFeedbackStatus());
+    }
+}
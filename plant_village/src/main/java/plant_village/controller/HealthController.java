@@ -1,16 +1,29 @@
 package plant_village.controller;
 
+import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import plant_village.config.datasource.ReadWriteRoutingDataSource;
+import plant_village.config.datasource.ReplicaLagGuard;
+import plant_village.model.Disease;
+import plant_village.model.Plant;
 import plant_village.service.FastAPIClientService;
+import plant_village.service.CatalogSearchService;
+import plant_village.service.UserStatsService;
+import plant_village.util.PlantDiseaseCacheManager;
 
 import java.time.Instant;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @Slf4j
@@ -20,6 +33,19 @@ import java.util.Map;
 public class HealthController {
 
     private final FastAPIClientService fastAPIClientService;
+    private final EntityManagerFactory entityManagerFactory;
+    private final UserStatsService userStatsService;
+    private final CatalogSearchService catalogSearchService;
+
+    @Autowired(required = false)
+    private PlantDiseaseCacheManager cacheManager;
+
+    // Present only when a read replica is configured
+    @Autowired(required = false)
+    private ReplicaLagGuard replicaLagGuard;
+
+    @Autowired(required = false)
+    private ReadWriteRoutingDataSource readWriteRoutingDataSource;
 
     @Value("${spring.application.name:RevealPlant}")
     private String applicationName;
@@ -40,4 +66,68 @@ public class HealthController {
         log.info("Health check responded: fastapi={}, status={}", fastApiHealthy, payload.get("status"));
         return ResponseEntity.ok(payload);
     }
-}
\ No newline at end of file
+
+    /**
+     * GET /api/health/cache
+     * Second-level cache hit ratios for Plant/Disease and their finder queries, plus the user stats cache
+     * and the catalog search index size
+     */
+    @GetMapping("/health/cache")
+    public ResponseEntity<Map<String, Object>> cacheStats() {
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("plant", regionStats(stats, Plant.class.getName()));
+        payload.put("disease", regionStats(stats, Disease.class.getName()));
+        payload.put("queries", ratio(stats.getQueryCacheHitCount(), stats.getQueryCacheMissCount(),
+                stats.getQueryCachePutCount()));
+        payload.put("queryExecutions", stats.getQueryExecutionCount());
+        if (cacheManager != null) {
+            payload.put("lookupCache", cacheManager.getHitStats());
+        }
+        payload.put("userStats", userStatsService.getCacheStats());
+        payload.put("catalogSearch", catalogSearchService.getStats());
+        payload.put("timestamp", Instant.now().toString());
+        return ResponseEntity.ok(payload);
+    }
+
+    /**
+     * GET /api/health/datasource
+     * Read/write routing status: replica health, lag and routed connection counts
+     */
+    @GetMapping("/health/datasource")
+    public ResponseEntity<Map<String, Object>> dataSourceStatus() {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("replicaConfigured", replicaLagGuard != null);
+        if (replicaLagGuard != null) {
+            payload.putAll(replicaLagGuard.getStatus());
+        }
+        if (readWriteRoutingDataSource != null) {
+            payload.put("routes", readWriteRoutingDataSource.getRouteCounts());
+        }
+        payload.put("timestamp", Instant.now().toString());
+        return ResponseEntity.ok(payload);
+    }
+
+    private Map<String, Object> regionStats(Statistics stats, String regionName) {
+        CacheRegionStatistics region = stats.getCacheRegionStatistics(regionName);
+        if (region == null) {
+            return Map.of("enabled", false);
+        }
+        Map<String, Object> result = ratio(region.getHitCount(), region.getMissCount(), region.getPutCount());
+        if (region.getElementCountInMemory() >= 0) { // JCache regions report NO_EXTENDED_STAT_SUPPORT_RETURN
+            result.put("entries", region.getElementCountInMemory());
+        }
+        return result;
+    }
+
+    private Map<String, Object> ratio(long hits, long misses, long puts) {
+        long total = hits + misses;
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("hits", hits);
+        result.put("misses", misses);
+        result.put("puts", puts);
+        result.put("hitRatio", total == 0 ? 0.0 : (double) hits / total);
+        return result;
+    }
+}
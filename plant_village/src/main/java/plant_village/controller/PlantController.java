@@ -8,6 +8,7 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import plant_village.dto.ApiResponse;
 import plant_village.dto.PlantResponse;
+import plant_village.dto.PlantSuggestion;
 import plant_village.model.Plant;
 import plant_village.service.PlantService;
 
@@ -100,6 +101,43 @@ public class PlantController {
         }
     }
 
+    /**
+     * GET /api/plants/autocomplete?q=tom&limit=10
+     * Top-k suggestions for the search box (plant name, scientific name or alias prefix)
+     */
+    @GetMapping("/autocomplete")
+    public ResponseEntity<ApiResponse<List<PlantSuggestion>>> autocomplete(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        try {
+            return ResponseEntity.ok(ApiResponse.success(plantService.autocomplete(q, limit)));
+        } catch (Exception e) {
+            log.error("Error in plant autocomplete {}: {}", q, e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(ApiResponse.error(HttpStatus.INTERNAL_SERVER_ERROR.value(), e.getMessage()));
+        }
+    }
+
+    /**
+     * GET /api/plants/keyword/{keyword}
+     * Ranked keyword search over name, scientific name, description and care tips
+     */
+    @GetMapping("/keyword/{keyword}")
+    public ResponseEntity<ApiResponse<List<PlantResponse>>> searchByKeyword(@PathVariable String keyword) {
+        try {
+            List<PlantResponse> responses = plantService.searchByKeyword(keyword).stream()
+                .map(this::convertToResponse)
+                .collect(Collectors.toList());
+            
+            log.info("Found {} plants matching keyword: {}", responses.size(), keyword);
+            return ResponseEntity.ok(ApiResponse.success(responses));
+        } catch (Exception e) {
+            log.error("Error searching plants by keyword {}: {}", keyword, e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(ApiResponse.error(HttpStatus.INTERNAL_SERVER_ERROR.value(), e.getMessage()));
+        }
+    }
+
     /**
      * POST /api/plants
      * Create new plant (admin)
@@ -9,19 +9,48 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import plant_village.model.Prediction;
 import plant_village.model.PredictionFeedback;
-import plant_village.model.PredictionLog;
 import plant_village.model.User;
-import plant_village.repository.PredictionLogRepository;
+import plant_village.dto.AnalyzeRequest;
+import plant_village.dto.AnalyzeResponse;
+import plant_village.dto.BulkFeedbackResult;
+import plant_village.dto.FeedbackCreateRequest;
+import plant_village.dto.FeedbackListRow;
+import plant_village.dto.LogResponse;
+import plant_village.service.IdempotencyService;
+import plant_village.service.PredictionArchiveService;
+import plant_village.service.PredictionLogService;
 import plant_village.service.PredictionService;
 import plant_village.service.PredictionFeedbackService;
+import plant_village.service.ThumbnailService;
 import plant_village.service.UserService;
+import plant_village.util.ImageDataUrl;
+import plant_village.util.JsonStreamWriter;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.time.LocalDateTime;
 import lombok.extern.slf4j.Slf4j;
 
@@ -34,15 +63,29 @@ public class PredictionController {
     private final PredictionService predictionService;
     private final UserService userService;
     private final PredictionFeedbackService feedbackService;
-    private final PredictionLogRepository logRepository;
+    private final PredictionLogService logService;
+    private final ObjectMapper objectMapper;
+    private final PredictionArchiveService archiveService;
+    private final ThumbnailService thumbnailService;
+    private final IdempotencyService idempotencyService;
+
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
 
     @Autowired
     public PredictionController(PredictionService predictionService, UserService userService, 
-                                PredictionFeedbackService feedbackService, PredictionLogRepository logRepository) {
+                                PredictionFeedbackService feedbackService, PredictionLogService logService,
+                                ObjectMapper objectMapper, PredictionArchiveService archiveService,
+                                ThumbnailService thumbnailService, IdempotencyService idempotencyService) {
         this.predictionService = predictionService;
         this.userService = userService;
         this.feedbackService = feedbackService;
-        this.logRepository = logRepository;
+        this.logService = logService;
+        this.objectMapper = objectMapper;
+        this.archiveService = archiveService;
+        this.thumbnailService = thumbnailService;
+        this.idempotencyService = idempotencyService;
     }
 
     /**
@@ -71,14 +114,104 @@ public class PredictionController {
 
     /**
      * Retrieves all prediction history for a user.
-     * GET /api/predictions/history/{userId}
+     * GET /api/predictions/history/{userId}?includeArchived=false&images=full&size=256
+     * Archived predictions are read from the archive files only when asked for, and streamed
+     * after the live history (they are always older) one archive file at a time, so the response
+     * never holds the whole archived history in memory. Their inline images are never returned:
+     * uploadedImageUrl holds GET /api/predictions/{id}/image instead.
+     * With images=thumbnail, uploadedImageUrl holds the thumbnail URL instead of the base64
+     * image and the images are not read from the database at all.
      * @param userId User ID specified in the path
-     * @return Prediction list and HTTP 200 OK
+     * @param includeArchived Also return predictions moved to the archive (default false)
+     * @param images full (inline images, default) or thumbnail (thumbnail URLs)
+     * @param size Thumbnail size in pixels (images=thumbnail only)
+     * @return Streamed prediction list (JSON array) and HTTP 200 OK
      */
     @GetMapping("/history/{userId}")
-    public ResponseEntity<List<Prediction>> getPredictionHistory(@PathVariable Integer userId) {
-        List<Prediction> history = predictionService.getPredictionHistory(userId);
-        return new ResponseEntity<>(history, HttpStatus.OK);
+    public ResponseEntity<StreamingResponseBody> getPredictionHistory(@PathVariable Integer userId,
+                                                                      @RequestParam(defaultValue = "false") boolean includeArchived,
+                                                                      @RequestParam(defaultValue = "full") String images,
+                                                                      @RequestParam(defaultValue = "256") int size) {
+        boolean thumbnails = "thumbnail".equalsIgnoreCase(images);
+        int thumbnailSize = thumbnailService.resolveSize(size);
+        // Looked up before streaming starts, so an unknown user is still a 404
+        List<Prediction> history = thumbnails
+            ? predictionService.getPredictionHistoryPreview(userId, thumbnailSize)
+            : predictionService.getPredictionHistory(userId);
+        return JsonStreamWriter.response(JsonStreamWriter.Format.JSON, objectMapper, "prediction history",
+            JsonGenerator::writeObject,
+            sink -> {
+                history.forEach(sink);
+                if (!includeArchived) {
+                    return;
+                }
+                archiveService.streamArchivedByUser(userId, a -> sink.accept(Prediction.builder()
+                    .id(a.getPredictionId())
+                    .userId(a.getUserId())
+                    .predictionType(a.getPredictionType())
+                    .confidence(a.getConfidence())
+                    .uploadedImageUrl(!ImageDataUrl.isDataUrl(a.getUploadedImageUrl()) ? a.getUploadedImageUrl()
+                        : thumbnails ? ThumbnailService.url(a.getPredictionId(), thumbnailSize)
+                        : imageUrl(a.getPredictionId()))
+                    .createAt(a.getCreateAt())
+                    .isValid(a.getIsValid())
+                    .build()));
+            });
+    }
+
+    /**
+     * JPEG thumbnail of a prediction image (created on first request)
+     * GET /api/predictions/{predictionId}/thumbnail?size=256
+     * Cached by clients for a year (prediction images never change); revalidation with
+     * If-None-Match is answered with 304 Not Modified.
+     * @param predictionId Prediction ID (live or archived)
+     * @param size Requested size - the nearest configured size (app.thumbnails.sizes) is used
+     * @return JPEG thumbnail, or 404 when the prediction has no decodable inline image
+     */
+    @GetMapping("/{predictionId}/thumbnail")
+    public ResponseEntity<Resource> getThumbnail(@PathVariable Integer predictionId,
+                                                 @RequestParam(defaultValue = "256") int size) {
+        Optional<ThumbnailService.Thumbnail> thumbnail =
+            thumbnailService.getThumbnail(predictionId, thumbnailService.resolveSize(size));
+        if (thumbnail.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        // Conditional requests: Spring answers 304 when If-None-Match matches the ETag
+        return ResponseEntity.ok()
+            .contentType(MediaType.IMAGE_JPEG)
+            .contentLength(thumbnail.get().length())
+            .eTag(thumbnail.get().etag())
+            .cacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePrivate().immutable())
+            .body(new FileSystemResource(thumbnail.get().file()));
+    }
+
+    private static String imageUrl(Integer predictionId) {
+        return "/api/predictions/" + predictionId + "/image";
+    }
+
+    /**
+     * Original image of a prediction (detail views, referenced by list views in thumbnail mode)
+     * GET /api/predictions/{predictionId}/image
+     * @param predictionId Prediction ID (live or archived)
+     * @return Decoded image bytes, or 404 when the prediction has no inline image
+     *         (served as application/octet-stream unless the stored type is jpeg, png, gif, bmp or webp)
+     */
+    @GetMapping("/{predictionId}/image")
+    public ResponseEntity<byte[]> getImage(@PathVariable Integer predictionId) {
+        Optional<String> image = predictionService.findById(predictionId)
+            .map(Prediction::getUploadedImageUrl)
+            .or(() -> archiveService.getArchivedById(predictionId).map(a -> a.getUploadedImageUrl()));
+        if (image.isEmpty() || !ImageDataUrl.isDataUrl(image.get())) {
+            return ResponseEntity.notFound().build();
+        }
+
+        byte[] bytes = ImageDataUrl.decode(image.get());
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(ImageDataUrl.servedContentType(image.get())))
+            .header("X-Content-Type-Options", "nosniff")
+            .eTag("\"" + DigestUtils.md5DigestAsHex(bytes) + "\"")
+            .cacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePrivate().immutable())
+            .body(bytes);
     }
 
     /**
@@ -162,64 +295,87 @@ public class PredictionController {
         }
     }
 
+    /**
+     * Submit feedback for many predictions in one request (e.g. mobile clients syncing)
+     * POST /api/predictions/feedback/bulk
+     * Body: [{"predictionId": 1, "isCorrect": true, "comment": "..."}, ...]
+     * @param items Feedback items (comment is optional, isCorrect defaults to false)
+     * @return Per-item results in request order (CREATED with feedbackId, NOT_FOUND or INVALID) and counts
+     */
+    @PostMapping("/feedback/bulk")
+    public ResponseEntity<Map<String, Object>> submitFeedbackBulk(@RequestBody List<FeedbackCreateRequest> items) {
+        List<BulkFeedbackResult> results = feedbackService.bulkSubmitFeedback(items);
+        return new ResponseEntity<>(bulkResponse(results), HttpStatus.OK);
+    }
+
     /**
      * Get all feedback (admin only)
-     * GET /api/predictions/feedback/all
-     * @return List of all feedback with prediction and user details
+     * GET /api/predictions/feedback/all?images=full&size=128&format=json|ndjson
+     * Rows are streamed from a database cursor, newest first. Every item carries thumbnailUrl.
+     * With images=thumbnail, uploadedImageUrl is the URL of the original image
+     * (GET /api/predictions/{predictionId}/image) and no base64 image is read from the database.
+     * @param images full (inline images, default) or thumbnail (image URLs only)
+     * @param size Thumbnail size in pixels
+     * @param format json (array, default) or ndjson (one object per line)
+     * @return Streamed list of all feedback with prediction and user details
      */
     @GetMapping("/feedback/all")
-    public ResponseEntity<?> getAllFeedback() {
-        try {
-            List<PredictionFeedback> feedbacks = feedbackService.getAllFeedback();
-            
-            // Convert to detailed DTOs with user and prediction info
-            List<Map<String, Object>> feedbackDTOs = feedbacks.stream().map(fb -> {
-                Map<String, Object> dto = new HashMap<>();
-                dto.put("feedbackId", fb.getFeedbackId());
-                dto.put("predictionId", fb.getPrediction() != null ? fb.getPrediction().getId() : null);
-                dto.put("isCorrect", fb.getIsCorrect());
-                dto.put("isApprovedFromAdmin", fb.getIsApprovedFromAdmin());
-                dto.put("comment", fb.getComment());
-                dto.put("createdAt", fb.getCreatedAt() != null ? fb.getCreatedAt().toString() : null);
-                
-                // User Information (via prediction.user)
-                if (fb.getUser() != null) {
-                    Map<String, Object> userInfo = new HashMap<>();
-                    userInfo.put("userId", fb.getUser().getId());
-                    userInfo.put("userName", fb.getUser().getUserName());
-                    userInfo.put("email", fb.getUser().getEmail());
-                    dto.put("user", userInfo);
-                } else {
-                    Map<String, Object> userInfo = new HashMap<>();
-                    userInfo.put("userId", 0);
-                    userInfo.put("userName", "Anonymous");
-                    userInfo.put("email", "anonymous@reveal-plant.com");
-                    dto.put("user", userInfo);
-                }
-                
-                // Prediction Information
-                if (fb.getPrediction() != null) {
-                    Map<String, Object> predInfo = new HashMap<>();
-                    Prediction pred = fb.getPrediction();
-                    predInfo.put("id", pred.getId());
-                    predInfo.put("uploadedImageUrl", pred.getUploadedImageUrl());
-                    predInfo.put("predictionType", pred.getPredictionType());
-                    predInfo.put("confidence", pred.getConfidence());
-                    dto.put("prediction", predInfo);
-                    dto.put("uploadedImageUrl", pred.getUploadedImageUrl());
-                }
-                
-                return dto;
-            }).collect(java.util.stream.Collectors.toList());
-            
-            log.info("📋 Retrieved {} feedbacks with details", feedbackDTOs.size());
-            return new ResponseEntity<>(feedbackDTOs, HttpStatus.OK);
-        } catch (Exception e) {
-            log.error("❌ Error getting feedbacks: {}", e.getMessage(), e);
-            Map<String, String> error = new HashMap<>();
-            error.put("error", e.getMessage());
-            return new ResponseEntity<>(error, HttpStatus.INTERNAL_SERVER_ERROR);
+    public ResponseEntity<StreamingResponseBody> getAllFeedback(@RequestParam(defaultValue = "full") String images,
+                                                                @RequestParam(defaultValue = "128") int size,
+                                                                @RequestParam(defaultValue = "json") String format) {
+        boolean thumbnails = "thumbnail".equalsIgnoreCase(images);
+        int thumbnailSize = thumbnailService.resolveSize(size);
+
+        return JsonStreamWriter.<FeedbackListRow>response(JsonStreamWriter.Format.from(format), objectMapper, "feedbacks",
+            (gen, row) -> writeFeedbackRow(gen, row, thumbnails, thumbnailSize),
+            sink -> feedbackService.streamAllFeedback(!thumbnails, sink));
+    }
+
+    /**
+     * Write one feedback row with its user (Anonymous when the prediction has none) and prediction
+     */
+    private static void writeFeedbackRow(JsonGenerator gen, FeedbackListRow row,
+                                         boolean thumbnails, int thumbnailSize) throws IOException {
+        String imageUrl = row.getImage();
+        String thumbnailUrl = imageUrl;
+        if (ImageDataUrl.isDataUrl(imageUrl)) {
+            thumbnailUrl = ThumbnailService.url(row.getPredictionId(), thumbnailSize);
+            if (thumbnails) {
+                imageUrl = "/api/predictions/" + row.getPredictionId() + "/image";
+            }
+        }
+
+        gen.writeStartObject();
+        gen.writeObjectField("feedbackId", row.getFeedbackId());
+        gen.writeObjectField("predictionId", row.getPredictionId());
+        gen.writeObjectField("isCorrect", row.getIsCorrect());
+        gen.writeObjectField("isApprovedFromAdmin", row.getIsApprovedFromAdmin());
+        gen.writeStringField("comment", row.getComment());
+        gen.writeStringField("createdAt", row.getCreatedAt() != null ? row.getCreatedAt().toString() : null);
+
+        // User Information (via prediction.user)
+        gen.writeObjectFieldStart("user");
+        if (row.getUserId() != null) {
+            gen.writeObjectField("userId", row.getUserId());
+            gen.writeStringField("userName", row.getUserName());
+            gen.writeStringField("email", row.getEmail());
+        } else {
+            gen.writeNumberField("userId", 0);
+            gen.writeStringField("userName", "Anonymous");
+            gen.writeStringField("email", "anonymous@reveal-plant.com");
         }
+        gen.writeEndObject();
+
+        // Prediction Information
+        gen.writeObjectFieldStart("prediction");
+        gen.writeObjectField("id", row.getPredictionId());
+        gen.writeStringField("uploadedImageUrl", imageUrl);
+        gen.writeStringField("predictionType", row.getPredictionType());
+        gen.writeObjectField("confidence", row.getConfidence());
+        gen.writeEndObject();
+        gen.writeStringField("uploadedImageUrl", imageUrl);
+        gen.writeStringField("thumbnailUrl", thumbnailUrl);
+        gen.writeEndObject();
     }
 
     /**
@@ -314,13 +470,57 @@ public class PredictionController {
         }
     }
 
+    /**
+     * Approve many feedback by admin
+     * PUT /api/predictions/feedback/bulk/approve
+     * Body: [feedbackId, ...]
+     * @param feedbackIds Feedback IDs to approve (duplicates are ignored)
+     * @return Per-ID results (APPROVED or NOT_FOUND) and counts
+     */
+    @PutMapping("/feedback/bulk/approve")
+    public ResponseEntity<Map<String, Object>> approveFeedbackBulk(@RequestBody List<Integer> feedbackIds) {
+        List<BulkFeedbackResult> results = feedbackService.bulkApproveFeedback(feedbackIds);
+        return new ResponseEntity<>(bulkResponse(results), HttpStatus.OK);
+    }
+
+    /**
+     * Reject/Delete many feedback by admin
+     * POST /api/predictions/feedback/bulk/reject
+     * Body: [feedbackId, ...]
+     * @param feedbackIds Feedback IDs to delete (duplicates are ignored)
+     * @return Per-ID results (REJECTED or NOT_FOUND) and counts
+     */
+    @PostMapping("/feedback/bulk/reject")
+    public ResponseEntity<Map<String, Object>> rejectFeedbackBulk(@RequestBody List<Integer> feedbackIds) {
+        List<BulkFeedbackResult> results = feedbackService.bulkRejectFeedback(feedbackIds);
+        return new ResponseEntity<>(bulkResponse(results), HttpStatus.OK);
+    }
+
+    private static Map<String, Object> bulkResponse(List<BulkFeedbackResult> results) {
+        Map<BulkFeedbackResult.Status, Integer> counts = new EnumMap<>(BulkFeedbackResult.Status.class);
+        for (BulkFeedbackResult result : results) {
+            counts.merge(result.getStatus(), 1, Integer::sum);
+        }
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("success", true);
+        response.put("requested", results.size());
+        response.put("counts", counts);
+        response.put("results", results);
+        return response;
+    }
+
     /**
      * Analyze plant image using ML model (Frontend endpoint)
      * POST /api/predictions/analyze
      * Workflow: Image → FastAPI → %50 Rule → Tree + Stack + Hash Map → Response
      * 
-     * @param request Map containing imageBase64, predictionType, userId, description
-     * @return Frontend-compatible response with predicted_class, confidence, top_predictions
+     * With an Idempotency-Key header, a retry of the same request (same user and payload) gets the
+     * original response - or waits for it while it is still running - without another inference or
+     * another Prediction row. Replayed responses carry "Idempotent-Replayed: true".
+     *
+     * @param request imageBase64, predictionType, userId, description (see AnalyzeRequest for defaults)
+     * @param idempotencyKey Optional client-generated key (e.g. a UUID per upload), at most 255 characters
+     * @return Frontend-compatible AnalyzeResponse with predicted_class, confidence, top_predictions
      */
     @Operation(
         summary = "Analyze plant disease from image",
@@ -333,13 +533,23 @@ public class PredictionController {
         @ApiResponse(
             responseCode = "200",
             description = "Analysis successful - Returns predicted disease and confidence score",
-            content = @Content(mediaType = "application/json", schema = @Schema(implementation = Map.class))
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = AnalyzeResponse.class))
         ),
         @ApiResponse(
             responseCode = "400",
             description = "Invalid request - Missing required fields (imageBase64)",
             content = @Content(mediaType = "application/json")
         ),
+        @ApiResponse(
+            responseCode = "409",
+            description = "A request with the same Idempotency-Key is still running - retry later",
+            content = @Content(mediaType = "application/json")
+        ),
+        @ApiResponse(
+            responseCode = "422",
+            description = "Idempotency-Key was already used for a different request",
+            content = @Content(mediaType = "application/json")
+        ),
         @ApiResponse(
             responseCode = "500",
             description = "Internal server error - ML model or database failure",
@@ -357,13 +567,56 @@ public class PredictionController {
                               "\"description\": \"Uploaded plant image\"}"
                 )
             )
-            @RequestBody Map<String, Object> request) {
-        
+            @RequestBody AnalyzeRequest request,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return analyze(request);
+        }
+        if (idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", IDEMPOTENCY_KEY_HEADER + " is longer than " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+            return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+        }
+
+        // Keys are scoped per user; only successful responses are kept for later retries
+        IdempotencyService.Result<ResponseEntity<?>> result = idempotencyService.<ResponseEntity<?>>execute(
+            "analyze:" + request.getUserId() + ":" + idempotencyKey,
+            fingerprint(request),
+            () -> analyze(request),
+            response -> response.getStatusCode().is2xxSuccessful());
+
+        switch (result.outcome()) {
+            case REPLAYED -> {
+                ResponseEntity<?> original = result.value();
+                return ResponseEntity.status(original.getStatusCode())
+                    .headers(original.getHeaders())
+                    .header(IDEMPOTENT_REPLAYED_HEADER, "true")
+                    .body(original.getBody());
+            }
+            case IN_PROGRESS -> {
+                Map<String, String> error = new HashMap<>();
+                error.put("error", "A request with this " + IDEMPOTENCY_KEY_HEADER + " is still in progress");
+                return ResponseEntity.status(HttpStatus.CONFLICT).header(HttpHeaders.RETRY_AFTER, "5").body(error);
+            }
+            case KEY_REUSED -> {
+                Map<String, String> error = new HashMap<>();
+                error.put("error", IDEMPOTENCY_KEY_HEADER + " was already used for a different request");
+                return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(error);
+            }
+            default -> {
+                return result.value();
+            }
+        }
+    }
+
+    /**
+     * Analysis workflow of POST /api/predictions/analyze: ML inference, Prediction and log rows, response
+     */
+    private ResponseEntity<?> analyze(AnalyzeRequest request) {
         try {
-            String imageBase64 = (String) request.get("imageBase64");
-            String predictionType = (String) request.getOrDefault("predictionType", "detect-disease");
-            Integer userId = (Integer) request.getOrDefault("userId", 0);
-            String description = (String) request.getOrDefault("description", "Uploaded plant image");
+            String predictionType = request.getPredictionType();
+            Integer userId = request.getUserId();
             
             log.info("📸 Analyzing plant image for user: {}, type: {}", userId, predictionType);
             
@@ -371,28 +624,26 @@ public class PredictionController {
             plant_village.model.dto.PredictionResult predictionResult = predictionService.predictPlantDisease(
                 userId,
                 null,
-                imageBase64,
-                description,
+                request.getImageBase64(),
+                request.getDescription(),
                 predictionType
             );
             
             Prediction prediction = predictionResult.getPrediction();
             java.util.List<plant_village.model.dto.DiseasePrediction> allMlPredictions = predictionResult.getAllPredictions();
 
-            // Build response matching frontend expectations
-            Map<String, Object> response = new HashMap<>();
-
             // Use predictionType field which contains the actual ML result (e.g., "Tomato___Leaf_Mold")
             String predictedClass = prediction.getPredictionType() != null ? prediction.getPredictionType() : "Unknown";
-            response.put("predicted_class", predictedClass);
-            response.put("confidence", prediction.getConfidence() != null ? prediction.getConfidence() : 0.0);
-            response.put("is_valid", prediction.getIsValid());
-
             // Determine isHealthy from predicted class name
             boolean isHealthy = predictedClass.toLowerCase().contains("healthy");
-            response.put("is_healthy", isHealthy);
-            response.put("description", "Analysis completed");
-            response.put("prediction_id", prediction.getId());
+
+            AnalyzeResponse.AnalyzeResponseBuilder response = AnalyzeResponse.builder()
+                .predictedClass(predictedClass)
+                .confidence(prediction.getConfidence() != null ? prediction.getConfidence() : 0.0)
+                .isValid(prediction.getIsValid())
+                .isHealthy(isHealthy)
+                .description("Analysis completed")
+                .predictionId(prediction.getId());
 
             // Get cache manager for both plant and disease lookups
             plant_village.util.PlantDiseaseCacheManager cacheManager = predictionService instanceof plant_village.service.impl.PredictionServiceImpl ? 
@@ -400,36 +651,17 @@ public class PredictionController {
 
             // Plant identification mode - add plant information
             if ("identify-plant".equals(predictionType)) {
-                String plantName = parsePlantNameFromMLFormat(predictedClass);
-                String plantDescription = "";
-                String scientificName = "";
-                String careTips = "";
-                String wateringFrequency = "";
-                String sunlightRequirement = "";
-                String soilType = "";
-                String hardinessZone = "";
-                
-                if (cacheManager != null) {
-                    java.util.Optional<plant_village.model.Plant> plantOpt = cacheManager.getPlantByName(plantName);
-                    if (plantOpt.isPresent()) {
-                        plant_village.model.Plant plant = plantOpt.get();
-                        plantDescription = plant.getDescription() != null ? plant.getDescription() : "";
-                        scientificName = plant.getScientificName() != null ? plant.getScientificName() : "";
-                        careTips = plant.getCareTips() != null ? plant.getCareTips() : "";
-                        wateringFrequency = plant.getWateringFrequency() != null ? plant.getWateringFrequency() : "";
-                        sunlightRequirement = plant.getSunlightRequirement() != null ? plant.getSunlightRequirement() : "";
-                        soilType = plant.getSoilType() != null ? plant.getSoilType() : "";
-                        hardinessZone = plant.getHardinessZone() != null ? plant.getHardinessZone() : "";
-                    }
-                }
-                
-                response.put("plant_description", plantDescription);
-                response.put("scientific_name", scientificName);
-                response.put("care_tips", careTips);
-                response.put("watering_frequency", wateringFrequency);
-                response.put("sunlight_requirement", sunlightRequirement);
-                response.put("soil_type", soilType);
-                response.put("hardiness_zone", hardinessZone);
+                plant_village.model.Plant plant = cacheManager != null
+                    ? cacheManager.getPlantByName(parsePlantNameFromMLFormat(predictedClass)).orElse(null)
+                    : null;
+                response
+                    .plantDescription(plant != null ? nullToEmpty(plant.getDescription()) : "")
+                    .scientificName(plant != null ? nullToEmpty(plant.getScientificName()) : "")
+                    .careTips(plant != null ? nullToEmpty(plant.getCareTips()) : "")
+                    .wateringFrequency(plant != null ? nullToEmpty(plant.getWateringFrequency()) : "")
+                    .sunlightRequirement(plant != null ? nullToEmpty(plant.getSunlightRequirement()) : "")
+                    .soilType(plant != null ? nullToEmpty(plant.getSoilType()) : "")
+                    .hardinessZone(plant != null ? nullToEmpty(plant.getHardinessZone()) : "");
             }
 
             // Disease detection mode - add disease info for main result (top1)
@@ -443,22 +675,21 @@ public class PredictionController {
                         plant_village.model.Disease disease = diseaseOpt.get();
                         symptomDescription = disease.getSymptomDescription();
                         treatment = disease.getTreatment();
-                        recommendedMedicines = disease.getRecommendedMedicines() != null ? disease.getRecommendedMedicines() : "";
+                        recommendedMedicines = nullToEmpty(disease.getRecommendedMedicines());
                     }
                 }
             }
-            response.put("symptom_description", symptomDescription);
-            response.put("treatment", treatment);
-            response.put("recommended_medicines", recommendedMedicines);
+            response.symptomDescription(symptomDescription)
+                .treatment(treatment)
+                .recommendedMedicines(recommendedMedicines);
 
             // Build "Other Possibilities" from ALL ML predictions (not just DB saved ones)
-            List<Map<String, Object>> topPredictions = new java.util.ArrayList<>();
+            List<AnalyzeResponse.Alternative> topPredictions = new java.util.ArrayList<>(3);
             
             if (allMlPredictions != null && !allMlPredictions.isEmpty()) {
                 // Skip first one (already shown as main result), show rest as "Other Possibilities"
                 for (int i = 1; i < allMlPredictions.size() && i < 4; i++) {  // Top 3 alternatives
                     plant_village.model.dto.DiseasePrediction dp = allMlPredictions.get(i);
-                    Map<String, Object> p = new HashMap<>();
                     
                     String className = dp.getDisease();
                     // Normalize for display
@@ -466,35 +697,26 @@ public class PredictionController {
                         className = parsePlantNameFromMLFormat(className);
                     }
                     
-                    p.put("class_name", className);
-                    p.put("probability", dp.getConfidenceScore() != null ? dp.getConfidenceScore() : 0.0);
-                    
                     // Try to get disease info from cache
-                    String altSymptoms = "";
-                    String altTreatment = "";
-                    String altMedicines = "";
-                    if (cacheManager != null && "detect-disease".equals(predictionType)) {
-                        java.util.Optional<plant_village.model.Disease> altDiseaseOpt = cacheManager.getDiseaseByName(dp.getDisease());
-                        if (altDiseaseOpt.isPresent()) {
-                            plant_village.model.Disease altDisease = altDiseaseOpt.get();
-                            altSymptoms = altDisease.getSymptomDescription() != null ? altDisease.getSymptomDescription() : "";
-                            altTreatment = altDisease.getTreatment() != null ? altDisease.getTreatment() : "";
-                            altMedicines = altDisease.getRecommendedMedicines() != null ? altDisease.getRecommendedMedicines() : "";
-                        }
-                    }
+                    plant_village.model.Disease altDisease = cacheManager != null && "detect-disease".equals(predictionType)
+                        ? cacheManager.getDiseaseByName(dp.getDisease()).orElse(null)
+                        : null;
                     
-                    p.put("symptom_description", altSymptoms);
-                    p.put("treatment", altTreatment);
-                    p.put("recommended_medicines", altMedicines);
-                    topPredictions.add(p);
+                    topPredictions.add(AnalyzeResponse.Alternative.builder()
+                        .className(className)
+                        .probability(dp.getConfidenceScore() != null ? dp.getConfidenceScore() : 0.0)
+                        .symptomDescription(altDisease != null ? nullToEmpty(altDisease.getSymptomDescription()) : "")
+                        .treatment(altDisease != null ? nullToEmpty(altDisease.getTreatment()) : "")
+                        .recommendedMedicines(altDisease != null ? nullToEmpty(altDisease.getRecommendedMedicines()) : "")
+                        .build());
                 }
             }
-            response.put("top_predictions", topPredictions);
+            response.topPredictions(topPredictions);
 
             log.info("✅ Prediction successful: ID={}, isValid={}, isHealthy={}, confidence={}, otherPossibilities={}", 
                 prediction.getId(), prediction.getIsValid(), isHealthy, prediction.getConfidence(), topPredictions.size());
 
-            return new ResponseEntity<>(response, HttpStatus.OK);
+            return new ResponseEntity<>(response.build(), HttpStatus.OK);
             
         } catch (Exception e) {
             log.error("❌ Prediction error: {}", e.getMessage(), e);
@@ -507,6 +729,23 @@ public class PredictionController {
         }
     }
 
+    /**
+     * SHA-256 of the analyze request fields, to tell a retry from a different request reusing a key
+     */
+    private static String fingerprint(AnalyzeRequest request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : new String[]{String.valueOf(request.getUserId()), request.getPredictionType(),
+                                            request.getDescription(), request.getImageBase64()}) {
+                digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
     /**
      * Parse plant name from ML model format
      * Converts: "Tomato___Leaf_Mold" → "Tomato"
@@ -537,6 +776,10 @@ public class PredictionController {
         return plantPart.replace("_", " ").trim();
     }
 
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
     /**
      * Submit feedback for a prediction
      * POST /api/predictions/feedback
@@ -601,50 +844,53 @@ public class PredictionController {
 
     /**
      * Get all prediction logs (admin only)
-     * GET /api/predictions/logs/all
-     * @return List of all prediction logs
+     * GET /api/predictions/logs/all?from=&to=&actionType=&format=json|ndjson
+     * Logs are streamed from a database cursor and written row by row,
+     * so memory stays flat regardless of how many logs exist.
+     * @param from Optional ISO date-time lower bound (inclusive)
+     * @param to Optional ISO date-time upper bound (exclusive)
+     * @param actionType Optional exact action type filter (e.g. PREDICTION_CREATED)
+     * @param format json (array, default) or ndjson (one object per line)
+     * @return Streamed list of prediction logs
      */
     @GetMapping("/logs/all")
-    public ResponseEntity<?> getAllLogs() {
-        try {
-            List<PredictionLog> logs = logRepository.findAll();
-            
-            // Convert to DTOs to avoid JSON serialization issues
-            List<Map<String, Object>> logDTOs = logs.stream().map(logEntry -> {
-                Map<String, Object> dto = new HashMap<>();
-                dto.put("id", logEntry.getId());
-                dto.put("predictionId", logEntry.getPrediction() != null ? logEntry.getPrediction().getId() : null);
-                dto.put("adminUserId", null);
-                dto.put("adminUserName", "System");
-                dto.put("actionType", logEntry.getActionType());
-                dto.put("timestamp", logEntry.getTimestamp() != null ? logEntry.getTimestamp().toString() : null);
-                
-                // Determine log level based on action type
-                String level = "INFO";
-                if (logEntry.getActionType() != null) {
-                    if (logEntry.getActionType().contains("ERROR") || logEntry.getActionType().contains("FAIL")) {
-                        level = "ERROR";
-                    } else if (logEntry.getActionType().contains("WARNING") || logEntry.getActionType().contains("INVALID")) {
-                        level = "WARNING";
-                    }
-                }
-                dto.put("level", level);
-                
-                // Create message from action type
-                String message = logEntry.getActionType() != null ? logEntry.getActionType() : "Unknown action";
-                dto.put("message", message);
-                
-                return dto;
-            }).collect(java.util.stream.Collectors.toList());
-            
-            log.info("📋 Retrieved {} prediction logs", logDTOs.size());
-            return new ResponseEntity<>(logDTOs, HttpStatus.OK);
-        } catch (Exception e) {
-            log.error("❌ Error getting logs: {}", e.getMessage(), e);
-            Map<String, String> error = new HashMap<>();
-            error.put("error", e.getMessage());
-            return new ResponseEntity<>(error, HttpStatus.INTERNAL_SERVER_ERROR);
+    public ResponseEntity<StreamingResponseBody> getAllLogs(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String actionType,
+            @RequestParam(defaultValue = "json") String format) {
+        
+        return JsonStreamWriter.response(JsonStreamWriter.Format.from(format), objectMapper, "prediction logs",
+            PredictionController::writeLogRow,
+            sink -> logService.streamLogs(from, to, actionType, sink));
+    }
+
+    /**
+     * Write one log row in the shape the admin page expects
+     */
+    private static void writeLogRow(JsonGenerator gen, LogResponse logEntry) throws IOException {
+        String actionType = logEntry.getActionType();
+        
+        // Determine log level based on action type
+        String level = "INFO";
+        if (actionType != null) {
+            if (actionType.contains("ERROR") || actionType.contains("FAIL")) {
+                level = "ERROR";
+            } else if (actionType.contains("WARNING") || actionType.contains("INVALID")) {
+                level = "WARNING";
+            }
         }
+        
+        gen.writeStartObject();
+        gen.writeObjectField("id", logEntry.getLogId());
+        gen.writeObjectField("predictionId", logEntry.getPredictionId());
+        gen.writeNullField("adminUserId");
+        gen.writeStringField("adminUserName", "System");
+        gen.writeStringField("actionType", actionType);
+        gen.writeStringField("timestamp", logEntry.getTimestamp() != null ? logEntry.getTimestamp().toString() : null);
+        gen.writeStringField("level", level);
+        gen.writeStringField("message", logEntry.getMessage());
+        gen.writeEndObject();
     }
 
     /**
@@ -654,10 +900,11 @@ public class PredictionController {
     @PostMapping("/approve-images")
     @Operation(
         summary = "Approve and save correct prediction images",
-        description = "Retrieves all feedback marked as correct (isCorrect=true) and saves the associated prediction images to approve_img folder"
+        description = "Exports images of feedback marked as correct (isCorrect=true) added since the last run to the approve_img folder, named by content hash and listed in approve_img/manifest.tsv"
     )
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Images approval process completed"),
+        @ApiResponse(responseCode = "409", description = "An export is already running"),
         @ApiResponse(responseCode = "500", description = "Error processing images")
     })
     public ResponseEntity<Map<String, Object>> approveCorrectImages() {
@@ -665,6 +912,9 @@ public class PredictionController {
             log.info("🖼️ Starting image approval process for correct predictions");
             Map<String, Object> result = feedbackService.approveCorrectImages();
             
+            if ("ALREADY_RUNNING".equals(result.get("status"))) {
+                return new ResponseEntity<>(result, HttpStatus.CONFLICT);
+            }
             if ("success".equals(result.get("status"))) {
                 log.info("✅ Image approval completed successfully - {} images saved", result.get("successCount"));
                 return new ResponseEntity<>(result, HttpStatus.OK);
@@ -2,15 +2,20 @@ package plant_village.controller;
 
 import plant_village.model.PredictionDisease;
 import plant_village.model.PredictionDiseaseId;
+import plant_village.config.datasource.SqlBudget;
 import plant_village.model.dto.PredictionDiseaseDTO;
 import plant_village.repository.PredictionDiseaseRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.transaction.annotation.Transactional;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 /**
  * PredictionDisease Controller
@@ -19,10 +24,10 @@ import java.util.stream.Collectors;
  * Handles relationship between Predictions and Diseases (with composite key)
  * 
  * Endpoints:
- * GET    /api/prediction-diseases                            - Get all prediction-disease relationships
+ * GET    /api/prediction-diseases                            - Page of prediction-disease relationships
  * GET    /api/prediction-diseases/{predictionId}/{diseaseId} - Get by composite key
  * GET    /api/prediction-diseases/prediction/{id}            - Get diseases for a prediction
- * GET    /api/prediction-diseases/disease/{id}               - Get predictions for a disease
+ * GET    /api/prediction-diseases/disease/{id}               - Page of predictions for a disease
  * POST   /api/prediction-diseases                            - Create new relationship
  * PUT    /api/prediction-diseases/{predictionId}/{diseaseId} - Update relationship
  * DELETE /api/prediction-diseases/{predictionId}/{diseaseId} - Delete relationship
@@ -34,23 +39,21 @@ public class PredictionDiseaseController {
     @Autowired
     private PredictionDiseaseRepository predictionDiseaseRepository;
 
+    @Value("${app.pagination.max-page-size:200}")
+    private int maxPageSize;
+
     /**
-     * GET /api/prediction-diseases
-     * Get all prediction-disease relationships
+     * GET /api/prediction-diseases?page=0&size=50
+     * Get prediction-disease relationships, one page at a time (newest prediction first)
      */
     @GetMapping
     @Transactional(readOnly = true)
-    public ResponseEntity<List<PredictionDiseaseDTO>> getAllPredictionDiseases() {
-        List<PredictionDisease> relationships = predictionDiseaseRepository.findAll();
-        List<PredictionDiseaseDTO> dtoList = relationships.stream()
-            .map(pd -> PredictionDiseaseDTO.builder()
-                .predictionId(pd.getPredictionId())
-                .diseaseId(pd.getDiseaseId())
-                .diseaseName(pd.getDisease() != null ? pd.getDisease().getDiseaseName() : null)
-                .isHealthy(pd.getIsHealthy())
-                .build())
-            .collect(Collectors.toList());
-        return ResponseEntity.ok(dtoList);
+    @SqlBudget(statements = 2)
+    public ResponseEntity<Map<String, Object>> getAllPredictionDiseases(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        Page<PredictionDiseaseDTO> result = predictionDiseaseRepository.findDtoPage(pageRequest(page, size));
+        return ResponseEntity.ok(toPageResponse(result));
     }
 
     /**
@@ -82,36 +85,24 @@ public class PredictionDiseaseController {
      */
     @GetMapping("/prediction/{predictionId}")
     @Transactional(readOnly = true)
+    @SqlBudget(statements = 1)
     public ResponseEntity<List<PredictionDiseaseDTO>> getDiseasesByPrediction(@PathVariable Integer predictionId) {
-        List<PredictionDisease> relationships = predictionDiseaseRepository.findByPredictionId(predictionId);
-        List<PredictionDiseaseDTO> dtoList = relationships.stream()
-            .map(pd -> PredictionDiseaseDTO.builder()
-                .predictionId(pd.getPredictionId())
-                .diseaseId(pd.getDiseaseId())
-                .diseaseName(pd.getDisease() != null ? pd.getDisease().getDiseaseName() : null)
-                .isHealthy(pd.getIsHealthy())
-                .build())
-            .collect(Collectors.toList());
-        return ResponseEntity.ok(dtoList);
+        return ResponseEntity.ok(predictionDiseaseRepository.findDtosByPredictionId(predictionId));
     }
 
     /**
-     * GET /api/prediction-diseases/disease/{diseaseId}
-     * Get all predictions linked to a disease
+     * GET /api/prediction-diseases/disease/{diseaseId}?page=0&size=50
+     * Get predictions linked to a disease, one page at a time (newest first)
      */
     @GetMapping("/disease/{diseaseId}")
     @Transactional(readOnly = true)
-    public ResponseEntity<List<PredictionDiseaseDTO>> getPredictionsByDisease(@PathVariable Integer diseaseId) {
-        List<PredictionDisease> relationships = predictionDiseaseRepository.findByDiseaseId(diseaseId);
-        List<PredictionDiseaseDTO> dtoList = relationships.stream()
-            .map(pd -> PredictionDiseaseDTO.builder()
-                .predictionId(pd.getPredictionId())
-                .diseaseId(pd.getDiseaseId())
-                .diseaseName(pd.getDisease() != null ? pd.getDisease().getDiseaseName() : null)
-                .isHealthy(pd.getIsHealthy())
-                .build())
-            .collect(Collectors.toList());
-        return ResponseEntity.ok(dtoList);
+    @SqlBudget(statements = 2)
+    public ResponseEntity<Map<String, Object>> getPredictionsByDisease(
+            @PathVariable Integer diseaseId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        Page<PredictionDiseaseDTO> result = predictionDiseaseRepository.findDtoPageByDiseaseId(diseaseId, pageRequest(page, size));
+        return ResponseEntity.ok(toPageResponse(result));
     }
 
     /**
@@ -183,4 +174,18 @@ public class PredictionDiseaseController {
         }
         return ResponseEntity.notFound().build();
     }
+
+    private PageRequest pageRequest(int page, int size) {
+        return PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), maxPageSize));
+    }
+
+    private Map<String, Object> toPageResponse(Page<?> page) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("content", page.getContent());
+        response.put("page", page.getNumber());
+        response.put("size", page.getSize());
+        response.put("totalElements", page.getTotalElements());
+        response.put("totalPages", page.getTotalPages());
+        return response;
+    }
 }
@@ -1,12 +1,23 @@
 package plant_village.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import plant_village.dto.FeedbackListRow;
+import plant_village.dto.LogResponse;
 import plant_village.model.PredictionFeedback;
 import plant_village.model.PredictionLog;
 import plant_village.repository.PredictionFeedbackRepository;
 import plant_village.repository.PredictionLogRepository;
+import plant_village.service.PredictionFeedbackService;
+import plant_village.service.PredictionLogService;
+import plant_village.util.JsonStreamWriter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,7 +26,7 @@ import java.util.Optional;
  * Base URL: /api/feedbacks
  * 
  * Endpoints:
- * GET    /api/feedbacks                    - Get all feedbacks
+ * GET    /api/feedbacks                    - Stream all feedbacks (format: json|ndjson)
  * GET    /api/feedbacks/{id}               - Get feedback by ID
  * GET    /api/feedbacks/prediction/{id}    - Get feedbacks for prediction
  * POST   /api/feedbacks                    - Create new feedback
@@ -29,14 +40,44 @@ public class PredictionFeedbackController {
     @Autowired
     private PredictionFeedbackRepository feedbackRepository;
 
+    @Autowired
+    private PredictionFeedbackService feedbackService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     /**
-     * GET /api/feedbacks
-     * Get all feedbacks
+     * GET /api/feedbacks?format=json|ndjson
+     * Stream all feedbacks (newest first) with their prediction, read through a database cursor
      */
     @GetMapping
-    public ResponseEntity<List<PredictionFeedback>> getAllFeedbacks() {
-        List<PredictionFeedback> feedbacks = feedbackRepository.findAll();
-        return ResponseEntity.ok(feedbacks);
+    public ResponseEntity<StreamingResponseBody> getAllFeedbacks(@RequestParam(defaultValue = "json") String format) {
+        return JsonStreamWriter.response(JsonStreamWriter.Format.from(format), objectMapper, "feedbacks",
+            PredictionFeedbackController::writeFeedbackRow,
+            sink -> feedbackService.streamAllFeedback(true, sink));
+    }
+
+    /**
+     * Write one row in the shape of the PredictionFeedback entity (prediction without its user)
+     */
+    private static void writeFeedbackRow(JsonGenerator gen, FeedbackListRow row) throws IOException {
+        gen.writeStartObject();
+        gen.writeObjectField("feedbackId", row.getFeedbackId());
+        gen.writeObjectFieldStart("prediction");
+        gen.writeObjectField("id", row.getPredictionId());
+        gen.writeNullField("userId");
+        gen.writeStringField("predictionType", row.getPredictionType());
+        gen.writeObjectField("confidence", row.getConfidence());
+        gen.writeStringField("uploadedImageUrl", row.getImage());
+        gen.writeObjectField("createAt", row.getPredictionCreateAt());
+        gen.writeObjectField("isValid", row.getPredictionIsValid());
+        gen.writeEndObject();
+        gen.writeObjectField("isCorrect", row.getIsCorrect());
+        gen.writeObjectField("isApprovedFromAdmin", row.getIsApprovedFromAdmin());
+        gen.writeStringField("comment", row.getComment());
+        gen.writeObjectField("createdAt", row.getCreatedAt());
+        gen.writeObjectField("imageAddedToDb", row.getImageAddedToDb());
+        gen.writeEndObject();
     }
 
     /**
@@ -131,7 +172,7 @@ public class PredictionFeedbackController {
  * Base URL: /api/logs
  * 
  * Endpoints:
- * GET    /api/logs                    - Get all logs
+ * GET    /api/logs                    - Stream all logs (filters: from, to, actionType; format: json|ndjson)
  * GET    /api/logs/{id}               - Get log by ID
  * GET    /api/logs/prediction/{id}    - Get logs for prediction
  * POST   /api/logs                    - Create new log
@@ -144,14 +185,28 @@ class PredictionLogController {
     @Autowired
     private PredictionLogRepository logRepository;
 
+    @Autowired
+    private PredictionLogService logService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     /**
      * GET /api/logs
-     * Get all logs
+     * Stream all logs (newest first) with optional time-range and action type filters
+     * Rows are LogResponse objects (logId, predictionId, userId, actionType, timestamp, message),
+     * not PredictionLog entities: the nested "prediction" object (with its base64 image) and the
+     * "id" field are no longer returned - use logId, and GET /api/predictions/{predictionId}/image for the image.
      */
     @GetMapping
-    public ResponseEntity<List<PredictionLog>> getAllLogs() {
-        List<PredictionLog> logs = logRepository.findAll();
-        return ResponseEntity.ok(logs);
+    public ResponseEntity<StreamingResponseBody> getAllLogs(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String actionType,
+            @RequestParam(defaultValue = "json") String format) {
+        return JsonStreamWriter.<LogResponse>response(JsonStreamWriter.Format.from(format), objectMapper, "logs",
+            (gen, row) -> gen.writeObject(row),
+            sink -> logService.streamLogs(from, to, actionType, sink));
     }
 
     /**
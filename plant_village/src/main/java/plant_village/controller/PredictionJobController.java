@@ -0,0 +1,83 @@
+package plant_village.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import plant_village.dto.AnalyzeRequest;
+import plant_village.exception.ServiceUnavailableException;
+import plant_village.service.PredictionJobService;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Prediction Job Controller
+ * Runs a prediction in the background and streams its PredictionStatusUpdate events over
+ * Server-Sent Events - an alternative to the STOMP /topic/predictions/{userId} updates for
+ * clients that only need one-way progress (plain EventSource, no broker, no SockJS).
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/predictions/jobs")
+@RequiredArgsConstructor
+public class PredictionJobController {
+
+    private static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+
+    private final PredictionJobService predictionJobService;
+
+    /**
+     * Queues a prediction job
+     * POST /api/predictions/jobs
+     * @param request Same body as POST /api/predictions/analyze
+     * @return 202 Accepted with the job ID and its events URL (503 when the queue is full)
+     */
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> submit(@RequestBody AnalyzeRequest request) {
+        String jobId = predictionJobService.submit(request);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("jobId", jobId);
+        response.put("eventsUrl", "/api/predictions/jobs/" + jobId + "/events");
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
+    /**
+     * Status events of a prediction job (text/event-stream, event name "status")
+     * GET /api/predictions/jobs/{jobId}/events
+     * Events already published are replayed first - all of them, or those after Last-Event-ID on
+     * reconnect - and the stream completes after COMPLETE or ERROR.
+     * @return Event stream, 404 (unknown or expired job) or 503 (too many connections)
+     */
+    @GetMapping(value = "/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> events(@PathVariable String jobId,
+                                             @RequestHeader(value = LAST_EVENT_ID_HEADER, required = false) String lastEventId) {
+        try {
+            return predictionJobService.subscribe(jobId, parseEventId(lastEventId))
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (ServiceUnavailableException e) {
+            // Handled here: the client only accepts text/event-stream, so no JSON error body
+            log.warn("⚠️ Event stream refused for job {}: {}", jobId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "5")
+                .build();
+        }
+    }
+
+    private static Long parseEventId(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -2,15 +2,20 @@ package plant_village.controller;
 
 import plant_village.model.PredictionPlant;
 import plant_village.model.PredictionPlantId;
+import plant_village.config.datasource.SqlBudget;
 import plant_village.model.dto.PredictionPlantDTO;
 import plant_village.repository.PredictionPlantRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.transaction.annotation.Transactional;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 /**
  * PredictionPlant Controller
@@ -19,10 +24,10 @@ import java.util.stream.Collectors;
  * Handles relationship between Predictions and Plants (with composite key)
  * 
  * Endpoints:
- * GET    /api/prediction-plants                           - Get all prediction-plant relationships
+ * GET    /api/prediction-plants                           - Page of prediction-plant relationships
  * GET    /api/prediction-plants/{predictionId}/{plantId}  - Get by composite key
  * GET    /api/prediction-plants/prediction/{id}           - Get plants for a prediction
- * GET    /api/prediction-plants/plant/{id}                - Get predictions for a plant
+ * GET    /api/prediction-plants/plant/{id}                - Page of predictions for a plant
  * POST   /api/prediction-plants                           - Create new relationship
  * DELETE /api/prediction-plants/{predictionId}/{plantId}  - Delete relationship
  */
@@ -33,22 +38,21 @@ public class PredictionPlantController {
     @Autowired
     private PredictionPlantRepository predictionPlantRepository;
 
+    @Value("${app.pagination.max-page-size:200}")
+    private int maxPageSize;
+
     /**
-     * GET /api/prediction-plants
-     * Get all prediction-plant relationships
+     * GET /api/prediction-plants?page=0&size=50
+     * Get prediction-plant relationships, one page at a time (newest prediction first)
      */
     @GetMapping
     @Transactional(readOnly = true)
-    public ResponseEntity<List<PredictionPlantDTO>> getAllPredictionPlants() {
-        List<PredictionPlant> relationships = predictionPlantRepository.findAll();
-        List<PredictionPlantDTO> dtoList = relationships.stream()
-            .map(pp -> PredictionPlantDTO.builder()
-                .predictionId(pp.getPredictionId())
-                .plantId(pp.getPlantId())
-                .plantName(pp.getPlant() != null ? pp.getPlant().getPlantName() : null)
-                .build())
-            .collect(Collectors.toList());
-        return ResponseEntity.ok(dtoList);
+    @SqlBudget(statements = 2)
+    public ResponseEntity<Map<String, Object>> getAllPredictionPlants(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        Page<PredictionPlantDTO> result = predictionPlantRepository.findDtoPage(pageRequest(page, size));
+        return ResponseEntity.ok(toPageResponse(result));
     }
 
     /**
@@ -79,34 +83,24 @@ public class PredictionPlantController {
      */
     @GetMapping("/prediction/{predictionId}")
     @Transactional(readOnly = true)
+    @SqlBudget(statements = 1)
     public ResponseEntity<List<PredictionPlantDTO>> getPlantsByPrediction(@PathVariable Integer predictionId) {
-        List<PredictionPlant> relationships = predictionPlantRepository.findByPredictionId(predictionId);
-        List<PredictionPlantDTO> dtoList = relationships.stream()
-            .map(pp -> PredictionPlantDTO.builder()
-                .predictionId(pp.getPredictionId())
-                .plantId(pp.getPlantId())
-                .plantName(pp.getPlant() != null ? pp.getPlant().getPlantName() : null)
-                .build())
-            .collect(Collectors.toList());
-        return ResponseEntity.ok(dtoList);
+        return ResponseEntity.ok(predictionPlantRepository.findDtosByPredictionId(predictionId));
     }
 
     /**
-     * GET /api/prediction-plants/plant/{plantId}
-     * Get all predictions linked to a plant
+     * GET /api/prediction-plants/plant/{plantId}?page=0&size=50
+     * Get predictions linked to a plant, one page at a time (newest first)
      */
     @GetMapping("/plant/{plantId}")
     @Transactional(readOnly = true)
-    public ResponseEntity<List<PredictionPlantDTO>> getPredictionsByPlant(@PathVariable Integer plantId) {
-        List<PredictionPlant> relationships = predictionPlantRepository.findByPlantId(plantId);
-        List<PredictionPlantDTO> dtoList = relationships.stream()
-            .map(pp -> PredictionPlantDTO.builder()
-                .predictionId(pp.getPredictionId())
-                .plantId(pp.getPlantId())
-                .plantName(pp.getPlant() != null ? pp.getPlant().getPlantName() : null)
-                .build())
-            .collect(Collectors.toList());
-        return ResponseEntity.ok(dtoList);
+    @SqlBudget(statements = 2)
+    public ResponseEntity<Map<String, Object>> getPredictionsByPlant(
+            @PathVariable Integer plantId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        Page<PredictionPlantDTO> result = predictionPlantRepository.findDtoPageByPlantId(plantId, pageRequest(page, size));
+        return ResponseEntity.ok(toPageResponse(result));
     }
 
     /**
@@ -149,4 +143,18 @@ public class PredictionPlantController {
         }
         return ResponseEntity.notFound().build();
     }
+
+    private PageRequest pageRequest(int page, int size) {
+        return PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), maxPageSize));
+    }
+
+    private Map<String, Object> toPageResponse(Page<?> page) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("content", page.getContent());
+        response.put("page", page.getNumber());
+        response.put("size", page.getSize());
+        response.put("totalElements", page.getTotalElements());
+        response.put("totalPages", page.getTotalPages());
+        return response;
+    }
 }
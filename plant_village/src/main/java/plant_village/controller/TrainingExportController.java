@@ -0,0 +1,60 @@
+package plant_village.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import plant_village.service.TrainingImageExportService;
+import plant_village.service.TrainingImageQueueService;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Training Export Controller
+ * Admin view of the training image export and the background image queue
+ * (restricted to ADMIN by /api/admin/**). Export runs are started with POST /api/predictions/approve-images.
+ */
+@RestController
+@RequestMapping("/api/admin/training-export")
+@RequiredArgsConstructor
+@Tag(name = "Training Export", description = "Approved training image export (admin)")
+public class TrainingExportController {
+
+    private final TrainingImageExportService exportService;
+    private final TrainingImageQueueService queueService;
+
+    /**
+     * Watermark, manifest size and last run summary
+     * GET /api/admin/training-export/status
+     */
+    @GetMapping("/status")
+    @Operation(summary = "Get training image export status")
+    public ResponseEntity<Map<String, Object>> getStatus() {
+        return ResponseEntity.ok(exportService.getExportStatus());
+    }
+
+    /**
+     * Image queue backlog, retries and dead letters
+     * GET /api/admin/training-export/queue
+     */
+    @GetMapping("/queue")
+    @Operation(summary = "Get training image queue status")
+    public ResponseEntity<Map<String, Object>> getQueueStatus() {
+        return ResponseEntity.ok(queueService.getQueueStatus());
+    }
+
+    /**
+     * Requeue all dead-lettered images
+     * POST /api/admin/training-export/queue/retry-dead
+     */
+    @PostMapping("/queue/retry-dead")
+    @Operation(summary = "Retry dead-lettered training images")
+    public ResponseEntity<Map<String, Object>> retryDeadLetters() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("requeued", queueService.retryDeadLetters());
+        return ResponseEntity.ok(response);
+    }
+}
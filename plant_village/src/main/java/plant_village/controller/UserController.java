@@ -1,23 +1,43 @@
 package plant_village.controller;
 
+import plant_village.exception.ConflictException;
+import plant_village.exception.PayloadTooLargeException;
+import plant_village.exception.ResourceNotFoundException;
+import plant_village.exception.ServiceUnavailableException;
+import plant_village.exception.ValidationException;
+import plant_village.dto.UserStatsResponse;
 import plant_village.model.User;
-import plant_village.model.Prediction;
-import plant_village.repository.PredictionRepository;
+import plant_village.service.AccountDeletionService;
+import plant_village.service.AvatarService;
+import plant_village.service.PredictionArchiveService;
+import plant_village.service.UserDataExportService;
 import plant_village.service.UserService;
+import plant_village.service.UserStatsService;
+import plant_village.util.ImageDataUrl;
+import plant_village.util.JsonStreamWriter;
 import plant_village.util.JwtUtil;
+import plant_village.util.UserExportWriter;
 import plant_village.util.XssProtection;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletResponse;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Optional;
-import java.util.List;
 
+@Slf4j
 @RestController
 @RequestMapping("/api/users") 
 public class UserController {
@@ -25,14 +45,27 @@ public class UserController {
     private final UserService userService;
     private final JwtUtil jwtUtil;
     private final XssProtection xssProtection;
-    private final PredictionRepository predictionRepository;
+    private final PredictionArchiveService archiveService;
+    private final UserDataExportService exportService;
+    private final AccountDeletionService accountDeletionService;
+    private final UserStatsService userStatsService;
+    private final ObjectMapper objectMapper;
+    private final AvatarService avatarService;
     
     @Autowired
-    public UserController(UserService userService, JwtUtil jwtUtil, XssProtection xssProtection, PredictionRepository predictionRepository) {
+    public UserController(UserService userService, JwtUtil jwtUtil, XssProtection xssProtection,
+                          PredictionArchiveService archiveService, UserDataExportService exportService,
+                          AccountDeletionService accountDeletionService, UserStatsService userStatsService,
+                          ObjectMapper objectMapper, AvatarService avatarService) {
         this.userService = userService;
         this.jwtUtil = jwtUtil;
         this.xssProtection = xssProtection;
-        this.predictionRepository = predictionRepository;
+        this.archiveService = archiveService;
+        this.exportService = exportService;
+        this.accountDeletionService = accountDeletionService;
+        this.userStatsService = userStatsService;
+        this.objectMapper = objectMapper;
+        this.avatarService = avatarService;
     }
 
     /**
@@ -271,33 +304,17 @@ public class UserController {
 
     /**
      * Get all users (Admin only)
-     * GET /api/users/all
-     * @return list of all users
+     * GET /api/users/all?format=json|ndjson
+     * Users are streamed from a database cursor and written row by row
+     * @param format json (array, default) or ndjson (one object per line)
+     * @return Streamed list of all users (id, userName, email, role, lastLogin)
      */
     @GetMapping("/all")
-    public ResponseEntity<?> getAllUsers() {
-        try {
-            java.util.List<User> users = userService.findAll();
-            
-            // Remove passwords (security)
-            java.util.List<java.util.Map<String, Object>> sanitizedUsers = users.stream()
-                .map(user -> {
-                    java.util.Map<String, Object> userMap = new java.util.HashMap<>();
-                    userMap.put("id", user.getId());
-                    userMap.put("userName", user.getUserName());
-                    userMap.put("email", user.getEmail());
-                    userMap.put("role", user.getRole());
-                    userMap.put("lastLogin", user.getLastLogin());
-                    return userMap;
-                })
-                .collect(java.util.stream.Collectors.toList());
-            
-            return ResponseEntity.ok(sanitizedUsers);
-        } catch (Exception e) {
-            java.util.Map<String, String> error = new java.util.HashMap<>();
-            error.put("error", "Could not load users: " + e.getMessage());
-            return ResponseEntity.status(500).body(error);
-        }
+    public ResponseEntity<StreamingResponseBody> getAllUsers(@RequestParam(defaultValue = "json") String format) {
+        // Projection without password hashes (security)
+        return JsonStreamWriter.response(JsonStreamWriter.Format.from(format), objectMapper, "users",
+            (gen, row) -> gen.writeObject(row),
+            userService::streamUsers);
     }
     
     /**
@@ -557,6 +574,9 @@ public class UserController {
     /**
      * Get user statistics (diagnoses count, etc.)
      * GET /api/users/{userId}/stats
+     * totalDiagnoses = liveDiagnoses + archivedDiagnoses; validDiagnoses, invalidDiagnoses,
+     * healthyCount, diseasedCount, healthyRatio and topDiseases cover live predictions only
+     * (validDiagnoses + invalidDiagnoses = liveDiagnoses).
      * @param userId User ID
      * @return user statistics
      */
@@ -572,26 +592,23 @@ public class UserController {
             
             User user = userOpt.get();
             
-            // Get user's predictions from repository
-            List<Prediction> userPredictions = predictionRepository.findByUser_Id(userId);
+            // Aggregate queries behind a per-user cache (no prediction entities are loaded)
+            UserStatsResponse userStats = userStatsService.getStats(userId);
             
             java.util.Map<String, Object> stats = new java.util.HashMap<>();
             stats.put("userId", user.getId());
 
             stats.put("lastLogin", user.getLastLogin());
-            stats.put("totalDiagnoses", userPredictions.size());
-            
-            // Get last diagnosis date if exists
-            if (!userPredictions.isEmpty()) {
-                java.time.LocalDateTime lastDiagnosisDate = userPredictions.stream()
-                    .map(p -> p.getCreateAt())
-                    .filter(date -> date != null)
-                    .max(java.time.LocalDateTime::compareTo)
-                    .orElse(null);
-                stats.put("lastDiagnosis", lastDiagnosisDate);
-            } else {
-                stats.put("lastDiagnosis", null);
-            }
+            stats.put("totalDiagnoses", userStats.getTotalDiagnoses());
+            stats.put("lastDiagnosis", userStats.getLastDiagnosis());
+            stats.put("liveDiagnoses", userStats.getLiveDiagnoses());
+            stats.put("archivedDiagnoses", userStats.getArchivedDiagnoses());
+            stats.put("validDiagnoses", userStats.getValidDiagnoses());
+            stats.put("invalidDiagnoses", userStats.getInvalidDiagnoses());
+            stats.put("healthyCount", userStats.getHealthyCount());
+            stats.put("diseasedCount", userStats.getDiseasedCount());
+            stats.put("healthyRatio", userStats.getHealthyRatio());
+            stats.put("topDiseases", userStats.getTopDiseases());
             
             return ResponseEntity.ok(stats);
         } catch (Exception e) {
@@ -602,55 +619,53 @@ public class UserController {
     }
 
     /**
-     * Upload user avatar
-     * POST /api/users/avatar
+     * Upload user avatar (multipart, preferred)
+     * POST /api/users/avatar  (multipart/form-data: email, avatar)
+     * The file is streamed to disk with a size cap (app.avatar.max-upload-bytes), cropped to a
+     * square of app.avatar.size pixels and stored as /uploads/avatars/{sha256}.jpg.
+     * @return avatarUrl, 400 for an unreadable image, 413 when the file is too large
+     */
+    @PostMapping(value = "/avatar", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> uploadAvatarFile(@RequestParam("email") String email,
+                                              @RequestPart("avatar") MultipartFile avatar) {
+        return storeAvatar(email, () -> avatar.getInputStream());
+    }
+
+    /**
+     * Upload user avatar as a base64 data URL (legacy clients)
+     * POST /api/users/avatar  (JSON: email, avatar)
+     * Same processing and limits as the multipart upload.
      */
-    @PostMapping("/avatar")
+    @PostMapping(value = "/avatar", consumes = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<?> uploadAvatar(@RequestBody java.util.Map<String, String> request) {
-        try {
-            String email = request.get("email");
-            String base64Image = request.get("avatar");
-            
-            if (email == null || base64Image == null) {
-                return ResponseEntity.badRequest().body(java.util.Map.of("error", "Email and avatar are required"));
-            }
-            
-            // Remove data:image/...;base64, prefix if exists
-            String base64Data = base64Image;
-            if (base64Image.contains(",")) {
-                base64Data = base64Image.split(",")[1];
-            }
-            
-            // Decode base64
-            byte[] imageBytes = java.util.Base64.getDecoder().decode(base64Data);
-            
-            // Create uploads directory if not exists
-            java.nio.file.Path uploadDir = java.nio.file.Paths.get("uploads", "avatars");
-            if (!java.nio.file.Files.exists(uploadDir)) {
-                java.nio.file.Files.createDirectories(uploadDir);
-            }
-            
-            // Generate unique filename
-            String fileName = email.replace("@", "_").replace(".", "_") + "_" + 
-                            System.currentTimeMillis() + ".jpg";
-            java.nio.file.Path filePath = uploadDir.resolve(fileName);
-            
-            // Save file
-            java.nio.file.Files.write(filePath, imageBytes);
-            
-            // Update user's avatar_url
-            User user = userService.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-            
-            user.setAvatarUrl("/uploads/avatars/" + fileName);
-            userService.updateUser(user);
+        String email = request.get("email");
+        String base64Image = request.get("avatar");
+        
+        if (email == null || base64Image == null) {
+            return ResponseEntity.badRequest().body(java.util.Map.of("error", "Email and avatar are required"));
+        }
+        
+        // Remove data:image/...;base64, prefix if exists
+        String base64Data = base64Image.substring(base64Image.indexOf(',') + 1);
+        return storeAvatar(email, () -> new java.io.ByteArrayInputStream(java.util.Base64.getMimeDecoder().decode(base64Data)));
+    }
+
+    private ResponseEntity<?> storeAvatar(String email, java.util.concurrent.Callable<java.io.InputStream> upload) {
+        try (java.io.InputStream in = upload.call()) {
+            String avatarUrl = avatarService.storeAvatar(email, in);
             
             java.util.Map<String, String> response = new java.util.HashMap<>();
             response.put("message", "Avatar uploaded successfully");
-            response.put("avatarUrl", user.getAvatarUrl());
+            response.put("avatarUrl", avatarUrl);
             return ResponseEntity.ok(response);
-            
+        } catch (ValidationException | IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(java.util.Map.of("error", e.getMessage()));
+        } catch (PayloadTooLargeException e) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(java.util.Map.of("error", e.getMessage()));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(java.util.Map.of("error", e.getMessage()));
         } catch (Exception e) {
+            log.error("❌ Avatar upload failed for {}: {}", email, e.getMessage(), e);
             java.util.Map<String, String> error = new java.util.HashMap<>();
             error.put("error", "Could not upload avatar: " + e.getMessage());
             return ResponseEntity.status(500).body(error);
@@ -659,90 +674,165 @@ public class UserController {
 
     /**
      * Export user data (profile + diagnoses/predictions)
-     * GET /api/users/{userId}/export
+     * GET /api/users/{userId}/export?images=ref|zip&gzip=false&includeArchived=true
+     * The export is streamed from a database cursor, so memory stays flat regardless of history size.
+     * Base64 images are never inlined in the JSON: they are either referenced (imageRef, see
+     * GET /api/users/{userId}/export/images/{predictionId}) or written as entries of a ZIP download.
      * @param userId User ID
-     * @return JSON with all user data
+     * @param images ref (JSON with image references, default) or zip (export.json + images/)
+     * @param gzip Gzip the JSON download (ref mode only)
+     * @param includeArchived Also read archived predictions back from the archive files (default true)
+     * @return Streamed JSON, JSON.gz or ZIP with all user data
      */
     @GetMapping("/{userId}/export")
-    public ResponseEntity<?> exportUserData(@PathVariable Integer userId) {
-        try {
-            Optional<User> userOpt = userService.findById(userId);
-            if (userOpt.isEmpty()) {
-                return ResponseEntity.status(404).body(java.util.Map.of("error", "Kullanıcı bulunamadı"));
+    public ResponseEntity<StreamingResponseBody> exportUserData(@PathVariable Integer userId,
+                                                                @RequestParam(defaultValue = "ref") String images,
+                                                                @RequestParam(defaultValue = "false") boolean gzip,
+                                                                @RequestParam(defaultValue = "true") boolean includeArchived) {
+        User user = userService.findById(userId)
+            .orElseThrow(() -> new ResourceNotFoundException("Kullanıcı bulunamadı - ID: " + userId));
+        
+        // Profile data (without sensitive info)
+        java.util.Map<String, Object> profile = new java.util.HashMap<>();
+        profile.put("userName", user.getUserName());
+        profile.put("email", user.getEmail());
+        profile.put("phone", user.getPhone());
+        profile.put("location", user.getLocation());
+        profile.put("bio", user.getBio());
+        profile.put("avatarUrl", user.getAvatarUrl());
+        profile.put("role", user.getRole());
+        profile.put("lastLogin", user.getLastLogin());
+        
+        UserExportWriter.ImageMode imageMode = UserExportWriter.ImageMode.from(images);
+        boolean compress = gzip && imageMode == UserExportWriter.ImageMode.REF;
+        String imageRefBase = "/api/users/" + userId + "/export/images/";
+        
+        StreamingResponseBody body = out -> {
+            try (UserExportWriter writer = new UserExportWriter(out, imageMode, compress, objectMapper, imageRefBase)) {
+                writer.writeProfile(profile);
+                exportService.streamPredictionRows(userId, writer::writePrediction);
+                // Older diagnoses moved out of the hot tables by the archival job
+                if (includeArchived) {
+                    archiveService.streamArchivedByUser(userId, writer::writeArchivedPrediction);
+                }
+                writer.endPredictions();
+                
+                if (imageMode == UserExportWriter.ImageMode.ZIP) {
+                    exportService.streamImages(userId, row -> writer.writeImage(row.getPredictionId(), row.getImage()));
+                    if (includeArchived) {
+                        archiveService.streamArchivedByUser(userId,
+                            a -> writer.writeImage(a.getPredictionId(), a.getUploadedImageUrl()));
+                    }
+                }
+                log.info("📦 User {} export streamed: {} diagnoses, {} images", userId, writer.getTotal(), writer.getImageCount());
+            } catch (Exception e) {
+                // Status line is already sent at this point, just abort the stream
+                log.error("❌ Error streaming export for user {}: {}", userId, e.getMessage(), e);
+                throw e;
             }
-            
-            User user = userOpt.get();
-            
-            // User predictions
-            List<Prediction> predictions = predictionRepository.findByUser_Id(userId);
-            
-            // Build export data
-            java.util.Map<String, Object> exportData = new java.util.HashMap<>();
-            
-            // Profile data (without sensitive info)
-            java.util.Map<String, Object> profile = new java.util.HashMap<>();
-            profile.put("userName", user.getUserName());
-            profile.put("email", user.getEmail());
-            profile.put("phone", user.getPhone());
-            profile.put("location", user.getLocation());
-            profile.put("bio", user.getBio());
-            profile.put("avatarUrl", user.getAvatarUrl());
-            profile.put("role", user.getRole());
-
-            profile.put("lastLogin", user.getLastLogin());
-            exportData.put("profile", profile);
-            
-            // Predictions/Diagnoses data
-            exportData.put("diagnoses", predictions.stream().map(p -> {
-                java.util.Map<String, Object> pred = new java.util.HashMap<>();
-                pred.put("id", p.getId());
-                pred.put("predictionType", p.getPredictionType());
-                pred.put("confidence", p.getConfidence());
-                pred.put("uploadedImageUrl", p.getUploadedImageUrl());
+        };
+        
+        String fileName = "user-" + userId + "-export";
+        MediaType contentType;
+        if (imageMode == UserExportWriter.ImageMode.ZIP) {
+            fileName += ".zip";
+            contentType = MediaType.parseMediaType("application/zip");
+        } else if (compress) {
+            fileName += ".json.gz";
+            contentType = MediaType.parseMediaType("application/gzip");
+        } else {
+            fileName += ".json";
+            contentType = MediaType.APPLICATION_JSON;
+        }
+        
+        return ResponseEntity.ok()
+            .contentType(contentType)
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+            .body(body);
+    }
 
-                pred.put("isValid", p.getIsValid());
-                return pred;
-            }).toList());
-            
-            exportData.put("exportDate", java.time.LocalDateTime.now().toString());
-            exportData.put("totalDiagnoses", predictions.size());
-            
-            return ResponseEntity.ok(exportData);
-        } catch (Exception e) {
-            return ResponseEntity.status(500).body(java.util.Map.of("error", "Could not export data: " + e.getMessage()));
+    /**
+     * Image referenced from a user data export (imageRef)
+     * GET /api/users/{userId}/export/images/{predictionId}
+     * @param userId User ID
+     * @param predictionId Prediction ID (live or archived)
+     * @return Decoded image bytes (application/octet-stream unless jpeg, png, gif, bmp or webp)
+     */
+    @GetMapping("/{userId}/export/images/{predictionId}")
+    public ResponseEntity<byte[]> getExportImage(@PathVariable Integer userId, @PathVariable Integer predictionId) {
+        Optional<String> image = exportService.findImage(userId, predictionId);
+        if (image.isEmpty() || !ImageDataUrl.isDataUrl(image.get())) {
+            return ResponseEntity.notFound().build();
         }
+        
+        String dataUrl = image.get();
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(ImageDataUrl.servedContentType(dataUrl)))
+            .header("X-Content-Type-Options", "nosniff")
+            // Prediction images never change once stored
+            .cacheControl(CacheControl.maxAge(Duration.ofDays(7)).cachePrivate())
+            .body(ImageDataUrl.decode(dataUrl));
     }
 
     /**
      * Delete user account with all associated data
-     * DELETE /api/users/{userId}/account
+     * DELETE /api/users/{userId}/account?async=false
+     * Rows are removed with set-based DELETEs in bounded chunks (children first), and archived
+     * predictions are erased from the archive files.
+     * With async=true the deletion runs in the background and 202 Accepted is returned
+     * with a job ID; poll GET /api/users/{userId}/account/deletion/{jobId} for progress
+     * (503 when too many deletions are already waiting). A synchronous deletion of an account
+     * that is already being deleted returns 409 Conflict.
      * @param userId User ID
-     * @return success message
+     * @param async Run in the background (recommended for very large accounts)
+     * @return success message (sync) or deletion job status (async)
      */
     @DeleteMapping("/{userId}/account")
-    public ResponseEntity<?> deleteUserAccount(@PathVariable Integer userId) {
+    public ResponseEntity<?> deleteUserAccount(@PathVariable Integer userId,
+                                               @RequestParam(defaultValue = "false") boolean async) {
         try {
-            Optional<User> userOpt = userService.findById(userId);
-            if (userOpt.isEmpty()) {
-                return ResponseEntity.status(404).body(java.util.Map.of("error", "User not found"));
+            if (async) {
+                java.util.Map<String, Object> job = accountDeletionService.startAccountDeletion(userId);
+                job.put("statusUrl", "/api/users/" + userId + "/account/deletion/" + job.get("jobId"));
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
             }
             
-            // Delete all user predictions first (cascade)
-            List<Prediction> predictions = predictionRepository.findByUser_Id(userId);
-            predictionRepository.deleteAll(predictions);
-            
-            // Delete user
-            userService.deleteUser(userId);
+            java.util.Map<String, Object> summary = accountDeletionService.deleteAccount(userId);
             
             java.util.Map<String, Object> result = new java.util.HashMap<>();
             result.put("success", true);
             result.put("message", "Your account and all data have been successfully deleted");
-            result.put("deletedPredictions", predictions.size());
+            result.put("deletedPredictions", summary.get("deletedPredictions"));
+            result.put("deletedArchiveEntries", summary.get("deletedArchiveEntries"));
+            result.put("durationMs", summary.get("durationMs"));
             
             return ResponseEntity.ok(result);
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(404).body(java.util.Map.of("error", "User not found"));
+        } catch (ConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(java.util.Map.of("error", e.getMessage()));
+        } catch (ServiceUnavailableException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "30")
+                .body(java.util.Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(500).body(java.util.Map.of("error", "Could not delete account: " + e.getMessage()));
         }
     }
+
+    /**
+     * Progress of a background account deletion
+     * GET /api/users/{userId}/account/deletion/{jobId}
+     * @param userId User ID
+     * @param jobId Job ID returned by DELETE /api/users/{userId}/account?async=true
+     * @return Job status (status, phase, deletedPredictions, progress)
+     */
+    @GetMapping("/{userId}/account/deletion/{jobId}")
+    public ResponseEntity<?> getAccountDeletionStatus(@PathVariable Integer userId, @PathVariable String jobId) {
+        return accountDeletionService.getDeletionStatus(jobId)
+            .filter(job -> userId.equals(job.get("userId")))
+            .<ResponseEntity<?>>map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.status(404).body(java.util.Map.of("error", "Deletion job not found")));
+    }
 }
 
@@ -0,0 +1,30 @@
+package plant_village.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Request body of POST /api/predictions/analyze
+ * Omitted fields keep their defaults (anonymous user, disease detection).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalyzeRequest {
+
+    // data:image/...;base64,... or plain base64
+    private String imageBase64;
+
+    @Builder.Default
+    private Integer userId = 0;
+
+    // detect-disease or identify-plant
+    @Builder.Default
+    private String predictionType = "detect-disease";
+
+    @Builder.Default
+    private String description = "Uploaded plant image";
+}
@@ -0,0 +1,107 @@
+package plant_village.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response of POST /api/predictions/analyze (field names as expected by the frontend)
+ *
+ * A fixed class instead of nested maps: Jackson resolves its serializer once and
+ * reuses it for every response, and no map is allocated per field.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalyzeResponse {
+
+    // ML label, e.g. "Tomato___Leaf_Mold"
+    @JsonProperty("predicted_class")
+    private String predictedClass;
+
+    @JsonProperty("confidence")
+    private Double confidence;
+
+    @JsonProperty("is_valid")
+    private Boolean isValid;
+
+    @JsonProperty("is_healthy")
+    private Boolean isHealthy;
+
+    @JsonProperty("description")
+    private String description;
+
+    @JsonProperty("prediction_id")
+    private Integer predictionId;
+
+    // Plant information - identify-plant mode only
+    @JsonProperty("plant_description")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String plantDescription;
+
+    @JsonProperty("scientific_name")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String scientificName;
+
+    @JsonProperty("care_tips")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String careTips;
+
+    @JsonProperty("watering_frequency")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String wateringFrequency;
+
+    @JsonProperty("sunlight_requirement")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String sunlightRequirement;
+
+    @JsonProperty("soil_type")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String soilType;
+
+    @JsonProperty("hardiness_zone")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String hardinessZone;
+
+    // Disease information of the main result - empty for healthy plants
+    @JsonProperty("symptom_description")
+    private String symptomDescription;
+
+    @JsonProperty("treatment")
+    private String treatment;
+
+    @JsonProperty("recommended_medicines")
+    private String recommendedMedicines;
+
+    // "Other possibilities": up to 3 alternatives after the main result
+    @JsonProperty("top_predictions")
+    private List<Alternative> topPredictions;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Alternative {
+
+        @JsonProperty("class_name")
+        private String className;
+
+        @JsonProperty("probability")
+        private Double probability;
+
+        @JsonProperty("symptom_description")
+        private String symptomDescription;
+
+        @JsonProperty("treatment")
+        private String treatment;
+
+        @JsonProperty("recommended_medicines")
+        private String recommendedMedicines;
+    }
+}
@@ -0,0 +1,63 @@
+package plant_village.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One archived prediction with everything that was deleted with it.
+ * Written one per line (NDJSON) into gzip archive files, read back for history/export read-through.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedPredictionDTO {
+
+    private Integer predictionId;
+    private Integer userId;
+    private String predictionType;
+    private Double confidence;
+    private String uploadedImageUrl;
+    private LocalDateTime createAt;
+    private Boolean isValid;
+
+    private List<Integer> plantIds;
+    private List<DiseaseLink> diseases;
+    private List<LogEntry> logs;
+    private List<FeedbackEntry> feedback;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DiseaseLink {
+        private Integer diseaseId;
+        private String diseaseName;
+        private Boolean isHealthy;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LogEntry {
+        private Integer logId;
+        private String actionType;
+        private LocalDateTime timestamp;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FeedbackEntry {
+        private Integer feedbackId;
+        private Boolean isCorrect;
+        private Boolean isApprovedFromAdmin;
+        private String comment;
+        private LocalDateTime createdAt;
+        private LocalDateTime updatedAt;
+        private Boolean imageAddedToDb;
+    }
+}
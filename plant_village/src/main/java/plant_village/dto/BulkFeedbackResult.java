@@ -0,0 +1,30 @@
+package plant_village.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Result of one item of a bulk feedback request
+ * - approve / reject: feedbackId + status
+ * - submit: index (position in the request) + predictionId, feedbackId when created
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkFeedbackResult {
+
+    public enum Status {
+        APPROVED, REJECTED, CREATED, NOT_FOUND, INVALID
+    }
+
+    private Integer index;
+    private Integer predictionId;
+    private Integer feedbackId;
+    private Status status;
+    private String message;
+}
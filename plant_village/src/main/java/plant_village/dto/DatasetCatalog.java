@@ -0,0 +1,34 @@
+package plant_village.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Committed state of the packed training dataset (dataset catalog.json).
+ * Everything in a shard file beyond dataEnd / count / labelsEnd is uncommitted and is
+ * dropped the next time the shard is appended to.
+ */
+@Data
+@NoArgsConstructor
+public class DatasetCatalog {
+
+    // Byte offset in the export manifest up to which entries are packed
+    private long manifestOffset;
+    private long samples;
+    private List<Shard> shards = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Shard {
+        private String name;        // shard-000000 (files: .tar, .idx, .labels.tsv)
+        private long firstIndex;    // global index of the first sample
+        private int count;
+        private long dataEnd;       // tar bytes before the end-of-archive blocks
+        private long labelsEnd;     // labels.tsv bytes
+    }
+}
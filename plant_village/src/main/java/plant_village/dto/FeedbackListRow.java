@@ -0,0 +1,36 @@
+package plant_village.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * One feedback of the admin feedback lists, read through a cursor together with its
+ * prediction and the prediction's user (null for anonymous predictions).
+ * image is the whole stored image, or only its data URL header when the list is
+ * requested without inline images (PredictionFeedbackRepository.streamListRows).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeedbackListRow {
+
+    private Integer feedbackId;
+    private Boolean isCorrect;
+    private Boolean isApprovedFromAdmin;
+    private String comment;
+    private LocalDateTime createdAt;
+    private Boolean imageAddedToDb;
+
+    private Integer predictionId;
+    private String predictionType;
+    private Double confidence;
+    private LocalDateTime predictionCreateAt;
+    private Boolean predictionIsValid;
+    private String image;
+
+    private Integer userId;
+    private String userName;
+    private String email;
+}
@@ -18,6 +18,7 @@ public class LogResponse {
 
     private Integer logId;
     private Integer predictionId;
+    private Integer userId;
     private String actionType;
     private LocalDateTime timestamp;
     
@@ -0,0 +1,23 @@
+package plant_village.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Autocomplete suggestion for the plant search box
+ * matchedField: plantName, scientificName or alias
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlantSuggestion {
+
+    private Integer plantId;
+    private String plantName;
+    private String scientificName;
+    private String matchedField;
+    private String matchedText;
+}
@@ -0,0 +1,40 @@
+package plant_village.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * One prediction row of the user data export, read through a cursor.
+ * The metadata query only carries imageHeader (the data URL prefix or the short
+ * file path/URL), the image query only carries the full image - never both.
+ */
+@Data
+@NoArgsConstructor
+public class PredictionExportRow {
+
+    private Integer predictionId;
+    private String predictionType;
+    private Double confidence;
+    private LocalDateTime createAt;
+    private Boolean isValid;
+    private String imageHeader;
+    private String image;
+
+    // Metadata projection (PredictionRepository.streamExportRows)
+    public PredictionExportRow(Integer predictionId, String predictionType, Double confidence,
+                               LocalDateTime createAt, Boolean isValid, String imageHeader) {
+        this.predictionId = predictionId;
+        this.predictionType = predictionType;
+        this.confidence = confidence;
+        this.createAt = createAt;
+        this.isValid = isValid;
+        this.imageHeader = imageHeader;
+    }
+
+    // Image projection (PredictionRepository.streamExportImages)
+    public PredictionExportRow(Integer predictionId, String image) {
+        this.predictionId = predictionId;
+        this.image = image;
+    }
+}
@@ -0,0 +1,19 @@
+package plant_village.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One approved (isCorrect = true) feedback to export as a training image.
+ * Carries no image payload; the image is loaded by the worker that writes it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrainingImageRow {
+
+    private Integer feedbackId;
+    private Integer predictionId;
+    private String predictionType;
+}
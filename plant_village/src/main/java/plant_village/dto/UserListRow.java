@@ -0,0 +1,22 @@
+package plant_village.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * One user of the admin user list (GET /api/users/all), read through a cursor.
+ * Carries no password hash or profile fields.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserListRow {
+
+    private Integer id;
+    private String userName;
+    private String email;
+    private String role;
+    private LocalDateTime lastLogin;
+}
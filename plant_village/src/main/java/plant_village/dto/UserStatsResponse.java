@@ -0,0 +1,45 @@
+package plant_village.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Per-user prediction statistics (profile page)
+ * Computed by aggregate queries and kept in the per-user stats cache.
+ *
+ * totalDiagnoses = liveDiagnoses + archivedDiagnoses. The breakdown (valid/invalid, healthy/diseased,
+ * top diseases) covers live predictions only: archived ones are kept in the archive files and the
+ * archive index holds no results, so validDiagnoses + invalidDiagnoses = liveDiagnoses.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserStatsResponse {
+
+    private Integer userId;
+    private long totalDiagnoses;        // live + archived
+    private long liveDiagnoses;
+    private long archivedDiagnoses;
+    private LocalDateTime lastDiagnosis;
+    private long validDiagnoses;        // live only
+    private long invalidDiagnoses;      // live only
+    private long healthyCount;          // live only
+    private long diseasedCount;         // live only
+    private Double healthyRatio;        // live only, null when there is no disease result yet
+    private List<DiseaseCount> topDiseases;  // live only
+    private LocalDateTime computedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DiseaseCount {
+        private Integer diseaseId;
+        private String diseaseName;
+        private long count;
+    }
+}
@@ -0,0 +1,11 @@
+package plant_village.exception;
+
+/**
+ * Exception to be thrown when the request clashes with work already in progress on the same resource (409 Conflict)
+ */
+public class ConflictException extends RuntimeException {
+    
+    public ConflictException(String message) {
+        super(message);
+    }
+}
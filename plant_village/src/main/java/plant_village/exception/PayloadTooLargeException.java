@@ -0,0 +1,11 @@
+package plant_village.exception;
+
+/**
+ * Exception to be thrown when an upload exceeds its size limit (413 Payload Too Large)
+ */
+public class PayloadTooLargeException extends RuntimeException {
+    
+    public PayloadTooLargeException(String message) {
+        super(message);
+    }
+}
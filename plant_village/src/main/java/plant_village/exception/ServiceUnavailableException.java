@@ -0,0 +1,11 @@
+package plant_village.exception;
+
+/**
+ * Exception to be thrown when a bounded resource (worker queue, connection pool) is full (503 Service Unavailable)
+ */
+public class ServiceUnavailableException extends RuntimeException {
+    
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
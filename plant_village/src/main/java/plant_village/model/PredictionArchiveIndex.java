@@ -0,0 +1,45 @@
+package plant_village.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Lookup row for an archived prediction.
+ * The prediction itself (with logs, feedback and plant/disease links) lives in
+ * a compressed NDJSON file under app.archive.dir; archiveFile is relative to that directory.
+ */
+@Entity
+@Table(name = "Prediction_Archive_Index")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PredictionArchiveIndex {
+
+    @Id
+    @Column(name = "prediction_id")
+    private Integer predictionId;
+
+    @Column(name = "user_id", nullable = false)
+    private Integer userId;
+
+    @Column(name = "create_at")
+    private LocalDateTime createAt;
+
+    @Column(name = "archive_file", length = 500, nullable = false)
+    private String archiveFile;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (archivedAt == null) {
+            archivedAt = LocalDateTime.now();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package plant_village.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Retry / dead-letter state of a training image that could not be persisted.
+ * The queue itself is Prediction_Feedback (is_correct = 1, image_added_to_db = 0);
+ * a row here only exists after a failed attempt and is removed once the image is on disk.
+ */
+@Entity
+@Table(name = "Training_Image_Task")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TrainingImageTask {
+
+    // Waiting for nextAttemptAt
+    public static final String RETRY = "RETRY";
+    // Out of attempts (or permanently unexportable) - needs an admin retry
+    public static final String DEAD = "DEAD";
+
+    @Id
+    @Column(name = "feedback_id")
+    private Integer feedbackId;
+
+    @Column(name = "status", length = 20, nullable = false)
+    private String status;
+
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts;
+
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -1,20 +1,32 @@
 package plant_village.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import plant_village.model.Disease;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import java.util.Optional;
 import java.util.List;
 
+// Finders are served from the query cache (see HibernateCacheConfig); findById hits the entity cache
 @Repository
 public interface DiseaseRepository extends JpaRepository<Disease, Integer> {
 
+    // 0. List all diseases (cached)
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Disease> findAll();
+
     // 1. Search by disease name
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Disease> findByDiseaseName(String diseaseName);
 
     // 2. Case-insensitive name search
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Disease> findByDiseaseNameIgnoreCase(String diseaseName);
     
     // 3. For feedback system - find disease by exact name match
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Disease> findByDiseaseNameContainingIgnoreCase(String keyword);
-}
\ No newline at end of file
+}
@@ -1,20 +1,32 @@
 package plant_village.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import plant_village.model.*;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 import java.util.Optional;
 
+// Finders are served from the query cache (see HibernateCacheConfig); findById hits the entity cache
 @Repository
 public interface PlantRepository extends JpaRepository<Plant, Integer> {
 
+    // list all plants (cached)
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Plant> findAll();
+
     // find plant name from getter name
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Plant> findByPlantName(String plantName);
     
     // fast search from scientific name
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Plant> findByScientificName(String scientificName);
     
     // search by plant name containing (case insensitive)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Plant> findByPlantNameContainingIgnoreCase(String name);
 }
@@ -0,0 +1,31 @@
+package plant_village.repository;
+
+import plant_village.model.PredictionArchiveIndex;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface PredictionArchiveIndexRepository extends JpaRepository<PredictionArchiveIndex, Integer> {
+
+    // Archived predictions of a user, newest first
+    List<PredictionArchiveIndex> findByUserIdOrderByCreateAtDesc(Integer userId);
+
+    // Number of archived predictions of a user
+    long countByUserId(Integer userId);
+
+    // Latest archived prediction date of a user (user statistics)
+    @Query("SELECT MAX(a.createAt) FROM PredictionArchiveIndex a WHERE a.userId = :userId")
+    LocalDateTime findLastCreateAtByUserId(@Param("userId") Integer userId);
+
+    // Account deletion: next chunk of a user's archived predictions (with their archive files)
+    List<PredictionArchiveIndex> findByUserIdOrderByPredictionId(Integer userId, Pageable pageable);
+
+    // Number of archive files referenced by the index
+    @Query("SELECT COUNT(DISTINCT a.archiveFile) FROM PredictionArchiveIndex a")
+    long countArchiveFiles();
+}
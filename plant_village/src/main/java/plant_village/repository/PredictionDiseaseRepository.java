@@ -1,8 +1,15 @@
 package plant_village.repository;
 
 import plant_village.model.*;
+import plant_village.model.dto.PredictionDiseaseDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,6 +22,39 @@ public interface PredictionDiseaseRepository extends JpaRepository<PredictionDis
     // Get all predictions linked to a disease
     List<PredictionDisease> findByDiseaseId(Integer diseaseId);
     
+    // Paged listings as DTOs: disease name joined in the same statement (no per-row disease load),
+    // total from a separate COUNT on the link table only
+    @Query(value = "SELECT new plant_village.model.dto.PredictionDiseaseDTO(pd.predictionId, pd.diseaseId, d.diseaseName, pd.isHealthy) " +
+                   "FROM PredictionDisease pd LEFT JOIN pd.disease d ORDER BY pd.predictionId DESC, pd.diseaseId",
+           countQuery = "SELECT COUNT(pd) FROM PredictionDisease pd")
+    Page<PredictionDiseaseDTO> findDtoPage(Pageable pageable);
+    
+    @Query(value = "SELECT new plant_village.model.dto.PredictionDiseaseDTO(pd.predictionId, pd.diseaseId, d.diseaseName, pd.isHealthy) " +
+                   "FROM PredictionDisease pd LEFT JOIN pd.disease d WHERE pd.diseaseId = :diseaseId ORDER BY pd.predictionId DESC",
+           countQuery = "SELECT COUNT(pd) FROM PredictionDisease pd WHERE pd.diseaseId = :diseaseId")
+    Page<PredictionDiseaseDTO> findDtoPageByDiseaseId(@Param("diseaseId") Integer diseaseId, Pageable pageable);
+    
+    // Links of one prediction as DTOs (a handful of rows)
+    @Query("SELECT new plant_village.model.dto.PredictionDiseaseDTO(pd.predictionId, pd.diseaseId, d.diseaseName, pd.isHealthy) " +
+           "FROM PredictionDisease pd LEFT JOIN pd.disease d WHERE pd.predictionId = :predictionId ORDER BY pd.diseaseId")
+    List<PredictionDiseaseDTO> findDtosByPredictionId(@Param("predictionId") Integer predictionId);
+    
     // Get specific prediction-disease link by composite key
     Optional<PredictionDisease> findByPredictionIdAndDiseaseId(Integer predictionId, Integer diseaseId);
-}
\ No newline at end of file
+    
+    // User statistics: disease link counts of a user's predictions, most frequent first
+    // [0] diseaseId, [1] diseaseName, [2] isHealthy, [3] count
+    @Query("SELECT d.id, d.diseaseName, pd.isHealthy, COUNT(pd) FROM PredictionDisease pd " +
+           "JOIN pd.disease d JOIN pd.prediction p WHERE p.user.id = :userId " +
+           "GROUP BY d.id, d.diseaseName, pd.isHealthy ORDER BY COUNT(pd) DESC")
+    List<Object[]> countDiseasesByUserId(@Param("userId") Integer userId);
+    
+    // Archival: links of a chunk of predictions, with their disease in the same query
+    @Query("SELECT pd FROM PredictionDisease pd JOIN FETCH pd.disease WHERE pd.predictionId IN :ids")
+    List<PredictionDisease> findWithDiseaseByPredictionIdIn(@Param("ids") Collection<Integer> predictionIds);
+    
+    // Archival: set-based delete
+    @Modifying
+    @Query("DELETE FROM PredictionDisease pd WHERE pd.predictionId IN :ids")
+    int deleteByPredictionIds(@Param("ids") Collection<Integer> predictionIds);
+}
@@ -1,11 +1,24 @@
 package plant_village.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import plant_village.dto.FeedbackListRow;
+import plant_village.dto.TrainingImageRow;
 import plant_village.model.PredictionFeedback;
+import plant_village.util.ImageDataUrl;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for PredictionFeedback entity.
@@ -28,7 +41,62 @@ public interface PredictionFeedbackRepository extends JpaRepository<PredictionFe
            "LEFT JOIN FETCH p.user u " +
            "ORDER BY pf.createdAt DESC")
     List<PredictionFeedback> findAllWithUserAndPrediction();
+
+    /**
+     * Admin feedback lists: every feedback with its prediction and user through a forward-only
+     * cursor, newest first. Every row carries a whole base64 image, so the fetch size is kept small.
+     * Must be consumed inside a read-only transaction and closed after use.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "20"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new plant_village.dto.FeedbackListRow(pf.feedbackId, pf.isCorrect, pf.isApprovedFromAdmin, " +
+           "pf.comment, pf.createdAt, pf.imageAddedToDb, p.id, p.predictionType, p.confidence, p.createAt, " +
+           "p.isValid, p.uploadedImageUrl, u.id, u.userName, u.email) " +
+           "FROM PredictionFeedback pf JOIN pf.prediction p LEFT JOIN p.user u " +
+           "ORDER BY pf.createdAt DESC, pf.feedbackId DESC")
+    Stream<FeedbackListRow> streamListRows();
+
+    /**
+     * Admin feedback lists without inline images: same rows as streamListRows, but only the
+     * data URL header of the image is selected (or the whole value when it is a file path/URL)
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new plant_village.dto.FeedbackListRow(pf.feedbackId, pf.isCorrect, pf.isApprovedFromAdmin, " +
+           "pf.comment, pf.createdAt, pf.imageAddedToDb, p.id, p.predictionType, p.confidence, p.createAt, " +
+           "p.isValid, CASE WHEN p.uploadedImageUrl LIKE 'data:%' " +
+           "THEN SUBSTRING(p.uploadedImageUrl, 1, " + ImageDataUrl.HEADER_LENGTH + ") " +
+           "ELSE p.uploadedImageUrl END, u.id, u.userName, u.email) " +
+           "FROM PredictionFeedback pf JOIN pf.prediction p LEFT JOIN p.user u " +
+           "ORDER BY pf.createdAt DESC, pf.feedbackId DESC")
+    Stream<FeedbackListRow> streamListRowsWithoutImages();
     
+    /**
+     * Bulk moderation: which of the given feedback IDs exist
+     */
+    @Query("SELECT pf.feedbackId FROM PredictionFeedback pf WHERE pf.feedbackId IN :ids")
+    List<Integer> findExistingIds(@Param("ids") Collection<Integer> feedbackIds);
+
+    /**
+     * Bulk moderation: set-based approve (same columns as a single approve;
+     * image_added_to_db stays with the training image queue)
+     */
+    @Modifying
+    @Query("UPDATE PredictionFeedback pf SET pf.isApprovedFromAdmin = true, pf.updatedAt = :now " +
+           "WHERE pf.feedbackId IN :ids")
+    int approveByIds(@Param("ids") Collection<Integer> feedbackIds, @Param("now") LocalDateTime now);
+
+    /**
+     * Bulk moderation: set-based reject (Training_Image_Task rows go with ON DELETE CASCADE)
+     */
+    @Modifying
+    @Query("DELETE FROM PredictionFeedback pf WHERE pf.feedbackId IN :ids")
+    int deleteByIds(@Param("ids") Collection<Integer> feedbackIds);
+
     /**
      * Find feedback by prediction ID
      */
@@ -76,4 +144,92 @@ public interface PredictionFeedbackRepository extends JpaRepository<PredictionFe
                    "FROM Prediction_Feedback", 
            nativeQuery = true)
     List<Object[]> getFeedbackStatistics();
+
+    /**
+     * Archival: feedback of a chunk of predictions
+     */
+    List<PredictionFeedback> findByPrediction_IdIn(Collection<Integer> predictionIds);
+
+    /**
+     * Archival: set-based delete
+     */
+    @Modifying
+    @Query("DELETE FROM PredictionFeedback pf WHERE pf.prediction.id IN :ids")
+    int deleteByPredictionIds(@Param("ids") Collection<Integer> predictionIds);
+
+    /**
+     * Pending image processing: next chunk of feedback IDs after afterId
+     * (served by the image_added_to_db pending index, ordered by feedback_id).
+     * Correct feedback is left to the training image queue, which sets the flag once the image is on disk.
+     */
+    @Query("SELECT pf.feedbackId FROM PredictionFeedback pf " +
+           "WHERE pf.imageAddedToDb = false AND pf.feedbackId > :afterId AND pf.comment IS NOT NULL " +
+           "AND (pf.isCorrect IS NULL OR pf.isCorrect = false) " +
+           "ORDER BY pf.feedbackId")
+    List<Integer> findPendingImageIds(@Param("afterId") Integer afterId, Pageable pageable);
+
+    /**
+     * Pending image processing: set-based update of one chunk (fromId, toId]
+     */
+    @Modifying
+    @Query("UPDATE PredictionFeedback pf SET pf.imageAddedToDb = true, pf.updatedAt = :now " +
+           "WHERE pf.imageAddedToDb = false AND pf.comment IS NOT NULL " +
+           "AND (pf.isCorrect IS NULL OR pf.isCorrect = false) " +
+           "AND pf.feedbackId > :fromId AND pf.feedbackId <= :toId")
+    int markImagesAdded(@Param("fromId") Integer fromId, @Param("toId") Integer toId,
+                        @Param("now") LocalDateTime now);
+
+    /**
+     * Number of feedback rows still waiting for image processing
+     */
+    long countByImageAddedToDbFalse();
+
+    /**
+     * Training image export: next chunk of approved feedback after the watermark
+     */
+    @Query("SELECT new plant_village.dto.TrainingImageRow(pf.feedbackId, p.id, p.predictionType) " +
+           "FROM PredictionFeedback pf JOIN pf.prediction p " +
+           "WHERE pf.isCorrect = true AND pf.feedbackId > :afterId " +
+           "ORDER BY pf.feedbackId")
+    List<TrainingImageRow> findTrainingImageRows(@Param("afterId") Integer afterId, Pageable pageable);
+
+    /**
+     * Training image export: one approved feedback
+     */
+    @Query("SELECT new plant_village.dto.TrainingImageRow(pf.feedbackId, p.id, p.predictionType) " +
+           "FROM PredictionFeedback pf JOIN pf.prediction p " +
+           "WHERE pf.isCorrect = true AND pf.feedbackId = :feedbackId")
+    Optional<TrainingImageRow> findTrainingImageRow(@Param("feedbackId") Integer feedbackId);
+
+    /**
+     * Training image queue: correct feedback whose image is not persisted yet and that is
+     * not waiting for a retry or dead-lettered (Training_Image_Task)
+     */
+    @Query("SELECT pf.feedbackId FROM PredictionFeedback pf " +
+           "LEFT JOIN TrainingImageTask t ON t.feedbackId = pf.feedbackId " +
+           "WHERE pf.isCorrect = true AND pf.imageAddedToDb = false " +
+           "AND (t.feedbackId IS NULL OR (t.status = 'RETRY' AND t.nextAttemptAt <= :now)) " +
+           "ORDER BY pf.feedbackId")
+    List<Integer> findImageQueueIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Training image queue: image persisted
+     */
+    @Modifying
+    @Query("UPDATE PredictionFeedback pf SET pf.imageAddedToDb = true, pf.updatedAt = :now " +
+           "WHERE pf.feedbackId = :feedbackId")
+    int markImageAdded(@Param("feedbackId") Integer feedbackId, @Param("now") LocalDateTime now);
+
+    /**
+     * Training image queue: export failed, back in the queue (see TrainingImageTaskService)
+     */
+    @Modifying
+    @Query("UPDATE PredictionFeedback pf SET pf.imageAddedToDb = false, pf.updatedAt = :now " +
+           "WHERE pf.feedbackId = :feedbackId AND pf.imageAddedToDb = true")
+    int markImagePending(@Param("feedbackId") Integer feedbackId, @Param("now") LocalDateTime now);
+
+    /**
+     * Training image queue: backlog size (including retries and dead letters)
+     */
+    long countByIsCorrectTrueAndImageAddedToDbFalse();
 }
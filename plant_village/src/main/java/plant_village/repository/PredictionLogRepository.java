@@ -1,11 +1,19 @@
 package plant_village.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import plant_village.dto.LogResponse;
 import plant_village.model.PredictionLog;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface PredictionLogRepository extends JpaRepository<PredictionLog, Integer> {
@@ -15,8 +23,63 @@ public interface PredictionLogRepository extends JpaRepository<PredictionLog, In
 
     // Fetch logs of specific prediction, newest first
     List<PredictionLog> findByPrediction_IdOrderByTimestampDesc(Integer predictionId);
-    
+
     // Fetch logs for a specific user's predictions (using user_id from prediction table)
     @Query("SELECT pl FROM PredictionLog pl WHERE pl.prediction.user.id = :userId ORDER BY pl.timestamp DESC")
     List<PredictionLog> findByUserId(@Param("userId") Integer userId);
+
+    String LOG_ROW_SELECT = "SELECT new plant_village.dto.LogResponse(pl.id, p.id, u.id, pl.actionType, pl.timestamp, " +
+                            "COALESCE(pl.actionType, 'Unknown action')) " +
+                            "FROM PredictionLog pl JOIN pl.prediction p LEFT JOIN p.user u ";
+
+    /*
+     * Log streams, newest first, through a forward-only cursor.
+     * Prediction and user are joined in the same statement and only the needed columns
+     * are selected (no entity hydration, no base64 image, no lazy loading per row).
+     * Must be consumed inside a read-only transaction and closed after use.
+     *
+     * One statement per filter combination instead of "(:x IS NULL OR ...)" predicates, so each
+     * gets its own plan and can seek IX_Prediction_Log_timestamp / IX_Prediction_Log_action_type_timestamp.
+     * Time ranges are half-open: from inclusive, to exclusive (PredictionLogService fills a missing bound).
+     */
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(LOG_ROW_SELECT + "ORDER BY pl.timestamp DESC")
+    Stream<LogResponse> streamLogs();
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(LOG_ROW_SELECT + "WHERE pl.timestamp >= :from AND pl.timestamp < :to ORDER BY pl.timestamp DESC")
+    Stream<LogResponse> streamLogsBetween(@Param("from") LocalDateTime from,
+                                          @Param("to") LocalDateTime to);
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(LOG_ROW_SELECT + "WHERE pl.actionType = :actionType ORDER BY pl.timestamp DESC")
+    Stream<LogResponse> streamLogsByActionType(@Param("actionType") String actionType);
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(LOG_ROW_SELECT + "WHERE pl.actionType = :actionType " +
+           "AND pl.timestamp >= :from AND pl.timestamp < :to ORDER BY pl.timestamp DESC")
+    Stream<LogResponse> streamLogsByActionTypeBetween(@Param("actionType") String actionType,
+                                                      @Param("from") LocalDateTime from,
+                                                      @Param("to") LocalDateTime to);
+
+    // Archival: logs of a chunk of predictions
+    List<PredictionLog> findByPrediction_IdIn(Collection<Integer> predictionIds);
+
+    // Archival: set-based delete
+    @Modifying
+    @Query("DELETE FROM PredictionLog pl WHERE pl.prediction.id IN :ids")
+    int deleteByPredictionIds(@Param("ids") Collection<Integer> predictionIds);
 }
@@ -1,8 +1,15 @@
 package plant_village.repository;
 
 import plant_village.model.*;
+import plant_village.model.dto.PredictionPlantDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,6 +22,31 @@ public interface PredictionPlantRepository extends JpaRepository<PredictionPlant
     // Get all predictions linked to a plant
     List<PredictionPlant> findByPlantId(Integer plantId);
     
+    // Paged listings as DTOs: plant name joined in the same statement (no per-row plant load),
+    // total from a separate COUNT on the link table only
+    @Query(value = "SELECT new plant_village.model.dto.PredictionPlantDTO(pp.predictionId, pp.plantId, pl.plantName) " +
+                   "FROM PredictionPlant pp LEFT JOIN pp.plant pl ORDER BY pp.predictionId DESC, pp.plantId",
+           countQuery = "SELECT COUNT(pp) FROM PredictionPlant pp")
+    Page<PredictionPlantDTO> findDtoPage(Pageable pageable);
+    
+    @Query(value = "SELECT new plant_village.model.dto.PredictionPlantDTO(pp.predictionId, pp.plantId, pl.plantName) " +
+                   "FROM PredictionPlant pp LEFT JOIN pp.plant pl WHERE pp.plantId = :plantId ORDER BY pp.predictionId DESC",
+           countQuery = "SELECT COUNT(pp) FROM PredictionPlant pp WHERE pp.plantId = :plantId")
+    Page<PredictionPlantDTO> findDtoPageByPlantId(@Param("plantId") Integer plantId, Pageable pageable);
+    
+    // Links of one prediction as DTOs (a handful of rows)
+    @Query("SELECT new plant_village.model.dto.PredictionPlantDTO(pp.predictionId, pp.plantId, pl.plantName) " +
+           "FROM PredictionPlant pp LEFT JOIN pp.plant pl WHERE pp.predictionId = :predictionId ORDER BY pp.plantId")
+    List<PredictionPlantDTO> findDtosByPredictionId(@Param("predictionId") Integer predictionId);
+    
     // Get specific prediction-plant link by composite key
     Optional<PredictionPlant> findByPredictionIdAndPlantId(Integer predictionId, Integer plantId);
+    
+    // Archival: links of a chunk of predictions
+    List<PredictionPlant> findByPredictionIdIn(Collection<Integer> predictionIds);
+    
+    // Archival: set-based delete
+    @Modifying
+    @Query("DELETE FROM PredictionPlant pp WHERE pp.predictionId IN :ids")
+    int deleteByPredictionIds(@Param("ids") Collection<Integer> predictionIds);
 }
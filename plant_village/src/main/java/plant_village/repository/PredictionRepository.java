@@ -1,11 +1,22 @@
 package plant_village.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import plant_village.dto.PredictionExportRow;
 import plant_village.model.*;
+import plant_village.util.ImageDataUrl;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Prediction entity.
@@ -78,6 +89,114 @@ public interface PredictionRepository extends JpaRepository<Prediction, Integer>
      */
     List<Prediction> findByIsValid(Boolean isValid);
     
+    /**
+     * Archival: IDs of predictions created before the cutoff, in ID order (keyset paging).
+     * Predictions with feedback still waiting for admin approval are skipped, and so are predictions
+     * whose correct feedback image is not in the training set yet (queued, retrying or dead-lettered):
+     * archiving deletes the feedback row and its Training_Image_Task with it.
+     *
+     * @param cutoff Only predictions created before this time
+     * @param afterId Last ID of the previous chunk (0 for the first chunk)
+     * @param pageable Chunk size (page 0)
+     */
+    @Query("SELECT p.id FROM Prediction p WHERE p.createAt < :cutoff AND p.id > :afterId " +
+           "AND NOT EXISTS (SELECT f FROM PredictionFeedback f WHERE f.prediction = p " +
+           "AND (f.isApprovedFromAdmin = false OR (f.isCorrect = true AND f.imageAddedToDb = false))) " +
+           "ORDER BY p.id")
+    List<Integer> findArchivableIds(@Param("cutoff") LocalDateTime cutoff,
+                                    @Param("afterId") Integer afterId,
+                                    Pageable pageable);
+
+    /**
+     * Which of the given prediction IDs exist (bulk feedback submission)
+     */
+    @Query("SELECT p.id FROM Prediction p WHERE p.id IN :ids")
+    List<Integer> findExistingIds(@Param("ids") Collection<Integer> predictionIds);
+
+    /**
+     * Archival: set-based delete (children must be deleted first)
+     */
+    @Modifying
+    @Query("DELETE FROM Prediction p WHERE p.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Integer> ids);
+    
+    /**
+     * User statistics in one aggregate statement (single row):
+     * [0] total, [1] last createAt, [2] valid count, [3] invalid count
+     * Served by the (user_id, create_at) index - no entity is loaded.
+     */
+    @Query("SELECT COUNT(p), MAX(p.createAt), " +
+           "SUM(CASE WHEN p.isValid = true THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN p.isValid = false THEN 1 ELSE 0 END) " +
+           "FROM Prediction p WHERE p.user.id = :userId")
+    List<Object[]> getUserPredictionTotals(@Param("userId") Integer userId);
+
+    /**
+     * Account deletion: next chunk of a user's prediction IDs.
+     * Each chunk is deleted before the next one is read, so the caller always asks for page 0.
+     */
+    @Query("SELECT p.id FROM Prediction p WHERE p.user.id = :userId ORDER BY p.id")
+    List<Integer> findIdsByUserId(@Param("userId") Integer userId, Pageable pageable);
+
+    /**
+     * Number of predictions of a user (progress reporting)
+     */
+    long countByUser_Id(Integer userId);
+
+    /**
+     * User data export: prediction metadata of a user through a forward-only cursor, newest first.
+     * The base64 image is not selected, only its data URL header (or the whole value when it is
+     * a file path/URL), so every row stays small.
+     * Must be consumed inside a read-only transaction and closed after use.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new plant_village.dto.PredictionExportRow(p.id, p.predictionType, p.confidence, p.createAt, p.isValid, " +
+           "CASE WHEN p.uploadedImageUrl LIKE 'data:%' " +
+           "THEN SUBSTRING(p.uploadedImageUrl, 1, " + ImageDataUrl.HEADER_LENGTH + ") " +
+           "ELSE p.uploadedImageUrl END) " +
+           "FROM Prediction p WHERE p.user.id = :userId ORDER BY p.createAt DESC, p.id DESC")
+    Stream<PredictionExportRow> streamExportRows(@Param("userId") Integer userId);
+
+    /**
+     * History list without images: same columns as streamExportRows, newest first
+     * (inline images are replaced by thumbnail URLs)
+     */
+    @Query("SELECT new plant_village.dto.PredictionExportRow(p.id, p.predictionType, p.confidence, p.createAt, p.isValid, " +
+           "CASE WHEN p.uploadedImageUrl LIKE 'data:%' " +
+           "THEN SUBSTRING(p.uploadedImageUrl, 1, " + ImageDataUrl.HEADER_LENGTH + ") " +
+           "ELSE p.uploadedImageUrl END) " +
+           "FROM Prediction p WHERE p.user.id = :userId ORDER BY p.createAt DESC, p.id DESC")
+    List<PredictionExportRow> findHistoryRows(@Param("userId") Integer userId);
+
+    /**
+     * User data export (ZIP): inline images of a user, same order as streamExportRows.
+     * Every row carries a whole base64 image, so the fetch size is kept small.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new plant_village.dto.PredictionExportRow(p.id, p.uploadedImageUrl) " +
+           "FROM Prediction p WHERE p.user.id = :userId AND p.uploadedImageUrl LIKE 'data:%' " +
+           "ORDER BY p.createAt DESC, p.id DESC")
+    Stream<PredictionExportRow> streamExportImages(@Param("userId") Integer userId);
+
+    /**
+     * Image of one prediction, only if it belongs to the user (export blob references)
+     */
+    @Query("SELECT p.uploadedImageUrl FROM Prediction p WHERE p.id = :predictionId AND p.user.id = :userId")
+    Optional<String> findImageByIdAndUserId(@Param("predictionId") Integer predictionId,
+                                            @Param("userId") Integer userId);
+
+    /**
+     * Image of one prediction (training image export, loaded per worker)
+     */
+    @Query("SELECT p.uploadedImageUrl FROM Prediction p WHERE p.id = :predictionId")
+    Optional<String> findImageById(@Param("predictionId") Integer predictionId);
+    
     // Note: Standard CRUD methods like save(), findById(), and delete() 
     // are automatically inherited from JpaRepository.
 }
\ No newline at end of file
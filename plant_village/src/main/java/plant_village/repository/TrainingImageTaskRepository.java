@@ -0,0 +1,26 @@
+package plant_village.repository;
+
+import plant_village.model.TrainingImageTask;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TrainingImageTaskRepository extends JpaRepository<TrainingImageTask, Integer> {
+
+    long countByStatus(String status);
+
+    // Dead-letter listing, most recent failure first
+    List<TrainingImageTask> findByStatusOrderByUpdatedAtDesc(String status, Pageable pageable);
+
+    // Admin retry: put every dead task back in the queue with a fresh attempt budget
+    @Modifying
+    @Query("UPDATE TrainingImageTask t SET t.status = 'RETRY', t.attempts = 0, t.nextAttemptAt = :now, t.updatedAt = :now " +
+           "WHERE t.status = 'DEAD'")
+    int requeueDead(@Param("now") LocalDateTime now);
+}
@@ -1,8 +1,14 @@
 package plant_village.repository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import plant_village.dto.UserListRow;
 import plant_village.model.*;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Integer> {
@@ -14,4 +20,19 @@ public interface UserRepository extends JpaRepository<User, Integer> {
     boolean existsByUserName(String userName);
 
     Optional<User> findByUserName(String userName);
+
+    // Avatar files are shared by content hash: still referenced by some user?
+    boolean existsByAvatarUrl(String avatarUrl);
+
+    /**
+     * Admin user list through a forward-only cursor, ordered by ID.
+     * Must be consumed inside a read-only transaction and closed after use.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new plant_village.dto.UserListRow(u.id, u.userName, u.email, u.role, u.lastLogin) " +
+           "FROM User u ORDER BY u.id")
+    Stream<UserListRow> streamListRows();
 }
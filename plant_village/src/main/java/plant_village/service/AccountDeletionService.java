@@ -0,0 +1,21 @@
+package plant_village.service;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Removes a user account and everything that belongs to it with set-based,
+ * chunked DELETE statements (child tables first), instead of entity-by-entity cascades.
+ */
+public interface AccountDeletionService {
+
+    // Delete synchronously - returns summary (deletedPredictions, chunks, durationMs);
+    // ConflictException when a deletion of the same account is already running
+    Map<String, Object> deleteAccount(Integer userId);
+
+    // Start deletion in the background - returns the job status (jobId, status, progress)
+    Map<String, Object> startAccountDeletion(Integer userId);
+
+    // Current status of a background deletion job
+    Optional<Map<String, Object>> getDeletionStatus(String jobId);
+}
@@ -0,0 +1,13 @@
+package plant_village.service;
+
+import java.io.InputStream;
+
+/**
+ * Profile pictures: uploads are size-capped, decoded, cropped to a fixed square and stored as
+ * content-addressed JPEGs under {app.uploads.dir}/avatars (served by GET /uploads/**).
+ */
+public interface AvatarService {
+
+    // Store the uploaded image as the user's avatar - returns the new avatar URL
+    String storeAvatar(String email, InputStream upload);
+}
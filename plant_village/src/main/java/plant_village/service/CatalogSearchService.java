@@ -0,0 +1,54 @@
+package plant_village.service;
+
+import plant_village.dto.PlantSuggestion;
+import plant_village.model.Disease;
+import plant_village.model.Plant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Keyword search over the Plant and Disease catalog backed by in-memory inverted indexes,
+ * a prefix index over plant names for autocomplete and a trigram index over disease names
+ * for resolving ML labels that do not match exactly.
+ * Write paths call indexDisease/removeDisease and indexPlant/removePlant so the indexes follow
+ * the tables without a rebuild.
+ */
+public interface CatalogSearchService {
+
+    // Ranked diseases matching name, symptoms, cause, treatment or medicines
+    List<Disease> searchDiseases(String query, int limit);
+
+    // Diseases whose name equals the text (case, Turkish i and accent insensitive)
+    List<Disease> findDiseasesByName(String name);
+
+    // Closest disease name by character trigram similarity; empty below app.search.fuzzy-threshold
+    Optional<DiseaseMatch> fuzzyMatchDisease(String label);
+
+    // Ranked plants matching name, scientific name, description or care tips
+    List<Plant> searchPlants(String query, int limit);
+
+    // Top-k plants whose name, scientific name or alias starts with the prefix (served from memory)
+    List<PlantSuggestion> autocompletePlants(String prefix, int limit);
+
+    // Plants for a typed prefix, best match first (exact name before partial matches)
+    List<Plant> findPlantsByPrefix(String prefix, int limit);
+
+    void indexDisease(Disease disease);
+
+    void removeDisease(Integer diseaseId);
+
+    void indexPlant(Plant plant);
+
+    void removePlant(Integer plantId);
+
+    // Reload both indexes from the database and swap them in
+    Map<String, Object> rebuild();
+
+    // Fuzzy match result (score 0..1, Dice coefficient over trigrams)
+    record DiseaseMatch(Disease disease, double score) {
+    }
+
+    // Document/term/key counts and lookup latency for GET /api/health/cache
+    Map<String, Object> getStats();
+}
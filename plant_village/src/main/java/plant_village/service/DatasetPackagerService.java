@@ -0,0 +1,23 @@
+package plant_village.service;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Packs exported training images into fixed-size tar shards with an offset index and
+ * label metadata, so training reads a few large sequential files instead of many small ones.
+ */
+public interface DatasetPackagerService {
+
+    record Sample(long index, String shard, String fileName, byte[] image, Map<String, Object> metadata) {
+    }
+
+    // Append manifest entries that are not packed yet - returns run summary
+    Map<String, Object> packNewImages();
+
+    // Random access by global sample index
+    Optional<Sample> readSample(long index);
+
+    // Shard list and totals
+    Map<String, Object> getDatasetStats();
+}
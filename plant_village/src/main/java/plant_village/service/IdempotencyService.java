@@ -0,0 +1,38 @@
+package plant_village.service;
+
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency keys (Idempotency-Key header) for requests that must not run twice when a
+ * client retries, e.g. POST /api/predictions/analyze.
+ *
+ * The first request with a key runs the action; a duplicate arriving while it runs waits for
+ * its result, and a duplicate arriving later gets the stored result until the key expires.
+ */
+public interface IdempotencyService {
+
+    enum Outcome {
+        // This call ran the action
+        EXECUTED,
+        // Result of an earlier or concurrent call with the same key
+        REPLAYED,
+        // The call holding the key did not finish within the wait limit
+        IN_PROGRESS,
+        // Same key, different request (fingerprint mismatch)
+        KEY_REUSED
+    }
+
+    record Result<T>(Outcome outcome, T value) {
+    }
+
+    /**
+     * Run the action once per key
+     * @param key Scoped idempotency key (e.g. "analyze:{userId}:{header value}")
+     * @param fingerprint Hash of the request, a duplicate must carry the same one
+     * @param action Work to do for the first request
+     * @param cacheable Whether a result is kept for later duplicates (e.g. not for 5xx responses);
+     *                  duplicates already waiting get it either way
+     */
+    <T> Result<T> execute(String key, String fingerprint, Supplier<T> action, Predicate<T> cacheable);
+}
@@ -1,5 +1,6 @@
 package plant_village.service;
 
+import plant_village.dto.PlantSuggestion;
 import plant_village.model.Plant;
 import java.util.List;
 import java.util.Optional;
@@ -12,6 +13,10 @@ public interface PlantService {
     
     List<Plant> searchByName(String name);
     
+    List<Plant> searchByKeyword(String keyword);
+    
+    List<PlantSuggestion> autocomplete(String prefix, int limit);
+    
     Plant createPlant(Plant plant);
     
     Plant updatePlant(Integer id, Plant plant);
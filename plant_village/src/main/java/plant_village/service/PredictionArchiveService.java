@@ -0,0 +1,30 @@
+package plant_village.service;
+
+import plant_village.dto.ArchivedPredictionDTO;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Moves old predictions (with logs, feedback and plant/disease links) out of the hot tables
+ * into compressed, date-partitioned archive files, and reads them back on demand.
+ */
+public interface PredictionArchiveService {
+
+    // Archive predictions older than app.archive.max-age-days in chunks - returns run summary
+    Map<String, Object> archiveOldPredictions();
+
+    // Stream a user's archived predictions (newest first) without loading them all
+    long streamArchivedByUser(Integer userId, Consumer<ArchivedPredictionDTO> sink);
+
+    List<ArchivedPredictionDTO> getArchivedByUser(Integer userId);
+
+    Optional<ArchivedPredictionDTO> getArchivedById(Integer predictionId);
+
+    Map<String, Object> getArchiveStats();
+
+    // Rewrite one archive file without the given predictions (account deletion) - returns how many were removed
+    int eraseFromArchiveFile(String archiveFile, Set<Integer> predictionIds);
+}
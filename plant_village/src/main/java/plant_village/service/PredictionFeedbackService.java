@@ -1,9 +1,14 @@
 package plant_village.service;
 
+import plant_village.dto.BulkFeedbackResult;
+import plant_village.dto.FeedbackCreateRequest;
+import plant_village.dto.FeedbackListRow;
 import plant_village.model.PredictionFeedback;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Service interface for PredictionFeedback operations.
@@ -16,10 +21,24 @@ public interface PredictionFeedbackService {
      */
     PredictionFeedback submitFeedback(PredictionFeedback feedback);
     
+    /**
+     * Submit many feedback in one request (e.g. mobile clients syncing)
+     * Predictions are checked with one IN query and the rows inserted in one transaction per chunk.
+     * @return One result per item, in request order (CREATED, NOT_FOUND or INVALID)
+     */
+    List<BulkFeedbackResult> bulkSubmitFeedback(List<FeedbackCreateRequest> items);
+
     /**
      * Get all feedback ordered by creation date
      */
     List<PredictionFeedback> getAllFeedback();
+
+    /**
+     * Stream all feedback (newest first) with prediction and user details through a database cursor
+     * @param withImages Whole stored images, or only the data URL header of each image
+     * @return Number of rows passed to the sink
+     */
+    long streamAllFeedback(boolean withImages, Consumer<FeedbackListRow> sink);
     
     /**
      * Get feedback for a specific prediction
@@ -49,11 +68,29 @@ public interface PredictionFeedbackService {
      * @return true if deleted successfully, false if not found
      */
     boolean deleteFeedback(Integer feedbackId);
+
+    /**
+     * Approve many feedback by admin - one set-based UPDATE per chunk of IDs
+     * @return One result per distinct ID, in request order (APPROVED or NOT_FOUND)
+     */
+    List<BulkFeedbackResult> bulkApproveFeedback(Collection<Integer> feedbackIds);
+
+    /**
+     * Reject (delete) many feedback by admin - one set-based DELETE per chunk of IDs
+     * @return One result per distinct ID, in request order (REJECTED or NOT_FOUND)
+     */
+    List<BulkFeedbackResult> bulkRejectFeedback(Collection<Integer> feedbackIds);
     
     /**
      * Process pending feedback (add images that weren't added yet)
+     * Chunked and resumable; returns a run summary (status ALREADY_RUNNING if a run is active)
+     */
+    Map<String, Object> processPendingFeedback();
+
+    /**
+     * Pending feedback processing: backlog size, checkpoint and last run summary
      */
-    void processPendingFeedback();
+    Map<String, Object> getPendingFeedbackStatus();
     
     /**
      * Approve and save images of correct predictions
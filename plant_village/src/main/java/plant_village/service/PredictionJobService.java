@@ -0,0 +1,26 @@
+package plant_village.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import plant_village.dto.AnalyzeRequest;
+
+import java.util.Optional;
+
+/**
+ * Background prediction jobs with progress published as Server-Sent Events
+ * (a plain HTTP alternative to the STOMP /queue/status channel of WebSocketPredictionController).
+ */
+public interface PredictionJobService {
+
+    /**
+     * Queue an analysis; progress is published as PredictionStatusUpdate events under the returned job ID
+     * @throws plant_village.exception.ServiceUnavailableException when the job queue is full
+     */
+    String submit(AnalyzeRequest request);
+
+    /**
+     * Event stream of a job: events after lastEventId are replayed, then new ones follow until the
+     * job completes or fails. Empty when the job is unknown or expired.
+     * @throws plant_village.exception.ServiceUnavailableException above the connection limits
+     */
+    Optional<SseEmitter> subscribe(String jobId, Long lastEventId);
+}
@@ -1,8 +1,11 @@
 package plant_village.service;
 
+import plant_village.dto.LogResponse;
 import plant_village.model.PredictionLog;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface PredictionLogService {
     
@@ -14,5 +17,8 @@ public interface PredictionLogService {
     
     List<PredictionLog> getAllLogs();
     
+    // stream filtered logs row by row (cursor based, constant memory) - returns row count
+    long streamLogs(LocalDateTime from, LocalDateTime to, String actionType, Consumer<LogResponse> sink);
+    
     void deleteLog(Integer id);
 }
@@ -12,6 +12,9 @@ public interface PredictionService {
     
     // get the user prediction history
     List<Prediction> getPredictionHistory(Integer userId);
+
+    // the user prediction history without image data - inline images become thumbnail URLs
+    List<Prediction> getPredictionHistoryPreview(Integer userId, int thumbnailSize);
     
     // get the invalid prediction for admin
     List<Prediction> getInvalidPredictionsForReview();
@@ -0,0 +1,29 @@
+package plant_village.service;
+
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Small JPEG previews of prediction images for list views, generated on first request and
+ * kept on disk under app.thumbnails.dir (prediction images never change once stored).
+ */
+public interface ThumbnailService {
+
+    record Thumbnail(Path file, long length, String etag) {
+    }
+
+    // URL of a prediction's thumbnail (GET /api/predictions/{predictionId}/thumbnail)
+    static String url(Integer predictionId, int size) {
+        return "/api/predictions/" + predictionId + "/thumbnail?size=" + size;
+    }
+
+    // Configured size closest to the requested one (the smallest that is not smaller, else the largest)
+    int resolveSize(int requested);
+
+    // Thumbnail of a live or archived prediction - empty when there is no decodable image
+    Optional<Thumbnail> getThumbnail(Integer predictionId, int size);
+
+    // Remove the thumbnails of deleted predictions
+    void evict(Collection<Integer> predictionIds);
+}
@@ -0,0 +1,35 @@
+package plant_village.service;
+
+import java.util.Map;
+
+/**
+ * Exports images of approved (isCorrect = true) predictions as training data under
+ * app.training-export.dir: one content-addressed file per image and label, plus a manifest.
+ */
+public interface TrainingImageExportService {
+
+    enum Outcome {
+        EXPORTED,   // written now
+        EXISTING,   // already on disk
+        DUPLICATE,  // near-duplicate of an exported image, not written (near-duplicate mode SKIP)
+        SKIPPED,    // nothing to export (no image, unreadable image, not approved) - retrying will not help
+        FAILED      // I/O or database error - worth retrying
+    }
+
+    record ExportResult(Outcome outcome, String message) {
+
+        // Nothing left to do for this image
+        public boolean isDone() {
+            return outcome == Outcome.EXPORTED || outcome == Outcome.EXISTING || outcome == Outcome.DUPLICATE;
+        }
+    }
+
+    // Export approvals newer than the stored watermark in parallel chunks - returns run summary
+    Map<String, Object> exportApprovedImages();
+
+    // Export the image of one feedback (no-op when it is already exported)
+    ExportResult exportFeedbackImage(Integer feedbackId);
+
+    // Watermark, manifest size and last run summary
+    Map<String, Object> getExportStatus();
+}
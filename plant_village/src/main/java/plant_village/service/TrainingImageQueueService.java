@@ -0,0 +1,20 @@
+package plant_village.service;
+
+import java.util.Map;
+
+/**
+ * Background persistence of training images for correct feedback.
+ * The queue is durable: it is the set of correct feedback rows with image_added_to_db = false,
+ * so nothing is lost on restart. Failures are retried with backoff and end up dead-lettered.
+ */
+public interface TrainingImageQueueService {
+
+    // Wake the worker after a feedback was stored - never blocks on file I/O
+    void enqueue(Integer feedbackId);
+
+    // Backlog, retry and dead-letter counts plus the most recent dead letters
+    Map<String, Object> getQueueStatus();
+
+    // Give all dead-lettered images a fresh attempt budget - returns how many were requeued
+    int retryDeadLetters();
+}
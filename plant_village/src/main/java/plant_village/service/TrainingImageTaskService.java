@@ -0,0 +1,15 @@
+package plant_village.service;
+
+import plant_village.model.TrainingImageTask;
+import plant_village.service.TrainingImageExportService.ExportResult;
+
+/**
+ * Retry / dead-letter bookkeeping of training images (Training_Image_Task), shared by the
+ * training image queue and the batch export so both apply the same backoff and attempt limit.
+ */
+public interface TrainingImageTaskService {
+
+    // Record a failed export: RETRY with backoff, or DEAD when out of attempts or not exportable.
+    // The feedback is put back in the queue (image_added_to_db = 0) - returns the stored task
+    TrainingImageTask recordFailure(Integer feedbackId, ExportResult result);
+}
@@ -0,0 +1,21 @@
+package plant_village.service;
+
+import plant_village.dto.PredictionExportRow;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Read side of the user data export (GET /api/users/{userId}/export).
+ * Rows are pushed to the sink while the cursor is open, nothing is collected in memory.
+ */
+public interface UserDataExportService {
+
+    // Prediction metadata of a user, newest first - returns number of rows
+    long streamPredictionRows(Integer userId, Consumer<PredictionExportRow> sink);
+
+    // Inline (data URL) images of a user, one row at a time - returns number of images
+    long streamImages(Integer userId, Consumer<PredictionExportRow> sink);
+
+    // Image of one live or archived prediction, only if it belongs to the user
+    Optional<String> findImage(Integer userId, Integer predictionId);
+}
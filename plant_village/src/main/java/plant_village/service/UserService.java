@@ -1,9 +1,11 @@
 package plant_village.service;
 
+import plant_village.dto.UserListRow;
 import plant_village.model.*;
 import lombok.extern.slf4j.Slf4j;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface UserService {
     
@@ -21,6 +23,9 @@ public interface UserService {
     
     // get all users (admin)
     List<User> findAll();
+
+    // stream all users to the sink through a database cursor (admin), returns the row count
+    long streamUsers(Consumer<UserListRow> sink);
     
     // update user (admin)
     User updateUser(User user);
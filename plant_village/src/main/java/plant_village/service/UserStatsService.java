@@ -0,0 +1,22 @@
+package plant_village.service;
+
+import plant_village.dto.UserStatsResponse;
+import java.util.Map;
+
+/**
+ * Per-user prediction statistics backed by a bounded LRU cache.
+ * Write paths call evict(userId) so the next read recomputes from the aggregate queries.
+ */
+public interface UserStatsService {
+
+    UserStatsResponse getStats(Integer userId);
+
+    // Drop the cached stats of one user (prediction saved/updated/deleted)
+    void evict(Integer userId);
+
+    // Drop all cached stats (bulk changes such as archival)
+    void evictAll();
+
+    // Hit/miss counters and size for GET /api/health/cache
+    Map<String, Object> getCacheStats();
+}
@@ -0,0 +1,300 @@
+package plant_village.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import plant_village.config.datasource.RecordsWrite;
+import plant_village.exception.ConflictException;
+import plant_village.exception.ResourceNotFoundException;
+import plant_village.exception.ServiceUnavailableException;
+import plant_village.model.PredictionArchiveIndex;
+import plant_village.repository.*;
+import plant_village.service.AccountDeletionService;
+import plant_village.service.PredictionArchiveService;
+import plant_village.service.ThumbnailService;
+import plant_village.service.UserStatsService;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Account deletion in bounded chunks
+ *
+ * Each chunk of (at most app.account-deletion.chunk-size) predictions is removed in its own short
+ * transaction with one set-based DELETE per table, children first:
+ *   Prediction_Feedback → Prediction_Log → Prediction_Disease → Prediction_Plant → Prediction
+ * then the user's archived predictions, and finally the User row. Archived rows live in archive files
+ * shared with other users: each affected file is rewritten without the user's rows (or removed when
+ * nothing else is left) before the matching Prediction_Archive_Index rows are deleted, so a failure
+ * in between only repeats the rewrite.
+ * Thumbnails of each deleted chunk are removed after its transaction commits.
+ * Locks are held for one chunk only, so a large account never blocks other requests for long.
+ *
+ * Large accounts can be deleted in the background (startAccountDeletion) with progress
+ * available through getDeletionStatus: app.account-deletion.workers threads and at most
+ * app.account-deletion.queue-capacity waiting jobs, beyond that requests are refused (503).
+ * Finished jobs are kept for app.account-deletion.job-retention-minutes.
+ */
+@Service
+@Slf4j
+public class AccountDeletionServiceImpl implements AccountDeletionService, InitializingBean, DisposableBean {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PredictionRepository predictionRepository;
+
+    @Autowired
+    private PredictionLogRepository predictionLogRepository;
+
+    @Autowired
+    private PredictionFeedbackRepository predictionFeedbackRepository;
+
+    @Autowired
+    private PredictionDiseaseRepository predictionDiseaseRepository;
+
+    @Autowired
+    private PredictionPlantRepository predictionPlantRepository;
+
+    @Autowired
+    private PredictionArchiveIndexRepository archiveIndexRepository;
+
+    @Autowired
+    private PredictionArchiveService archiveService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserStatsService userStatsService;
+
+    @Autowired
+    private ThumbnailService thumbnailService;
+
+    @Value("${app.account-deletion.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.account-deletion.workers:2}")
+    private int workers;
+
+    @Value("${app.account-deletion.queue-capacity:20}")
+    private int queueCapacity;
+
+    @Value("${app.account-deletion.job-retention-minutes:60}")
+    private long jobRetentionMinutes;
+
+    private final Map<String, DeletionJob> jobs = new ConcurrentHashMap<>();
+    private final Map<Integer, DeletionJob> activeByUser = new ConcurrentHashMap<>();
+
+    private ThreadPoolExecutor executor;
+
+    @Override
+    public void afterPropertiesSet() {
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), r -> {
+                Thread thread = new Thread(r, "account-deletion");
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Override
+    @RecordsWrite(key = "userId")
+    public Map<String, Object> deleteAccount(Integer userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found - ID: " + userId);
+        }
+        DeletionJob job = new DeletionJob(userId);
+        if (activeByUser.putIfAbsent(userId, job) != null) {
+            throw new ConflictException("Account deletion already running for user " + userId);
+        }
+        try {
+            run(job);
+        } finally {
+            activeByUser.remove(userId, job);
+        }
+        if (job.error != null) {
+            throw new IllegalStateException("Account deletion failed: " + job.error);
+        }
+        return job.toMap();
+    }
+
+    @Override
+    public Map<String, Object> startAccountDeletion(Integer userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found - ID: " + userId);
+        }
+        purgeFinishedJobs();
+
+        DeletionJob job = new DeletionJob(userId);
+        DeletionJob running = activeByUser.putIfAbsent(userId, job);
+        if (running != null) {
+            // Same account requested twice - report the job that is already running
+            return running.toMap();
+        }
+        jobs.put(job.jobId, job);
+        try {
+            executor.execute(() -> {
+                try {
+                    run(job);
+                } finally {
+                    activeByUser.remove(userId, job);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.jobId);
+            activeByUser.remove(userId, job);
+            throw new ServiceUnavailableException("Too many account deletions waiting, try again later");
+        }
+        log.info("🗑️ Account deletion queued - User ID: {}, Job: {}", userId, job.jobId);
+        return job.toMap();
+    }
+
+    @Override
+    public Optional<Map<String, Object>> getDeletionStatus(String jobId) {
+        DeletionJob job = jobs.get(jobId);
+        return job != null ? Optional.of(job.toMap()) : Optional.empty();
+    }
+
+    /**
+     * Delete everything of job.userId chunk by chunk, updating job progress as it goes
+     */
+    private void run(DeletionJob job) {
+        Integer userId = job.userId;
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        job.status = "RUNNING";
+        job.startedAt = LocalDateTime.now();
+        long start = System.currentTimeMillis();
+
+        try {
+            job.totalPredictions = predictionRepository.countByUser_Id(userId);
+            log.info("🗑️ Account deletion started - User ID: {}, predictions: {}, chunk: {}",
+                    userId, job.totalPredictions, chunkSize);
+
+            // 1. Predictions and their children
+            job.phase = "PREDICTIONS";
+            while (true) {
+                List<Integer> deleted = tx.execute(status -> {
+                    List<Integer> ids = predictionRepository.findIdsByUserId(userId, PageRequest.of(0, chunkSize));
+                    if (ids.isEmpty()) {
+                        return ids;
+                    }
+                    predictionFeedbackRepository.deleteByPredictionIds(ids);
+                    predictionLogRepository.deleteByPredictionIds(ids);
+                    predictionDiseaseRepository.deleteByPredictionIds(ids);
+                    predictionPlantRepository.deleteByPredictionIds(ids);
+                    predictionRepository.deleteByIdIn(ids);
+                    return ids;
+                });
+                if (deleted == null || deleted.isEmpty()) {
+                    break;
+                }
+                thumbnailService.evict(deleted);
+                job.deletedPredictions += deleted.size();
+                job.chunks++;
+            }
+
+            // 2. Archived predictions: archive files first, then their lookup rows
+            job.phase = "ARCHIVE";
+            while (true) {
+                List<PredictionArchiveIndex> rows =
+                        archiveIndexRepository.findByUserIdOrderByPredictionId(userId, PageRequest.of(0, chunkSize));
+                if (rows.isEmpty()) {
+                    break;
+                }
+                Map<String, Set<Integer>> idsByFile = new LinkedHashMap<>();
+                for (PredictionArchiveIndex row : rows) {
+                    idsByFile.computeIfAbsent(row.getArchiveFile(), f -> new HashSet<>()).add(row.getPredictionId());
+                }
+                for (Map.Entry<String, Set<Integer>> entry : idsByFile.entrySet()) {
+                    archiveService.eraseFromArchiveFile(entry.getKey(), entry.getValue());
+                }
+
+                List<Integer> ids = rows.stream().map(PredictionArchiveIndex::getPredictionId).toList();
+                tx.executeWithoutResult(status -> archiveIndexRepository.deleteAllByIdInBatch(ids));
+                thumbnailService.evict(ids);
+                job.deletedArchiveEntries += ids.size();
+                job.chunks++;
+            }
+
+            // 3. The account itself
+            job.phase = "USER";
+            tx.executeWithoutResult(status -> userRepository.deleteById(userId));
+
+            userStatsService.evict(userId);
+            job.phase = "DONE";
+            job.status = "COMPLETED";
+            log.info("✅ Account deleted - User ID: {}, predictions: {}, archived: {}, chunks: {}",
+                    userId, job.deletedPredictions, job.deletedArchiveEntries, job.chunks);
+        } catch (Exception e) {
+            job.status = "FAILED";
+            job.error = e.getMessage();
+            log.error("❌ Account deletion failed - User ID: {}, phase: {}: {}", userId, job.phase, e.getMessage(), e);
+        } finally {
+            job.durationMs = System.currentTimeMillis() - start;
+            job.finishedAt = LocalDateTime.now();
+        }
+    }
+
+    private void purgeFinishedJobs() {
+        LocalDateTime limit = LocalDateTime.now().minusMinutes(jobRetentionMinutes);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(limit));
+    }
+
+    /**
+     * Progress of one deletion (written by the worker, read by status requests)
+     */
+    private static class DeletionJob {
+        final String jobId = UUID.randomUUID().toString();
+        final Integer userId;
+        volatile String status = "QUEUED";
+        volatile String phase = "PENDING";
+        volatile long totalPredictions;
+        volatile long deletedPredictions;
+        volatile long deletedArchiveEntries;
+        volatile int chunks;
+        volatile long durationMs;
+        volatile LocalDateTime startedAt;
+        volatile LocalDateTime finishedAt;
+        volatile String error;
+
+        DeletionJob(Integer userId) {
+            this.userId = userId;
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("jobId", jobId);
+            map.put("userId", userId);
+            map.put("status", status);
+            map.put("phase", phase);
+            map.put("totalPredictions", totalPredictions);
+            map.put("deletedPredictions", deletedPredictions);
+            map.put("deletedArchiveEntries", deletedArchiveEntries);
+            map.put("chunks", chunks);
+            map.put("progress", totalPredictions > 0
+                    ? Math.min(100, Math.round(deletedPredictions * 100.0 / totalPredictions))
+                    : ("COMPLETED".equals(status) ? 100 : 0));
+            map.put("startedAt", startedAt != null ? startedAt.toString() : null);
+            map.put("finishedAt", finishedAt != null ? finishedAt.toString() : null);
+            map.put("durationMs", durationMs);
+            map.put("error", error);
+            return map;
+        }
+    }
+}
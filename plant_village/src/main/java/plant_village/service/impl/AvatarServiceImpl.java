@@ -0,0 +1,211 @@
+package plant_village.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import plant_village.exception.PayloadTooLargeException;
+import plant_village.exception.ResourceNotFoundException;
+import plant_village.exception.ValidationException;
+import plant_village.model.User;
+import plant_village.repository.UserRepository;
+import plant_village.service.AvatarService;
+import plant_village.service.UserService;
+import plant_village.util.ImageResizer;
+
+import javax.imageio.IIOException;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+
+/**
+ * Avatar pipeline
+ *
+ * 1. The upload is copied to a temp file, aborting once app.avatar.max-upload-bytes is exceeded,
+ *    so it is never held in memory as a whole.
+ * 2. Width and height are read from the image header first; images above app.avatar.max-pixels are
+ *    rejected before decoding, larger ones are decoded with subsampling (about twice the output size).
+ * 3. The centre square is scaled to app.avatar.size and encoded as JPEG.
+ * 4. The file is named by the SHA-256 of the JPEG, so a name always identifies the same bytes and can be
+ *    cached forever; uploading the same picture again reuses the file.
+ * 5. The previous avatar file is deleted once no user references it any more. Storing and deleting
+ *    hold the same lock, so a file is never deleted while another user is switching to it.
+ *    Files of replaced avatars written before this cleanup existed are left on disk.
+ */
+@Service
+@Slf4j
+public class AvatarServiceImpl implements AvatarService, InitializingBean {
+
+    private static final String URL_PREFIX = "/uploads/avatars/";
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${app.uploads.dir:uploads}")
+    private String uploadsDir;
+
+    @Value("${app.avatar.size:256}")
+    private int size;
+
+    @Value("${app.avatar.max-upload-bytes:5242880}")
+    private long maxUploadBytes;
+
+    @Value("${app.avatar.max-pixels:40000000}")
+    private long maxPixels;
+
+    @Value("${app.avatar.jpeg-quality:0.85}")
+    private float jpegQuality;
+
+    private Path dir;
+
+    // Serializes "file exists / reuse it" against "unreferenced / delete it"
+    private final Object fileLock = new Object();
+
+    @Override
+    public void afterPropertiesSet() {
+        dir = Paths.get(uploadsDir, "avatars").toAbsolutePath().normalize();
+    }
+
+    @Override
+    public String storeAvatar(String email, InputStream upload) {
+        User user = userService.findByEmail(email)
+            .orElseThrow(() -> new ResourceNotFoundException("User not found - email: " + email));
+
+        long start = System.currentTimeMillis();
+        Path tmp = null;
+        try {
+            Files.createDirectories(dir);
+            tmp = Files.createTempFile(dir, ".upload-", ".tmp");
+            long received = copyCapped(upload, tmp);
+
+            ByteArrayOutputStream jpeg = new ByteArrayOutputStream();
+            ImageResizer.writeJpeg(ImageResizer.square(decode(tmp), size), jpegQuality, jpeg);
+            String fileName = sha256(jpeg.toByteArray()) + ".jpg";
+            Path target = dir.resolve(fileName);
+            String previousUrl = user.getAvatarUrl();
+            synchronized (fileLock) {
+                if (!Files.exists(target)) {
+                    Files.write(tmp, jpeg.toByteArray());
+                    try {
+                        Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+                    } catch (FileAlreadyExistsException e) {
+                        // Same picture stored concurrently - identical content
+                    }
+                }
+
+                user.setAvatarUrl(URL_PREFIX + fileName);
+                userService.updateUser(user);
+                if (previousUrl != null && !previousUrl.equals(user.getAvatarUrl())) {
+                    deleteIfUnreferenced(previousUrl);
+                }
+            }
+            log.info("🖼️ Avatar stored - User ID: {}, {} bytes in, {} bytes out, {} ms",
+                user.getId(), received, jpeg.size(), System.currentTimeMillis() - start);
+            return user.getAvatarUrl();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store avatar: " + e.getMessage(), e);
+        } finally {
+            if (tmp != null) {
+                try {
+                    Files.deleteIfExists(tmp);
+                } catch (IOException e) {
+                    log.warn("⚠️ Could not delete avatar upload {}: {}", tmp, e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Delete an avatar file no user points at any more (only files under the avatars directory:
+     * the URL can also come from a profile update)
+     */
+    private void deleteIfUnreferenced(String avatarUrl) {
+        if (!avatarUrl.startsWith(URL_PREFIX) || userRepository.existsByAvatarUrl(avatarUrl)) {
+            return;
+        }
+        Path file = dir.resolve(avatarUrl.substring(URL_PREFIX.length())).normalize();
+        if (!file.startsWith(dir) || file.equals(dir)) {
+            return;
+        }
+        try {
+            if (Files.deleteIfExists(file)) {
+                log.info("🧹 Replaced avatar deleted - {}", file.getFileName());
+            }
+        } catch (IOException e) {
+            log.warn("⚠️ Could not delete replaced avatar {}: {}", file, e.getMessage());
+        }
+    }
+
+    private long copyCapped(InputStream upload, Path target) throws IOException {
+        byte[] buffer = new byte[8192];
+        long total = 0;
+        try (OutputStream out = Files.newOutputStream(target)) {
+            int read;
+            while ((read = upload.read(buffer)) != -1) {
+                total += read;
+                if (total > maxUploadBytes) {
+                    throw new PayloadTooLargeException("Avatar must not exceed " + maxUploadBytes + " bytes");
+                }
+                out.write(buffer, 0, read);
+            }
+        }
+        if (total == 0) {
+            throw new ValidationException("Avatar file is empty");
+        }
+        return total;
+    }
+
+    private BufferedImage decode(Path file) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = in != null ? ImageIO.getImageReaders(in) : null;
+            if (readers == null || !readers.hasNext()) {
+                throw new ValidationException("Unsupported image format (use JPEG, PNG, GIF or BMP)");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    throw new ValidationException("Image too large: " + width + "x" + height);
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, Math.min(width, height) / (size * 2));
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } catch (IIOException e) {
+                throw new ValidationException("Image could not be decoded: " + e.getMessage());
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
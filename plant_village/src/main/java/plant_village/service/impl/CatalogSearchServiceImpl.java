@@ -0,0 +1,453 @@
+package plant_village.service.impl;
+
+import plant_village.dto.PlantSuggestion;
+import plant_village.model.Disease;
+import plant_village.model.Plant;
+import plant_village.repository.DiseaseRepository;
+import plant_village.repository.PlantRepository;
+import plant_village.service.CatalogSearchService;
+import plant_village.util.InvertedIndex;
+import plant_village.util.NGramIndex;
+import plant_village.util.PrefixIndex;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import lombok.extern.slf4j.Slf4j;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Catalog search
+ *
+ * Both indexes are built once at startup from the catalog tables and then kept current by the
+ * Plant/Disease write paths (applied after commit when called inside a transaction).
+ * A search touches only the posting lists of the query tokens; the matching rows are then loaded
+ * by ID through the entity cache (multiLoad with CacheMode.NORMAL), so only the IDs missing from the
+ * second-level cache are fetched, in one IN (...) query.
+ *
+ * Field weights: name 3, scientific name / symptoms 2, remaining text 1.
+ *
+ * Autocomplete uses an immutable PrefixIndex over plant names, scientific names and the aliases
+ * configured in app.search.plant-aliases ("Tomato=domates|tomatoes;Corn=maize|misir").
+ * Every plant write builds a new snapshot from the in-memory name table and swaps it in,
+ * so lookups never take a lock and never see a half-built index.
+ *
+ * ML labels without an exact disease row are resolved through an immutable trigram NGramIndex
+ * over disease names (rebuilt the same way on disease writes). Matches below
+ * app.search.fuzzy-threshold are rejected; every fuzzy resolution is logged and the most recent
+ * labels are listed in getStats() so missing catalog rows can be added.
+ */
+@Service
+@Slf4j
+public class CatalogSearchServiceImpl implements CatalogSearchService {
+
+    private static final Map<String, Double> DISEASE_FIELDS = Map.of(
+            "diseaseName", 3.0,
+            "symptomDescription", 2.0,
+            "cause", 1.0,
+            "treatment", 1.0,
+            "recommendedMedicines", 1.0);
+
+    private static final Map<String, Double> PLANT_FIELDS = Map.of(
+            "plantName", 3.0,
+            "scientificName", 2.0,
+            "description", 1.0,
+            "careTips", 1.0);
+
+    private static final int MAX_FUZZY_LABELS = 200;
+
+    @Autowired
+    private DiseaseRepository diseaseRepository;
+
+    @Autowired
+    private PlantRepository plantRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.search.plant-aliases:}")
+    private String plantAliasConfig;
+
+    @Value("${app.search.fuzzy-threshold:0.75}")
+    private double fuzzyThreshold;
+
+    // Replaced as a whole by rebuild(); incremental updates go to the current instance
+    private volatile InvertedIndex diseaseIndex;
+    private volatile InvertedIndex plantIndex;
+    private volatile PrefixIndex plantPrefixIndex = PrefixIndex.EMPTY;
+    private volatile NGramIndex diseaseNameIndex = NGramIndex.EMPTY;
+
+    // diseaseId → name, source of the trigram snapshot
+    private final Map<Integer, String> diseaseNames = new ConcurrentHashMap<>();
+    // Labels that needed fuzzy resolution (bounded, for GET /api/health/cache)
+    private final Map<String, Map<String, Object>> fuzzyLabels = new ConcurrentHashMap<>();
+    private final AtomicLong fuzzyResolved = new AtomicLong();
+    private final AtomicLong fuzzyRejected = new AtomicLong();
+
+    // plantId → names used by autocomplete (suggestions are answered without loading entities)
+    private final Map<Integer, PlantNames> plantNames = new ConcurrentHashMap<>();
+    private final AtomicLong autocompleteLookups = new AtomicLong();
+    private final AtomicLong autocompleteNanos = new AtomicLong();
+    private volatile LocalDateTime builtAt;
+    private volatile long lastBuildMs;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            // Retried lazily on the first search
+            log.warn("⚠️ Catalog search index could not be built at startup: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public List<Disease> searchDiseases(String query, int limit) {
+        ensureBuilt();
+        List<Integer> ids = diseaseIndex.search(query, limit);
+        return loadInOrder(Disease.class, ids);
+    }
+
+    @Override
+    public List<Disease> findDiseasesByName(String name) {
+        ensureBuilt();
+        List<Integer> ids = diseaseIndex.findByName(name);
+        return loadInOrder(Disease.class, ids);
+    }
+
+    @Override
+    public Optional<DiseaseMatch> fuzzyMatchDisease(String label) {
+        if (label == null || label.isBlank()) {
+            return Optional.empty();
+        }
+        ensureBuilt();
+        Optional<NGramIndex.Match> best = diseaseNameIndex.best(label);
+        if (best.isEmpty() || best.get().score() < fuzzyThreshold) {
+            fuzzyRejected.incrementAndGet();
+            log.warn("⚠️ Fuzzy disease match rejected - label: '{}', best: '{}' (score {}, threshold {})",
+                    label, best.map(NGramIndex.Match::name).orElse(null),
+                    best.map(m -> String.format("%.2f", m.score())).orElse("-"), fuzzyThreshold);
+            recordFuzzyLabel(label, best.map(NGramIndex.Match::name).orElse(null),
+                    best.map(NGramIndex.Match::score).orElse(0.0), false);
+            return Optional.empty();
+        }
+
+        NGramIndex.Match match = best.get();
+        Optional<Disease> disease = diseaseRepository.findById(match.id());
+        if (disease.isEmpty()) {
+            return Optional.empty();
+        }
+        fuzzyResolved.incrementAndGet();
+        log.info("🔍 Fuzzy disease match - label: '{}' → '{}' (score {})",
+                label, match.name(), String.format("%.2f", match.score()));
+        recordFuzzyLabel(label, match.name(), match.score(), true);
+        return Optional.of(new DiseaseMatch(disease.get(), match.score()));
+    }
+
+    @Override
+    public List<Plant> searchPlants(String query, int limit) {
+        ensureBuilt();
+        List<Integer> ids = plantIndex.search(query, limit);
+        return loadInOrder(Plant.class, ids);
+    }
+
+    @Override
+    public List<PlantSuggestion> autocompletePlants(String prefix, int limit) {
+        ensureBuilt();
+        long start = System.nanoTime();
+        List<PrefixIndex.Match> matches = plantPrefixIndex.lookup(prefix, limit);
+        autocompleteNanos.addAndGet(System.nanoTime() - start);
+        autocompleteLookups.incrementAndGet();
+
+        List<PlantSuggestion> suggestions = new ArrayList<>(matches.size());
+        for (PrefixIndex.Match match : matches) {
+            PlantNames names = plantNames.get(match.id());
+            if (names != null) {
+                suggestions.add(PlantSuggestion.builder()
+                        .plantId(match.id())
+                        .plantName(names.plantName())
+                        .scientificName(names.scientificName())
+                        .matchedField(match.field())
+                        .matchedText(match.text())
+                        .build());
+            }
+        }
+        return suggestions;
+    }
+
+    @Override
+    public List<Plant> findPlantsByPrefix(String prefix, int limit) {
+        ensureBuilt();
+        List<Integer> ids = plantPrefixIndex.lookup(prefix, limit).stream()
+                .map(PrefixIndex.Match::id)
+                .toList();
+        return loadInOrder(Plant.class, ids);
+    }
+
+    @Override
+    public void indexDisease(Disease disease) {
+        if (disease == null || disease.getId() == null) {
+            return;
+        }
+        Map<String, String> fields = diseaseFields(disease);
+        Integer id = disease.getId();
+        String name = disease.getDiseaseName();
+        afterCommit(() -> {
+            synchronized (this) {
+                if (diseaseIndex != null) {
+                    diseaseIndex.put(id, fields);
+                    if (name != null) {
+                        diseaseNames.put(id, name);
+                        diseaseNameIndex = NGramIndex.build(diseaseNames);
+                    }
+                }
+            }
+        });
+    }
+
+    @Override
+    public void removeDisease(Integer diseaseId) {
+        afterCommit(() -> {
+            synchronized (this) {
+                if (diseaseIndex != null) {
+                    diseaseIndex.remove(diseaseId);
+                    diseaseNames.remove(diseaseId);
+                    diseaseNameIndex = NGramIndex.build(diseaseNames);
+                }
+            }
+        });
+    }
+
+    @Override
+    public void indexPlant(Plant plant) {
+        if (plant == null || plant.getId() == null) {
+            return;
+        }
+        Map<String, String> fields = plantFields(plant);
+        Integer id = plant.getId();
+        PlantNames names = new PlantNames(plant.getPlantName(), plant.getScientificName());
+        afterCommit(() -> {
+            synchronized (this) {
+                if (plantIndex != null) {
+                    plantIndex.put(id, fields);
+                    plantNames.put(id, names);
+                    plantPrefixIndex = buildPrefixIndex();
+                }
+            }
+        });
+    }
+
+    @Override
+    public void removePlant(Integer plantId) {
+        afterCommit(() -> {
+            synchronized (this) {
+                if (plantIndex != null) {
+                    plantIndex.remove(plantId);
+                    plantNames.remove(plantId);
+                    plantPrefixIndex = buildPrefixIndex();
+                }
+            }
+        });
+    }
+
+    /**
+     * Build fresh indexes and swap them in; holding the lock keeps concurrent
+     * incremental updates from landing on the instance that is being replaced
+     */
+    @Override
+    public synchronized Map<String, Object> rebuild() {
+        long start = System.currentTimeMillis();
+
+        InvertedIndex diseases = new InvertedIndex(DISEASE_FIELDS, "diseaseName");
+        Map<Integer, String> labels = new HashMap<>();
+        for (Disease disease : diseaseRepository.findAll()) {
+            diseases.put(disease.getId(), diseaseFields(disease));
+            if (disease.getDiseaseName() != null) {
+                labels.put(disease.getId(), disease.getDiseaseName());
+            }
+        }
+        InvertedIndex plants = new InvertedIndex(PLANT_FIELDS, "plantName");
+        Map<Integer, PlantNames> names = new HashMap<>();
+        for (Plant plant : plantRepository.findAll()) {
+            plants.put(plant.getId(), plantFields(plant));
+            names.put(plant.getId(), new PlantNames(plant.getPlantName(), plant.getScientificName()));
+        }
+
+        // Replace the name table in place without a window where live plants are missing
+        plantNames.keySet().retainAll(names.keySet());
+        plantNames.putAll(names);
+        plantPrefixIndex = buildPrefixIndex();
+        diseaseNames.keySet().retainAll(labels.keySet());
+        diseaseNames.putAll(labels);
+        diseaseNameIndex = NGramIndex.build(diseaseNames);
+        diseaseIndex = diseases;
+        plantIndex = plants;
+        builtAt = LocalDateTime.now();
+        lastBuildMs = System.currentTimeMillis() - start;
+        log.info("🔎 Catalog search index built - diseases: {} ({} terms), plants: {} ({} terms, {} prefix keys), {} ms",
+                diseases.getDocumentCount(), diseases.getTermCount(),
+                plants.getDocumentCount(), plants.getTermCount(), plantPrefixIndex.size(), lastBuildMs);
+        return getStats();
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        InvertedIndex diseases = diseaseIndex;
+        InvertedIndex plants = plantIndex;
+        stats.put("built", diseases != null && plants != null);
+        stats.put("diseaseDocuments", diseases != null ? diseases.getDocumentCount() : 0);
+        stats.put("diseaseTerms", diseases != null ? diseases.getTermCount() : 0);
+        stats.put("plantDocuments", plants != null ? plants.getDocumentCount() : 0);
+        stats.put("plantTerms", plants != null ? plants.getTermCount() : 0);
+        stats.put("plantPrefixKeys", plantPrefixIndex.size());
+        long lookups = autocompleteLookups.get();
+        stats.put("autocompleteLookups", lookups);
+        stats.put("autocompleteAvgMicros", lookups > 0
+                ? Math.round(autocompleteNanos.get() / (double) lookups / 10.0) / 100.0 : 0.0);
+        stats.put("fuzzyThreshold", fuzzyThreshold);
+        stats.put("fuzzyResolved", fuzzyResolved.get());
+        stats.put("fuzzyRejected", fuzzyRejected.get());
+        stats.put("fuzzyLabels", new TreeMap<>(fuzzyLabels));
+        stats.put("builtAt", builtAt != null ? builtAt.toString() : null);
+        stats.put("lastBuildMs", lastBuildMs);
+        return stats;
+    }
+
+    private void recordFuzzyLabel(String label, String matchedName, double score, boolean accepted) {
+        if (fuzzyLabels.size() >= MAX_FUZZY_LABELS && !fuzzyLabels.containsKey(label)) {
+            return;
+        }
+        fuzzyLabels.compute(label, (key, entry) -> {
+            Map<String, Object> updated = entry != null ? entry : new LinkedHashMap<>();
+            updated.put("matched", matchedName);
+            updated.put("score", Math.round(score * 100) / 100.0);
+            updated.put("accepted", accepted);
+            updated.merge("count", 1L, (a, b) -> (Long) a + (Long) b);
+            return updated;
+        });
+    }
+
+    private void ensureBuilt() {
+        if (diseaseIndex == null || plantIndex == null) {
+            synchronized (this) {
+                if (diseaseIndex == null || plantIndex == null) {
+                    rebuild();
+                }
+            }
+        }
+    }
+
+    /**
+     * New autocomplete snapshot from the name table and configured aliases (caller holds the lock)
+     */
+    private PrefixIndex buildPrefixIndex() {
+        Map<String, List<String>> aliases = parseAliases(plantAliasConfig);
+        List<PrefixIndex.Source> sources = new ArrayList<>();
+        plantNames.forEach((id, names) -> {
+            sources.add(new PrefixIndex.Source(id, "plantName", names.plantName()));
+            if (names.scientificName() != null) {
+                sources.add(new PrefixIndex.Source(id, "scientificName", names.scientificName()));
+            }
+            for (String alias : aliases.getOrDefault(PrefixIndex.normalize(names.plantName()), List.of())) {
+                sources.add(new PrefixIndex.Source(id, "alias", alias));
+            }
+        });
+        return PrefixIndex.build(sources);
+    }
+
+    /**
+     * "Tomato=domates|tomatoes;Corn=maize" → {tomato: [domates, tomatoes], corn: [maize]}
+     */
+    private static Map<String, List<String>> parseAliases(String config) {
+        Map<String, List<String>> aliases = new HashMap<>();
+        if (config == null || config.isBlank()) {
+            return aliases;
+        }
+        for (String entry : config.split(";")) {
+            String[] parts = entry.split("=", 2);
+            if (parts.length == 2 && !parts[0].isBlank()) {
+                List<String> values = Arrays.stream(parts[1].split("\\|"))
+                        .map(String::trim)
+                        .filter(v -> !v.isEmpty())
+                        .toList();
+                aliases.computeIfAbsent(PrefixIndex.normalize(parts[0]), k -> new ArrayList<>()).addAll(values);
+            }
+        }
+        return aliases;
+    }
+
+    private static Map<String, String> diseaseFields(Disease disease) {
+        Map<String, String> fields = new HashMap<>();
+        fields.put("diseaseName", disease.getDiseaseName());
+        fields.put("symptomDescription", disease.getSymptomDescription());
+        fields.put("cause", disease.getCause());
+        fields.put("treatment", disease.getTreatment());
+        fields.put("recommendedMedicines", disease.getRecommendedMedicines());
+        return fields;
+    }
+
+    private static Map<String, String> plantFields(Plant plant) {
+        Map<String, String> fields = new HashMap<>();
+        fields.put("plantName", plant.getPlantName());
+        fields.put("scientificName", plant.getScientificName());
+        fields.put("description", plant.getDescription());
+        fields.put("careTips", plant.getCareTips());
+        return fields;
+    }
+
+    /**
+     * Load rows by ID and keep the ranking order (rows deleted meanwhile are skipped)
+     */
+    // Rows in the order of ids; entities still in the second-level cache are not queried,
+    // IDs deleted since they were indexed are skipped
+    private <T> List<T> loadInOrder(Class<T> entityClass, List<Integer> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        TransactionTemplate readTx = new TransactionTemplate(transactionManager);
+        readTx.setReadOnly(true);
+        List<T> rows = readTx.execute(tx -> entityManager.unwrap(Session.class)
+                .byMultipleIds(entityClass)
+                .with(CacheMode.NORMAL)
+                .multiLoad(ids));
+        List<T> ordered = new ArrayList<>(ids.size());
+        for (T row : rows) {
+            if (row != null) {
+                ordered.add(row);
+            }
+        }
+        return ordered;
+    }
+
+    private record PlantNames(String plantName, String scientificName) {
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,430 @@
+package plant_village.service.impl;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import plant_village.dto.DatasetCatalog;
+import plant_village.service.DatasetPackagerService;
+import plant_village.util.TarShardWriter;
+import plant_village.util.TrainingImageManifest;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Training dataset packager
+ *
+ * Reads the export manifest (TrainingImageManifest) from the last packed byte offset and appends each
+ * image to tar shards under app.dataset.dir:
+ *   shard-000000.tar         - {index}.{ext} image + {index}.json label metadata per sample (WebDataset layout)
+ *   shard-000000.idx         - fixed 24-byte record per sample: image offset (8), image size (4),
+ *                              metadata offset (8), metadata size (4) - big endian
+ *   shard-000000.labels.tsv  - index, file, plant, disease, sha256 per sample
+ *   catalog.json             - committed state (DatasetCatalog)
+ *
+ * A shard is filled up to app.dataset.shard-max-samples samples or app.dataset.shard-max-bytes,
+ * then the next one is started; the last shard is extended in place by later runs.
+ * catalog.json is replaced atomically after each finished shard and at the end of a run. Bytes past
+ * the committed ends (a run that died half way) are cut off before the shard is appended to again,
+ * so a crash only repeats the uncommitted part of the manifest.
+ *
+ * Sample i is found by a binary search over the shards' first indexes and one idx record read.
+ */
+@Service
+@Slf4j
+public class DatasetPackagerServiceImpl implements DatasetPackagerService, InitializingBean {
+
+    private static final String CATALOG_FILE = "catalog.json";
+    private static final String LABELS_HEADER = "# index\tfile\tplant\tdisease\tsha256\n";
+    private static final int INDEX_RECORD = 24;
+    // Tar headers for the image and metadata entries plus worst-case padding
+    private static final int ENTRY_OVERHEAD = TarShardWriter.BLOCK * 4;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.training-export.dir:approve_img}")
+    private String exportDir;
+
+    @Value("${app.dataset.dir:dataset}")
+    private String datasetDir;
+
+    @Value("${app.dataset.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.dataset.shard-max-samples:10000}")
+    private int shardMaxSamples;
+
+    @Value("${app.dataset.shard-max-bytes:268435456}")
+    private long shardMaxBytes;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    private volatile DatasetCatalog catalog;
+    private volatile Map<String, Object> lastRun;
+
+    private Path exportRoot;
+    private Path root;
+    private TrainingImageManifest manifest;
+
+    @Override
+    public void afterPropertiesSet() throws IOException {
+        exportRoot = Paths.get(exportDir).toAbsolutePath().normalize();
+        root = Paths.get(datasetDir).toAbsolutePath().normalize();
+        manifest = new TrainingImageManifest(exportRoot.resolve(TrainingImageManifest.FILE_NAME));
+        Path catalogFile = root.resolve(CATALOG_FILE);
+        catalog = Files.exists(catalogFile)
+                ? objectMapper.readValue(catalogFile.toFile(), DatasetCatalog.class)
+                : new DatasetCatalog();
+    }
+
+    /**
+     * Nightly run (cron: app.dataset.cron), only when app.dataset.enabled=true
+     */
+    @Scheduled(cron = "${app.dataset.cron:0 0 4 * * *}")
+    public void scheduledPack() {
+        if (!enabled) {
+            return;
+        }
+        packNewImages();
+    }
+
+    @Override
+    public Map<String, Object> packNewImages() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        if (!running.compareAndSet(false, true)) {
+            log.warn("⚠️ Dataset packaging already running, this run is skipped");
+            summary.put("status", "ALREADY_RUNNING");
+            return summary;
+        }
+
+        long start = System.currentTimeMillis();
+        PackRun run = new PackRun(copy(catalog));
+        long firstIndex = run.working.getSamples();
+        String status = "COMPLETED";
+        try {
+            Files.createDirectories(root);
+            log.info("📦 Dataset packaging started - manifest offset: {}, samples: {}",
+                    run.working.getManifestOffset(), run.working.getSamples());
+            manifest.readFrom(run.working.getManifestOffset(), run::accept);
+            run.closeShard();
+            commit(run.working);
+            log.info("✅ Dataset packaging finished - {} samples packed, {} skipped, {} shards touched",
+                    run.packed, run.skipped, run.touched.size());
+        } catch (Exception e) {
+            status = "FAILED";
+            log.error("❌ Dataset packaging failed after {} samples: {}", run.packed, e.getMessage(), e);
+            summary.put("error", e.getMessage());
+            run.abandon();
+        } finally {
+            running.set(false);
+        }
+
+        DatasetCatalog committed = catalog;
+        summary.put("status", status);
+        summary.put("packed", run.packed);
+        summary.put("skipped", run.skipped);
+        summary.put("firstIndex", firstIndex);
+        summary.put("totalSamples", committed.getSamples());
+        summary.put("shards", committed.getShards().size());
+        summary.put("shardsTouched", run.touched);
+        summary.put("durationMs", System.currentTimeMillis() - start);
+        summary.put("finishedAt", LocalDateTime.now().toString());
+        lastRun = summary;
+        return summary;
+    }
+
+    @Override
+    public Optional<Sample> readSample(long index) {
+        DatasetCatalog current = catalog;
+        if (index < 0 || index >= current.getSamples()) {
+            return Optional.empty();
+        }
+        DatasetCatalog.Shard shard = findShard(current.getShards(), index);
+        if (shard == null) {
+            return Optional.empty();
+        }
+        long local = index - shard.getFirstIndex();
+        try {
+            ByteBuffer record = ByteBuffer.allocate(INDEX_RECORD);
+            try (FileChannel idx = FileChannel.open(root.resolve(shard.getName() + ".idx"), StandardOpenOption.READ)) {
+                readFully(idx, record, local * INDEX_RECORD);
+            }
+            record.flip();
+            long imageOffset = record.getLong();
+            int imageSize = record.getInt();
+            long metaOffset = record.getLong();
+            int metaSize = record.getInt();
+
+            ByteBuffer image = ByteBuffer.allocate(imageSize);
+            ByteBuffer meta = ByteBuffer.allocate(metaSize);
+            try (FileChannel tar = FileChannel.open(root.resolve(shard.getName() + ".tar"), StandardOpenOption.READ)) {
+                readFully(tar, image, imageOffset);
+                readFully(tar, meta, metaOffset);
+            }
+            Map<String, Object> metadata = objectMapper.readValue(meta.array(), new TypeReference<>() { });
+            return Optional.of(new Sample(index, shard.getName(), String.valueOf(metadata.get("file")),
+                    image.array(), metadata));
+        } catch (IOException e) {
+            log.error("❌ Error reading dataset sample {} from {}: {}", index, shard.getName(), e.getMessage());
+            throw new IllegalStateException("Dataset sample " + index + " could not be read", e);
+        }
+    }
+
+    @Override
+    public Map<String, Object> getDatasetStats() {
+        DatasetCatalog current = catalog;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("running", running.get());
+        stats.put("datasetDir", root.toString());
+        stats.put("samples", current.getSamples());
+        stats.put("manifestOffset", current.getManifestOffset());
+        stats.put("shardMaxSamples", shardMaxSamples);
+        stats.put("shardMaxBytes", shardMaxBytes);
+        List<Map<String, Object>> shards = new ArrayList<>(current.getShards().size());
+        for (DatasetCatalog.Shard shard : current.getShards()) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("name", shard.getName());
+            row.put("firstIndex", shard.getFirstIndex());
+            row.put("count", shard.getCount());
+            row.put("bytes", shard.getDataEnd() + TarShardWriter.BLOCK * 2L);
+            shards.add(row);
+        }
+        stats.put("shards", shards);
+        stats.put("lastRun", lastRun);
+        return stats;
+    }
+
+    /**
+     * State of one packaging run; the working catalog is only published through commit()
+     */
+    private class PackRun {
+        final DatasetCatalog working;
+        final Set<String> touched = new LinkedHashSet<>();
+        int packed;
+        int skipped;
+        ShardAppender appender;
+
+        PackRun(DatasetCatalog working) {
+            this.working = working;
+        }
+
+        void accept(TrainingImageManifest.Entry entry, long nextOffset) throws IOException {
+            byte[] image;
+            try {
+                image = Files.readAllBytes(exportRoot.resolve(entry.plantFile()));
+            } catch (NoSuchFileException e) {
+                log.warn("⚠️ Exported image missing, not packed: {}", entry.plantFile());
+                skipped++;
+                working.setManifestOffset(nextOffset);
+                return;
+            }
+
+            if (appender != null && appender.isFull(image.length)) {
+                closeShard();
+                commit(working);
+            }
+            if (appender == null) {
+                appender = openShard();
+                touched.add(appender.shard.getName());
+            }
+            appender.add(working.getSamples(), entry, image);
+            working.setSamples(working.getSamples() + 1);
+            working.setManifestOffset(nextOffset);
+            packed++;
+        }
+
+        void closeShard() throws IOException {
+            if (appender != null) {
+                appender.close();
+                appender = null;
+            }
+        }
+
+        // Failed run: release the files, the uncommitted tail is cut off next time
+        void abandon() {
+            if (appender != null) {
+                try {
+                    appender.close();
+                } catch (IOException e) {
+                    log.warn("⚠️ Error closing dataset shard {}: {}", appender.shard.getName(), e.getMessage());
+                }
+                appender = null;
+            }
+        }
+
+        private ShardAppender openShard() throws IOException {
+            List<DatasetCatalog.Shard> shards = working.getShards();
+            DatasetCatalog.Shard last = shards.isEmpty() ? null : shards.get(shards.size() - 1);
+            if (last == null || last.getCount() >= shardMaxSamples || last.getDataEnd() >= shardMaxBytes) {
+                last = new DatasetCatalog.Shard(String.format("shard-%06d", shards.size()), working.getSamples(), 0, 0, 0);
+                shards.add(last);
+            }
+            return new ShardAppender(last);
+        }
+    }
+
+    /**
+     * Open tar, idx and labels files of one shard, positioned at the committed ends
+     */
+    private class ShardAppender implements Closeable {
+        final DatasetCatalog.Shard shard;
+        final TarShardWriter tar;
+        final FileChannel idx;
+        final FileChannel labels;
+
+        ShardAppender(DatasetCatalog.Shard shard) throws IOException {
+            this.shard = shard;
+            this.tar = new TarShardWriter(root.resolve(shard.getName() + ".tar"), shard.getDataEnd());
+            this.idx = openTruncated(root.resolve(shard.getName() + ".idx"), (long) shard.getCount() * INDEX_RECORD);
+            this.labels = openTruncated(root.resolve(shard.getName() + ".labels.tsv"), shard.getLabelsEnd());
+            if (shard.getLabelsEnd() == 0) {
+                shard.setLabelsEnd(writeFully(labels, LABELS_HEADER.getBytes(StandardCharsets.UTF_8)));
+            }
+        }
+
+        boolean isFull(int imageSize) {
+            if (shard.getCount() >= shardMaxSamples) {
+                return true;
+            }
+            // A single oversized image still gets a shard of its own
+            return shard.getCount() > 0 && shard.getDataEnd() + imageSize + ENTRY_OVERHEAD > shardMaxBytes;
+        }
+
+        void add(long index, TrainingImageManifest.Entry entry, byte[] image) throws IOException {
+            String plantFile = entry.plantFile();
+            String extension = plantFile.substring(plantFile.lastIndexOf('.') + 1);
+            String fileName = String.format("%09d.%s", index, extension);
+            String plant = folderOf(plantFile);
+            String disease = folderOf(entry.diseaseFile());
+
+            Map<String, Object> metadata = new LinkedHashMap<>();
+            metadata.put("index", index);
+            metadata.put("file", fileName);
+            metadata.put("plant", plant);
+            metadata.put("disease", disease);
+            metadata.put("sha256", entry.sha256());
+            metadata.put("bytes", image.length);
+            metadata.put("predictionId", entry.predictionId());
+            metadata.put("feedbackId", entry.feedbackId());
+            byte[] meta = objectMapper.writeValueAsBytes(metadata);
+
+            long imageOffset = tar.append(fileName, image);
+            long metaOffset = tar.append(String.format("%09d.json", index), meta);
+
+            ByteBuffer record = ByteBuffer.allocate(INDEX_RECORD);
+            record.putLong(imageOffset).putInt(image.length).putLong(metaOffset).putInt(meta.length).flip();
+            while (record.hasRemaining()) {
+                idx.write(record);
+            }
+            String line = String.join("\t", Long.toString(index), fileName, plant, disease, entry.sha256()) + "\n";
+            long written = writeFully(labels, line.getBytes(StandardCharsets.UTF_8));
+
+            shard.setCount(shard.getCount() + 1);
+            shard.setDataEnd(tar.position());
+            shard.setLabelsEnd(shard.getLabelsEnd() + written);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try (tar; idx; labels) {
+                idx.force(true);
+                labels.force(true);
+            }
+        }
+    }
+
+    /**
+     * Replace catalog.json atomically and publish a copy to readers
+     */
+    private void commit(DatasetCatalog working) throws IOException {
+        Path target = root.resolve(CATALOG_FILE);
+        Path tmp = Files.createTempFile(root, ".catalog-", ".tmp");
+        try {
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(tmp.toFile(), working);
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        catalog = copy(working);
+    }
+
+    private static DatasetCatalog.Shard findShard(List<DatasetCatalog.Shard> shards, long index) {
+        int low = 0;
+        int high = shards.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            DatasetCatalog.Shard shard = shards.get(mid);
+            if (index < shard.getFirstIndex()) {
+                high = mid - 1;
+            } else if (index >= shard.getFirstIndex() + shard.getCount()) {
+                low = mid + 1;
+            } else {
+                return shard;
+            }
+        }
+        return null;
+    }
+
+    private static DatasetCatalog copy(DatasetCatalog source) {
+        DatasetCatalog copy = new DatasetCatalog();
+        copy.setManifestOffset(source.getManifestOffset());
+        copy.setSamples(source.getSamples());
+        for (DatasetCatalog.Shard shard : source.getShards()) {
+            copy.getShards().add(new DatasetCatalog.Shard(shard.getName(), shard.getFirstIndex(),
+                    shard.getCount(), shard.getDataEnd(), shard.getLabelsEnd()));
+        }
+        return copy;
+    }
+
+    // plant/Tomato/abc.png -> Tomato
+    private static String folderOf(String relativeFile) {
+        String[] parts = relativeFile.split("/");
+        return parts.length >= 3 ? parts[parts.length - 2] : "Unknown";
+    }
+
+    private static FileChannel openTruncated(Path file, long size) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        channel.truncate(size);
+        channel.position(size);
+        return channel;
+    }
+
+    private static long writeFully(FileChannel channel, byte[] bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        return bytes.length;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("Unexpected end of " + channel);
+            }
+        }
+    }
+}
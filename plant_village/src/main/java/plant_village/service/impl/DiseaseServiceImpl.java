@@ -2,14 +2,17 @@ package plant_village.service.impl;
 
 import plant_village.model.Disease;
 import plant_village.repository.DiseaseRepository;
+import plant_village.service.CatalogSearchService;
 import plant_village.service.DiseaseService;
 import plant_village.exception.ResourceNotFoundException;
+import plant_village.util.PlantDiseaseCacheManager;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import lombok.extern.slf4j.Slf4j;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 @Slf4j
@@ -18,13 +21,25 @@ public class DiseaseServiceImpl implements DiseaseService {
     @Autowired
     private DiseaseRepository diseaseRepository;
     
+    // Evict hand-rolled lookup cache on writes (Hibernate L2 evicts itself)
+    @Autowired(required = false)
+    private PlantDiseaseCacheManager cacheManager;
+    
+    @Autowired
+    private CatalogSearchService catalogSearchService;
+    
+    @Value("${app.search.max-results:50}")
+    private int maxSearchResults;
+    
     @Override
+    @Transactional(readOnly = true)
     public List<Disease> getAllDiseases() {
         log.info("Listing all diseases");
         return diseaseRepository.findAll();
     }
     
     @Override
+    @Transactional(readOnly = true)
     public Optional<Disease> getDiseaseById(Integer id) {
         log.info("Fetching disease - ID: {}", id);
         Optional<Disease> disease = diseaseRepository.findById(id);
@@ -36,11 +51,10 @@ public class DiseaseServiceImpl implements DiseaseService {
     }
     
     @Override
+    @Transactional(readOnly = true)
     public List<Disease> searchByName(String name) {
         log.info("Searching disease - Name: {}", name);
-        List<Disease> diseases = diseaseRepository.findAll().stream()
-            .filter(d -> d.getDiseaseName().equalsIgnoreCase(name))
-            .collect(Collectors.toList());
+        List<Disease> diseases = catalogSearchService.findDiseasesByName(name);
         
         if (diseases.isEmpty()) {
             throw new ResourceNotFoundException("Disease not found - Name: " + name);
@@ -49,19 +63,19 @@ public class DiseaseServiceImpl implements DiseaseService {
     }
     
     @Override
+    @Transactional(readOnly = true)
     public List<Disease> searchByKeyword(String keyword) {
         log.info("Searching disease by keyword - Keyword: {}", keyword);
-        return diseaseRepository.findAll().stream()
-            .filter(d -> d.getDiseaseName().toLowerCase().contains(keyword.toLowerCase()) ||
-                        (d.getSymptomDescription() != null && d.getSymptomDescription().toLowerCase().contains(keyword.toLowerCase())) ||
-                        (d.getTreatment() != null && d.getTreatment().toLowerCase().contains(keyword.toLowerCase())))
-            .collect(Collectors.toList());
+        return catalogSearchService.searchDiseases(keyword, maxSearchResults);
     }
     
     @Override
     public Disease createDisease(Disease disease) {
         log.info("Creating new disease - Name: {}", disease.getDiseaseName());
-        return diseaseRepository.save(disease);
+        Disease saved = diseaseRepository.save(disease);
+        evictFromCache(saved.getId());
+        catalogSearchService.indexDisease(saved);
+        return saved;
     }
     
     @Override
@@ -83,7 +97,10 @@ public class DiseaseServiceImpl implements DiseaseService {
             disease.setTreatment(diseaseDetails.getTreatment());
         }
         
-        return diseaseRepository.save(disease);
+        Disease saved = diseaseRepository.save(disease);
+        evictFromCache(id);
+        catalogSearchService.indexDisease(saved);
+        return saved;
     }
     
     @Override
@@ -93,6 +110,14 @@ public class DiseaseServiceImpl implements DiseaseService {
             throw new ResourceNotFoundException("Disease not found - ID: " + id);
         }
         diseaseRepository.deleteById(id);
+        evictFromCache(id);
+        catalogSearchService.removeDisease(id);
         log.info("Disease deleted - ID: {}", id);
     }
+    
+    private void evictFromCache(Integer id) {
+        if (cacheManager != null) {
+            cacheManager.evictDisease(id);
+        }
+    }
 }
@@ -0,0 +1,129 @@
+package plant_village.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import plant_village.service.IdempotencyService;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * In-memory idempotency store: key → in-progress or completed result
+ *
+ * Entries live in an insertion-ordered LinkedHashMap, so the oldest are at the head: expired ones
+ * (app.idempotency.ttl-minutes after the first request) are dropped from the head on every call,
+ * and the eldest is dropped above app.idempotency.max-keys. Each entry holds a CompletableFuture
+ * that duplicates wait on for at most app.idempotency.wait-seconds. A failed or non-cacheable
+ * result is handed to the waiting duplicates and the key is released, so the next retry runs again.
+ *
+ * The store is per instance - behind a load balancer, duplicates only meet when they reach the same node.
+ */
+@Service
+@Slf4j
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private static final class Entry {
+        final String fingerprint;
+        final long createdAt;
+        final CompletableFuture<Object> result = new CompletableFuture<>();
+
+        Entry(String fingerprint, long createdAt) {
+            this.fingerprint = fingerprint;
+            this.createdAt = createdAt;
+        }
+    }
+
+    private final long ttlMillis;
+    private final long waitMillis;
+    private final Map<String, Entry> entries;
+
+    public IdempotencyServiceImpl(@Value("${app.idempotency.ttl-minutes:60}") long ttlMinutes,
+                                  @Value("${app.idempotency.wait-seconds:45}") long waitSeconds,
+                                  @Value("${app.idempotency.max-keys:10000}") int maxKeys) {
+        this.ttlMillis = TimeUnit.MINUTES.toMillis(ttlMinutes);
+        this.waitMillis = TimeUnit.SECONDS.toMillis(waitSeconds);
+        this.entries = new LinkedHashMap<>(256) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxKeys;
+            }
+        };
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Result<T> execute(String key, String fingerprint, Supplier<T> action, Predicate<T> cacheable) {
+        Entry entry;
+        boolean owner;
+        synchronized (entries) {
+            long now = System.currentTimeMillis();
+            purgeExpired(now);
+            entry = entries.get(key);
+            if (entry != null && !entry.fingerprint.equals(fingerprint)) {
+                return new Result<>(Outcome.KEY_REUSED, null);
+            }
+            owner = entry == null;
+            if (owner) {
+                entry = new Entry(fingerprint, now);
+                entries.put(key, entry);
+            }
+        }
+
+        if (owner) {
+            T value;
+            try {
+                value = action.get();
+            } catch (RuntimeException e) {
+                release(key, entry);
+                entry.result.completeExceptionally(e);
+                throw e;
+            }
+            if (!cacheable.test(value)) {
+                release(key, entry);
+            }
+            entry.result.complete(value);
+            return new Result<>(Outcome.EXECUTED, value);
+        }
+
+        log.info("🔁 Duplicate request for idempotency key {} - {}", key,
+            entry.result.isDone() ? "replaying the stored result" : "waiting for the running one");
+        try {
+            return new Result<>(Outcome.REPLAYED, (T) entry.result.get(waitMillis, TimeUnit.MILLISECONDS));
+        } catch (TimeoutException e) {
+            return new Result<>(Outcome.IN_PROGRESS, null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Result<>(Outcome.IN_PROGRESS, null);
+        } catch (ExecutionException e) {
+            // The first request failed - the duplicate fails the same way
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void release(String key, Entry entry) {
+        synchronized (entries) {
+            entries.remove(key, entry);
+        }
+    }
+
+    private void purgeExpired(long now) {
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            if (now - it.next().createdAt <= ttlMillis) {
+                break;
+            }
+            it.remove();
+        }
+    }
+}
@@ -1,11 +1,16 @@
 package plant_village.service.impl;
 
+import plant_village.dto.PlantSuggestion;
 import plant_village.model.Plant;
 import plant_village.repository.PlantRepository;
+import plant_village.service.CatalogSearchService;
 import plant_village.service.PlantService;
 import plant_village.exception.ResourceNotFoundException;
+import plant_village.util.PlantDiseaseCacheManager;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import lombok.extern.slf4j.Slf4j;
 import java.util.List;
 import java.util.Optional;
@@ -17,13 +22,25 @@ public class PlantServiceImpl implements PlantService {
     @Autowired
     private PlantRepository plantRepository;
     
+    // Evict hand-rolled lookup cache on writes (Hibernate L2 evicts itself)
+    @Autowired(required = false)
+    private PlantDiseaseCacheManager cacheManager;
+    
+    @Autowired
+    private CatalogSearchService catalogSearchService;
+    
+    @Value("${app.search.max-results:50}")
+    private int maxSearchResults;
+    
     @Override
+    @Transactional(readOnly = true)
     public List<Plant> getAllPlants() {
         log.info("Listing all plants");
         return plantRepository.findAll();
     }
     
     @Override
+    @Transactional(readOnly = true)
     public Optional<Plant> getPlantById(Integer id) {
         log.info("Fetching plant - ID: {}", id);
         Optional<Plant> plant = plantRepository.findById(id);
@@ -35,15 +52,31 @@ public class PlantServiceImpl implements PlantService {
     }
     
     @Override
+    @Transactional(readOnly = true)
     public List<Plant> searchByName(String name) {
         log.info("Searching plant - Name: {}", name);
-        return plantRepository.findByPlantNameContainingIgnoreCase(name);
+        // Prefix index (name, scientific name, aliases) instead of LIKE '%name%' per keystroke
+        return catalogSearchService.findPlantsByPrefix(name, maxSearchResults);
+    }
+    
+    @Override
+    public List<Plant> searchByKeyword(String keyword) {
+        log.info("Searching plant by keyword - Keyword: {}", keyword);
+        return catalogSearchService.searchPlants(keyword, maxSearchResults);
+    }
+    
+    @Override
+    public List<PlantSuggestion> autocomplete(String prefix, int limit) {
+        return catalogSearchService.autocompletePlants(prefix, Math.min(limit, maxSearchResults));
     }
     
     @Override
     public Plant createPlant(Plant plant) {
         log.info("Creating new plant - Name: {}", plant.getPlantName());
-        return plantRepository.save(plant);
+        Plant saved = plantRepository.save(plant);
+        evictFromCache(saved.getId());
+        catalogSearchService.indexPlant(saved);
+        return saved;
     }
     
     @Override
@@ -80,7 +113,10 @@ public class PlantServiceImpl implements PlantService {
             plant.setValidClassification(plantDetails.getValidClassification());
         }
         
-        return plantRepository.save(plant);
+        Plant saved = plantRepository.save(plant);
+        evictFromCache(id);
+        catalogSearchService.indexPlant(saved);
+        return saved;
     }
     
     @Override
@@ -90,6 +126,14 @@ public class PlantServiceImpl implements PlantService {
             throw new ResourceNotFoundException("Plant not found - ID: " + id);
         }
         plantRepository.deleteById(id);
+        evictFromCache(id);
+        catalogSearchService.removePlant(id);
         log.info("Plant deleted - ID: {}", id);
     }
+    
+    private void evictFromCache(Integer id) {
+        if (cacheManager != null) {
+            cacheManager.evictPlant(id);
+        }
+    }
 }
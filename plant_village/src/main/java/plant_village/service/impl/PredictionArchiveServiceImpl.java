@@ -0,0 +1,408 @@
+package plant_village.service.impl;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import plant_village.dto.ArchivedPredictionDTO;
+import plant_village.model.*;
+import plant_village.repository.*;
+import plant_village.service.PredictionArchiveService;
+import plant_village.service.UserStatsService;
+import plant_village.util.JsonStreamWriter;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Prediction archival
+ *
+ * Predictions older than app.archive.max-age-days are moved out of the hot tables in chunks:
+ * 1. Read a chunk of IDs (keyset paging on prediction_id) and load the rows with their links
+ * 2. Write them as gzip NDJSON to predictions/yyyy/MM/predictions-{firstId}-{lastId}.ndjson.gz
+ *    (temp file + fsync + atomic rename, so a crash never leaves a half-written archive)
+ * 3. In one short transaction: insert Prediction_Archive_Index rows and delete the originals
+ *
+ * A crash between 2 and 3 only leaves an orphan file; the rows are still in the hot tables
+ * and the next run writes the same chunk again (same file name, replaced).
+ * Predictions with feedback waiting for admin approval are never archived.
+ *
+ * Account deletion erases a user's rows from the shared files (eraseFromArchiveFile): the file is
+ * rewritten without them the same way (temp file + fsync + atomic rename), or removed once empty.
+ * Rewrites are serialized, so two deletions touching the same file never lose each other's changes.
+ */
+@Service
+@Slf4j
+public class PredictionArchiveServiceImpl implements PredictionArchiveService {
+
+    private static final DateTimeFormatter PARTITION_FORMAT = DateTimeFormatter.ofPattern("yyyy/MM");
+
+    @Autowired
+    private PredictionRepository predictionRepository;
+
+    @Autowired
+    private PredictionLogRepository predictionLogRepository;
+
+    @Autowired
+    private PredictionFeedbackRepository predictionFeedbackRepository;
+
+    @Autowired
+    private PredictionDiseaseRepository predictionDiseaseRepository;
+
+    @Autowired
+    private PredictionPlantRepository predictionPlantRepository;
+
+    @Autowired
+    private PredictionArchiveIndexRepository archiveIndexRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserStatsService userStatsService;
+
+    @Value("${app.archive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.archive.dir:archive}")
+    private String archiveDir;
+
+    @Value("${app.archive.max-age-days:365}")
+    private int maxAgeDays;
+
+    @Value("${app.archive.chunk-size:50}")
+    private int chunkSize;
+
+    @Value("${app.archive.max-chunks-per-run:1000}")
+    private int maxChunksPerRun;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final Object rewriteLock = new Object();
+
+    private volatile Map<String, Object> lastRun;
+
+    /**
+     * Nightly run (cron: app.archive.cron), only when app.archive.enabled=true
+     */
+    @Scheduled(cron = "${app.archive.cron:0 30 3 * * *}")
+    public void scheduledArchive() {
+        if (!enabled) {
+            return;
+        }
+        archiveOldPredictions();
+    }
+
+    @Override
+    public Map<String, Object> archiveOldPredictions() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        if (!running.compareAndSet(false, true)) {
+            log.warn("⚠️ Arşivleme zaten çalışıyor, bu çalıştırma atlandı");
+            summary.put("status", "ALREADY_RUNNING");
+            return summary;
+        }
+
+        long start = System.currentTimeMillis();
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(maxAgeDays);
+        log.info("🗄️ Arşivleme başladı - Cutoff: {}, Chunk: {}", cutoff, chunkSize);
+
+        TransactionTemplate readTx = new TransactionTemplate(transactionManager);
+        readTx.setReadOnly(true);
+        TransactionTemplate writeTx = new TransactionTemplate(transactionManager);
+
+        int archived = 0;
+        int chunks = 0;
+        Set<String> files = new HashSet<>();
+        String status = "COMPLETED";
+        try {
+            int afterId = 0;
+            while (chunks < maxChunksPerRun) {
+                final int lastId = afterId;
+                List<ArchivedPredictionDTO> chunk = readTx.execute(tx -> loadChunk(cutoff, lastId));
+                if (chunk == null || chunk.isEmpty()) {
+                    break;
+                }
+
+                // Group by creation month, one file per month per chunk
+                Map<String, List<ArchivedPredictionDTO>> partitions = chunk.stream()
+                    .collect(Collectors.groupingBy(this::partitionOf, LinkedHashMap::new, Collectors.toList()));
+
+                List<PredictionArchiveIndex> indexRows = new ArrayList<>(chunk.size());
+                for (Map.Entry<String, List<ArchivedPredictionDTO>> partition : partitions.entrySet()) {
+                    String file = writeArchiveFile(partition.getKey(), partition.getValue());
+                    files.add(file);
+                    for (ArchivedPredictionDTO dto : partition.getValue()) {
+                        indexRows.add(PredictionArchiveIndex.builder()
+                            .predictionId(dto.getPredictionId())
+                            .userId(dto.getUserId())
+                            .createAt(dto.getCreateAt())
+                            .archiveFile(file)
+                            .build());
+                    }
+                }
+
+                List<Integer> ids = chunk.stream().map(ArchivedPredictionDTO::getPredictionId).toList();
+                writeTx.executeWithoutResult(tx -> {
+                    archiveIndexRepository.saveAll(indexRows);
+                    predictionFeedbackRepository.deleteByPredictionIds(ids);
+                    predictionLogRepository.deleteByPredictionIds(ids);
+                    predictionDiseaseRepository.deleteByPredictionIds(ids);
+                    predictionPlantRepository.deleteByPredictionIds(ids);
+                    predictionRepository.deleteByIdIn(ids);
+                });
+
+                archived += ids.size();
+                chunks++;
+                afterId = ids.get(ids.size() - 1);
+            }
+            if (chunks >= maxChunksPerRun) {
+                status = "PARTIAL";
+            }
+            if (archived > 0) {
+                // Live/archived split of the user stats changed
+                userStatsService.evictAll();
+            }
+            log.info("✅ Arşivleme tamamlandı - {} tahmin, {} parça, {} dosya", archived, chunks, files.size());
+        } catch (Exception e) {
+            status = "FAILED";
+            log.error("❌ Arşivleme hatası ({} tahmin arşivlendikten sonra): {}", archived, e.getMessage(), e);
+            summary.put("error", e.getMessage());
+        } finally {
+            running.set(false);
+        }
+
+        summary.put("status", status);
+        summary.put("archived", archived);
+        summary.put("chunks", chunks);
+        summary.put("files", files.size());
+        summary.put("cutoff", cutoff.toString());
+        summary.put("durationMs", System.currentTimeMillis() - start);
+        summary.put("finishedAt", LocalDateTime.now().toString());
+        lastRun = summary;
+        return summary;
+    }
+
+    @Override
+    public long streamArchivedByUser(Integer userId, Consumer<ArchivedPredictionDTO> sink) {
+        List<PredictionArchiveIndex> rows = archiveIndexRepository.findByUserIdOrderByCreateAtDesc(userId);
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        // Files in newest-first order; each file holds at most one chunk, so buffering per file is bounded
+        Map<String, Set<Integer>> idsByFile = new LinkedHashMap<>();
+        for (PredictionArchiveIndex row : rows) {
+            idsByFile.computeIfAbsent(row.getArchiveFile(), f -> new HashSet<>()).add(row.getPredictionId());
+        }
+
+        long count = 0;
+        for (Map.Entry<String, Set<Integer>> entry : idsByFile.entrySet()) {
+            List<ArchivedPredictionDTO> matches = readArchiveFile(entry.getKey(), entry.getValue());
+            matches.sort(Comparator.comparing(ArchivedPredictionDTO::getCreateAt,
+                Comparator.nullsLast(Comparator.reverseOrder())));
+            for (ArchivedPredictionDTO dto : matches) {
+                sink.accept(dto);
+                count++;
+            }
+        }
+        log.info("🗄️ Arşivden okundu - User ID: {}, {} tahmin", userId, count);
+        return count;
+    }
+
+    @Override
+    public List<ArchivedPredictionDTO> getArchivedByUser(Integer userId) {
+        List<ArchivedPredictionDTO> result = new ArrayList<>();
+        streamArchivedByUser(userId, result::add);
+        return result;
+    }
+
+    @Override
+    public Optional<ArchivedPredictionDTO> getArchivedById(Integer predictionId) {
+        return archiveIndexRepository.findById(predictionId)
+            .flatMap(row -> readArchiveFile(row.getArchiveFile(), Set.of(predictionId)).stream().findFirst());
+    }
+
+    @Override
+    public Map<String, Object> getArchiveStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("archiveDir", Paths.get(archiveDir).toAbsolutePath().toString());
+        stats.put("maxAgeDays", maxAgeDays);
+        stats.put("chunkSize", chunkSize);
+        stats.put("archivedPredictions", archiveIndexRepository.count());
+        stats.put("archiveFiles", archiveIndexRepository.countArchiveFiles());
+        stats.put("running", running.get());
+        stats.put("lastRun", lastRun);
+        return stats;
+    }
+
+    @Override
+    public int eraseFromArchiveFile(String archiveFile, Set<Integer> predictionIds) {
+        synchronized (rewriteLock) {
+            Path path = Paths.get(archiveDir).resolve(archiveFile);
+            if (!Files.exists(path)) {
+                return 0;
+            }
+            Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+            int[] counts = new int[2];  // removed, kept
+            try (InputStream in = new GZIPInputStream(new BufferedInputStream(Files.newInputStream(path)));
+                 MappingIterator<ArchivedPredictionDTO> rows =
+                     objectMapper.readerFor(ArchivedPredictionDTO.class).readValues(in)) {
+                writeGzipFile(temp, writer -> {
+                    while (rows.hasNext()) {
+                        ArchivedPredictionDTO row = rows.next();
+                        if (predictionIds.contains(row.getPredictionId())) {
+                            counts[0]++;
+                        } else {
+                            writer.accept(row);
+                            counts[1]++;
+                        }
+                    }
+                });
+                if (counts[0] == 0) {
+                    Files.delete(temp);
+                } else if (counts[1] == 0) {
+                    Files.delete(temp);
+                    Files.delete(path);
+                } else {
+                    Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Arşiv dosyası yeniden yazılamadı: " + archiveFile, e);
+            }
+            log.info("🗑️ Arşivden silindi - {}: {} tahmin, {} kaldı", archiveFile, counts[0], counts[1]);
+            return counts[0];
+        }
+    }
+
+    /**
+     * Load the next chunk of archivable predictions with their logs, feedback and links
+     */
+    private List<ArchivedPredictionDTO> loadChunk(LocalDateTime cutoff, int afterId) {
+        List<Integer> ids = predictionRepository.findArchivableIds(cutoff, afterId, PageRequest.of(0, chunkSize));
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Integer, List<PredictionLog>> logs = predictionLogRepository.findByPrediction_IdIn(ids).stream()
+            .collect(Collectors.groupingBy(l -> l.getPrediction().getId()));
+        Map<Integer, List<PredictionFeedback>> feedback = predictionFeedbackRepository.findByPrediction_IdIn(ids).stream()
+            .collect(Collectors.groupingBy(f -> f.getPrediction().getId()));
+        Map<Integer, List<PredictionDisease>> diseases = predictionDiseaseRepository.findWithDiseaseByPredictionIdIn(ids).stream()
+            .collect(Collectors.groupingBy(PredictionDisease::getPredictionId));
+        Map<Integer, List<PredictionPlant>> plants = predictionPlantRepository.findByPredictionIdIn(ids).stream()
+            .collect(Collectors.groupingBy(PredictionPlant::getPredictionId));
+
+        List<ArchivedPredictionDTO> chunk = new ArrayList<>(ids.size());
+        for (Prediction p : predictionRepository.findAllById(ids)) {
+            Integer id = p.getId();
+            chunk.add(ArchivedPredictionDTO.builder()
+                .predictionId(id)
+                .userId(p.getUser() != null ? p.getUser().getId() : null)
+                .predictionType(p.getPredictionType())
+                .confidence(p.getConfidence())
+                .uploadedImageUrl(p.getUploadedImageUrl())
+                .createAt(p.getCreateAt())
+                .isValid(p.getIsValid())
+                .plantIds(plants.getOrDefault(id, List.of()).stream()
+                    .map(PredictionPlant::getPlantId)
+                    .toList())
+                .diseases(diseases.getOrDefault(id, List.of()).stream()
+                    .map(pd -> new ArchivedPredictionDTO.DiseaseLink(
+                        pd.getDiseaseId(),
+                        pd.getDisease() != null ? pd.getDisease().getDiseaseName() : null,
+                        pd.getIsHealthy()))
+                    .toList())
+                .logs(logs.getOrDefault(id, List.of()).stream()
+                    .map(l -> new ArchivedPredictionDTO.LogEntry(l.getId(), l.getActionType(), l.getTimestamp()))
+                    .toList())
+                .feedback(feedback.getOrDefault(id, List.of()).stream()
+                    .map(f -> new ArchivedPredictionDTO.FeedbackEntry(
+                        f.getFeedbackId(), f.getIsCorrect(), f.getIsApprovedFromAdmin(), f.getComment(),
+                        f.getCreatedAt(), f.getUpdatedAt(), f.getImageAddedToDb()))
+                    .toList())
+                .build());
+        }
+        chunk.sort(Comparator.comparing(ArchivedPredictionDTO::getPredictionId));
+        return chunk;
+    }
+
+    private String partitionOf(ArchivedPredictionDTO dto) {
+        return dto.getCreateAt() != null ? dto.getCreateAt().format(PARTITION_FORMAT) : "undated";
+    }
+
+    /**
+     * Write one partition of a chunk as gzip NDJSON, return the path relative to app.archive.dir
+     */
+    private String writeArchiveFile(String partition, List<ArchivedPredictionDTO> rows) throws IOException {
+        String relative = "predictions/" + partition + "/predictions-"
+            + rows.get(0).getPredictionId() + "-" + rows.get(rows.size() - 1).getPredictionId() + ".ndjson.gz";
+        Path target = Paths.get(archiveDir).resolve(relative);
+        Files.createDirectories(target.getParent());
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        writeGzipFile(temp, writer -> rows.forEach(writer));
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return relative;
+    }
+
+    /**
+     * Write the rows passed to the writer as gzip NDJSON and force them to disk
+     */
+    private void writeGzipFile(Path file, Consumer<JsonStreamWriter<ArchivedPredictionDTO>> rows) throws IOException {
+        try (FileOutputStream fileOut = new FileOutputStream(file.toFile())) {
+            GZIPOutputStream gzip = new GZIPOutputStream(new BufferedOutputStream(fileOut));
+            try (JsonStreamWriter<ArchivedPredictionDTO> writer = new JsonStreamWriter<>(
+                    gzip, JsonStreamWriter.Format.NDJSON, objectMapper, (gen, row) -> gen.writeObject(row))) {
+                rows.accept(writer);
+            }
+            gzip.finish();
+            gzip.flush();
+            // Make sure the archive is on disk before the rows are deleted
+            FileChannel channel = fileOut.getChannel();
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Read the given predictions back from one archive file
+     */
+    private List<ArchivedPredictionDTO> readArchiveFile(String relative, Set<Integer> predictionIds) {
+        Path path = Paths.get(archiveDir).resolve(relative);
+        List<ArchivedPredictionDTO> result = new ArrayList<>();
+        if (!Files.exists(path)) {
+            log.error("❌ Arşiv dosyası bulunamadı: {}", path);
+            return result;
+        }
+
+        try (InputStream in = new GZIPInputStream(new BufferedInputStream(Files.newInputStream(path)));
+             MappingIterator<ArchivedPredictionDTO> rows =
+                 objectMapper.readerFor(ArchivedPredictionDTO.class).readValues(in)) {
+            while (rows.hasNext() && result.size() < predictionIds.size()) {
+                ArchivedPredictionDTO row = rows.next();
+                if (predictionIds.contains(row.getPredictionId())) {
+                    result.add(row);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Arşiv dosyası okunamadı: " + relative, e);
+        }
+        return result;
+    }
+}
@@ -2,25 +2,42 @@ package plant_village.service.impl;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import plant_village.dto.BulkFeedbackResult;
+import plant_village.dto.FeedbackCreateRequest;
+import plant_village.dto.FeedbackListRow;
 import plant_village.exception.ResourceNotFoundException;
-import plant_village.model.Prediction;
+import plant_village.exception.ValidationException;
+import plant_village.model.JobCheckpoint;
 import plant_village.model.PredictionFeedback;
+import plant_village.repository.JobCheckpointRepository;
 import plant_village.repository.PredictionFeedbackRepository;
 import plant_village.repository.PredictionRepository;
 import plant_village.service.PredictionFeedbackService;
+import plant_village.service.TrainingImageExportService;
+import plant_village.service.TrainingImageQueueService;
 
-import java.io.File;
-import java.io.FileOutputStream;
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.time.LocalDateTime;
-import java.util.Base64;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
 
 /**
  * Service implementation for Prediction Feedback operations.
@@ -37,6 +54,42 @@ public class PredictionFeedbackServiceImpl implements PredictionFeedbackService
     
     @Autowired
     private PredictionRepository predictionRepository;
+
+    @Autowired
+    private JobCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private TrainingImageExportService trainingImageExportService;
+
+    @Autowired
+    private TrainingImageQueueService trainingImageQueueService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.feedback-processing.enabled:true}")
+    private boolean pendingProcessingEnabled;
+
+    @Value("${app.feedback-processing.chunk-size:1000}")
+    private int pendingChunkSize;
+
+    @Value("${app.feedback-processing.max-chunks-per-run:1000}")
+    private int pendingMaxChunksPerRun;
+
+    @Value("${app.feedback.bulk.max-items:5000}")
+    private int bulkMaxItems;
+
+    @Value("${app.feedback.bulk.chunk-size:500}")
+    private int bulkChunkSize;
+
+    // Prediction_Feedback.comment is NVARCHAR(500)
+    private static final int MAX_COMMENT_LENGTH = 500;
+
+    private static final String PENDING_FEEDBACK_JOB = "pending-feedback-images";
+
+    private final AtomicBoolean pendingProcessingRunning = new AtomicBoolean(false);
+
+    private volatile Map<String, Object> lastPendingRun;
     
     /**
      * Submit feedback for a prediction
@@ -79,21 +132,110 @@ public class PredictionFeedbackServiceImpl implements PredictionFeedbackService
         log.info("Feedback submitted successfully for prediction ID: {} (Feedback ID: {})",
             feedback.getPrediction().getId(), savedFeedback.getFeedbackId());
         
-        // If this feedback is marked as correct, automatically save the image
+        // If this feedback is marked as correct, the image is saved in the background
+        // (the row itself, image_added_to_db = false, is the queue entry)
         if (savedFeedback.getIsCorrect() != null && savedFeedback.getIsCorrect()) {
-            log.info("📸 Feedback marked as correct - automatically saving image for prediction ID: {}", 
+            log.info("📸 Feedback marked as correct - image queued for prediction ID: {}",
                 feedback.getPrediction().getId());
-            try {
-                saveCorrectPredictionImage(savedFeedback);
-            } catch (Exception e) {
-                log.warn("⚠️ Failed to auto-save image for prediction ID: {} - {}", 
-                    feedback.getPrediction().getId(), e.getMessage());
-                // Don't fail the feedback submission if image saving fails
-            }
+            trainingImageQueueService.enqueue(savedFeedback.getFeedbackId());
         }
         
         return savedFeedback;
     }
+
+    /**
+     * Submit many feedback in one request
+     * Per chunk of app.feedback.bulk.chunk-size items, one short transaction: the predictions are
+     * checked with one IN query and the new rows saved together. Feedback IDs are IDENTITY columns,
+     * so Hibernate issues one INSERT per row inside that transaction.
+     */
+    @Override
+    public List<BulkFeedbackResult> bulkSubmitFeedback(List<FeedbackCreateRequest> items) {
+        if (items == null || items.isEmpty()) {
+            throw new ValidationException("No feedback items given");
+        }
+        if (items.size() > bulkMaxItems) {
+            throw new ValidationException("Too many feedback items: " + items.size() + " (max " + bulkMaxItems + ")");
+        }
+
+        BulkFeedbackResult[] results = new BulkFeedbackResult[items.size()];
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        for (int from = 0; from < items.size(); from += bulkChunkSize) {
+            int to = Math.min(items.size(), from + bulkChunkSize);
+
+            List<Integer> candidates = new ArrayList<>();
+            Set<Integer> predictionIds = new HashSet<>();
+            for (int i = from; i < to; i++) {
+                FeedbackCreateRequest item = items.get(i);
+                if (item == null || item.getPredictionId() == null) {
+                    results[i] = submitResult(i, null, BulkFeedbackResult.Status.INVALID, "predictionId is required");
+                } else if (item.getComment() != null && item.getComment().length() > MAX_COMMENT_LENGTH) {
+                    results[i] = submitResult(i, item.getPredictionId(), BulkFeedbackResult.Status.INVALID,
+                        "comment is longer than " + MAX_COMMENT_LENGTH + " characters");
+                } else {
+                    candidates.add(i);
+                    predictionIds.add(item.getPredictionId());
+                }
+            }
+            if (candidates.isEmpty()) {
+                continue;
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            tx.executeWithoutResult(status -> {
+                Set<Integer> existing = new HashSet<>(predictionRepository.findExistingIds(predictionIds));
+                List<Integer> batchIndexes = new ArrayList<>();
+                List<PredictionFeedback> batch = new ArrayList<>();
+                for (Integer i : candidates) {
+                    FeedbackCreateRequest item = items.get(i);
+                    if (!existing.contains(item.getPredictionId())) {
+                        results[i] = submitResult(i, item.getPredictionId(), BulkFeedbackResult.Status.NOT_FOUND,
+                            "Prediction not found");
+                        continue;
+                    }
+                    batchIndexes.add(i);
+                    batch.add(PredictionFeedback.builder()
+                        .prediction(predictionRepository.getReferenceById(item.getPredictionId()))
+                        .comment(item.getComment() != null ? item.getComment() : "")
+                        .isCorrect(Boolean.TRUE.equals(item.getIsCorrect()))
+                        .isApprovedFromAdmin(false)
+                        .imageAddedToDb(false)
+                        .createdAt(now)
+                        .build());
+                }
+                List<PredictionFeedback> saved = feedbackRepository.saveAll(batch);
+                for (int k = 0; k < saved.size(); k++) {
+                    int i = batchIndexes.get(k);
+                    results[i] = submitResult(i, items.get(i).getPredictionId(), BulkFeedbackResult.Status.CREATED, null);
+                    results[i].setFeedbackId(saved.get(k).getFeedbackId());
+                }
+            });
+        }
+
+        List<BulkFeedbackResult> resultList = List.of(results);
+        long created = resultList.stream().filter(r -> r.getStatus() == BulkFeedbackResult.Status.CREATED).count();
+        log.info("📝 Bulk feedback submitted - {} items, {} created", items.size(), created);
+
+        // Images of correct feedback are saved by the training image queue once the rows are committed
+        for (int i = 0; i < results.length; i++) {
+            if (results[i].getStatus() == BulkFeedbackResult.Status.CREATED && Boolean.TRUE.equals(items.get(i).getIsCorrect())) {
+                trainingImageQueueService.enqueue(results[i].getFeedbackId());
+                break;
+            }
+        }
+        return resultList;
+    }
+
+    private static BulkFeedbackResult submitResult(int index, Integer predictionId,
+                                                   BulkFeedbackResult.Status status, String message) {
+        return BulkFeedbackResult.builder()
+            .index(index)
+            .predictionId(predictionId)
+            .status(status)
+            .message(message)
+            .build();
+    }
     
     /**
      * Get all feedback ordered by creation date
@@ -110,6 +252,25 @@ public class PredictionFeedbackServiceImpl implements PredictionFeedbackService
         
         return feedbackList;
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long streamAllFeedback(boolean withImages, Consumer<FeedbackListRow> sink) {
+        log.info("Streaming all feedback - images: {}", withImages);
+
+        // Cursor stays open only for the duration of this transaction
+        long count = 0;
+        try (Stream<FeedbackListRow> rows = withImages
+                 ? feedbackRepository.streamListRows()
+                 : feedbackRepository.streamListRowsWithoutImages()) {
+            Iterator<FeedbackListRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                sink.accept(iterator.next());
+                count++;
+            }
+        }
+        return count;
+    }
     
     /**
      * Get feedback for a specific prediction
@@ -198,7 +359,7 @@ public class PredictionFeedbackServiceImpl implements PredictionFeedbackService
     /**
      * Approve feedback by admin
      * STEP 5: Feedback - Admin approval
-     * Mark image as added to DB for ML training when approved
+     * imageAddedToDb is left to the training image queue, which sets it once the image is on disk
      */
     @Override
     public PredictionFeedback approveFeedback(Integer feedbackId) {
@@ -208,13 +369,9 @@ public class PredictionFeedbackServiceImpl implements PredictionFeedbackService
             .map(feedback -> {
                 feedback.setIsApprovedFromAdmin(true);
                 
-                // When approved, mark image as added to DB for ML training
-                feedback.setImageAddedToDb(true);
-                log.info("✅ Feedback approved - Image marked for ML training. Feedback ID: {}", feedbackId);
-                
                 PredictionFeedback approved = feedbackRepository.save(feedback);
-                log.info("Feedback approved successfully - ID: {}, imageAddedToDb: {}", 
-                    feedbackId, feedback.getImageAddedToDb());
+                log.info("✅ Feedback approved successfully - ID: {}, imageAddedToDb: {}", 
+                    feedbackId, approved.getImageAddedToDb());
                 return approved;
             })
             .orElseThrow(() -> {
@@ -242,389 +399,182 @@ public class PredictionFeedbackServiceImpl implements PredictionFeedbackService
             return false;
         }
     }
-    
+
+    @Override
+    public List<BulkFeedbackResult> bulkApproveFeedback(Collection<Integer> feedbackIds) {
+        return moderate(feedbackIds, BulkFeedbackResult.Status.APPROVED,
+            ids -> feedbackRepository.approveByIds(ids, LocalDateTime.now()));
+    }
+
+    @Override
+    public List<BulkFeedbackResult> bulkRejectFeedback(Collection<Integer> feedbackIds) {
+        return moderate(feedbackIds, BulkFeedbackResult.Status.REJECTED, feedbackRepository::deleteByIds);
+    }
+
     /**
-     * Process pending feedback (add images that weren't added yet)
-     * STEP 5: Feedback - Process pending feedback
+     * Bulk approve / reject: per chunk of app.feedback.bulk.chunk-size IDs, one short transaction
+     * that reads which IDs exist and runs one set-based statement over them
      */
-    @Override
-    public void processPendingFeedback() {
-        log.info("Processing pending feedback");
-        
-        List<PredictionFeedback> pendingFeedback = feedbackRepository.findAll().stream()
-            .filter(f -> f.getImageAddedToDb() != null && !f.getImageAddedToDb())
-            .toList();
-        
-        if (pendingFeedback.isEmpty()) {
-            log.info("No pending feedback to process");
-            return;
+    private List<BulkFeedbackResult> moderate(Collection<Integer> feedbackIds, BulkFeedbackResult.Status done,
+                                              ToIntFunction<Collection<Integer>> statement) {
+        if (feedbackIds == null || feedbackIds.isEmpty()) {
+            throw new ValidationException("No feedback IDs given");
         }
-        
-        // Process each pending feedback
-        for (PredictionFeedback feedback : pendingFeedback) {
-            try {
-                // Only process feedback with comments/images
-                if (feedback.getComment() != null) {
-                    
-                    // Mark as processed (image added to db)
-                    feedback.setImageAddedToDb(true);
-                    feedbackRepository.save(feedback);
-                    
-                    log.info("Processed feedback image - Feedback ID: {}", feedback.getFeedbackId());
+        if (feedbackIds.contains(null)) {
+            throw new ValidationException("Feedback IDs must not be null");
+        }
+        List<Integer> ids = new ArrayList<>(new LinkedHashSet<>(feedbackIds));
+        if (ids.size() > bulkMaxItems) {
+            throw new ValidationException("Too many feedback IDs: " + ids.size() + " (max " + bulkMaxItems + ")");
+        }
+
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        List<BulkFeedbackResult> results = new ArrayList<>(ids.size());
+        int affected = 0;
+        for (int from = 0; from < ids.size(); from += bulkChunkSize) {
+            List<Integer> chunk = ids.subList(from, Math.min(ids.size(), from + bulkChunkSize));
+            Set<Integer> existing = tx.execute(status -> {
+                Set<Integer> found = new HashSet<>(feedbackRepository.findExistingIds(chunk));
+                if (!found.isEmpty()) {
+                    statement.applyAsInt(found);
+                }
+                return found;
+            });
+            for (Integer id : chunk) {
+                boolean hit = existing.contains(id);
+                results.add(BulkFeedbackResult.builder()
+                    .feedbackId(id)
+                    .status(hit ? done : BulkFeedbackResult.Status.NOT_FOUND)
+                    .build());
+                if (hit) {
+                    affected++;
                 }
-            } catch (Exception e) {
-                log.error("Error processing feedback ID: {} - {}", feedback.getFeedbackId(), e.getMessage());
             }
         }
-        
-        log.info("Processed {} pending feedback entries", pendingFeedback.size());
-    }
 
+        log.info("✅ Bulk feedback {} - {} requested, {} affected", done, ids.size(), affected);
+        return results;
+    }
+    
     /**
-     * Approve and save images of predictions marked as correct
-     * Retrieves all feedback with isCorrect=true and saves associated prediction images
-     * Organizes images by plant type and disease in separate folders
+     * Scheduled run (cron: app.feedback-processing.cron), skipped when app.feedback-processing.enabled=false
      */
-    @Override
-    public Map<String, Object> approveCorrectImages() {
-        log.info("🖼️ Starting approval process for correct prediction images");
-        
-        Map<String, Object> result = new HashMap<>();
-        int totalProcessed = 0;
-        int successCount = 0;
-        int failureCount = 0;
-        List<String> savedFiles = new java.util.ArrayList<>();
-        List<String> errors = new java.util.ArrayList<>();
-        
-        try {
-            // Get absolute path for approve_img directory
-            String basePath = System.getProperty("user.dir");
-            String approveImgPath = basePath + File.separator + "approve_img";
-            
-            log.info("📁 Using base path: {}", approveImgPath);
-            
-            File approveBaseDir = new File(approveImgPath);
-            if (!approveBaseDir.exists()) {
-                approveBaseDir.mkdirs();
-                log.info("✅ Created approve_img directory: {}", approveImgPath);
-            }
-            
-            // Get all feedback with isCorrect = true
-            List<PredictionFeedback> correctFeedbacks = feedbackRepository.findByIsCorrectTrue();
-            log.info("📊 Found {} feedback entries marked as correct", correctFeedbacks.size());
-            
-            if (correctFeedbacks.isEmpty()) {
-                log.warn("⚠️ No correct feedback found to process");
-                result.put("status", "success");
-                result.put("totalProcessed", 0);
-                result.put("successCount", 0);
-                result.put("failureCount", 0);
-                result.put("savedFiles", savedFiles);
-                result.put("errors", errors);
-                result.put("message", "No correct feedback found to process");
-                return result;
-            }
-            
-            for (PredictionFeedback feedback : correctFeedbacks) {
-                totalProcessed++;
-                try {
-                    // Get the associated prediction
-                    Prediction prediction = feedback.getPrediction();
-                    if (prediction == null) {
-                        log.warn("⚠️ Prediction not found for feedback ID: {}", feedback.getFeedbackId());
-                        failureCount++;
-                        errors.add("Feedback ID " + feedback.getFeedbackId() + ": Prediction not found");
-                        continue;
-                    }
-                    
-                    String imageUrl = prediction.getUploadedImageUrl();
-                    if (imageUrl == null || imageUrl.trim().isEmpty()) {
-                        log.warn("⚠️ No image URL for prediction ID: {}", prediction.getId());
-                        failureCount++;
-                        errors.add("Prediction ID " + prediction.getId() + ": No image URL");
-                        continue;
-                    }
-                    
-                    // Create organized folder structure: 
-                    // approve_img/plants/Bitki/prediction_X.png
-                    // approve_img/diseases/Hastalık/prediction_X.png
-                    
-                    String plantType = prediction.getPredictionType();
-                    if (plantType == null) {
-                        plantType = "Unknown";
-                    }
-                    
-                    // Parse format: "Plant___Disease" or "Plant - Disease"
-                    String disease = "Unknown";
-                    String plant = plantType;
-                    
-                    if (plantType.contains("___")) {
-                        // Format: "Grape___Leaf_blight_(Isariopsis_Leaf_Spot)"
-                        String[] parts = plantType.split("___");
-                        plant = parts[0].trim();
-                        disease = (parts.length > 1) ? parts[1].trim() : "Unknown";
-                    } else if (plantType.contains(" - ")) {
-                        // Format: "Plant - Disease"
-                        String[] parts = plantType.split(" - ");
-                        plant = parts[0].trim();
-                        disease = (parts.length > 1) ? parts[1].trim() : "Unknown";
-                    } else if (plantType.toLowerCase().contains("healthy")) {
-                        // Format: "Plant___healthy"
-                        String[] parts = plantType.split("___");
-                        plant = parts[0].trim();
-                        disease = "healthy";
-                    } else {
-                        // Just plant name
-                        plant = plantType.trim();
-                    }
-                    
-                    // Clean up names for folder structure
-                    plant = plant.replace(" ", "_").replace("(", "").replace(")", "").replace(",", "");
-                    disease = disease.replace(" ", "_").replace("(", "").replace(")", "").replace(",", "");
-                    
-                    // Extract file extension from image URL or use default
-                    String fileExtension = ".png";
-                    if (imageUrl.contains(".")) {
-                        String[] urlParts = imageUrl.split("\\.");
-                        fileExtension = "." + urlParts[urlParts.length - 1].replaceAll("[?;].*", "");
-                    }
-                    
-                    // Create filename
-                    String fileName = "prediction_" + prediction.getId() + "_" + 
-                                    System.currentTimeMillis() + fileExtension;
-                    
-                    // Create two separate organized paths
-                    String plantPath = approveImgPath + File.separator + "plant" + File.separator + plant;
-                    String diseasePath = approveImgPath + File.separator + "disease" + File.separator + disease;
-                    
-                    File plantDir = new File(plantPath);
-                    File diseaseDir = new File(diseasePath);
-                    
-                    if (!plantDir.exists()) {
-                        plantDir.mkdirs();
-                        log.info("📁 Created plant folder: approve_img/plant/{}", plant);
-                    }
-                    if (!diseaseDir.exists()) {
-                        diseaseDir.mkdirs();
-                        log.info("📁 Created disease folder: approve_img/disease/{}", disease);
-                    }
-                    
-                    String plantFilePath = plantPath + File.separator + fileName;
-                    String diseaseFilePath = diseasePath + File.separator + fileName;
-                    
-                    log.info("💾 Processing image for prediction ID: {} - Plant: {}, Disease: {}", 
-                            prediction.getId(), plant, disease);
-                    
-                    // Handle different image URL formats
-                    if (imageUrl.startsWith("data:image")) {
-                        // Base64 encoded image
-                        String base64Data = imageUrl.substring(imageUrl.indexOf(",") + 1);
-                        byte[] decodedBytes = Base64.getDecoder().decode(base64Data);
-                        
-                        // Save to plant folder
-                        try (FileOutputStream fos = new FileOutputStream(plantFilePath)) {
-                            fos.write(decodedBytes);
-                            log.info("✅ Saved to plant folder: approve_img/plant/{}/{}", plant, fileName);
-                        }
-                        
-                        // Save to disease folder
-                        try (FileOutputStream fos = new FileOutputStream(diseaseFilePath)) {
-                            fos.write(decodedBytes);
-                            successCount++;
-                            savedFiles.add(plantFilePath);
-                            savedFiles.add(diseaseFilePath);
-                            log.info("✅ Saved to disease folder: approve_img/disease/{}/{}", disease, fileName);
-                        }
-                    } else if (imageUrl.contains("uploads") || imageUrl.contains("\\") || imageUrl.startsWith("/")) {
-                        // File system path (relative or absolute)
-                        String sourcePath = imageUrl;
-                        
-                        // Try different path resolutions
-                        File sourceFile = new File(sourcePath);
-                        
-                        // If relative path, try from current directory
-                        if (!sourceFile.exists()) {
-                            sourcePath = basePath + File.separator + imageUrl;
-                            sourceFile = new File(sourcePath);
-                        }
-                        
-                        // Try from uploads folder
-                        if (!sourceFile.exists()) {
-                            sourcePath = basePath + File.separator + "uploads" + File.separator + imageUrl.replace("uploads/", "").replace("uploads\\", "");
-                            sourceFile = new File(sourcePath);
-                        }
-                        
-                        if (sourceFile.exists() && sourceFile.isFile()) {
-                            // Save to plant folder
-                            Files.copy(sourceFile.toPath(), Paths.get(plantFilePath), java.nio.file.StandardCopyOption.REPLACE_EXISTING);
-                            log.info("✅ Copied to plant folder: approve_img/plant/{}/{}", plant, fileName);
-                            
-                            // Save to disease folder
-                            Files.copy(sourceFile.toPath(), Paths.get(diseaseFilePath), java.nio.file.StandardCopyOption.REPLACE_EXISTING);
-                            successCount++;
-                            savedFiles.add(plantFilePath);
-                            savedFiles.add(diseaseFilePath);
-                            log.info("✅ Copied to disease folder: approve_img/disease/{}/{}", disease, fileName);
-                        } else {
-                            log.warn("⚠️ Source file not found: {}", imageUrl);
-                            failureCount++;
-                            errors.add("Prediction ID " + prediction.getId() + ": Source file not found");
-                        }
-                    } else {
-                        log.warn("⚠️ Cannot determine image URL format: {}", imageUrl);
-                        failureCount++;
-                        errors.add("Prediction ID " + prediction.getId() + ": Unknown image URL format");
-                    }
-                    
-                } catch (IOException e) {
-                    failureCount++;
-                    String errorMsg = "Feedback ID " + feedback.getFeedbackId() + ": IOException - " + e.getMessage();
-                    errors.add(errorMsg);
-                    log.error("❌ Error saving image for feedback ID: {}", feedback.getFeedbackId(), e);
-                } catch (Exception e) {
-                    failureCount++;
-                    String errorMsg = "Feedback ID " + feedback.getFeedbackId() + ": " + e.getClass().getSimpleName() + " - " + e.getMessage();
-                    errors.add(errorMsg);
-                    log.error("❌ Unexpected error processing feedback ID: {}", feedback.getFeedbackId(), e);
-                }
-            }
-            
-            result.put("status", "success");
-            result.put("totalProcessed", totalProcessed);
-            result.put("successCount", successCount);
-            result.put("failureCount", failureCount);
-            result.put("savedFiles", savedFiles);
-            result.put("errors", errors);
-            result.put("message", "✅ Image approval process completed: " + successCount + " saved, " + failureCount + " failed");
-            
-            log.info("📈 Approval process completed - Total: {}, Success: {}, Failed: {}", 
-                    totalProcessed, successCount, failureCount);
-            
-        } catch (Exception e) {
-            log.error("❌ Critical error in approveCorrectImages", e);
-            result.put("status", "error");
-            result.put("message", "Critical error: " + e.getMessage());
-            result.put("error", e.toString());
+    @Scheduled(cron = "${app.feedback-processing.cron:0 */5 * * * *}")
+    public void scheduledProcessPendingFeedback() {
+        if (!pendingProcessingEnabled) {
+            return;
         }
-        
-        return result;
+        processPendingFeedback();
     }
 
     /**
-     * Helper method to save a single correct prediction image
-     * Called when feedback is marked as correct
+     * Process pending feedback (add images that weren't added yet)
+     * STEP 5: Feedback - Process pending feedback
+     *
+     * Walks the pending rows (image_added_to_db = false, with a comment) in feedback_id order,
+     * except correct feedback, whose flag is set by the training image queue once the image is on disk.
+     * Rows are processed app.feedback-processing.chunk-size at a time. Each chunk is one set-based UPDATE over its
+     * ID range plus the checkpoint write, in one short transaction. A run that stops early (failure,
+     * restart or max-chunks-per-run) resumes after the last committed chunk; a run that drains the
+     * backlog resets the checkpoint so rows commented later are picked up again.
      */
-    private void saveCorrectPredictionImage(PredictionFeedback feedback) {
+    @Override
+    public Map<String, Object> processPendingFeedback() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        if (!pendingProcessingRunning.compareAndSet(false, true)) {
+            log.warn("⚠️ Pending feedback processing already running, this run is skipped");
+            summary.put("status", "ALREADY_RUNNING");
+            return summary;
+        }
+
+        long start = System.currentTimeMillis();
+        TransactionTemplate readTx = new TransactionTemplate(transactionManager);
+        readTx.setReadOnly(true);
+        TransactionTemplate writeTx = new TransactionTemplate(transactionManager);
+
+        int processed = 0;
+        int chunks = 0;
+        int resumedFrom = 0;
+        String status = "COMPLETED";
         try {
-            // Get absolute path for approve_img directory
-            String basePath = System.getProperty("user.dir");
-            String approveImgPath = basePath + File.separator + "approve_img";
-            
-            // Get the associated prediction
-            Prediction prediction = feedback.getPrediction();
-            if (prediction == null) {
-                log.warn("⚠️ Prediction not found for feedback ID: {}", feedback.getFeedbackId());
-                return;
-            }
-            
-            String imageUrl = prediction.getUploadedImageUrl();
-            if (imageUrl == null || imageUrl.trim().isEmpty()) {
-                log.warn("⚠️ No image URL for prediction ID: {}", prediction.getId());
-                return;
-            }
-            
-            // Parse plant and disease from predictionType
-            String plantType = prediction.getPredictionType();
-            if (plantType == null) {
-                plantType = "Unknown";
-            }
-            
-            String disease = "Unknown";
-            String plant = plantType;
-            
-            if (plantType.contains("___")) {
-                String[] parts = plantType.split("___");
-                plant = parts[0].trim();
-                disease = (parts.length > 1) ? parts[1].trim() : "Unknown";
-            } else if (plantType.contains(" - ")) {
-                String[] parts = plantType.split(" - ");
-                plant = parts[0].trim();
-                disease = (parts.length > 1) ? parts[1].trim() : "Unknown";
-            } else if (plantType.toLowerCase().contains("healthy")) {
-                String[] parts = plantType.split("___");
-                plant = parts[0].trim();
-                disease = "healthy";
-            } else {
-                plant = plantType.trim();
-            }
-            
-            plant = plant.replace(" ", "_").replace("(", "").replace(")", "").replace(",", "");
-            disease = disease.replace(" ", "_").replace("(", "").replace(")", "").replace(",", "");
-            
-            // Create filename
-            String fileExtension = ".png";
-            if (imageUrl.contains(".")) {
-                String[] urlParts = imageUrl.split("\\.");
-                fileExtension = "." + urlParts[urlParts.length - 1].replaceAll("[?;].*", "");
-            }
-            String fileName = "prediction_" + prediction.getId() + "_" + System.currentTimeMillis() + fileExtension;
-            
-            // Create directory paths
-            String plantPath = approveImgPath + File.separator + "plant" + File.separator + plant;
-            String diseasePath = approveImgPath + File.separator + "disease" + File.separator + disease;
-            
-            File plantDir = new File(plantPath);
-            File diseaseDir = new File(diseasePath);
-            
-            if (!plantDir.exists()) {
-                plantDir.mkdirs();
-            }
-            if (!diseaseDir.exists()) {
-                diseaseDir.mkdirs();
-            }
-            
-            String plantFilePath = plantPath + File.separator + fileName;
-            String diseaseFilePath = diseasePath + File.separator + fileName;
-            
-            // Save image based on URL format
-            if (imageUrl.startsWith("data:image")) {
-                // Base64 encoded
-                String base64Data = imageUrl.substring(imageUrl.indexOf(",") + 1);
-                byte[] decodedBytes = Base64.getDecoder().decode(base64Data);
-                
-                try (FileOutputStream fos = new FileOutputStream(plantFilePath)) {
-                    fos.write(decodedBytes);
-                }
-                try (FileOutputStream fos = new FileOutputStream(diseaseFilePath)) {
-                    fos.write(decodedBytes);
-                }
-                log.info("✅ Auto-saved base64 image for prediction ID: {} ({}/{}) to approve_img", 
-                    prediction.getId(), plant, disease);
-            } else if (imageUrl.contains("uploads") || imageUrl.contains("\\") || imageUrl.startsWith("/")) {
-                // File path
-                String sourcePath = imageUrl;
-                File sourceFile = new File(sourcePath);
-                
-                if (!sourceFile.exists()) {
-                    sourcePath = basePath + File.separator + imageUrl;
-                    sourceFile = new File(sourcePath);
-                }
-                
-                if (!sourceFile.exists()) {
-                    sourcePath = basePath + File.separator + "uploads" + File.separator + 
-                        imageUrl.replace("uploads/", "").replace("uploads\\", "");
-                    sourceFile = new File(sourcePath);
+            int afterId = checkpointRepository.findById(PENDING_FEEDBACK_JOB)
+                .map(JobCheckpoint::getLastId)
+                .orElse(0);
+            resumedFrom = afterId;
+            log.info("📦 Processing pending feedback - from ID: {}, chunk: {}", afterId, pendingChunkSize);
+
+            while (true) {
+                if (chunks >= pendingMaxChunksPerRun) {
+                    status = "PARTIAL";
+                    break;
                 }
-                
-                if (sourceFile.exists() && sourceFile.isFile()) {
-                    Files.copy(sourceFile.toPath(), Paths.get(plantFilePath), java.nio.file.StandardCopyOption.REPLACE_EXISTING);
-                    Files.copy(sourceFile.toPath(), Paths.get(diseaseFilePath), java.nio.file.StandardCopyOption.REPLACE_EXISTING);
-                    log.info("✅ Auto-saved file image for prediction ID: {} ({}/{}) to approve_img", 
-                        prediction.getId(), plant, disease);
+                final int fromId = afterId;
+                List<Integer> ids = readTx.execute(tx ->
+                    feedbackRepository.findPendingImageIds(fromId, PageRequest.of(0, pendingChunkSize)));
+                if (ids == null || ids.isEmpty()) {
+                    // Backlog drained - next run starts from the beginning again
+                    writeTx.executeWithoutResult(tx -> saveCheckpoint(0));
+                    break;
                 }
+
+                final int toId = ids.get(ids.size() - 1);
+                Integer updated = writeTx.execute(tx -> {
+                    int count = feedbackRepository.markImagesAdded(fromId, toId, LocalDateTime.now());
+                    saveCheckpoint(toId);
+                    return count;
+                });
+
+                processed += updated != null ? updated : 0;
+                chunks++;
+                afterId = toId;
             }
+            log.info("✅ Processed {} pending feedback entries in {} chunks", processed, chunks);
         } catch (Exception e) {
-            log.error("❌ Error in saveCorrectPredictionImage: {}", e.getMessage(), e);
+            status = "FAILED";
+            log.error("❌ Pending feedback processing failed after {} entries: {}", processed, e.getMessage(), e);
+            summary.put("error", e.getMessage());
+        } finally {
+            pendingProcessingRunning.set(false);
         }
+
+        summary.put("status", status);
+        summary.put("processed", processed);
+        summary.put("chunks", chunks);
+        summary.put("resumedFromId", resumedFrom);
+        summary.put("durationMs", System.currentTimeMillis() - start);
+        summary.put("finishedAt", LocalDateTime.now().toString());
+        lastPendingRun = summary;
+        return summary;
+    }
+
+    @Override
+    public Map<String, Object> getPendingFeedbackStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", pendingProcessingEnabled);
+        status.put("running", pendingProcessingRunning.get());
+        status.put("chunkSize", pendingChunkSize);
+        status.put("pending", feedbackRepository.countByImageAddedToDbFalse());
+        status.put("checkpointId", checkpointRepository.findById(PENDING_FEEDBACK_JOB)
+            .map(JobCheckpoint::getLastId)
+            .orElse(0));
+        status.put("lastRun", lastPendingRun);
+        return status;
+    }
+
+    private void saveCheckpoint(int lastId) {
+        checkpointRepository.save(JobCheckpoint.builder()
+            .jobName(PENDING_FEEDBACK_JOB)
+            .lastId(lastId)
+            .build());
+    }
+
+    /**
+     * Approve and save images of predictions marked as correct
+     * Exports approvals newer than the export watermark (see TrainingImageExportServiceImpl)
+     */
+    @Override
+    public Map<String, Object> approveCorrectImages() {
+        log.info("🖼️ Starting approval process for correct prediction images");
+        return trainingImageExportService.exportApprovedImages();
     }
 }
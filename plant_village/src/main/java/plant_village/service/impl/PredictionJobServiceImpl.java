@@ -0,0 +1,321 @@
+package plant_village.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import plant_village.dto.AnalyzeRequest;
+import plant_village.exception.ServiceUnavailableException;
+import plant_village.exception.ValidationException;
+import plant_village.model.dto.PredictionResult;
+import plant_village.model.dto.PredictionStatusUpdate;
+import plant_village.service.PredictionJobService;
+import plant_village.service.PredictionService;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Prediction jobs on a bounded worker pool, progress pushed to SseEmitters
+ *
+ * Per job, the events published so far are kept (a handful of small PredictionStatusUpdate objects),
+ * so a client that subscribes late or reconnects with Last-Event-ID gets what it missed. Under the
+ * job's lock an event is only appended and handed to each subscriber's own queue, which keeps replayed
+ * and live events in order; the sends happen on app.prediction-jobs.sse.sender-threads sender threads,
+ * so a slow client never holds up the prediction worker or the other subscribers. A subscriber whose
+ * send fails is dropped. There is no heartbeat: the emitter simply times out after
+ * app.prediction-jobs.sse.timeout-seconds and EventSource reconnects if needed.
+ *
+ * Limits: app.prediction-jobs.threads workers with app.prediction-jobs.queue-capacity waiting jobs
+ * (then 503), app.prediction-jobs.sse.max-connections open streams in total and
+ * app.prediction-jobs.sse.max-connections-per-job per running job. Finished jobs are forgotten
+ * app.prediction-jobs.retention-minutes after they end.
+ */
+@Service
+@Slf4j
+public class PredictionJobServiceImpl implements PredictionJobService, InitializingBean, DisposableBean {
+
+    private static final class Job {
+        final String id;
+        final List<PredictionStatusUpdate> events = new ArrayList<>();
+        final List<Subscriber> subscribers = new ArrayList<>();
+        boolean done;
+        volatile long finishedAt;
+
+        Job(String id) {
+            this.id = id;
+        }
+    }
+
+    // One queued send; a null update completes the emitter
+    private record Outgoing(long eventId, PredictionStatusUpdate update) {
+        static final Outgoing COMPLETE = new Outgoing(0, null);
+    }
+
+    /**
+     * An open stream with its pending events. At most one drain task per subscriber is queued or
+     * running on the sender pool (scheduled), so its events are sent one at a time, in order.
+     */
+    private static final class Subscriber {
+        final SseEmitter emitter;
+        final Queue<Outgoing> pending = new ConcurrentLinkedQueue<>();
+        final AtomicBoolean scheduled = new AtomicBoolean();
+        volatile boolean closed;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+
+    @Autowired
+    private PredictionService predictionService;
+
+    @Value("${app.prediction-jobs.threads:4}")
+    private int threads;
+
+    @Value("${app.prediction-jobs.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${app.prediction-jobs.retention-minutes:10}")
+    private long retentionMinutes;
+
+    @Value("${app.prediction-jobs.sse.max-connections:1000}")
+    private int maxConnections;
+
+    @Value("${app.prediction-jobs.sse.max-connections-per-job:5}")
+    private int maxConnectionsPerJob;
+
+    @Value("${app.prediction-jobs.sse.timeout-seconds:120}")
+    private long emitterTimeoutSeconds;
+
+    @Value("${app.prediction-jobs.sse.sender-threads:2}")
+    private int senderThreads;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+
+    private ThreadPoolExecutor executor;
+    private ThreadPoolExecutor sender;
+
+    @Override
+    public void afterPropertiesSet() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), r -> {
+                Thread thread = new Thread(r, "prediction-job-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        // One drain task per open stream at most, so max-connections bounds the queue
+        AtomicInteger senderNumber = new AtomicInteger();
+        sender = new ThreadPoolExecutor(senderThreads, senderThreads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, maxConnections)), r -> {
+                Thread thread = new Thread(r, "prediction-sse-" + senderNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+        sender.shutdownNow();
+        for (Job job : jobs.values()) {
+            List<Subscriber> subscribers;
+            synchronized (job) {
+                subscribers = new ArrayList<>(job.subscribers);
+                job.subscribers.clear();
+            }
+            subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        }
+    }
+
+    @Override
+    public String submit(AnalyzeRequest request) {
+        if (request.getImageBase64() == null || request.getImageBase64().isBlank()) {
+            throw new ValidationException("Image data is required");
+        }
+        purgeFinished();
+
+        Job job = new Job(UUID.randomUUID().toString());
+        jobs.put(job.id, job);
+        publish(job, null, "UPLOADED", 0, "Prediction request queued", false);
+        try {
+            // The request (and its image) is only held by the queued task, not by the job
+            executor.execute(() -> run(job, request));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            throw new ServiceUnavailableException("Too many prediction jobs waiting, try again later");
+        }
+        log.info("📥 Prediction job {} queued for user {}", job.id, request.getUserId());
+        return job.id;
+    }
+
+    @Override
+    public Optional<SseEmitter> subscribe(String jobId, Long lastEventId) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            return Optional.empty();
+        }
+        if (connections.incrementAndGet() > maxConnections) {
+            connections.decrementAndGet();
+            throw new ServiceUnavailableException("Too many event stream connections");
+        }
+
+        SseEmitter emitter = new SseEmitter(TimeUnit.SECONDS.toMillis(emitterTimeoutSeconds));
+        Subscriber subscriber = new Subscriber(emitter);
+        AtomicBoolean released = new AtomicBoolean(false);
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                connections.decrementAndGet();
+                subscriber.closed = true;
+                subscriber.pending.clear();
+                synchronized (job) {
+                    job.subscribers.remove(subscriber);
+                }
+            }
+        };
+        emitter.onCompletion(release);
+        emitter.onTimeout(release);
+        emitter.onError(e -> release.run());
+
+        synchronized (job) {
+            if (!job.done && job.subscribers.size() >= maxConnectionsPerJob) {
+                release.run();
+                throw new ServiceUnavailableException("Too many event stream connections for job " + jobId);
+            }
+            // Replay what the client has not seen yet (event IDs are 1-based positions)
+            int from = lastEventId != null ? (int) Math.max(0, Math.min(lastEventId, job.events.size())) : 0;
+            for (int i = from; i < job.events.size(); i++) {
+                subscriber.pending.add(new Outgoing(i + 1, job.events.get(i)));
+            }
+            if (job.done) {
+                subscriber.pending.add(Outgoing.COMPLETE);
+            } else {
+                job.subscribers.add(subscriber);
+            }
+        }
+        schedule(subscriber);
+        return Optional.of(emitter);
+    }
+
+    private void run(Job job, AnalyzeRequest request) {
+        try {
+            publish(job, null, "PROCESSING", 10, "Processing prediction request...", false);
+            publish(job, null, "ANALYZING", 30, "Analyzing plant image...", false);
+
+            PredictionResult result = predictionService.predictPlantDisease(
+                request.getUserId(),
+                null,
+                request.getImageBase64(),
+                request.getDescription(),
+                request.getPredictionType()
+            );
+
+            publish(job, result.getPrediction().getId(), "COMPLETE", 100, "Prediction completed successfully", true);
+            log.info("✅ Prediction job {} complete - Prediction ID: {}", job.id, result.getPrediction().getId());
+        } catch (Exception e) {
+            log.error("❌ Prediction job {} failed: {}", job.id, e.getMessage(), e);
+            publish(job, null, "ERROR", 100, e.getMessage(), true);
+        }
+    }
+
+    private void publish(Job job, Integer predictionId, String status, int progress, String message, boolean last) {
+        PredictionStatusUpdate update = PredictionStatusUpdate.builder()
+            .predictionId(predictionId)
+            .status(status)
+            .progressPercentage(progress)
+            .message(message)
+            .updatedAt(LocalDateTime.now())
+            .build();
+
+        List<Subscriber> subscribers;
+        synchronized (job) {
+            job.events.add(update);
+            Outgoing outgoing = new Outgoing(job.events.size(), update);
+            subscribers = new ArrayList<>(job.subscribers);
+            for (Subscriber subscriber : subscribers) {
+                subscriber.pending.add(outgoing);
+                if (last) {
+                    subscriber.pending.add(Outgoing.COMPLETE);
+                }
+            }
+            if (last) {
+                job.done = true;
+                job.finishedAt = System.currentTimeMillis();
+                job.subscribers.clear();
+            }
+        }
+        subscribers.forEach(this::schedule);
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.pending.isEmpty() || !subscriber.scheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            sender.execute(() -> drain(subscriber));
+        } catch (RejectedExecutionException e) {
+            // Shutting down (the queue holds one task per connection at most)
+            subscriber.pending.clear();
+            subscriber.emitter.complete();
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        do {
+            Outgoing outgoing;
+            while ((outgoing = subscriber.pending.poll()) != null) {
+                if (subscriber.closed) {
+                    subscriber.pending.clear();
+                    break;
+                }
+                if (outgoing.update() == null) {
+                    subscriber.emitter.complete();
+                } else if (!send(subscriber.emitter, outgoing.eventId(), outgoing.update())) {
+                    // Client went away - the emitter callbacks release the connection
+                    subscriber.closed = true;
+                    subscriber.pending.clear();
+                }
+            }
+            subscriber.scheduled.set(false);
+            // An event added after the last poll but before the flag was cleared is picked up here
+        } while (!subscriber.pending.isEmpty() && subscriber.scheduled.compareAndSet(false, true));
+    }
+
+    private static boolean send(SseEmitter emitter, long eventId, PredictionStatusUpdate update) {
+        try {
+            emitter.send(SseEmitter.event()
+                .id(String.valueOf(eventId))
+                .name("status")
+                .data(update, MediaType.APPLICATION_JSON));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // Client went away (or the emitter already completed) - the container reports the rest
+            return false;
+        }
+    }
+
+    private void purgeFinished() {
+        long cutoff = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(retentionMinutes);
+        jobs.values().removeIf(job -> job.finishedAt != 0 && job.finishedAt < cutoff);
+    }
+}
@@ -1,20 +1,29 @@
 package plant_village.service.impl;
 
+import plant_village.dto.LogResponse;
 import plant_village.model.PredictionLog;
 import plant_village.repository.PredictionLogRepository;
 import plant_village.service.PredictionLogService;
 import plant_village.exception.ResourceNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import lombok.extern.slf4j.Slf4j;
 import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
 public class PredictionLogServiceImpl implements PredictionLogService {
     
+    // Open end of a one-sided time range (within SQL Server datetime2 and H2 TIMESTAMP)
+    private static final LocalDateTime MIN_TIMESTAMP = LocalDateTime.of(1900, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_TIMESTAMP = LocalDateTime.of(9999, 12, 31, 0, 0);
+    
     @Autowired
     private PredictionLogRepository predictionLogRepository;
     
@@ -59,6 +68,42 @@ public class PredictionLogServiceImpl implements PredictionLogService {
         return predictionLogRepository.findAll();
     }
     
+    @Override
+    @Transactional(readOnly = true)
+    public long streamLogs(LocalDateTime from, LocalDateTime to, String actionType, Consumer<LogResponse> sink) {
+        log.info("Log kayıtları akış ile getiriliyor - From: {}, To: {}, Action: {}", from, to, actionType);
+        
+        // Cursor stays open only for the duration of this transaction
+        long count = 0;
+        try (Stream<LogResponse> logs = openLogStream(from, to, actionType)) {
+            Iterator<LogResponse> iterator = logs.iterator();
+            while (iterator.hasNext()) {
+                sink.accept(iterator.next());
+                count++;
+            }
+        }
+        
+        log.info("Akış tamamlandı - {} log kaydı yazıldı", count);
+        return count;
+    }
+    
+    /**
+     * Pick the statement for the given filters (each combination has its own query plan)
+     */
+    private Stream<LogResponse> openLogStream(LocalDateTime from, LocalDateTime to, String actionType) {
+        boolean ranged = from != null || to != null;
+        LocalDateTime lower = from != null ? from : MIN_TIMESTAMP;
+        LocalDateTime upper = to != null ? to : MAX_TIMESTAMP;
+        if (actionType == null) {
+            return ranged
+                ? predictionLogRepository.streamLogsBetween(lower, upper)
+                : predictionLogRepository.streamLogs();
+        }
+        return ranged
+            ? predictionLogRepository.streamLogsByActionTypeBetween(actionType, lower, upper)
+            : predictionLogRepository.streamLogsByActionType(actionType);
+    }
+    
     @Override
     public void deleteLog(Integer id) {
         log.info("Log kaydı siliniyor - ID: {}", id);
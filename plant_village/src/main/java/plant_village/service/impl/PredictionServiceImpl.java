@@ -3,6 +3,9 @@ package plant_village.service.impl;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import plant_village.config.datasource.ReadYourWrites;
+import plant_village.config.datasource.RecordsWrite;
 import plant_village.exception.ResourceNotFoundException;
 import plant_village.model.Prediction;
 import plant_village.model.PredictionPlant;
@@ -14,6 +17,10 @@ import plant_village.repository.DiseaseRepository;
 import plant_village.repository.PlantRepository;
 import plant_village.service.PredictionService;
 import plant_village.service.FastAPIClientService;
+import plant_village.service.UserStatsService;
+import plant_village.service.CatalogSearchService;
+import plant_village.service.ThumbnailService;
+import plant_village.util.ImageDataUrl;
 import plant_village.model.dto.FastAPIResponse;
 import plant_village.model.dto.DiseasePrediction;
 import plant_village.model.dto.PredictionResult;
@@ -58,6 +65,12 @@ public class PredictionServiceImpl implements PredictionService {
     @Autowired(required = false)
     private plant_village.util.PlantDiseaseCacheManager cacheManager;
     
+    @Autowired
+    private UserStatsService userStatsService;
+    
+    @Autowired
+    private CatalogSearchService catalogSearchService;
+    
     /**
      * Get cache manager for external use
      * Used by controller for plant/disease lookup
@@ -89,6 +102,7 @@ public class PredictionServiceImpl implements PredictionService {
         }
         
         Prediction savedPrediction = predictionRepository.save(prediction);
+        userStatsService.evict(prediction.getUser().getId());
         log.info("Prediction created successfully - User ID: {}, Prediction ID: {}", 
             prediction.getUser().getId(), savedPrediction.getId());
         
@@ -100,6 +114,8 @@ public class PredictionServiceImpl implements PredictionService {
      * STEP 7: Retrieve - Get user's prediction history
      */
     @Override
+    @Transactional(readOnly = true)
+    @ReadYourWrites(key = "userId")
     public List<Prediction> getPredictionHistory(Integer userId) {
         log.info("Fetching prediction history for user ID: {}", userId);
         
@@ -124,6 +140,34 @@ public class PredictionServiceImpl implements PredictionService {
         
         return sorted;
     }
+
+    /**
+     * Prediction history for list views - inline images are replaced by thumbnail URLs
+     */
+    @Override
+    @Transactional(readOnly = true)
+    @ReadYourWrites(key = "userId")
+    public List<Prediction> getPredictionHistoryPreview(Integer userId, int thumbnailSize) {
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found - ID: " + userId);
+        }
+        // Only the image header is selected, the base64 payload never leaves the database
+        List<Prediction> history = predictionRepository.findHistoryRows(userId).stream()
+            .map(row -> Prediction.builder()
+                .id(row.getPredictionId())
+                .userId(userId)
+                .predictionType(row.getPredictionType())
+                .confidence(row.getConfidence())
+                .uploadedImageUrl(ImageDataUrl.isDataUrl(row.getImageHeader())
+                    ? ThumbnailService.url(row.getPredictionId(), thumbnailSize)
+                    : row.getImageHeader())
+                .createAt(row.getCreateAt())
+                .isValid(row.getIsValid())
+                .build())
+            .toList();
+        log.info("Retrieved {} predictions (preview) for user ID: {}", history.size(), userId);
+        return history;
+    }
     
     /**
      * Get invalid predictions for admin review
@@ -131,6 +175,7 @@ public class PredictionServiceImpl implements PredictionService {
      * STEP 7: Retrieve - Admin get invalid predictions
      */
     @Override
+    @Transactional(readOnly = true)
     public List<Prediction> getInvalidPredictionsForReview() {
         log.info("Fetching invalid predictions for review");
         
@@ -170,6 +215,9 @@ public class PredictionServiceImpl implements PredictionService {
         }
         
         Prediction saved = predictionRepository.save(existingPrediction);
+        if (saved.getUser() != null) {
+            userStatsService.evict(saved.getUser().getId());
+        }
         log.info("Prediction updated successfully - ID: {}, Is Valid: {}", 
             predictionId, saved.getIsValid());
         
@@ -193,6 +241,7 @@ public class PredictionServiceImpl implements PredictionService {
      * @return PredictionResult containing saved prediction and all ML predictions
      */
     @Override
+    @RecordsWrite(key = "userId")
     public PredictionResult predictPlantDisease(Integer userId, Integer plantId, 
                                           String imageBase64, String description, String predictionMode) {
         log.info("Processing plant disease prediction for user ID: {}, plant ID: {}", userId, plantId);
@@ -334,6 +383,7 @@ public class PredictionServiceImpl implements PredictionService {
                 .timestamp(LocalDateTime.now())
                 .build();
             predictionLogRepository.save(logEntry);
+            userStatsService.evict(user.getId());
             
             log.info("✅ Prediction saved - ID: {}, Type: {}, Confidence: {}, Anonymous: {}", 
                 savedPrediction.getId(), savedPrediction.getPredictionType(), savedPrediction.getConfidence(), isAnonymousUser);
@@ -407,16 +457,9 @@ public class PredictionServiceImpl implements PredictionService {
             return normalized;
         }
         
-        // Try partial match as last resort
-        List<Disease> partialMatches = diseaseRepository.findByDiseaseNameContainingIgnoreCase(
-            normalizedName.replace("___", "_").replace("__", "_")
-        );
-        if (!partialMatches.isEmpty()) {
-            log.debug("Found disease with partial match for: {}", mlDiseaseName);
-            return Optional.of(partialMatches.get(0));
-        }
-        
-        return Optional.empty();
+        // Fuzzy match as last resort: best trigram similarity above the threshold (logged)
+        return catalogSearchService.fuzzyMatchDisease(normalizedName)
+            .map(CatalogSearchService.DiseaseMatch::disease);
     }
     
     /**
@@ -491,16 +534,10 @@ public class PredictionServiceImpl implements PredictionService {
             return exact;
         }
         
-        // Try case-insensitive search
-        List<Plant> matches = plantRepository.findByPlantNameContainingIgnoreCase(plantName);
+        // Case/accent-insensitive lookup in the in-memory prefix index
+        // (exact name ranks before partial matches)
+        List<Plant> matches = catalogSearchService.findPlantsByPrefix(plantName, 1);
         if (!matches.isEmpty()) {
-            // Return exact case-insensitive match if exists
-            for (Plant p : matches) {
-                if (p.getPlantName().equalsIgnoreCase(plantName)) {
-                    return Optional.of(p);
-                }
-            }
-            // Otherwise return first partial match
             return Optional.of(matches.get(0));
         }
         
@@ -0,0 +1,152 @@
+package plant_village.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import plant_village.dto.ArchivedPredictionDTO;
+import plant_village.repository.PredictionRepository;
+import plant_village.service.PredictionArchiveService;
+import plant_village.service.ThumbnailService;
+import plant_village.util.ImageDataUrl;
+import plant_village.util.ImageResizer;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Thumbnails on disk: {dir}/{size}/{predictionId / 1000}/{predictionId}.jpg
+ *
+ * A thumbnail is made on the first request for it: the stored image (live, or from the archive) is
+ * decoded, scaled to fit size x size (never enlarged, see ImageResizer) and written as JPEG via a temp
+ * file + atomic rename. Concurrent first requests may both generate it; the result is the same.
+ * The ETag is derived from the file's modification time and length, so no content is read to answer
+ * a conditional request.
+ */
+@Service
+@Slf4j
+public class ThumbnailServiceImpl implements ThumbnailService, InitializingBean {
+
+    @Autowired
+    private PredictionRepository predictionRepository;
+
+    @Autowired
+    private PredictionArchiveService archiveService;
+
+    @Value("${app.thumbnails.dir:thumbnails}")
+    private String dir;
+
+    @Value("${app.thumbnails.sizes:128,256}")
+    private int[] sizes;
+
+    @Value("${app.thumbnails.jpeg-quality:0.8}")
+    private float jpegQuality;
+
+    private Path root;
+
+    @Override
+    public void afterPropertiesSet() {
+        root = Paths.get(dir).toAbsolutePath().normalize();
+        sizes = Arrays.stream(sizes).filter(size -> size > 0).sorted().distinct().toArray();
+        if (sizes.length == 0) {
+            throw new IllegalStateException("app.thumbnails.sizes must contain at least one positive size");
+        }
+    }
+
+    @Override
+    public int resolveSize(int requested) {
+        for (int size : sizes) {
+            if (size >= requested) {
+                return size;
+            }
+        }
+        return sizes[sizes.length - 1];
+    }
+
+    @Override
+    public Optional<Thumbnail> getThumbnail(Integer predictionId, int size) {
+        Path file = path(predictionId, size);
+        try {
+            Optional<Thumbnail> existing = read(file);
+            if (existing.isPresent()) {
+                return existing;
+            }
+
+            Optional<String> image = predictionRepository.findImageById(predictionId)
+                .or(() -> archiveService.getArchivedById(predictionId).map(ArchivedPredictionDTO::getUploadedImageUrl));
+            if (image.isEmpty() || !ImageDataUrl.isDataUrl(image.get())) {
+                return Optional.empty();
+            }
+
+            long start = System.nanoTime();
+            BufferedImage source = ImageIO.read(new ByteArrayInputStream(ImageDataUrl.decode(image.get())));
+            if (source == null) {
+                // Format ImageIO cannot decode (e.g. webp) - list views fall back to the original
+                return Optional.empty();
+            }
+            write(file, ImageResizer.fit(source, size));
+            log.debug("🖼️ Thumbnail created - Prediction ID: {}, size: {}, {} ms",
+                predictionId, size, (System.nanoTime() - start) / 1_000_000);
+            return read(file);
+        } catch (IllegalArgumentException e) {
+            log.warn("⚠️ Invalid image data - Prediction ID: {}: {}", predictionId, e.getMessage());
+            return Optional.empty();
+        } catch (IOException e) {
+            throw new IllegalStateException("Thumbnail failed for prediction " + predictionId + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void evict(Collection<Integer> predictionIds) {
+        for (Integer predictionId : predictionIds) {
+            for (int size : sizes) {
+                try {
+                    Files.deleteIfExists(path(predictionId, size));
+                } catch (IOException e) {
+                    log.warn("⚠️ Could not delete thumbnail - Prediction ID: {}, size: {}: {}", predictionId, size, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private Path path(Integer predictionId, int size) {
+        return root.resolve(String.valueOf(size))
+            .resolve(String.valueOf(predictionId / 1000))
+            .resolve(predictionId + ".jpg");
+    }
+
+    private Optional<Thumbnail> read(Path file) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        String etag = "\"" + Long.toHexString(attributes.lastModifiedTime().toMillis())
+            + "-" + Long.toHexString(attributes.size()) + "\"";
+        return Optional.of(new Thumbnail(file, attributes.size(), etag));
+    }
+
+    private void write(Path target, BufferedImage image) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path tmp = Files.createTempFile(target.getParent(), ".thumb-", ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                ImageResizer.writeJpeg(image, jpegQuality, out);
+            }
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+}
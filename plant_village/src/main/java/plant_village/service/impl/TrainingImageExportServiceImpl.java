@@ -0,0 +1,567 @@
+package plant_village.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import plant_village.dto.TrainingImageRow;
+import plant_village.model.JobCheckpoint;
+import plant_village.repository.JobCheckpointRepository;
+import plant_village.repository.PredictionFeedbackRepository;
+import plant_village.repository.PredictionRepository;
+import plant_village.service.TrainingImageExportService;
+import plant_village.service.TrainingImageTaskService;
+import plant_village.util.BkTree;
+import plant_village.util.ImageDataUrl;
+import plant_village.util.PerceptualHash;
+import plant_village.util.TrainingImageManifest;
+import plant_village.util.TrainingLabel;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Incremental training image export
+ *
+ * Layout under app.training-export.dir (default approve_img):
+ *   plant/{Plant}/{sha256}.{ext}       - the image bytes
+ *   disease/{Disease}/{sha256}.{ext}   - hard link to the plant file (copy if links are unsupported)
+ *   manifest.tsv                       - one line per exported image, see TrainingImageManifest
+ *
+ * File names are the SHA-256 of the image, so exporting the same image again is a no-op.
+ * Runs only look at approved feedback after the watermark (Job_Checkpoint "training-image-export"),
+ * one chunk of app.training-export.chunk-size rows at a time, spread over app.training-export.workers
+ * threads. Each worker loads its own image, so at most one decoded image per worker is in memory.
+ * Missing or unreadable images, and data URLs of a type other than jpeg/png/gif/bmp/webp, are skipped.
+ * Rows that fail with an I/O error are recorded in Training_Image_Task (TrainingImageTaskService: RETRY
+ * with backoff, DEAD when out of attempts) and retried by the training image queue, so the watermark
+ * moves past them. A database error stops the run before the watermark of its chunk is saved.
+ *
+ * Near-duplicates: every new image gets a 64-bit dHash (PerceptualHash), looked up in a BK-tree of all
+ * exported images (loaded from the manifest on first use). An image within
+ * app.training-export.near-duplicate.max-distance bits of an exported one is not written in SKIP mode,
+ * or written with the other image's group in the manifest in GROUP mode. Matches are across labels.
+ */
+@Service
+@Slf4j
+public class TrainingImageExportServiceImpl implements TrainingImageExportService, InitializingBean, DisposableBean {
+
+    private static final String EXPORT_JOB = "training-image-export";
+    private static final String DEFAULT_EXTENSION = "png";
+    private static final int MAX_REPORTED = 100;
+
+    private enum NearDuplicateMode { SKIP, GROUP, OFF }
+
+    private record ItemResult(TrainingImageRow row, Outcome outcome, TrainingImageManifest.Entry entry, String message) {
+    }
+
+    // Exported image in the near-duplicate index; groupRoot is the sha256 of its group's first image
+    private record HashRef(String sha256, String plantFile, String group) {
+
+        String groupRoot() {
+            return group != null ? group : sha256;
+        }
+
+        HashRef withGroup(String group) {
+            return new HashRef(sha256, plantFile, group);
+        }
+    }
+
+    @Autowired
+    private PredictionFeedbackRepository feedbackRepository;
+
+    @Autowired
+    private PredictionRepository predictionRepository;
+
+    @Autowired
+    private JobCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private TrainingImageTaskService taskService;
+
+    @Value("${app.training-export.dir:approve_img}")
+    private String exportDir;
+
+    @Value("${app.training-export.workers:4}")
+    private int workers;
+
+    @Value("${app.training-export.chunk-size:200}")
+    private int chunkSize;
+
+    @Value("${app.training-export.near-duplicate.mode:skip}")
+    private String nearDuplicateModeName;
+
+    @Value("${app.training-export.near-duplicate.max-distance:5}")
+    private int nearDuplicateMaxDistance;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicBoolean linkFallbackLogged = new AtomicBoolean(false);
+
+    private volatile Map<String, Object> lastRun;
+
+    private final BkTree<HashRef> hashIndex = new BkTree<>();
+    private volatile boolean hashIndexLoaded;
+    private final AtomicLong hashLookups = new AtomicLong();
+    private final AtomicLong hashLookupNanos = new AtomicLong();
+
+    private Path root;
+    private TrainingImageManifest manifest;
+    private NearDuplicateMode nearDuplicateMode;
+    private ExecutorService executor;
+
+    @Override
+    public void afterPropertiesSet() {
+        root = Paths.get(exportDir).toAbsolutePath().normalize();
+        manifest = new TrainingImageManifest(root.resolve(TrainingImageManifest.FILE_NAME));
+        nearDuplicateMode = NearDuplicateMode.valueOf(nearDuplicateModeName.trim().toUpperCase(Locale.ROOT));
+        executor = Executors.newFixedThreadPool(workers, r -> {
+            Thread thread = new Thread(r, "training-export");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Override
+    public Map<String, Object> exportApprovedImages() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        if (!running.compareAndSet(false, true)) {
+            log.warn("⚠️ Training image export already running, this run is skipped");
+            summary.put("status", "ALREADY_RUNNING");
+            return summary;
+        }
+
+        long start = System.currentTimeMillis();
+        int watermark = 0;
+        int from = 0;
+        int processed = 0;
+        int exported = 0;
+        int existing = 0;
+        int skipped = 0;
+        int duplicates = 0;
+        int failed = 0;
+        int chunks = 0;
+        List<String> savedFiles = new ArrayList<>();
+        List<String> duplicateFiles = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+        String status = "success";
+        String message = null;
+        try {
+            Files.createDirectories(root);
+            watermark = checkpointRepository.findById(EXPORT_JOB).map(JobCheckpoint::getLastId).orElse(0);
+            from = watermark;
+            log.info("🖼️ Training image export started - after feedback ID: {}, chunk: {}, workers: {}",
+                    watermark, chunkSize, workers);
+
+            while (true) {
+                List<TrainingImageRow> rows = feedbackRepository.findTrainingImageRows(watermark, PageRequest.of(0, chunkSize));
+                if (rows.isEmpty()) {
+                    break;
+                }
+
+                List<Future<ItemResult>> futures = new ArrayList<>(rows.size());
+                for (TrainingImageRow row : rows) {
+                    futures.add(executor.submit(() -> exportItem(row)));
+                }
+
+                // Results stay in feedback_id order
+                List<ItemResult> failures = new ArrayList<>();
+                List<TrainingImageManifest.Entry> entries = new ArrayList<>(rows.size());
+                for (Future<ItemResult> future : futures) {
+                    ItemResult result = future.get();
+                    processed++;
+                    switch (result.outcome()) {
+                        case EXPORTED -> {
+                            exported++;
+                            if (savedFiles.size() < MAX_REPORTED) {
+                                savedFiles.add(result.entry().plantFile());
+                            }
+                        }
+                        case EXISTING -> existing++;
+                        case DUPLICATE -> {
+                            duplicates++;
+                            if (duplicateFiles.size() < MAX_REPORTED) {
+                                duplicateFiles.add("Feedback ID " + result.row().getFeedbackId() + ": " + result.message());
+                            }
+                        }
+                        case SKIPPED -> skipped++;
+                        case FAILED -> {
+                            failed++;
+                            failures.add(result);
+                        }
+                    }
+                    if (result.entry() != null) {
+                        entries.add(result.entry());
+                    }
+                    if (result.outcome() != Outcome.DUPLICATE && result.message() != null && errors.size() < MAX_REPORTED) {
+                        errors.add("Feedback ID " + result.row().getFeedbackId() + ": " + result.message());
+                    }
+                }
+
+                // Manifest and failures first, then the watermark - a crash in between only repeats work.
+                // Failed rows go to the training image queue, so they do not hold the watermark back
+                manifest.append(entries);
+                for (ItemResult failure : failures) {
+                    taskService.recordFailure(failure.row().getFeedbackId(), new ExportResult(Outcome.FAILED, failure.message()));
+                }
+                int next = rows.get(rows.size() - 1).getFeedbackId();
+                if (next > watermark) {
+                    checkpointRepository.save(JobCheckpoint.builder().jobName(EXPORT_JOB).lastId(next).build());
+                    watermark = next;
+                }
+                chunks++;
+            }
+            if (failed > 0) {
+                status = "partial";
+                message = failed + " images failed, they are retried by the training image queue";
+            }
+            log.info("✅ Training image export finished - {} processed, {} new, {} existing, {} near-duplicates, {} skipped, {} failed",
+                    processed, exported, existing, duplicates, skipped, failed);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            status = "error";
+            message = "Interrupted";
+        } catch (Exception e) {
+            status = "error";
+            message = "Critical error: " + e.getMessage();
+            log.error("❌ Training image export failed after {} rows: {}", processed, e.getMessage(), e);
+        } finally {
+            running.set(false);
+        }
+
+        summary.put("status", status);
+        summary.put("totalProcessed", processed);
+        summary.put("successCount", exported + existing);
+        summary.put("newFiles", exported);
+        summary.put("existingFiles", existing);
+        summary.put("duplicateCount", duplicates);
+        summary.put("skippedCount", skipped);
+        summary.put("failureCount", failed);
+        summary.put("chunks", chunks);
+        summary.put("watermarkFrom", from);
+        summary.put("watermarkTo", watermark);
+        summary.put("manifest", manifest.getFile().toString());
+        summary.put("savedFiles", savedFiles);
+        summary.put("duplicates", duplicateFiles);
+        summary.put("errors", errors);
+        summary.put("message", message != null ? message
+                : processed == 0 ? "No new approved feedback to export" : "Export completed");
+        summary.put("durationMs", System.currentTimeMillis() - start);
+        summary.put("finishedAt", LocalDateTime.now().toString());
+        lastRun = summary;
+        return summary;
+    }
+
+    @Override
+    public ExportResult exportFeedbackImage(Integer feedbackId) {
+        Optional<TrainingImageRow> row;
+        try {
+            row = feedbackRepository.findTrainingImageRow(feedbackId);
+        } catch (Exception e) {
+            return new ExportResult(Outcome.FAILED, e.getClass().getSimpleName() + " - " + e.getMessage());
+        }
+        if (row.isEmpty()) {
+            return new ExportResult(Outcome.SKIPPED, "Feedback not found or not marked as correct");
+        }
+        ItemResult result = exportItem(row.get());
+        if (result.entry() == null) {
+            if (result.outcome() == Outcome.DUPLICATE) {
+                log.info("🔁 Training image not exported - Feedback ID: {}: {}", feedbackId, result.message());
+            }
+            return new ExportResult(result.outcome(), result.message());
+        }
+        try {
+            manifest.append(List.of(result.entry()));
+        } catch (IOException e) {
+            // Retried; the image itself is already on disk
+            return new ExportResult(Outcome.FAILED, "Manifest not updated - " + e.getMessage());
+        }
+        log.info("✅ Training image {} - Prediction ID: {}, {}", result.outcome() == Outcome.EXPORTED ? "exported" : "already exported",
+                row.get().getPredictionId(), result.entry().plantFile());
+        return new ExportResult(result.outcome(), null);
+    }
+
+    @Override
+    public Map<String, Object> getExportStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("running", running.get());
+        status.put("exportDir", root.toString());
+        status.put("workers", workers);
+        status.put("chunkSize", chunkSize);
+        status.put("nearDuplicateMode", nearDuplicateMode.name());
+        status.put("nearDuplicateMaxDistance", nearDuplicateMaxDistance);
+        status.put("nearDuplicateIndexSize", hashIndexLoaded ? hashIndex.size() : null);
+        long lookups = hashLookups.get();
+        status.put("nearDuplicateAvgLookupMicros", lookups > 0 ? hashLookupNanos.get() / lookups / 1000.0 : null);
+        status.put("watermark", checkpointRepository.findById(EXPORT_JOB).map(JobCheckpoint::getLastId).orElse(0));
+        try {
+            status.put("manifestEntries", manifest.size());
+        } catch (IOException e) {
+            status.put("manifestEntries", null);
+        }
+        status.put("lastRun", lastRun);
+        return status;
+    }
+
+    /**
+     * Write one approved image (runs on a worker thread, never throws)
+     */
+    private ItemResult exportItem(TrainingImageRow row) {
+        try {
+            String imageUrl = predictionRepository.findImageById(row.getPredictionId()).orElse(null);
+            if (imageUrl == null || imageUrl.isBlank()) {
+                return new ItemResult(row, Outcome.SKIPPED, null, "No image URL");
+            }
+
+            byte[] bytes = null;
+            Path source = null;
+            String extension;
+            String sha256;
+            long size;
+            if (ImageDataUrl.isDataUrl(imageUrl)) {
+                try {
+                    bytes = ImageDataUrl.decode(imageUrl);
+                } catch (IllegalArgumentException e) {
+                    return new ItemResult(row, Outcome.SKIPPED, null, "Invalid base64 image");
+                }
+                extension = ImageDataUrl.extension(ImageDataUrl.contentType(imageUrl));
+                if (extension == null) {
+                    return new ItemResult(row, Outcome.SKIPPED, null, "Unsupported image type " + ImageDataUrl.contentType(imageUrl));
+                }
+                sha256 = HexFormat.of().formatHex(sha256().digest(bytes));
+                size = bytes.length;
+            } else if (imageUrl.contains("uploads") || imageUrl.contains("\\") || imageUrl.startsWith("/")) {
+                source = resolveSource(imageUrl);
+                if (source == null) {
+                    return new ItemResult(row, Outcome.SKIPPED, null, "Source file not found");
+                }
+                extension = fileExtension(source);
+                sha256 = hashFile(source);
+                size = Files.size(source);
+            } else {
+                return new ItemResult(row, Outcome.SKIPPED, null, "Unknown image URL format");
+            }
+
+            TrainingLabel label = TrainingLabel.parse(row.getPredictionType());
+            String fileName = sha256 + "." + extension;
+            Path plantFile = root.resolve("plant").resolve(label.plant()).resolve(fileName);
+            Path diseaseFile = root.resolve("disease").resolve(label.disease()).resolve(fileName);
+            if (!plantFile.normalize().startsWith(root) || !diseaseFile.normalize().startsWith(root)) {
+                return new ItemResult(row, Outcome.SKIPPED, null, "Image path outside the export directory");
+            }
+
+            boolean created = false;
+            String dHash = null;
+            String group = null;
+            if (!Files.exists(plantFile)) {
+                HashRef ref = new HashRef(sha256, relative(plantFile), null);
+                OptionalLong perceptual = nearDuplicateMode == NearDuplicateMode.OFF
+                        ? OptionalLong.empty()
+                        : PerceptualHash.dHash(bytes != null ? bytes : Files.readAllBytes(source));
+                if (perceptual.isPresent()) {
+                    BkTree.Match<HashRef> match = checkNearDuplicate(perceptual.getAsLong(), ref);
+                    if (match != null && nearDuplicateMode == NearDuplicateMode.SKIP) {
+                        return new ItemResult(row, Outcome.DUPLICATE, null, "Near-duplicate of "
+                                + match.value().plantFile() + " (distance " + match.distance() + ")");
+                    }
+                    dHash = PerceptualHash.toHex(perceptual.getAsLong());
+                    group = match != null ? match.value().groupRoot() : null;
+                }
+                try {
+                    writeAtomically(plantFile, bytes, source);
+                } catch (IOException e) {
+                    // Not on disk - must not shadow a later copy of this image
+                    if (perceptual.isPresent()) {
+                        hashIndex.remove(perceptual.getAsLong(), ref.withGroup(group));
+                    }
+                    throw e;
+                }
+                created = true;
+            }
+            if (!Files.exists(diseaseFile)) {
+                link(diseaseFile, plantFile);
+                created = true;
+            }
+
+            TrainingImageManifest.Entry entry = new TrainingImageManifest.Entry(sha256, size,
+                    relative(plantFile), relative(diseaseFile), row.getPredictionId(), row.getFeedbackId(), dHash, group);
+            return new ItemResult(row, created ? Outcome.EXPORTED : Outcome.EXISTING, entry, null);
+        } catch (Exception e) {
+            log.error("❌ Error exporting training image for feedback ID: {} - {}", row.getFeedbackId(), e.getMessage());
+            return new ItemResult(row, Outcome.FAILED, null, e.getClass().getSimpleName() + " - " + e.getMessage());
+        }
+    }
+
+    /**
+     * Look up the closest exported image within app.training-export.near-duplicate.max-distance and register
+     * this one. SKIP mode registers only when there is no match; GROUP mode always registers, in the match's group.
+     */
+    private BkTree.Match<HashRef> checkNearDuplicate(long hash, HashRef ref) throws IOException {
+        ensureHashIndex();
+        long start = System.nanoTime();
+        try {
+            if (nearDuplicateMode == NearDuplicateMode.SKIP) {
+                return hashIndex.addIfAbsent(hash, ref, nearDuplicateMaxDistance);
+            }
+            // Lookup and insert under one lock, so a burst in the same chunk lands in one group
+            synchronized (hashIndex) {
+                BkTree.Match<HashRef> match = hashIndex.nearest(hash, nearDuplicateMaxDistance);
+                hashIndex.add(hash, ref.withGroup(match != null ? match.value().groupRoot() : null));
+                return match;
+            }
+        } finally {
+            hashLookups.incrementAndGet();
+            hashLookupNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Load the perceptual hashes of everything in the manifest once (hashing files listed before
+     * the dhash column existed)
+     */
+    private void ensureHashIndex() throws IOException {
+        if (hashIndexLoaded) {
+            return;
+        }
+        synchronized (this) {
+            if (hashIndexLoaded) {
+                return;
+            }
+            long start = System.currentTimeMillis();
+            int[] backfilled = {0};
+            manifest.readFrom(0, (entry, next) -> {
+                Long hash = null;
+                if (entry.dHash() != null) {
+                    hash = PerceptualHash.fromHex(entry.dHash());
+                } else {
+                    Path file = root.resolve(entry.plantFile());
+                    if (Files.isRegularFile(file)) {
+                        OptionalLong computed = PerceptualHash.dHash(Files.readAllBytes(file));
+                        if (computed.isPresent()) {
+                            hash = computed.getAsLong();
+                            backfilled[0]++;
+                        }
+                    }
+                }
+                if (hash != null) {
+                    hashIndex.add(hash, new HashRef(entry.sha256(), entry.plantFile(), entry.group()));
+                }
+            });
+            hashIndexLoaded = true;
+            log.info("🔎 Near-duplicate index loaded - {} images ({} hashed from disk) in {} ms",
+                    hashIndex.size(), backfilled[0], System.currentTimeMillis() - start);
+        }
+    }
+
+    /**
+     * Write to a temp file next to the target and rename, so readers never see a partial image
+     */
+    private void writeAtomically(Path target, byte[] bytes, Path source) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path tmp = Files.createTempFile(target.getParent(), ".export-", ".tmp");
+        try {
+            if (bytes != null) {
+                Files.write(tmp, bytes);
+            } else {
+                Files.copy(source, tmp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private void link(Path link, Path existing) throws IOException {
+        Files.createDirectories(link.getParent());
+        try {
+            Files.createLink(link, existing);
+        } catch (FileAlreadyExistsException e) {
+            // Written by a concurrent worker - same content
+        } catch (UnsupportedOperationException | FileSystemException e) {
+            if (linkFallbackLogged.compareAndSet(false, true)) {
+                log.warn("⚠️ Hard links not supported in {}, copying disease images instead: {}", root, e.getMessage());
+            }
+            Files.copy(existing, link, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Uploaded file path: as given, relative to the working directory, or under uploads/
+     */
+    private Path resolveSource(String imageUrl) {
+        String basePath = System.getProperty("user.dir");
+        List<String> candidates = List.of(
+                imageUrl,
+                basePath + File.separator + imageUrl,
+                basePath + File.separator + "uploads" + File.separator + imageUrl.replace("uploads/", "").replace("uploads\\", ""));
+        for (String candidate : candidates) {
+            try {
+                Path path = Paths.get(candidate);
+                if (Files.isRegularFile(path)) {
+                    return path;
+                }
+            } catch (InvalidPathException e) {
+                // try the next location
+            }
+        }
+        return null;
+    }
+
+    private String relative(Path path) {
+        return root.relativize(path).toString().replace(File.separatorChar, '/');
+    }
+
+    private static String fileExtension(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        if (dot < 0 || dot == name.length() - 1) {
+            return DEFAULT_EXTENSION;
+        }
+        String extension = ImageDataUrl.extension("image/" + name.substring(dot + 1).toLowerCase(Locale.ROOT));
+        return extension != null ? extension : DEFAULT_EXTENSION;
+    }
+
+    private static String hashFile(Path file) throws IOException {
+        MessageDigest digest = sha256();
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
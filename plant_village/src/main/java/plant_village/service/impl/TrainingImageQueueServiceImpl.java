@@ -0,0 +1,179 @@
+package plant_village.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import plant_village.model.TrainingImageTask;
+import plant_village.repository.PredictionFeedbackRepository;
+import plant_village.repository.TrainingImageTaskRepository;
+import plant_village.service.TrainingImageExportService;
+import plant_village.service.TrainingImageExportService.ExportResult;
+import plant_village.service.TrainingImageQueueService;
+import plant_village.service.TrainingImageTaskService;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Training image queue worker
+ *
+ * One background thread drains correct feedback with image_added_to_db = false in feedback_id order,
+ * app.image-queue.batch-size rows per query. It runs every app.image-queue.poll-ms and right after
+ * enqueue, and picks up whatever is left after a restart.
+ *
+ * Per row: export the image (TrainingImageExportService), then in one transaction set
+ * image_added_to_db = 1 and drop any Training_Image_Task row. Skipped near-duplicates count as done.
+ * On failure a Training_Image_Task row is written by TrainingImageTaskService: RETRY with exponential
+ * backoff, DEAD when out of attempts or when the image cannot be exported at all.
+ */
+@Service
+@Slf4j
+public class TrainingImageQueueServiceImpl implements TrainingImageQueueService, InitializingBean, DisposableBean {
+
+    private static final int DEAD_LETTER_LISTING = 20;
+
+    @Autowired
+    private PredictionFeedbackRepository feedbackRepository;
+
+    @Autowired
+    private TrainingImageTaskRepository taskRepository;
+
+    @Autowired
+    private TrainingImageExportService exportService;
+
+    @Autowired
+    private TrainingImageTaskService taskService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.image-queue.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.image-queue.poll-ms:10000}")
+    private long pollMs;
+
+    @Value("${app.image-queue.batch-size:50}")
+    private int batchSize;
+
+    // Set while a wake-up is queued, so a burst of feedback queues one drain, not one per row
+    private final AtomicBoolean wakeUpPending = new AtomicBoolean(false);
+    private final AtomicLong persisted = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong deadLettered = new AtomicLong();
+
+    private ScheduledExecutorService worker;
+    private TransactionTemplate tx;
+
+    @Override
+    public void afterPropertiesSet() {
+        tx = new TransactionTemplate(transactionManager);
+        if (!enabled) {
+            log.info("⏸️ Training image queue disabled (app.image-queue.enabled=false)");
+            return;
+        }
+        worker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "training-image-queue");
+            thread.setDaemon(true);
+            return thread;
+        });
+        worker.scheduleWithFixedDelay(this::drain, pollMs, pollMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        if (worker != null) {
+            worker.shutdownNow();
+        }
+    }
+
+    @Override
+    public void enqueue(Integer feedbackId) {
+        // The row itself is the queue entry - only wake the worker up
+        if (worker != null && wakeUpPending.compareAndSet(false, true)) {
+            worker.execute(this::drain);
+        }
+    }
+
+    @Override
+    public Map<String, Object> getQueueStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", enabled);
+        status.put("backlog", feedbackRepository.countByIsCorrectTrueAndImageAddedToDbFalse());
+        status.put("retrying", taskRepository.countByStatus(TrainingImageTask.RETRY));
+        status.put("dead", taskRepository.countByStatus(TrainingImageTask.DEAD));
+        status.put("persisted", persisted.get());
+        status.put("retried", retried.get());
+        status.put("deadLettered", deadLettered.get());
+        status.put("deadLetters", taskRepository.findByStatusOrderByUpdatedAtDesc(
+                TrainingImageTask.DEAD, PageRequest.of(0, DEAD_LETTER_LISTING)));
+        return status;
+    }
+
+    @Override
+    public int retryDeadLetters() {
+        Integer requeued = tx.execute(status -> taskRepository.requeueDead(LocalDateTime.now()));
+        int count = requeued != null ? requeued : 0;
+        log.info("🔁 {} dead-lettered training images requeued", count);
+        if (count > 0 && worker != null && wakeUpPending.compareAndSet(false, true)) {
+            worker.execute(this::drain);
+        }
+        return count;
+    }
+
+    /**
+     * Process ready rows until none are left (worker thread only)
+     */
+    private void drain() {
+        wakeUpPending.set(false);
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                List<Integer> ids = feedbackRepository.findImageQueueIds(LocalDateTime.now(), PageRequest.of(0, batchSize));
+                if (ids.isEmpty()) {
+                    return;
+                }
+                for (Integer feedbackId : ids) {
+                    process(feedbackId);
+                }
+                if (ids.size() < batchSize) {
+                    return;
+                }
+            }
+        } catch (Exception e) {
+            // Keep the schedule alive; the next poll tries again
+            log.error("❌ Training image queue poll failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void process(Integer feedbackId) {
+        ExportResult result = exportService.exportFeedbackImage(feedbackId);
+        if (result.isDone()) {
+            tx.executeWithoutResult(status -> {
+                feedbackRepository.markImageAdded(feedbackId, LocalDateTime.now());
+                if (taskRepository.existsById(feedbackId)) {
+                    taskRepository.deleteById(feedbackId);
+                }
+            });
+            persisted.incrementAndGet();
+            return;
+        }
+
+        TrainingImageTask task = taskService.recordFailure(feedbackId, result);
+        if (TrainingImageTask.DEAD.equals(task.getStatus())) {
+            deadLettered.incrementAndGet();
+        } else {
+            retried.incrementAndGet();
+        }
+    }
+}
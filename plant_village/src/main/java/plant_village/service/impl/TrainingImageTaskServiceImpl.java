@@ -0,0 +1,77 @@
+package plant_village.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import plant_village.model.TrainingImageTask;
+import plant_village.repository.PredictionFeedbackRepository;
+import plant_village.repository.TrainingImageTaskRepository;
+import plant_village.service.TrainingImageExportService;
+import plant_village.service.TrainingImageExportService.ExportResult;
+import plant_village.service.TrainingImageTaskService;
+
+import java.time.LocalDateTime;
+
+/**
+ * Training image retry / dead-letter state
+ *
+ * A failure becomes RETRY with exponential backoff (app.image-queue.backoff-seconds, doubled per
+ * attempt, capped at app.image-queue.max-backoff-seconds), or DEAD after app.image-queue.max-attempts
+ * or straight away when the image cannot be exported at all (SKIPPED).
+ */
+@Service
+@Slf4j
+public class TrainingImageTaskServiceImpl implements TrainingImageTaskService {
+
+    @Autowired
+    private TrainingImageTaskRepository taskRepository;
+
+    @Autowired
+    private PredictionFeedbackRepository feedbackRepository;
+
+    @Value("${app.image-queue.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.image-queue.backoff-seconds:30}")
+    private long backoffSeconds;
+
+    @Value("${app.image-queue.max-backoff-seconds:3600}")
+    private long maxBackoffSeconds;
+
+    @Override
+    @Transactional
+    public TrainingImageTask recordFailure(Integer feedbackId, ExportResult result) {
+        LocalDateTime now = LocalDateTime.now();
+        TrainingImageTask task = taskRepository.findById(feedbackId)
+                .orElseGet(() -> TrainingImageTask.builder().feedbackId(feedbackId).attempts(0).build());
+        int attempts = task.getAttempts() + 1;
+        task.setAttempts(attempts);
+        task.setLastError(truncate(result.message()));
+
+        boolean permanent = result.outcome() == TrainingImageExportService.Outcome.SKIPPED;
+        if (permanent || attempts >= maxAttempts) {
+            task.setStatus(TrainingImageTask.DEAD);
+            task.setNextAttemptAt(null);
+            log.warn("☠️ Training image dead-lettered - Feedback ID: {}, attempts: {}: {}",
+                    feedbackId, attempts, result.message());
+        } else {
+            long delay = Math.min(maxBackoffSeconds, backoffSeconds << Math.min(attempts - 1, 20));
+            task.setStatus(TrainingImageTask.RETRY);
+            task.setNextAttemptAt(now.plusSeconds(delay));
+            log.warn("⚠️ Training image failed - Feedback ID: {}, attempt {}/{}, retry in {}s: {}",
+                    feedbackId, attempts, maxAttempts, delay, result.message());
+        }
+        // The queue only picks up images that are not persisted yet
+        feedbackRepository.markImagePending(feedbackId, now);
+        return taskRepository.save(task);
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() <= 1000 ? message : message.substring(0, 1000);
+    }
+}
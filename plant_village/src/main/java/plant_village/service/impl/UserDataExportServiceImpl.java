@@ -0,0 +1,72 @@
+package plant_village.service.impl;
+
+import plant_village.config.datasource.ReadYourWrites;
+import plant_village.dto.ArchivedPredictionDTO;
+import plant_village.dto.PredictionExportRow;
+import plant_village.repository.PredictionRepository;
+import plant_village.service.PredictionArchiveService;
+import plant_village.service.UserDataExportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+@Service
+@Slf4j
+public class UserDataExportServiceImpl implements UserDataExportService {
+
+    @Autowired
+    private PredictionRepository predictionRepository;
+
+    @Autowired
+    private PredictionArchiveService archiveService;
+
+    @Override
+    @Transactional(readOnly = true)
+    @ReadYourWrites(key = "userId")
+    public long streamPredictionRows(Integer userId, Consumer<PredictionExportRow> sink) {
+        log.info("Dışa aktarma: tahminler akış ile okunuyor - User ID: {}", userId);
+        try (Stream<PredictionExportRow> rows = predictionRepository.streamExportRows(userId)) {
+            return drain(rows, sink);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @ReadYourWrites(key = "userId")
+    public long streamImages(Integer userId, Consumer<PredictionExportRow> sink) {
+        log.info("Dışa aktarma: görseller akış ile okunuyor - User ID: {}", userId);
+        try (Stream<PredictionExportRow> rows = predictionRepository.streamExportImages(userId)) {
+            return drain(rows, sink);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @ReadYourWrites(key = "userId")
+    public Optional<String> findImage(Integer userId, Integer predictionId) {
+        Optional<String> image = predictionRepository.findImageByIdAndUserId(predictionId, userId);
+        if (image.isPresent()) {
+            return image;
+        }
+        // Not in the hot tables any more - try the archive
+        return archiveService.getArchivedById(predictionId)
+            .filter(archived -> userId.equals(archived.getUserId()))
+            .map(ArchivedPredictionDTO::getUploadedImageUrl);
+    }
+
+    private long drain(Stream<PredictionExportRow> rows, Consumer<PredictionExportRow> sink) {
+        // Cursor stays open only for the duration of the calling transaction
+        long count = 0;
+        Iterator<PredictionExportRow> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            sink.accept(iterator.next());
+            count++;
+        }
+        return count;
+    }
+}
@@ -4,14 +4,19 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import plant_village.dto.UserListRow;
 import plant_village.exception.ResourceNotFoundException;
 import plant_village.model.User;
 import plant_village.repository.UserRepository;
 import plant_village.service.UserService;
 
 import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Service implementation for User management operations.
@@ -101,6 +106,21 @@ public class UserServiceImpl implements UserService {
         log.info("Fetching all users");
         return userRepository.findAll();
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long streamUsers(Consumer<UserListRow> sink) {
+        // Cursor stays open only for the duration of this transaction
+        long count = 0;
+        try (Stream<UserListRow> users = userRepository.streamListRows()) {
+            Iterator<UserListRow> iterator = users.iterator();
+            while (iterator.hasNext()) {
+                sink.accept(iterator.next());
+                count++;
+            }
+        }
+        return count;
+    }
     
     /**
      * Update user profile
@@ -0,0 +1,175 @@
+package plant_village.service.impl;
+
+import plant_village.config.datasource.ReadYourWrites;
+import plant_village.dto.UserStatsResponse;
+import plant_village.repository.PredictionArchiveIndexRepository;
+import plant_village.repository.PredictionDiseaseRepository;
+import plant_village.repository.PredictionRepository;
+import plant_village.service.UserStatsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import lombok.extern.slf4j.Slf4j;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * User statistics
+ *
+ * Two aggregate queries per user (prediction totals + disease link counts) instead of loading
+ * every prediction entity. Results are kept in a bounded LRU cache (app.user-stats.cache-size)
+ * with a TTL safety net (app.user-stats.ttl-minutes); prediction writes evict the user's entry.
+ * Archived predictions only add to the totals: the breakdown is over live predictions.
+ */
+@Service
+@Slf4j
+public class UserStatsServiceImpl implements UserStatsService {
+
+    @Autowired
+    private PredictionRepository predictionRepository;
+
+    @Autowired
+    private PredictionDiseaseRepository predictionDiseaseRepository;
+
+    @Autowired
+    private PredictionArchiveIndexRepository archiveIndexRepository;
+
+    @Value("${app.user-stats.top-diseases:5}")
+    private int topDiseases;
+
+    @Value("${app.user-stats.ttl-minutes:10}")
+    private long ttlMinutes;
+
+    private final Map<Integer, UserStatsResponse> cache;
+
+    // Bumped on every eviction; a result computed across an eviction is not cached
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public UserStatsServiceImpl(@Value("${app.user-stats.cache-size:10000}") int cacheSize) {
+        // Access-ordered LinkedHashMap = LRU, eldest entry dropped above cacheSize
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, UserStatsResponse> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @ReadYourWrites(key = "userId")
+    public UserStatsResponse getStats(Integer userId) {
+        UserStatsResponse cached = cache.get(userId);
+        if (cached != null && cached.getComputedAt().isAfter(LocalDateTime.now().minusMinutes(ttlMinutes))) {
+            hits.incrementAndGet();
+            return cached;
+        }
+        misses.incrementAndGet();
+
+        long startGeneration = generation.get();
+        UserStatsResponse stats = compute(userId);
+        if (generation.get() == startGeneration) {
+            cache.put(userId, stats);
+        }
+        return stats;
+    }
+
+    @Override
+    public void evict(Integer userId) {
+        if (userId == null) {
+            return;
+        }
+        generation.incrementAndGet();
+        cache.remove(userId);
+        // Evict again after commit so a read racing with the writing transaction is not kept
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    generation.incrementAndGet();
+                    cache.remove(userId);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void evictAll() {
+        generation.incrementAndGet();
+        cache.clear();
+        log.info("🧹 User stats cache cleared");
+    }
+
+    @Override
+    public Map<String, Object> getCacheStats() {
+        long h = hits.get();
+        long m = misses.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", cache.size());
+        stats.put("hits", h);
+        stats.put("misses", m);
+        stats.put("hitRatio", h + m == 0 ? 0.0 : Math.round(h * 1000.0 / (h + m)) / 1000.0);
+        return stats;
+    }
+
+    private UserStatsResponse compute(Integer userId) {
+        Object[] totals = predictionRepository.getUserPredictionTotals(userId).get(0);
+        long live = toLong(totals[0]);
+        LocalDateTime lastLive = (LocalDateTime) totals[1];
+
+        long archived = archiveIndexRepository.countByUserId(userId);
+        LocalDateTime lastDiagnosis = lastLive;
+        // Archived predictions are always older than live ones
+        if (archived > 0 && lastLive == null) {
+            lastDiagnosis = archiveIndexRepository.findLastCreateAtByUserId(userId);
+        }
+
+        long healthy = 0;
+        long diseased = 0;
+        Map<Integer, UserStatsResponse.DiseaseCount> byDisease = new LinkedHashMap<>();
+        for (Object[] row : predictionDiseaseRepository.countDiseasesByUserId(userId)) {
+            long count = toLong(row[3]);
+            if (Boolean.TRUE.equals(row[2])) {
+                healthy += count;
+                continue;
+            }
+            diseased += count;
+            // is_healthy false and NULL come back as separate groups of the same disease
+            byDisease.merge((Integer) row[0], new UserStatsResponse.DiseaseCount((Integer) row[0], (String) row[1], count),
+                    (a, b) -> {
+                        a.setCount(a.getCount() + b.getCount());
+                        return a;
+                    });
+        }
+        List<UserStatsResponse.DiseaseCount> top = byDisease.values().stream()
+            .sorted(Comparator.comparingLong(UserStatsResponse.DiseaseCount::getCount).reversed())
+            .limit(topDiseases)
+            .toList();
+
+        return UserStatsResponse.builder()
+            .userId(userId)
+            .totalDiagnoses(live + archived)
+            .liveDiagnoses(live)
+            .archivedDiagnoses(archived)
+            .lastDiagnosis(lastDiagnosis)
+            .validDiagnoses(toLong(totals[2]))
+            .invalidDiagnoses(toLong(totals[3]))
+            .healthyCount(healthy)
+            .diseasedCount(diseased)
+            .healthyRatio(healthy + diseased == 0 ? null
+                    : Math.round(healthy * 1000.0 / (healthy + diseased)) / 1000.0)
+            .topDiseases(top)
+            .computedAt(LocalDateTime.now())
+            .build();
+    }
+
+    private static long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : 0L;
+    }
+}
@@ -0,0 +1,166 @@
+package plant_village.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * BK-tree over 64-bit hashes with Hamming distance
+ *
+ * Each child edge is labelled with its distance to the parent, so a search for "within d of q"
+ * only descends into children whose edge lies in [dist(q, node) - d, dist(q, node) + d]
+ * (triangle inequality). For small d this touches a small fraction of the nodes.
+ *
+ * Values can be removed (tombstoned); the node stays in the tree as a routing point.
+ * Thread safe: searches share a read lock, inserts take the write lock.
+ */
+public class BkTree<V> {
+
+    public record Match<V>(long hash, V value, int distance) {
+    }
+
+    private static final class Node<V> {
+        final long hash;
+        V value;
+        boolean removed;
+        Map<Integer, Node<V>> children;
+
+        Node(long hash, V value) {
+            this.hash = hash;
+            this.value = value;
+        }
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Node<V> root;
+    private int size;
+
+    public void add(long hash, V value) {
+        lock.writeLock().lock();
+        try {
+            insert(hash, value);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Closest live value within maxDistance, or null - without adding anything
+     */
+    public Match<V> nearest(long hash, int maxDistance) {
+        lock.readLock().lock();
+        try {
+            return nearestLocked(hash, maxDistance);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Atomic check-and-insert: the closest live value within maxDistance if there is one,
+     * otherwise adds (hash, value) and returns null
+     */
+    public Match<V> addIfAbsent(long hash, V value, int maxDistance) {
+        lock.writeLock().lock();
+        try {
+            Match<V> match = nearestLocked(hash, maxDistance);
+            if (match == null) {
+                insert(hash, value);
+            }
+            return match;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Tombstone the node holding exactly (hash, value)
+     */
+    public boolean remove(long hash, V value) {
+        lock.writeLock().lock();
+        try {
+            Node<V> node = root;
+            while (node != null) {
+                int distance = PerceptualHash.distance(hash, node.hash);
+                if (distance == 0 && !node.removed && node.value.equals(value)) {
+                    node.removed = true;
+                    size--;
+                    return true;
+                }
+                node = node.children != null ? node.children.get(distance) : null;
+            }
+            return false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void insert(long hash, V value) {
+        size++;
+        if (root == null) {
+            root = new Node<>(hash, value);
+            return;
+        }
+        Node<V> node = root;
+        while (true) {
+            int distance = PerceptualHash.distance(hash, node.hash);
+            if (distance == 0 && node.removed) {
+                // Reuse the tombstone
+                node.value = value;
+                node.removed = false;
+                return;
+            }
+            if (node.children == null) {
+                node.children = new HashMap<>(4);
+            }
+            Node<V> child = node.children.get(distance);
+            if (child == null) {
+                node.children.put(distance, new Node<>(hash, value));
+                return;
+            }
+            node = child;
+        }
+    }
+
+    private Match<V> nearestLocked(long hash, int maxDistance) {
+        if (root == null) {
+            return null;
+        }
+        Match<V> best = null;
+        List<Node<V>> stack = new ArrayList<>();
+        stack.add(root);
+        while (!stack.isEmpty()) {
+            Node<V> node = stack.remove(stack.size() - 1);
+            int distance = PerceptualHash.distance(hash, node.hash);
+            int limit = best != null ? Math.min(maxDistance, best.distance()) : maxDistance;
+            if (!node.removed && distance <= limit && (best == null || distance < best.distance())) {
+                best = new Match<>(node.hash, node.value, distance);
+                if (distance == 0) {
+                    return best;
+                }
+                limit = distance;
+            }
+            if (node.children != null) {
+                for (Map.Entry<Integer, Node<V>> child : node.children.entrySet()) {
+                    int edge = child.getKey();
+                    if (edge >= distance - limit && edge <= distance + limit) {
+                        stack.add(child.getValue());
+                    }
+                }
+            }
+        }
+        return best;
+    }
+}
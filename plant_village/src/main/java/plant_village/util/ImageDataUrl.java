@@ -0,0 +1,84 @@
+package plant_village.util;
+
+import java.util.Base64;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Helpers for images stored inline as data URLs (data:image/png;base64,....)
+ * in Prediction.uploadedImageUrl.
+ */
+public final class ImageDataUrl {
+
+    // Long enough for "data:image/svg+xml;base64,"
+    public static final int HEADER_LENGTH = 40;
+
+    private static final String DEFAULT_CONTENT_TYPE = "image/jpeg";
+    private static final String OCTET_STREAM = "application/octet-stream";
+
+    // The data URL header is client input: only these types are served as images or used as file extensions
+    private static final Map<String, String> RASTER_EXTENSIONS = Map.of(
+        "image/jpeg", "jpg",
+        "image/jpg", "jpg",
+        "image/png", "png",
+        "image/gif", "gif",
+        "image/bmp", "bmp",
+        "image/webp", "webp");
+
+    private ImageDataUrl() {
+    }
+
+    public static boolean isDataUrl(String value) {
+        return value != null && value.startsWith("data:");
+    }
+
+    /**
+     * Content type from the data URL header (data:image/png;base64, → image/png)
+     */
+    public static String contentType(String value) {
+        if (!isDataUrl(value)) {
+            return DEFAULT_CONTENT_TYPE;
+        }
+        int end = value.indexOf(';');
+        if (end < 0) {
+            end = value.indexOf(',');
+        }
+        if (end <= 5) {
+            return DEFAULT_CONTENT_TYPE;
+        }
+        return value.substring(5, end).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Content type to serve the image with: the data URL type when it is an accepted raster type,
+     * application/octet-stream otherwise (never SVG or HTML from a client-supplied header)
+     */
+    public static String servedContentType(String value) {
+        String contentType = contentType(value);
+        if ("image/jpg".equals(contentType)) {
+            return DEFAULT_CONTENT_TYPE;
+        }
+        return isRasterImage(contentType) ? contentType : OCTET_STREAM;
+    }
+
+    /**
+     * Whether the content type is one of the accepted raster image types (jpeg, png, gif, bmp, webp)
+     */
+    public static boolean isRasterImage(String contentType) {
+        return contentType != null && RASTER_EXTENSIONS.containsKey(contentType);
+    }
+
+    /**
+     * File extension for an accepted raster content type (image/jpeg → jpg), null for anything else
+     */
+    public static String extension(String contentType) {
+        return contentType != null ? RASTER_EXTENSIONS.get(contentType) : null;
+    }
+
+    /**
+     * Decode the base64 payload of a data URL
+     */
+    public static byte[] decode(String value) {
+        return Base64.getMimeDecoder().decode(value.substring(value.indexOf(',') + 1));
+    }
+}
@@ -0,0 +1,197 @@
+package plant_village.util;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Token inverted index over a few weighted text fields of catalog rows (Plant / Disease)
+ *
+ * - term → (docId → weighted term frequency), terms kept sorted so the last query token
+ *   can also match as a prefix ("bli" → blight) for search-as-you-type
+ * - docId → terms (forward index) so a row can be removed or re-indexed without a scan
+ * - folded name → docIds for exact name lookups
+ *
+ * Ranking: documents matching more query tokens first, then by sum(weight * tf * idf).
+ * Text goes through TextNormalizer, so Turkish input and accents match their ASCII forms.
+ * Reads share a lock, put/remove take it exclusively; both are O(terms in the document/query).
+ */
+public class InvertedIndex {
+
+    // Prefix-only matches count a little less than whole-token matches
+    private static final double PREFIX_FACTOR = 0.8;
+    // Exact name match always ranks first
+    private static final double EXACT_NAME_BONUS = 1000.0;
+
+    private final Map<String, Double> fieldWeights;
+    private final String nameField;
+
+    private final NavigableMap<String, Map<Integer, Double>> postings = new TreeMap<>();
+    private final Map<Integer, Set<String>> documentTerms = new HashMap<>();
+    private final Map<Integer, String> documentNames = new HashMap<>();
+    private final Map<String, Set<Integer>> nameIndex = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * @param fieldWeights Field name → weight (fields not listed are ignored)
+     * @param nameField Field used for exact name lookups
+     */
+    public InvertedIndex(Map<String, Double> fieldWeights, String nameField) {
+        this.fieldWeights = new LinkedHashMap<>(fieldWeights);
+        this.nameField = nameField;
+    }
+
+    /**
+     * Add or replace a document
+     *
+     * @param fields Field name → raw text (null values allowed)
+     */
+    public void put(Integer id, Map<String, String> fields) {
+        Map<String, Double> termWeights = new HashMap<>();
+        for (Map.Entry<String, Double> field : fieldWeights.entrySet()) {
+            for (String token : TextNormalizer.tokenize(fields.get(field.getKey()))) {
+                termWeights.merge(token, field.getValue(), Double::sum);
+            }
+        }
+        String name = TextNormalizer.fold(fields.get(nameField)).trim();
+
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+            termWeights.forEach((term, weight) ->
+                    postings.computeIfAbsent(term, t -> new HashMap<>()).put(id, weight));
+            documentTerms.put(id, termWeights.keySet());
+            if (!name.isEmpty()) {
+                documentNames.put(id, name);
+                nameIndex.computeIfAbsent(name, n -> new HashSet<>()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Integer id) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ranked document IDs for a free-text query
+     */
+    public List<Integer> search(String query, int limit) {
+        List<String> tokens = TextNormalizer.tokenize(query);
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        String foldedQuery = TextNormalizer.fold(query).trim();
+        // A trailing space means the last word is complete
+        boolean prefixLast = !query.endsWith(" ");
+
+        lock.readLock().lock();
+        try {
+            int documentCount = Math.max(1, documentTerms.size());
+            Map<Integer, double[]> hits = new HashMap<>(); // docId → {matched tokens, score}
+
+            for (int i = 0; i < tokens.size(); i++) {
+                String token = tokens.get(i);
+                Map<Integer, Double> tokenScores = new HashMap<>();
+                collect(postings.get(token), 1.0, documentCount, tokenScores);
+                if (prefixLast && i == tokens.size() - 1) {
+                    for (Map.Entry<String, Map<Integer, Double>> entry
+                            : postings.subMap(token, false, token + Character.MAX_VALUE, false).entrySet()) {
+                        collect(entry.getValue(), PREFIX_FACTOR, documentCount, tokenScores);
+                    }
+                }
+                tokenScores.forEach((docId, score) -> {
+                    double[] hit = hits.computeIfAbsent(docId, d -> new double[2]);
+                    hit[0]++;
+                    hit[1] += score;
+                });
+            }
+
+            for (Integer docId : nameIndex.getOrDefault(foldedQuery, Set.of())) {
+                double[] hit = hits.computeIfAbsent(docId, d -> new double[]{tokens.size(), 0});
+                hit[1] += EXACT_NAME_BONUS;
+            }
+
+            return hits.entrySet().stream()
+                    .sorted(Comparator.<Map.Entry<Integer, double[]>>comparingDouble(e -> -e.getValue()[0])
+                            .thenComparingDouble(e -> -e.getValue()[1])
+                            .thenComparing(Map.Entry::getKey))
+                    .limit(limit)
+                    .map(Map.Entry::getKey)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Documents whose name equals the given text after folding ("ÇÜRÜKLÜK" = "curukluk")
+     */
+    public List<Integer> findByName(String name) {
+        String folded = TextNormalizer.fold(name).trim();
+        lock.readLock().lock();
+        try {
+            return nameIndex.getOrDefault(folded, Set.of()).stream().sorted().toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getDocumentCount() {
+        lock.readLock().lock();
+        try {
+            return documentTerms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getTermCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void collect(Map<Integer, Double> docs, double factor, int documentCount, Map<Integer, Double> into) {
+        if (docs == null || docs.isEmpty()) {
+            return;
+        }
+        double idf = Math.log(1.0 + (double) documentCount / docs.size());
+        // Keep the best variant per document (exact token or one of its prefix expansions)
+        docs.forEach((docId, weight) -> into.merge(docId, weight * idf * factor, Math::max));
+    }
+
+    private void removeInternal(Integer id) {
+        Set<String> terms = documentTerms.remove(id);
+        if (terms != null) {
+            for (String term : terms) {
+                Map<Integer, Double> docs = postings.get(term);
+                if (docs != null) {
+                    docs.remove(id);
+                    if (docs.isEmpty()) {
+                        postings.remove(term);
+                    }
+                }
+            }
+        }
+        String name = documentNames.remove(id);
+        if (name != null) {
+            Set<Integer> ids = nameIndex.get(name);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    nameIndex.remove(name);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package plant_village.util;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Incremental JSON writer for large list endpoints
+ * Rows are written one by one as they come out of a database cursor,
+ * so the response never holds the whole list in memory.
+ *
+ * Formats:
+ * - JSON   → [ {...}, {...} ]   (default, what the admin pages expect)
+ * - NDJSON → {...}\n{...}\n     (one object per line, for tools and large exports)
+ *
+ * With flushEvery > 0 (HTTP responses, see {@link #response}) the opening bytes are flushed
+ * right away, so the first byte does not wait for the query, and the buffer is flushed again
+ * after the first row and every flushEvery rows. A failed write means the client went away:
+ * the writer turns into {@link StreamAbortedException}, which stops the producer and releases
+ * its database cursor, and close() no longer tries to finish the document. The same goes for
+ * a producer that fails on its own (query or mapping error, see {@link #fail()}): the JSON array
+ * is left open, so a truncated export never reads as a complete one.
+ *
+ * @param <T> Row type coming from the repository stream
+ */
+@Slf4j
+public class JsonStreamWriter<T> implements Consumer<T>, Closeable {
+
+    /**
+     * Rows between two flushes of an HTTP response
+     */
+    public static final int DEFAULT_FLUSH_EVERY = 100;
+
+    /**
+     * Writes a single row as one JSON object
+     */
+    @FunctionalInterface
+    public interface RowWriter<T> {
+        void write(JsonGenerator gen, T row) throws IOException;
+    }
+
+    /**
+     * Feeds every row to the sink, e.g. a service method iterating a repository stream
+     */
+    @FunctionalInterface
+    public interface RowSource<T> {
+        void stream(Consumer<T> sink);
+    }
+
+    /**
+     * The target stream failed while writing - for a response, the client closed the connection
+     */
+    public static class StreamAbortedException extends UncheckedIOException {
+        public StreamAbortedException(IOException cause) {
+            super(cause.getMessage(), cause);
+        }
+    }
+
+    public enum Format {
+        JSON(MediaType.APPLICATION_JSON),
+        NDJSON(MediaType.APPLICATION_NDJSON);
+
+        private final MediaType mediaType;
+
+        Format(MediaType mediaType) {
+            this.mediaType = mediaType;
+        }
+
+        public MediaType getMediaType() {
+            return mediaType;
+        }
+
+        /**
+         * Parse the "format" request parameter (json / ndjson), defaults to JSON
+         */
+        public static Format from(String value) {
+            return "ndjson".equalsIgnoreCase(value) ? NDJSON : JSON;
+        }
+    }
+
+    private final JsonGenerator generator;
+    private final Format format;
+    private final RowWriter<T> rowWriter;
+    private final int flushEvery;
+    private long count;
+    private boolean aborted;
+    private boolean failed;
+
+    public JsonStreamWriter(OutputStream out, Format format, ObjectMapper objectMapper,
+                            RowWriter<T> rowWriter) throws IOException {
+        this(out, format, objectMapper, rowWriter, 0);
+    }
+
+    /**
+     * @param flushEvery Flush after the first row and then every flushEvery rows (0 = only on close)
+     */
+    public JsonStreamWriter(OutputStream out, Format format, ObjectMapper objectMapper,
+                            RowWriter<T> rowWriter, int flushEvery) throws IOException {
+        this.format = format;
+        this.rowWriter = rowWriter;
+        this.flushEvery = flushEvery;
+        this.generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+        // The servlet container owns the response stream
+        this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // close() must not complete the array on its own after a failure
+        this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+        // NDJSON lines are separated by '\n' only (default root separator is a space)
+        this.generator.setRootValueSeparator(null);
+
+        if (format == Format.JSON) {
+            generator.writeStartArray();
+        }
+        if (flushEvery > 0) {
+            // Commits the status line and headers before the query runs
+            try {
+                generator.flush();
+            } catch (IOException e) {
+                // Reported by the first accept(), before any row is read past
+                aborted = true;
+            }
+        }
+    }
+
+    /**
+     * Stream rows as the body of a 200 response, flushed every DEFAULT_FLUSH_EVERY rows
+     * @param name What is streamed, for the log (e.g. "prediction logs")
+     */
+    public static <T> ResponseEntity<StreamingResponseBody> response(Format format, ObjectMapper objectMapper,
+                                                                     String name, RowWriter<T> rowWriter,
+                                                                     RowSource<T> source) {
+        StreamingResponseBody body = out -> {
+            long start = System.nanoTime();
+            JsonStreamWriter<T> writer = new JsonStreamWriter<>(out, format, objectMapper, rowWriter, DEFAULT_FLUSH_EVERY);
+            try {
+                source.stream(writer);
+            } catch (StreamAbortedException e) {
+                // Nothing to answer, the connection is gone
+                log.info("🔌 Client closed the {} stream after {} rows", name, writer.getCount());
+                return;
+            } catch (Exception | Error e) {
+                // Status line is already sent at this point: leave the document unfinished and
+                // let the exception abort the response
+                writer.fail();
+                log.error("❌ Error streaming {} after {} rows: {}", name, writer.getCount(), e.getMessage(), e);
+                throw e;
+            } finally {
+                writer.close();
+            }
+            log.info("📋 Streamed {} {} in {} ms", writer.getCount(), name, (System.nanoTime() - start) / 1_000_000);
+        };
+        return ResponseEntity.ok()
+            .contentType(format.getMediaType())
+            .body(body);
+    }
+
+    /**
+     * Write one row (called for every element of the repository stream)
+     */
+    @Override
+    public void accept(T row) {
+        if (aborted) {
+            throw new StreamAbortedException(new IOException("Stream already aborted"));
+        }
+        try {
+            rowWriter.write(generator, row);
+            if (format == Format.NDJSON) {
+                generator.writeRaw('\n');
+            }
+            count++;
+            if (flushEvery > 0 && (count == 1 || count % flushEvery == 0)) {
+                generator.flush();
+            }
+        } catch (IOException e) {
+            aborted = true;
+            throw new StreamAbortedException(e);
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        }
+    }
+
+    /**
+     * The producer failed: close() keeps what was written but does not finish the document
+     */
+    public void fail() {
+        failed = true;
+    }
+
+    /**
+     * Number of rows written so far
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Close the JSON array (JSON mode) and flush what is left in the buffer.
+     * After an aborted write or a failure the array stays open: the generator is still closed, which
+     * tries to flush the buffer, and an IOException from that flush is ignored.
+     */
+    @Override
+    public void close() throws IOException {
+        if (aborted || failed) {
+            try {
+                generator.close();
+            } catch (IOException ignored) {
+                // Aborted: same broken stream. Failed: the original exception is the one to report
+            }
+            return;
+        }
+        if (format == Format.JSON && !generator.isClosed()) {
+            generator.writeEndArray();
+        }
+        generator.close();
+    }
+}
@@ -0,0 +1,115 @@
+package plant_village.util;
+
+import java.util.*;
+
+/**
+ * Immutable character trigram index for fuzzy name matching
+ *
+ * Names are normalized like PrefixIndex keys ("Corn_(maize)___Common_rust_" → "corn maize common rust"),
+ * padded with spaces and split into distinct trigrams. A query counts shared trigrams per name through
+ * the posting lists and scores them with the Dice coefficient:
+ *   score = 2 * shared / (queryGrams + nameGrams)      (1.0 = same normalized text)
+ * Only names sharing at least one trigram are touched, so a lookup costs microseconds.
+ */
+public final class NGramIndex {
+
+    private static final int N = 3;
+
+    public static final NGramIndex EMPTY = new NGramIndex(new Integer[0], new String[0], new int[0], Map.of());
+
+    private final Integer[] ids;
+    private final String[] names;
+    private final int[] gramCounts;
+    private final Map<String, int[]> postings;
+
+    private NGramIndex(Integer[] ids, String[] names, int[] gramCounts, Map<String, int[]> postings) {
+        this.ids = ids;
+        this.names = names;
+        this.gramCounts = gramCounts;
+        this.postings = postings;
+    }
+
+    /**
+     * Best match and its score
+     */
+    public record Match(Integer id, String name, double score) {
+    }
+
+    /**
+     * @param namesById Document ID → display name
+     */
+    public static NGramIndex build(Map<Integer, String> namesById) {
+        int size = namesById.size();
+        Integer[] ids = new Integer[size];
+        String[] names = new String[size];
+        int[] gramCounts = new int[size];
+        Map<String, List<Integer>> lists = new HashMap<>();
+
+        int ordinal = 0;
+        for (Map.Entry<Integer, String> entry : namesById.entrySet()) {
+            Set<String> grams = grams(entry.getValue());
+            ids[ordinal] = entry.getKey();
+            names[ordinal] = entry.getValue();
+            gramCounts[ordinal] = grams.size();
+            for (String gram : grams) {
+                lists.computeIfAbsent(gram, g -> new ArrayList<>()).add(ordinal);
+            }
+            ordinal++;
+        }
+
+        Map<String, int[]> postings = new HashMap<>(lists.size() * 2);
+        lists.forEach((gram, list) -> postings.put(gram, list.stream().mapToInt(Integer::intValue).toArray()));
+        return new NGramIndex(ids, names, gramCounts, postings);
+    }
+
+    /**
+     * Highest scoring name (ties: shorter name), empty when nothing shares a trigram
+     */
+    public Optional<Match> best(String text) {
+        Set<String> queryGrams = grams(text);
+        if (queryGrams.isEmpty() || ids.length == 0) {
+            return Optional.empty();
+        }
+
+        int[] shared = new int[ids.length];
+        for (String gram : queryGrams) {
+            int[] docs = postings.get(gram);
+            if (docs != null) {
+                for (int doc : docs) {
+                    shared[doc]++;
+                }
+            }
+        }
+
+        int bestDoc = -1;
+        double bestScore = 0;
+        for (int doc = 0; doc < shared.length; doc++) {
+            if (shared[doc] == 0) {
+                continue;
+            }
+            double score = 2.0 * shared[doc] / (queryGrams.size() + gramCounts[doc]);
+            if (score > bestScore || (score == bestScore && bestDoc >= 0 && names[doc].length() < names[bestDoc].length())) {
+                bestScore = score;
+                bestDoc = doc;
+            }
+        }
+        return bestDoc < 0 ? Optional.empty() : Optional.of(new Match(ids[bestDoc], names[bestDoc], bestScore));
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    private static Set<String> grams(String text) {
+        String normalized = PrefixIndex.normalize(text);
+        if (normalized.isEmpty()) {
+            return Set.of();
+        }
+        String padded = " " + normalized + " ";
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + N <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + N));
+        }
+        return grams;
+    }
+}
@@ -0,0 +1,91 @@
+package plant_village.util;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.OptionalLong;
+
+/**
+ * 64-bit difference hash (dHash) of an image
+ *
+ * The image is reduced to a 9x8 grid of average luminance (box filter over the full image, so
+ * scaling and recompression barely move it), and bit i is set when a cell is brighter than its
+ * right neighbour. Near-identical photos differ in a few bits; compare with distance().
+ */
+public final class PerceptualHash {
+
+    private static final int WIDTH = 9;
+    private static final int HEIGHT = 8;
+
+    private PerceptualHash() {
+    }
+
+    /**
+     * dHash of encoded image bytes; empty when ImageIO cannot decode the format (e.g. webp, svg)
+     */
+    public static OptionalLong dHash(byte[] encoded) {
+        BufferedImage image;
+        try {
+            image = ImageIO.read(new ByteArrayInputStream(encoded));
+        } catch (IOException | RuntimeException e) {
+            return OptionalLong.empty();
+        }
+        if (image == null || image.getWidth() < 1 || image.getHeight() < 1) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(dHash(image));
+    }
+
+    public static long dHash(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        double[] sums = new double[WIDTH * HEIGHT];
+        int[] counts = new int[WIDTH * HEIGHT];
+
+        int[] row = new int[width];
+        for (int y = 0; y < height; y++) {
+            image.getRGB(0, y, width, 1, row, 0, width);
+            int cellY = y * HEIGHT / height;
+            for (int x = 0; x < width; x++) {
+                int rgb = row[x];
+                // ITU-R BT.601 luma
+                double luma = 0.299 * ((rgb >> 16) & 0xff) + 0.587 * ((rgb >> 8) & 0xff) + 0.114 * (rgb & 0xff);
+                int cell = cellY * WIDTH + x * WIDTH / width;
+                sums[cell] += luma;
+                counts[cell]++;
+            }
+        }
+
+        long hash = 0;
+        int bit = 0;
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH - 1; x++) {
+                double left = average(sums, counts, y * WIDTH + x);
+                double right = average(sums, counts, y * WIDTH + x + 1);
+                if (left > right) {
+                    hash |= 1L << bit;
+                }
+                bit++;
+            }
+        }
+        return hash;
+    }
+
+    public static int distance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+
+    public static String toHex(long hash) {
+        return String.format("%016x", hash);
+    }
+
+    public static long fromHex(String hex) {
+        return Long.parseUnsignedLong(hex, 16);
+    }
+
+    private static double average(double[] sums, int[] counts, int cell) {
+        // Images narrower than 9 or shorter than 8 pixels leave some cells empty
+        return counts[cell] == 0 ? 0 : sums[cell] / counts[cell];
+    }
+}
@@ -9,6 +9,8 @@ import org.springframework.stereotype.Component;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
 
@@ -39,6 +41,10 @@ public class PlantDiseaseCacheManager {
     private final Map<String, Disease> diseaseCache = new ConcurrentHashMap<>();
     private final Map<Integer, Disease> diseaseIdCache = new ConcurrentHashMap<>();
 
+    // Hit/miss counters for monitoring (GET /api/health/cache)
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
     @Autowired
     public PlantDiseaseCacheManager(PlantRepository plantRepository, 
                                    DiseaseRepository diseaseRepository) {
@@ -94,6 +100,7 @@ public class PlantDiseaseCacheManager {
         
         // If not in cache, fetch from database and cache it
         if (plant == null) {
+            misses.incrementAndGet();
             log.debug("📍 Cache miss for plant: '{}'. Fetching from database...", name);
             Optional<Plant> dbPlant = plantRepository.findByPlantName(name);
             if (dbPlant.isPresent()) {
@@ -106,6 +113,7 @@ public class PlantDiseaseCacheManager {
                 log.warn("⚠️ Plant '{}' not found in database", name);
             }
         } else {
+            hits.incrementAndGet();
             log.debug("✅ Cache hit for plant: '{}'", name);
         }
         
@@ -127,6 +135,7 @@ public class PlantDiseaseCacheManager {
         Plant plant = plantIdCache.get(id);
         
         if (plant == null) {
+            misses.incrementAndGet();
             log.debug("📍 Cache miss for plant ID: {}. Fetching from database...", id);
             Optional<Plant> dbPlant = plantRepository.findById(id);
             if (dbPlant.isPresent()) {
@@ -138,6 +147,7 @@ public class PlantDiseaseCacheManager {
                 log.warn("⚠️ Plant ID {} not found in database", id);
             }
         } else {
+            hits.incrementAndGet();
             log.debug("✅ Cache hit for plant ID: {}", id);
         }
         
@@ -164,6 +174,7 @@ public class PlantDiseaseCacheManager {
         
         if (disease == null) {
             // Try fetching by original name from database
+            misses.incrementAndGet();
             log.debug("📍 Cache miss for disease (original): '{}'. Fetching from database...", name);
             Optional<Disease> dbDisease = diseaseRepository.findByDiseaseNameIgnoreCase(name);
             if (dbDisease.isPresent()) {
@@ -174,6 +185,7 @@ public class PlantDiseaseCacheManager {
                 log.debug("✅ Disease '{}' cached after DB fetch (original format)", name);
             }
         } else {
+            hits.incrementAndGet();
             log.debug("✅ Cache hit for disease: '{}'", name);
         }
         
@@ -224,6 +236,7 @@ public class PlantDiseaseCacheManager {
         Disease disease = diseaseIdCache.get(id);
         
         if (disease == null) {
+            misses.incrementAndGet();
             log.debug("📍 Cache miss for disease ID: {}. Fetching from database...", id);
             Optional<Disease> dbDisease = diseaseRepository.findById(id);
             if (dbDisease.isPresent()) {
@@ -235,12 +248,42 @@ public class PlantDiseaseCacheManager {
                 log.warn("⚠️ Disease ID {} not found in database", id);
             }
         } else {
+            hits.incrementAndGet();
             log.debug("✅ Cache hit for disease ID: {}", id);
         }
         
         return Optional.ofNullable(disease);
     }
 
+    /**
+     * Evict a plant after create/update/delete.
+     * Name keys are ML labels (not always the plant name), so entries are matched by ID.
+     *
+     * @param id Plant ID
+     */
+    public void evictPlant(Integer id) {
+        if (id == null) {
+            return;
+        }
+        plantIdCache.remove(id);
+        plantCache.values().removeIf(plant -> id.equals(plant.getId()));
+        log.debug("🗑️ Plant ID {} evicted from cache", id);
+    }
+
+    /**
+     * Evict a disease after create/update/delete.
+     *
+     * @param id Disease ID
+     */
+    public void evictDisease(Integer id) {
+        if (id == null) {
+            return;
+        }
+        diseaseIdCache.remove(id);
+        diseaseCache.values().removeIf(disease -> id.equals(disease.getId()));
+        log.debug("🗑️ Disease ID {} evicted from cache", id);
+    }
+
     /**
      * Clear entire cache (useful for refresh or admin operations)
      */
@@ -283,7 +326,22 @@ public class PlantDiseaseCacheManager {
     }
 
     /**
-     * Get cache hit ratio information (optional - for advanced monitoring)
+     * Get cache hit ratio information
+     */
+    public Map<String, Object> getHitStats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long total = hitCount + missCount;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRatio", total == 0 ? 0.0 : (double) hitCount / total);
+        stats.put("entries", getCacheStats());
+        return stats;
+    }
+
+    /**
+     * Get cache sizes (optional - for advanced monitoring)
      */
     public Map<String, Integer> getCacheStats() {
         return Map.of(
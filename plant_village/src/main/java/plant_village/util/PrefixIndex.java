@@ -0,0 +1,132 @@
+package plant_village.util;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable sorted-array prefix index for autocomplete
+ *
+ * Every indexed text is folded (TextNormalizer.fold, separators collapsed to one space) and stored
+ * once as a whole key plus once per later word start, so "Pepper, bell" is found by "pep" and "bel".
+ * Lookup = binary search for the first key >= prefix, then a scan while keys start with the prefix:
+ * O(log n + matches), no allocation besides the result.
+ *
+ * Instances never change; callers build a new one and swap the reference when the catalog changes.
+ */
+public final class PrefixIndex {
+
+    // Upper bound on keys scanned for very short prefixes ("a")
+    private static final int MAX_SCAN = 5000;
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    public static final PrefixIndex EMPTY = new PrefixIndex(new String[0], new Entry[0]);
+
+    private final String[] keys;
+    private final Entry[] entries;
+
+    private PrefixIndex(String[] keys, Entry[] entries) {
+        this.keys = keys;
+        this.entries = entries;
+    }
+
+    /**
+     * One indexed text of a document (plant name, scientific name or alias)
+     */
+    public record Source(Integer id, String field, String text) {
+    }
+
+    /**
+     * Best match of one document for a prefix
+     */
+    public record Match(Integer id, String field, String text, boolean exact) {
+    }
+
+    private record Entry(String key, Integer id, String field, String text, boolean wordStart) {
+    }
+
+    // rank: 0 exact text, 1 text starts with the prefix, 2 a later word starts with it
+    private record Candidate(Entry entry, int rank) {
+    }
+
+    public static PrefixIndex build(Collection<Source> sources) {
+        List<Entry> list = new ArrayList<>();
+        for (Source source : sources) {
+            String key = normalize(source.text());
+            if (key.isEmpty()) {
+                continue;
+            }
+            list.add(new Entry(key, source.id(), source.field(), source.text(), false));
+            for (int i = key.indexOf(' '); i >= 0; i = key.indexOf(' ', i + 1)) {
+                list.add(new Entry(key.substring(i + 1), source.id(), source.field(), source.text(), true));
+            }
+        }
+        list.sort(Comparator.comparing(Entry::key));
+
+        String[] keys = new String[list.size()];
+        Entry[] entries = new Entry[list.size()];
+        for (int i = 0; i < list.size(); i++) {
+            keys[i] = list.get(i).key();
+            entries[i] = list.get(i);
+        }
+        return new PrefixIndex(keys, entries);
+    }
+
+    /**
+     * Folded form used for keys and prefixes ("Corn_(maize)" → "corn maize")
+     */
+    public static String normalize(String text) {
+        return SEPARATORS.matcher(TextNormalizer.fold(text)).replaceAll(" ").trim();
+    }
+
+    /**
+     * Top-k documents whose texts start with the prefix (whole text or any word).
+     * Order: exact text, text starting with the prefix, word inside the text; then shorter text first.
+     */
+    public List<Match> lookup(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        // Best (lowest rank) entry per document
+        Map<Integer, Candidate> best = new HashMap<>();
+        int start = lowerBound(key);
+        int end = Math.min(entries.length, start + MAX_SCAN);
+        for (int i = start; i < end && keys[i].startsWith(key); i++) {
+            Entry entry = entries[i];
+            int rank = entry.wordStart() ? 2 : (entry.key().length() == key.length() ? 0 : 1);
+            Candidate current = best.get(entry.id());
+            if (current == null || rank < current.rank()) {
+                best.put(entry.id(), new Candidate(entry, rank));
+            }
+        }
+
+        List<Candidate> candidates = new ArrayList<>(best.values());
+        candidates.sort(Comparator.comparingInt(Candidate::rank)
+                .thenComparingInt(c -> c.entry().text().length())
+                .thenComparing(c -> c.entry().text()));
+
+        List<Match> matches = new ArrayList<>(Math.min(limit, candidates.size()));
+        for (int i = 0; i < candidates.size() && i < limit; i++) {
+            Entry entry = candidates.get(i).entry();
+            matches.add(new Match(entry.id(), entry.field(), entry.text(), candidates.get(i).rank() == 0));
+        }
+        return matches;
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    private int lowerBound(String key) {
+        int index = Arrays.binarySearch(keys, key);
+        if (index < 0) {
+            return -index - 1;
+        }
+        // Duplicate keys: step back to the first one
+        while (index > 0 && keys[index - 1].equals(key)) {
+            index--;
+        }
+        return index;
+    }
+}
@@ -0,0 +1,124 @@
+package plant_village.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends regular-file entries to a POSIX ustar archive.
+ *
+ * The writer reopens an existing shard at its committed data end (the byte after the last entry),
+ * drops anything written after it (a previous run that crashed before committing, and the old
+ * end-of-archive blocks) and continues from there. close() writes the two zero end blocks and
+ * syncs the file, so a committed shard is always a valid tar readable by standard tools.
+ *
+ * Entry names must be ASCII and at most 100 bytes (they are generated, e.g. 000000042.jpg).
+ */
+public class TarShardWriter implements Closeable {
+
+    public static final int BLOCK = 512;
+
+    private static final byte[] ZERO_BLOCKS = new byte[BLOCK * 2];
+
+    private final FileChannel channel;
+    private final long mtime = System.currentTimeMillis() / 1000;
+
+    /**
+     * @param tar Shard file (created if missing)
+     * @param dataEnd Committed data end, 0 for a new shard
+     */
+    public TarShardWriter(Path tar, long dataEnd) throws IOException {
+        this.channel = FileChannel.open(tar, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.truncate(dataEnd);
+        channel.position(dataEnd);
+    }
+
+    /**
+     * Append one entry
+     * @return offset of the entry data (header excluded) in the shard
+     */
+    public long append(String name, byte[] data) throws IOException {
+        writeFully(ByteBuffer.wrap(header(name, data.length)));
+        long offset = channel.position();
+        writeFully(ByteBuffer.wrap(data));
+        int padding = (BLOCK - data.length % BLOCK) % BLOCK;
+        if (padding > 0) {
+            writeFully(ByteBuffer.wrap(ZERO_BLOCKS, 0, padding));
+        }
+        return offset;
+    }
+
+    /**
+     * Current data end (where the next entry would start)
+     */
+    public long position() throws IOException {
+        return channel.position();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            writeFully(ByteBuffer.wrap(ZERO_BLOCKS));
+            channel.force(true);
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private byte[] header(String name, long size) {
+        byte[] nameBytes = name.getBytes(StandardCharsets.US_ASCII);
+        if (nameBytes.length > 100) {
+            throw new IllegalArgumentException("Tar entry name too long: " + name);
+        }
+        byte[] header = new byte[BLOCK];
+        System.arraycopy(nameBytes, 0, header, 0, nameBytes.length);
+        octal(header, 100, 8, 0644);       // mode
+        octal(header, 108, 8, 0);          // uid
+        octal(header, 116, 8, 0);          // gid
+        octal(header, 124, 12, size);      // size
+        octal(header, 136, 12, mtime);     // mtime
+        header[156] = '0';                 // regular file
+        ascii(header, 257, "ustar\0");     // magic
+        ascii(header, 263, "00");          // version
+
+        // Checksum is computed with its own field filled with spaces
+        for (int i = 148; i < 156; i++) {
+            header[i] = ' ';
+        }
+        long checksum = 0;
+        for (byte b : header) {
+            checksum += b & 0xff;
+        }
+        String digits = String.format("%06o", checksum);
+        ascii(header, 148, digits);
+        header[154] = 0;
+        header[155] = ' ';
+        return header;
+    }
+
+    // Zero padded octal, NUL terminated
+    private static void octal(byte[] header, int offset, int length, long value) {
+        String digits = Long.toOctalString(value);
+        if (digits.length() > length - 1) {
+            throw new IllegalArgumentException("Value too large for tar header: " + value);
+        }
+        String padded = "0".repeat(length - 1 - digits.length()) + digits;
+        ascii(header, offset, padded);
+        header[offset + length - 1] = 0;
+    }
+
+    private static void ascii(byte[] header, int offset, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(bytes, 0, header, offset, bytes.length);
+    }
+}
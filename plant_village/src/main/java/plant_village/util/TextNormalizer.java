@@ -0,0 +1,64 @@
+package plant_village.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Text normalization for catalog search
+ *
+ * - Turkish dotted/dotless i (İ, I, ı) all fold to "i", so "ILIK", "ılık" and "Ilik" match
+ * - Other accents are stripped (ş→s, ğ→g, ç→c, ö→o, ü→u, é→e)
+ * - Tokens are split on anything that is not a letter or digit ("Tomato___Early_blight" → tomato, early, blight)
+ */
+public final class TextNormalizer {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // Very common words that would match most documents (English + Turkish)
+    private static final Set<String> STOP_WORDS = Set.of(
+            "the", "and", "or", "of", "in", "on", "to", "a", "an", "is", "with", "for", "by",
+            "ve", "ile", "bir", "bu", "icin", "da", "de", "veya");
+
+    private TextNormalizer() {
+    }
+
+    /**
+     * Lower-case, Turkish i folding and accent stripping (no tokenization)
+     */
+    public static String fold(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case 'İ', 'I', 'ı' -> sb.append('i');
+                default -> sb.append(c);
+            }
+        }
+        String lower = sb.toString().toLowerCase(Locale.ROOT);
+        return COMBINING_MARKS.matcher(Normalizer.normalize(lower, Normalizer.Form.NFD)).replaceAll("");
+    }
+
+    /**
+     * Folded tokens of a text, stop words and single characters removed
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        for (String token : NON_ALPHANUMERIC.split(fold(text))) {
+            if (token.length() > 1 && !STOP_WORDS.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,180 @@
+package plant_village.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Append-only manifest of exported training images (tab separated, one image per line):
+ *
+ *   sha256  bytes  plant_file  disease_file  prediction_id  feedback_id  dhash  group
+ *
+ * dhash is the 64-bit perceptual hash in hex, group the sha256 of the image this one is a
+ * near-duplicate of ("-" for none / unknown). Lines written before these columns existed have six columns.
+ * Lines are appended in export (feedback_id) order and never rewritten, so the training side
+ * can diff two copies or simply read the lines after the count it has already seen.
+ * A plant_file is listed only once, even when the same export is repeated.
+ */
+public class TrainingImageManifest {
+
+    public static final String FILE_NAME = "manifest.tsv";
+
+    public static final String HEADER = "# sha256\tbytes\tplant_file\tdisease_file\tprediction_id\tfeedback_id\tdhash\tgroup";
+
+    public static final String NONE = "-";
+
+    public record Entry(String sha256, long bytes, String plantFile, String diseaseFile,
+                        Integer predictionId, Integer feedbackId, String dHash, String group) {
+
+        String toLine() {
+            return String.join("\t", sha256, Long.toString(bytes), plantFile, diseaseFile,
+                String.valueOf(predictionId), String.valueOf(feedbackId),
+                dHash != null ? dHash : NONE, group != null ? group : NONE);
+        }
+
+        /**
+         * Parse one manifest line, null for the header, blank or malformed lines
+         */
+        static Entry parse(String line) {
+            if (line.isEmpty() || line.startsWith("#")) {
+                return null;
+            }
+            String[] columns = line.split("\t");
+            if (columns.length < 6) {
+                return null;
+            }
+            try {
+                return new Entry(columns[0], Long.parseLong(columns[1]), columns[2], columns[3],
+                    parseId(columns[4]), parseId(columns[5]),
+                    optional(columns, 6), optional(columns, 7));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        private static Integer parseId(String value) {
+            return "null".equals(value) ? null : Integer.valueOf(value);
+        }
+
+        private static String optional(String[] columns, int index) {
+            return columns.length > index && !NONE.equals(columns[index]) ? columns[index] : null;
+        }
+    }
+
+    /**
+     * Receives manifest entries read by readFrom, with the byte offset right after the entry's line
+     */
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(Entry entry, long nextOffset) throws IOException;
+    }
+
+    private final Path file;
+    private Set<String> listed;
+
+    public TrainingImageManifest(Path file) {
+        this.file = file;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Append the entries whose plant_file is not listed yet and sync them to disk
+     * @return number of lines written
+     */
+    public synchronized int append(List<Entry> entries) throws IOException {
+        if (listed == null) {
+            listed = load();
+        }
+        boolean header = !Files.exists(file);
+        try (FileOutputStream out = new FileOutputStream(file.toFile(), true);
+             Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8)) {
+            int written = 0;
+            if (header) {
+                writer.write(HEADER);
+                writer.write('\n');
+            }
+            for (Entry entry : entries) {
+                if (listed.add(entry.plantFile())) {
+                    writer.write(entry.toLine());
+                    writer.write('\n');
+                    written++;
+                }
+            }
+            writer.flush();
+            out.getChannel().force(false);
+            return written;
+        }
+    }
+
+    /**
+     * Read complete lines from a byte offset (a line still being appended is left for the next call)
+     * @return offset after the last complete line
+     */
+    public long readFrom(long offset, EntryConsumer consumer) throws IOException {
+        if (!Files.exists(file)) {
+            return offset;
+        }
+        long position = offset;
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file), 64 * 1024)) {
+            in.skipNBytes(offset);
+            ByteArrayOutputStream line = new ByteArrayOutputStream(256);
+            int b;
+            long read = offset;
+            while ((b = in.read()) != -1) {
+                read++;
+                if (b != '\n') {
+                    line.write(b);
+                    continue;
+                }
+                position = read;
+                Entry entry = Entry.parse(line.toString(StandardCharsets.UTF_8));
+                line.reset();
+                if (entry != null) {
+                    consumer.accept(entry, position);
+                }
+            }
+        }
+        return position;
+    }
+
+    public synchronized int size() throws IOException {
+        if (listed == null) {
+            listed = load();
+        }
+        return listed.size();
+    }
+
+    private Set<String> load() throws IOException {
+        Set<String> keys = new HashSet<>();
+        if (!Files.exists(file)) {
+            return keys;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] columns = line.split("\t", 4);
+                if (columns.length >= 3) {
+                    keys.add(columns[2]);
+                }
+            }
+        }
+        return keys;
+    }
+}
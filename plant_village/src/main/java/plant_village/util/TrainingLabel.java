@@ -0,0 +1,48 @@
+package plant_village.util;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Plant and disease folder names of a training image, parsed from Prediction.predictionType.
+ *
+ * Accepted formats: "Plant___Disease", "Plant - Disease", "Plant___healthy" or just "Plant".
+ * Names are safe to use as a single path segment (no separators, never "." or "..").
+ */
+public record TrainingLabel(String plant, String disease) {
+
+    public static final String UNKNOWN = "Unknown";
+
+    private static final Pattern UNSAFE = Pattern.compile("[^\\p{L}\\p{N}_.-]");
+
+    public static TrainingLabel parse(String predictionType) {
+        if (predictionType == null || predictionType.isBlank()) {
+            return new TrainingLabel(UNKNOWN, UNKNOWN);
+        }
+        String plant;
+        String disease = UNKNOWN;
+        if (predictionType.contains("___")) {
+            // "Grape___Leaf_blight_(Isariopsis_Leaf_Spot)"
+            String[] parts = predictionType.split("___");
+            plant = parts[0];
+            disease = parts.length > 1 ? parts[1] : UNKNOWN;
+        } else if (predictionType.contains(" - ")) {
+            String[] parts = predictionType.split(" - ");
+            plant = parts[0];
+            disease = parts.length > 1 ? parts[1] : UNKNOWN;
+        } else if (predictionType.toLowerCase(Locale.ROOT).contains("healthy")) {
+            plant = predictionType;
+            disease = "healthy";
+        } else {
+            plant = predictionType;
+        }
+        return new TrainingLabel(folderName(plant), folderName(disease));
+    }
+
+    private static String folderName(String name) {
+        String cleaned = name.trim()
+            .replace(" ", "_").replace("(", "").replace(")", "").replace(",", "");
+        cleaned = UNSAFE.matcher(cleaned).replaceAll("_");
+        return cleaned.isEmpty() || cleaned.chars().allMatch(c -> c == '.') ? UNKNOWN : cleaned;
+    }
+}
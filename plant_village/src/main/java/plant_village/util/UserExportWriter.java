@@ -0,0 +1,210 @@
+package plant_village.util;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import plant_village.dto.ArchivedPredictionDTO;
+import plant_village.dto.PredictionExportRow;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Writes the user data export straight to the response stream.
+ *
+ * Layout (one JSON object, written field by field):
+ *   { "exportDate", "profile", "diagnoses": [ ... ], "totalDiagnoses", "archivedDiagnoses" }
+ *
+ * Image modes:
+ * - REF: inline images become "imageRef" (GET /api/users/{userId}/export/images/{predictionId})
+ * - ZIP: the response is a ZIP; export.json is the first entry and every inline image
+ *        follows as images/{predictionId}.{ext}, one entry at a time
+ *        (ext is jpg, png, gif, bmp or webp, "bin" for any other data URL type)
+ * File path/URL images are written as "uploadedImageUrl" in both modes.
+ * Only one row (and in ZIP mode one decoded image) is held in memory at a time.
+ */
+public class UserExportWriter implements Closeable {
+
+    public enum ImageMode {
+        REF, ZIP;
+
+        public static ImageMode from(String value) {
+            return "zip".equalsIgnoreCase(value) ? ZIP : REF;
+        }
+    }
+
+    public static final String JSON_ENTRY = "export.json";
+
+    private static final String UNKNOWN_IMAGE_EXTENSION = "bin";
+
+    private final ImageMode imageMode;
+    private final String imageRefBase;
+    private final ZipOutputStream zip;
+    private final GZIPOutputStream gzip;
+    private final JsonGenerator generator;
+    private long total;
+    private long archived;
+    private long images;
+
+    /**
+     * @param out Response stream (not closed by this writer)
+     * @param imageMode REF or ZIP
+     * @param compress gzip the JSON document (ignored in ZIP mode, entries are already deflated)
+     * @param imageRefBase Prefix for imageRef, e.g. /api/users/5/export/images/
+     */
+    public UserExportWriter(OutputStream out, ImageMode imageMode, boolean compress,
+                            ObjectMapper objectMapper, String imageRefBase) throws IOException {
+        this.imageMode = imageMode;
+        this.imageRefBase = imageRefBase;
+
+        OutputStream target = out;
+        if (imageMode == ImageMode.ZIP) {
+            this.zip = new ZipOutputStream(out);
+            this.gzip = null;
+            zip.putNextEntry(new ZipEntry(JSON_ENTRY));
+            target = zip;
+        } else if (compress) {
+            this.zip = null;
+            this.gzip = new GZIPOutputStream(out, 8192);
+            target = gzip;
+        } else {
+            this.zip = null;
+            this.gzip = null;
+        }
+
+        this.generator = objectMapper.getFactory().createGenerator(target, JsonEncoding.UTF8);
+        // The servlet container owns the response stream
+        this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.writeStartObject();
+        generator.writeStringField("exportDate", LocalDateTime.now().toString());
+    }
+
+    /**
+     * Profile block, opens the diagnoses array
+     */
+    public void writeProfile(Map<String, Object> profile) throws IOException {
+        generator.writeObjectField("profile", profile);
+        generator.writeArrayFieldStart("diagnoses");
+    }
+
+    /**
+     * One live prediction (metadata row, no image payload)
+     */
+    public void writePrediction(PredictionExportRow row) {
+        try {
+            generator.writeStartObject();
+            writeCommonFields(row.getPredictionId(), row.getPredictionType(), row.getConfidence(),
+                    row.getCreateAt(), row.getIsValid());
+            writeImageField(row.getPredictionId(), row.getImageHeader());
+            generator.writeEndObject();
+            total++;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * One prediction read back from the archive
+     */
+    public void writeArchivedPrediction(ArchivedPredictionDTO dto) {
+        try {
+            generator.writeStartObject();
+            writeCommonFields(dto.getPredictionId(), dto.getPredictionType(), dto.getConfidence(),
+                    dto.getCreateAt(), dto.getIsValid());
+            writeImageField(dto.getPredictionId(), dto.getUploadedImageUrl());
+            generator.writeBooleanField("archived", true);
+            generator.writeEndObject();
+            total++;
+            archived++;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Close the diagnoses array and the document (and the export.json entry in ZIP mode)
+     */
+    public void endPredictions() throws IOException {
+        generator.writeEndArray();
+        generator.writeNumberField("totalDiagnoses", total);
+        generator.writeNumberField("archivedDiagnoses", archived);
+        generator.writeEndObject();
+        generator.flush();
+        if (zip != null) {
+            zip.closeEntry();
+        }
+    }
+
+    /**
+     * ZIP mode: one inline image as images/{predictionId}.{ext}
+     */
+    public void writeImage(Integer predictionId, String dataUrl) {
+        if (zip == null || !ImageDataUrl.isDataUrl(dataUrl)) {
+            return;
+        }
+        try {
+            zip.putNextEntry(new ZipEntry(imageFileName(predictionId, dataUrl)));
+            zip.write(ImageDataUrl.decode(dataUrl));
+            zip.closeEntry();
+            images++;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long getImageCount() {
+        return images;
+    }
+
+    /**
+     * Finish the ZIP/gzip trailer; the response stream itself stays open
+     */
+    @Override
+    public void close() throws IOException {
+        generator.close();
+        if (zip != null) {
+            zip.finish();
+        } else if (gzip != null) {
+            gzip.finish();
+        }
+    }
+
+    private void writeCommonFields(Integer id, String predictionType, Double confidence,
+                                   LocalDateTime createAt, Boolean isValid) throws IOException {
+        generator.writeObjectField("id", id);
+        generator.writeStringField("predictionType", predictionType);
+        generator.writeObjectField("confidence", confidence);
+        generator.writeStringField("createAt", createAt != null ? createAt.toString() : null);
+        generator.writeObjectField("isValid", isValid);
+    }
+
+    private void writeImageField(Integer predictionId, String image) throws IOException {
+        if (image == null || image.isEmpty()) {
+            return;
+        }
+        if (!ImageDataUrl.isDataUrl(image)) {
+            generator.writeStringField("uploadedImageUrl", image);
+        } else if (imageMode == ImageMode.ZIP) {
+            generator.writeStringField("imageFile", imageFileName(predictionId, image));
+        } else {
+            generator.writeStringField("imageRef", imageRefBase + predictionId);
+        }
+    }
+
+    private static String imageFileName(Integer predictionId, String dataUrl) {
+        // The data URL type is client input - never part of the entry name unless whitelisted
+        String extension = ImageDataUrl.extension(ImageDataUrl.contentType(dataUrl));
+        return "images/" + predictionId + "." + (extension != null ? extension : UNKNOWN_IMAGE_EXTENSION);
+    }
+}
@@ -0,0 +1,93 @@
+-- ============================================================
+-- V1 - BASELINE SCHEMA (H2 - local profile)
+-- ============================================================
+-- Same tables as the SQL Server baseline. NVARCHAR(MAX) columns
+-- are mapped to CLOB, BIT to BOOLEAN.
+-- "user" is quoted because USER is a reserved word in H2
+-- (the entity maps it as [User], which Hibernate quotes).
+-- ============================================================
+
+CREATE TABLE IF NOT EXISTS "user" (
+    user_id INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_name VARCHAR(50) NOT NULL,
+    email VARCHAR(100) NOT NULL,
+    password_hash VARCHAR(255) NOT NULL,
+    last_login TIMESTAMP,
+    role VARCHAR(10) DEFAULT 'USER',
+    avatar_url VARCHAR(500),
+    location VARCHAR(100),
+    bio CLOB,
+    is_active BOOLEAN DEFAULT TRUE,
+    phone VARCHAR(20)
+);
+
+CREATE TABLE IF NOT EXISTS plant (
+    plant_id INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    plant_name VARCHAR(100) NOT NULL,
+    scientific_name VARCHAR(100),
+    description CLOB,
+    care_tips CLOB,
+    watering_frequency VARCHAR(50),
+    sunlight_requirement VARCHAR(100),
+    soil_type VARCHAR(100),
+    hardiness_zone VARCHAR(50),
+    valid_classification BOOLEAN DEFAULT TRUE,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS disease (
+    disease_id INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    disease_name VARCHAR(100) NOT NULL,
+    symptom_description CLOB,
+    cause CLOB,
+    treatment CLOB,
+    recommended_medicines CLOB
+);
+
+CREATE TABLE IF NOT EXISTS prediction (
+    prediction_id INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id INT NOT NULL,
+    prediction_type VARCHAR(50),
+    confidence DOUBLE PRECISION,
+    uploaded_image_url CLOB,
+    create_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    is_valid BOOLEAN,
+    CONSTRAINT fk_prediction_user FOREIGN KEY (user_id) REFERENCES "user"(user_id)
+);
+
+CREATE TABLE IF NOT EXISTS prediction_plant (
+    prediction_id INT NOT NULL,
+    plant_id INT NOT NULL,
+    CONSTRAINT pk_prediction_plant PRIMARY KEY (prediction_id, plant_id),
+    CONSTRAINT fk_prediction_plant_prediction FOREIGN KEY (prediction_id) REFERENCES prediction(prediction_id),
+    CONSTRAINT fk_prediction_plant_plant FOREIGN KEY (plant_id) REFERENCES plant(plant_id)
+);
+
+CREATE TABLE IF NOT EXISTS prediction_disease (
+    prediction_id INT NOT NULL,
+    disease_id INT NOT NULL,
+    is_healthy BOOLEAN,
+    CONSTRAINT pk_prediction_disease PRIMARY KEY (prediction_id, disease_id),
+    CONSTRAINT fk_prediction_disease_prediction FOREIGN KEY (prediction_id) REFERENCES prediction(prediction_id),
+    CONSTRAINT fk_prediction_disease_disease FOREIGN KEY (disease_id) REFERENCES disease(disease_id)
+);
+
+CREATE TABLE IF NOT EXISTS prediction_log (
+    log_id INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    prediction_id INT NOT NULL,
+    action_type VARCHAR(50),
+    timestamp TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_prediction_log_prediction FOREIGN KEY (prediction_id) REFERENCES prediction(prediction_id)
+);
+
+CREATE TABLE IF NOT EXISTS prediction_feedback (
+    feedback_id INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    prediction_id INT NOT NULL,
+    is_correct BOOLEAN NOT NULL DEFAULT FALSE,
+    is_approved_from_admin BOOLEAN NOT NULL DEFAULT FALSE,
+    comment VARCHAR(500),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP,
+    image_added_to_db BOOLEAN NOT NULL DEFAULT FALSE,
+    CONSTRAINT fk_prediction_feedback_prediction FOREIGN KEY (prediction_id) REFERENCES prediction(prediction_id)
+);
@@ -0,0 +1,31 @@
+-- ============================================================
+-- V2 - SECONDARY INDEXES FOR REPOSITORY QUERIES (H2 - local profile)
+-- ============================================================
+-- Same access paths as the SQL Server script. H2 has no filtered
+-- indexes or INCLUDE columns, so filtered indexes become composite
+-- indexes led by the filter column.
+-- ============================================================
+
+-- PredictionRepository
+CREATE INDEX IF NOT EXISTS ix_prediction_user_id_create_at ON prediction (user_id, create_at DESC);
+CREATE INDEX IF NOT EXISTS ix_prediction_is_valid_create_at ON prediction (is_valid, create_at DESC);
+
+-- PredictionFeedbackRepository
+CREATE INDEX IF NOT EXISTS ix_prediction_feedback_prediction_id ON prediction_feedback (prediction_id);
+CREATE INDEX IF NOT EXISTS ix_prediction_feedback_created_at ON prediction_feedback (created_at DESC);
+CREATE INDEX IF NOT EXISTS ix_prediction_feedback_is_correct ON prediction_feedback (is_correct, is_approved_from_admin);
+CREATE INDEX IF NOT EXISTS ix_prediction_feedback_is_approved ON prediction_feedback (is_approved_from_admin, created_at DESC);
+CREATE INDEX IF NOT EXISTS ix_prediction_feedback_image_pending ON prediction_feedback (image_added_to_db, feedback_id);
+
+-- PredictionLogRepository
+CREATE INDEX IF NOT EXISTS ix_prediction_log_prediction_id_timestamp ON prediction_log (prediction_id, timestamp DESC);
+CREATE INDEX IF NOT EXISTS ix_prediction_log_timestamp ON prediction_log (timestamp DESC);
+CREATE INDEX IF NOT EXISTS ix_prediction_log_action_type_timestamp ON prediction_log (action_type, timestamp DESC);
+
+-- UserRepository
+CREATE UNIQUE INDEX IF NOT EXISTS ux_user_email ON "user" (email);
+CREATE INDEX IF NOT EXISTS ix_user_user_name ON "user" (user_name);
+
+-- Reference data lookups by name
+CREATE INDEX IF NOT EXISTS ix_disease_disease_name ON disease (disease_name);
+CREATE INDEX IF NOT EXISTS ix_plant_plant_name ON plant (plant_name);
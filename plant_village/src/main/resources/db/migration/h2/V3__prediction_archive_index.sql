@@ -0,0 +1,13 @@
+-- ============================================================
+-- V3 - PREDICTION ARCHIVE INDEX (H2 - local profile)
+-- ============================================================
+
+CREATE TABLE IF NOT EXISTS prediction_archive_index (
+    prediction_id INT NOT NULL PRIMARY KEY,
+    user_id INT NOT NULL,
+    create_at TIMESTAMP,
+    archive_file VARCHAR(500) NOT NULL,
+    archived_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS ix_prediction_archive_index_user_id ON prediction_archive_index (user_id, create_at DESC);
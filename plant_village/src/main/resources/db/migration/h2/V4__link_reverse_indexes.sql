@@ -0,0 +1,9 @@
+-- ============================================================
+-- V4 - REVERSE INDEXES ON PREDICTION LINK TABLES (H2 - local profile)
+-- ============================================================
+-- The primary keys are (prediction_id, x_id); listing the predictions
+-- of one disease/plant needs the reverse order.
+-- ============================================================
+
+CREATE INDEX IF NOT EXISTS ix_prediction_disease_disease_id ON prediction_disease (disease_id, prediction_id DESC);
+CREATE INDEX IF NOT EXISTS ix_prediction_plant_plant_id ON prediction_plant (plant_id, prediction_id DESC);
@@ -0,0 +1,9 @@
+-- ============================================================
+-- V5 - BATCH JOB CHECKPOINTS (H2 - local profile)
+-- ============================================================
+
+CREATE TABLE IF NOT EXISTS job_checkpoint (
+    job_name VARCHAR(100) NOT NULL PRIMARY KEY,
+    last_id INT NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
@@ -0,0 +1,15 @@
+-- ============================================================
+-- V6 - TRAINING IMAGE RETRY / DEAD-LETTER STATE (H2 - local profile)
+-- ============================================================
+
+CREATE TABLE IF NOT EXISTS training_image_task (
+    feedback_id INT NOT NULL PRIMARY KEY,
+    status VARCHAR(20) NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP,
+    last_error VARCHAR(1000),
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_training_image_task_feedback FOREIGN KEY (feedback_id) REFERENCES prediction_feedback(feedback_id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS ix_training_image_task_status ON training_image_task (status, next_attempt_at);
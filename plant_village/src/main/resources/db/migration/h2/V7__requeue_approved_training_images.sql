@@ -0,0 +1,8 @@
+-- ============================================================
+-- V7 - REQUEUE TRAINING IMAGES FLAGGED BY ADMIN APPROVAL (H2 - local profile)
+-- ============================================================
+
+-- Approval used to set image_added_to_db = 1 on rows still waiting for a retry or dead-lettered
+UPDATE prediction_feedback SET image_added_to_db = FALSE
+WHERE image_added_to_db = TRUE
+  AND feedback_id IN (SELECT feedback_id FROM training_image_task);
@@ -0,0 +1,117 @@
+-- ============================================================
+-- V1 - BASELINE SCHEMA (SQL Server)
+-- ============================================================
+-- Mirrors the JPA entities. Existing databases created with
+-- COMPLETE_DATABASE_SETUP.sql are baselined at version 1
+-- (spring.flyway.baseline-on-migrate=true, baseline-version=1),
+-- so this script only runs against an empty database.
+-- ============================================================
+
+IF OBJECT_ID(N'dbo.[User]', N'U') IS NULL
+BEGIN
+    CREATE TABLE [User] (
+        user_id INT IDENTITY(1,1) PRIMARY KEY,
+        user_name VARCHAR(50) NOT NULL,
+        email VARCHAR(100) NOT NULL,
+        password_hash VARCHAR(255) NOT NULL,
+        last_login DATETIME2 NULL,
+        role NVARCHAR(10) NULL DEFAULT 'USER',
+        avatar_url VARCHAR(500) NULL,
+        location VARCHAR(100) NULL,
+        bio TEXT NULL,
+        is_active BIT NULL DEFAULT 1,
+        phone VARCHAR(20) NULL
+    );
+END;
+
+IF OBJECT_ID(N'dbo.Plant', N'U') IS NULL
+BEGIN
+    CREATE TABLE Plant (
+        plant_id INT IDENTITY(1,1) PRIMARY KEY,
+        plant_name NVARCHAR(100) NOT NULL,
+        scientific_name NVARCHAR(100) NULL,
+        description NVARCHAR(MAX) NULL,
+        care_tips NVARCHAR(MAX) NULL,
+        watering_frequency NVARCHAR(50) NULL,
+        sunlight_requirement NVARCHAR(100) NULL,
+        soil_type NVARCHAR(100) NULL,
+        hardiness_zone NVARCHAR(50) NULL,
+        valid_classification BIT NULL DEFAULT 1,
+        created_at DATETIME2 NULL DEFAULT GETDATE()
+    );
+END;
+
+IF OBJECT_ID(N'dbo.Disease', N'U') IS NULL
+BEGIN
+    CREATE TABLE Disease (
+        disease_id INT IDENTITY(1,1) PRIMARY KEY,
+        disease_name NVARCHAR(100) NOT NULL,
+        symptom_description NVARCHAR(MAX) NULL,
+        cause NVARCHAR(MAX) NULL,
+        treatment NVARCHAR(MAX) NULL,
+        recommended_medicines NVARCHAR(MAX) NULL
+    );
+END;
+
+IF OBJECT_ID(N'dbo.Prediction', N'U') IS NULL
+BEGIN
+    CREATE TABLE Prediction (
+        prediction_id INT IDENTITY(1,1) PRIMARY KEY,
+        user_id INT NOT NULL,
+        prediction_type VARCHAR(50) NULL,
+        confidence FLOAT NULL,
+        uploaded_image_url NVARCHAR(MAX) NULL,
+        create_at DATETIME2 NULL DEFAULT GETDATE(),
+        is_valid BIT NULL,
+        CONSTRAINT FK_Prediction_User FOREIGN KEY (user_id) REFERENCES [User](user_id)
+    );
+END;
+
+IF OBJECT_ID(N'dbo.Prediction_Plant', N'U') IS NULL
+BEGIN
+    CREATE TABLE Prediction_Plant (
+        prediction_id INT NOT NULL,
+        plant_id INT NOT NULL,
+        CONSTRAINT PK_Prediction_Plant PRIMARY KEY (prediction_id, plant_id),
+        CONSTRAINT FK_Prediction_Plant_Prediction FOREIGN KEY (prediction_id) REFERENCES Prediction(prediction_id),
+        CONSTRAINT FK_Prediction_Plant_Plant FOREIGN KEY (plant_id) REFERENCES Plant(plant_id)
+    );
+END;
+
+IF OBJECT_ID(N'dbo.Prediction_Disease', N'U') IS NULL
+BEGIN
+    CREATE TABLE Prediction_Disease (
+        prediction_id INT NOT NULL,
+        disease_id INT NOT NULL,
+        is_healthy BIT NULL,
+        CONSTRAINT PK_Prediction_Disease PRIMARY KEY (prediction_id, disease_id),
+        CONSTRAINT FK_Prediction_Disease_Prediction FOREIGN KEY (prediction_id) REFERENCES Prediction(prediction_id),
+        CONSTRAINT FK_Prediction_Disease_Disease FOREIGN KEY (disease_id) REFERENCES Disease(disease_id)
+    );
+END;
+
+IF OBJECT_ID(N'dbo.Prediction_Log', N'U') IS NULL
+BEGIN
+    CREATE TABLE Prediction_Log (
+        log_id INT IDENTITY(1,1) PRIMARY KEY,
+        prediction_id INT NOT NULL,
+        action_type VARCHAR(50) NULL,
+        [timestamp] DATETIME2 NOT NULL DEFAULT GETDATE(),
+        CONSTRAINT FK_Prediction_Log_Prediction FOREIGN KEY (prediction_id) REFERENCES Prediction(prediction_id)
+    );
+END;
+
+IF OBJECT_ID(N'dbo.Prediction_Feedback', N'U') IS NULL
+BEGIN
+    CREATE TABLE Prediction_Feedback (
+        feedback_id INT IDENTITY(1,1) PRIMARY KEY,
+        prediction_id INT NOT NULL,
+        is_correct BIT NOT NULL DEFAULT 0,
+        is_approved_from_admin BIT NOT NULL DEFAULT 0,
+        comment NVARCHAR(500) NULL,
+        created_at DATETIME2 NOT NULL DEFAULT GETDATE(),
+        updated_at DATETIME2 NULL,
+        image_added_to_db BIT NOT NULL DEFAULT 0,
+        CONSTRAINT FK_Prediction_Feedback_Prediction FOREIGN KEY (prediction_id) REFERENCES Prediction(prediction_id)
+    );
+END;
@@ -0,0 +1,105 @@
+-- ============================================================
+-- V2 - SECONDARY INDEXES FOR REPOSITORY QUERIES (SQL Server)
+-- ============================================================
+-- One index per access path used by the Spring Data repositories.
+-- Every statement is guarded so the script is safe on databases
+-- where some of these indexes were created by hand.
+-- ============================================================
+
+-- ------------------------------------------------------------
+-- PredictionRepository
+-- ------------------------------------------------------------
+-- findByUser_Id, findByUser_IdOrderByCreateAtDesc, findByUserIdWithLimit,
+-- findByUser_IdAndIsValid{True,False}OrderByCreateAtDesc
+-- (is_valid is included so the valid/invalid variants are a range scan + residual)
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'IX_Prediction_user_id_create_at' AND object_id = OBJECT_ID(N'dbo.Prediction'))
+    CREATE INDEX IX_Prediction_user_id_create_at
+        ON Prediction (user_id, create_at DESC)
+        INCLUDE (is_valid, confidence, prediction_type);
+
+-- findByIsValid(false) / admin review of invalid predictions (small subset -> filtered)
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'IX_Prediction_invalid' AND object_id = OBJECT_ID(N'dbo.Prediction'))
+    CREATE INDEX IX_Prediction_invalid
+        ON Prediction (create_at DESC)
+        INCLUDE (user_id, confidence, prediction_type)
+        WHERE is_valid = 0;
+
+-- findByIsValid(true)
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'IX_Prediction_is_valid_create_at' AND object_id = OBJECT_ID(N'dbo.Prediction'))
+    CREATE INDEX IX_Prediction_is_valid_create_at
+        ON Prediction (is_valid, create_at DESC);
+
+-- ------------------------------------------------------------
+-- PredictionFeedbackRepository
+-- ------------------------------------------------------------
+-- findByPrediction_Id
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'IX_Prediction_Feedback_prediction_id' AND object_id = OBJECT_ID(N'dbo.Prediction_Feedback'))
+    CREATE INDEX IX_Prediction_Feedback_prediction_id
+        ON Prediction_Feedback (prediction_id);
+
+-- findAllByOrderByCreatedAtDesc, findAllWithUserAndPrediction
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'IX_Prediction_Feedback_created_at' AND object_id = OBJECT_ID(N'dbo.Prediction_Feedback'))
+    CREATE INDEX IX_Prediction_Feedback_created_at
+        ON Prediction_Feedback (created_at DESC)
+        INCLUDE (prediction_id);
+
+-- findByIsCorrectTrue, countByIsCorrect{True,False}, getFeedbackStatistics (covering)
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'IX_Prediction_Feedback_is_correct' AND object_id = OBJECT_ID(N'dbo.Prediction_Feedback'))
+    CREATE INDEX IX_Prediction_Feedback_is_correct
+        ON Prediction_Feedback (is_correct, is_approved_from_admin)
+        INCLUDE (prediction_id);
+
+-- findByIsApprovedFromAdminTrue, countByIsApprovedFromAdmin{True,False}
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'IX_Prediction_Feedback_is_approved' AND object_id = OBJECT_ID(N'dbo.Prediction_Feedback'))
+    CREATE INDEX IX_Prediction_Feedback_is_approved
+        ON Prediction_Feedback (is_approved_from_admin, created_at DESC);
+
+-- processPendingFeedback: rows whose image is not yet in the training set (filtered)
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'IX_Prediction_Feedback_image_pending' AND object_id = OBJECT_ID(N'dbo.Prediction_Feedback'))
+    CREATE INDEX IX_Prediction_Feedback_image_pending
+        ON Prediction_Feedback (feedback_id)
+        INCLUDE (prediction_id, is_correct)
+        WHERE image_added_to_db = 0;
+
+-- ------------------------------------------------------------
+-- PredictionLogRepository
+-- ------------------------------------------------------------
+-- findByPrediction_Id, findByPrediction_IdOrderByTimestampDesc, findByUserId (join side)
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'IX_Prediction_Log_prediction_id_timestamp' AND object_id = OBJECT_ID(N'dbo.Prediction_Log'))
+    CREATE INDEX IX_Prediction_Log_prediction_id_timestamp
+        ON Prediction_Log (prediction_id, [timestamp] DESC);
+
+-- streamLogs: time range, newest first (covering)
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'IX_Prediction_Log_timestamp' AND object_id = OBJECT_ID(N'dbo.Prediction_Log'))
+    CREATE INDEX IX_Prediction_Log_timestamp
+        ON Prediction_Log ([timestamp] DESC)
+        INCLUDE (prediction_id, action_type);
+
+-- streamLogs with actionType filter
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'IX_Prediction_Log_action_type_timestamp' AND object_id = OBJECT_ID(N'dbo.Prediction_Log'))
+    CREATE INDEX IX_Prediction_Log_action_type_timestamp
+        ON Prediction_Log (action_type, [timestamp] DESC)
+        INCLUDE (prediction_id);
+
+-- ------------------------------------------------------------
+-- UserRepository
+-- ------------------------------------------------------------
+-- findByEmail (skip if the setup script's UNIQUE constraint already indexes email)
+IF NOT EXISTS (
+    SELECT 1 FROM sys.index_columns ic
+    JOIN sys.columns c ON c.object_id = ic.object_id AND c.column_id = ic.column_id
+    WHERE ic.object_id = OBJECT_ID(N'dbo.[User]') AND ic.key_ordinal = 1 AND c.name = N'email')
+    CREATE UNIQUE INDEX UX_User_email ON [User] (email);
+
+-- existsByUserName, findByUserName
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'IX_User_user_name' AND object_id = OBJECT_ID(N'dbo.[User]'))
+    CREATE INDEX IX_User_user_name ON [User] (user_name);
+
+-- ------------------------------------------------------------
+-- Reference data lookups by name (DiseaseRepository / PlantRepository)
+-- ------------------------------------------------------------
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'IX_Disease_disease_name' AND object_id = OBJECT_ID(N'dbo.Disease'))
+    CREATE INDEX IX_Disease_disease_name ON Disease (disease_name);
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'IX_Plant_plant_name' AND object_id = OBJECT_ID(N'dbo.Plant'))
+    CREATE INDEX IX_Plant_plant_name ON Plant (plant_name);
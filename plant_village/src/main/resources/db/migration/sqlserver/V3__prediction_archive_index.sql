@@ -0,0 +1,23 @@
+-- ============================================================
+-- V3 - PREDICTION ARCHIVE INDEX (SQL Server)
+-- ============================================================
+-- Archived predictions (with their logs, feedback and links) are moved
+-- to compressed files under app.archive.dir. This table is the small
+-- lookup index for those files: by prediction id or by user.
+-- ============================================================
+
+IF OBJECT_ID(N'dbo.Prediction_Archive_Index', N'U') IS NULL
+BEGIN
+    CREATE TABLE Prediction_Archive_Index (
+        prediction_id INT NOT NULL PRIMARY KEY,
+        user_id INT NOT NULL,
+        create_at DATETIME2 NULL,
+        archive_file NVARCHAR(500) NOT NULL,
+        archived_at DATETIME2 NOT NULL DEFAULT GETDATE()
+    );
+END;
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'IX_Prediction_Archive_Index_user_id' AND object_id = OBJECT_ID(N'dbo.Prediction_Archive_Index'))
+    CREATE INDEX IX_Prediction_Archive_Index_user_id
+        ON Prediction_Archive_Index (user_id, create_at DESC)
+        INCLUDE (archive_file);
@@ -0,0 +1,18 @@
+-- ============================================================
+-- V4 - REVERSE INDEXES ON PREDICTION LINK TABLES (SQL Server)
+-- ============================================================
+-- The primary keys are (prediction_id, x_id), which serve lookups by
+-- prediction. Paged listings by disease/plant (newest prediction first)
+-- and their COUNT queries need the reverse order.
+-- ============================================================
+
+-- PredictionDiseaseRepository.findDtoPageByDiseaseId, page and count query (covering)
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'IX_Prediction_Disease_disease_id' AND object_id = OBJECT_ID(N'dbo.Prediction_Disease'))
+    CREATE INDEX IX_Prediction_Disease_disease_id
+        ON Prediction_Disease (disease_id, prediction_id DESC)
+        INCLUDE (is_healthy);
+
+-- PredictionPlantRepository.findDtoPageByPlantId, page and count query
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'IX_Prediction_Plant_plant_id' AND object_id = OBJECT_ID(N'dbo.Prediction_Plant'))
+    CREATE INDEX IX_Prediction_Plant_plant_id
+        ON Prediction_Plant (plant_id, prediction_id DESC);
@@ -0,0 +1,16 @@
+-- ============================================================
+-- V5 - BATCH JOB CHECKPOINTS (SQL Server)
+-- ============================================================
+-- One row per chunked batch job (e.g. pending feedback processing).
+-- last_id is committed together with each chunk, so an interrupted
+-- run resumes after the last finished chunk instead of starting over.
+-- ============================================================
+
+IF OBJECT_ID(N'dbo.Job_Checkpoint', N'U') IS NULL
+BEGIN
+    CREATE TABLE Job_Checkpoint (
+        job_name NVARCHAR(100) NOT NULL PRIMARY KEY,
+        last_id INT NOT NULL,
+        updated_at DATETIME2 NOT NULL DEFAULT GETDATE()
+    );
+END;
@@ -0,0 +1,26 @@
+-- ============================================================
+-- V6 - TRAINING IMAGE RETRY / DEAD-LETTER STATE (SQL Server)
+-- ============================================================
+-- Correct feedback with image_added_to_db = 0 is the image queue.
+-- This table only holds rows that failed: RETRY (with the next
+-- attempt time) or DEAD (out of attempts, waiting for an admin).
+-- Rows go away with their feedback (archival, account deletion).
+-- ============================================================
+
+IF OBJECT_ID(N'dbo.Training_Image_Task', N'U') IS NULL
+BEGIN
+    CREATE TABLE Training_Image_Task (
+        feedback_id INT NOT NULL PRIMARY KEY,
+        status NVARCHAR(20) NOT NULL,
+        attempts INT NOT NULL DEFAULT 0,
+        next_attempt_at DATETIME2 NULL,
+        last_error NVARCHAR(1000) NULL,
+        updated_at DATETIME2 NOT NULL DEFAULT GETDATE(),
+        CONSTRAINT FK_Training_Image_Task_Feedback FOREIGN KEY (feedback_id)
+            REFERENCES Prediction_Feedback(feedback_id) ON DELETE CASCADE
+    );
+END;
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'IX_Training_Image_Task_status' AND object_id = OBJECT_ID(N'dbo.Training_Image_Task'))
+    CREATE INDEX IX_Training_Image_Task_status
+        ON Training_Image_Task (status, next_attempt_at);
@@ -0,0 +1,12 @@
+-- ============================================================
+-- V7 - REQUEUE TRAINING IMAGES FLAGGED BY ADMIN APPROVAL (SQL Server)
+-- ============================================================
+-- Admin approval used to set image_added_to_db = 1, also on rows
+-- whose image was still waiting for a retry or dead-lettered in
+-- Training_Image_Task. Those images were never written: put them
+-- back in the queue so the worker (or an admin retry) finishes them.
+-- ============================================================
+
+UPDATE Prediction_Feedback SET image_added_to_db = 0
+WHERE image_added_to_db = 1
+  AND feedback_id IN (SELECT feedback_id FROM Training_Image_Task);
@@ -0,0 +1,120 @@
+package plant_village.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import plant_village.dto.AnalyzeResponse;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Build + serialize one POST /api/predictions/analyze response (detect-disease, 3 alternatives)
+ *
+ * - maps:             nested HashMaps, as the endpoint built them before AnalyzeResponse
+ * - typed:            AnalyzeResponse with a plain ObjectMapper
+ * - typedBlackbird:   AnalyzeResponse with BlackbirdModule, as registered in JacksonConfig
+ *
+ * Run: mvn -Pbenchmark test-compile exec:exec -Dbenchmark=AnalyzeResponseBenchmark
+ * The gc profiler is on, so gc.alloc.rate.norm reports the bytes allocated per response.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AnalyzeResponseBenchmark {
+
+    private static final String[] ALTERNATIVES = {"Tomato___Early_blight", "Tomato___Septoria_leaf_spot", "Tomato___healthy"};
+    private static final double[] PROBABILITIES = {0.08, 0.03, 0.01};
+
+    private ObjectMapper plainMapper;
+    private ObjectMapper blackbirdMapper;
+    private int predictionId;
+
+    @Setup
+    public void setUp() {
+        plainMapper = new ObjectMapper();
+        blackbirdMapper = new ObjectMapper().registerModule(new BlackbirdModule());
+    }
+
+    @Benchmark
+    public byte[] maps() throws JsonProcessingException {
+        return plainMapper.writeValueAsBytes(buildMapResponse(++predictionId));
+    }
+
+    @Benchmark
+    public byte[] typed() throws JsonProcessingException {
+        return plainMapper.writeValueAsBytes(buildTypedResponse(++predictionId));
+    }
+
+    @Benchmark
+    public byte[] typedBlackbird() throws JsonProcessingException {
+        return blackbirdMapper.writeValueAsBytes(buildTypedResponse(++predictionId));
+    }
+
+    private static Map<String, Object> buildMapResponse(int predictionId) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("predicted_class", "Tomato___Leaf_Mold");
+        response.put("confidence", 0.87);
+        response.put("is_valid", true);
+        response.put("is_healthy", false);
+        response.put("description", "Analysis completed");
+        response.put("prediction_id", predictionId);
+        response.put("symptom_description", "Pale green or yellow spots on upper leaf surfaces");
+        response.put("treatment", "Improve air circulation and remove infected leaves");
+        response.put("recommended_medicines", "Chlorothalonil, copper fungicides");
+
+        List<Map<String, Object>> topPredictions = new ArrayList<>();
+        for (int i = 0; i < ALTERNATIVES.length; i++) {
+            Map<String, Object> p = new HashMap<>();
+            p.put("class_name", ALTERNATIVES[i]);
+            p.put("probability", PROBABILITIES[i]);
+            p.put("symptom_description", "Dark concentric spots on older leaves");
+            p.put("treatment", "Rotate crops and apply fungicide");
+            p.put("recommended_medicines", "Mancozeb");
+            topPredictions.add(p);
+        }
+        response.put("top_predictions", topPredictions);
+        return response;
+    }
+
+    private static AnalyzeResponse buildTypedResponse(int predictionId) {
+        List<AnalyzeResponse.Alternative> topPredictions = new ArrayList<>(ALTERNATIVES.length);
+        for (int i = 0; i < ALTERNATIVES.length; i++) {
+            topPredictions.add(AnalyzeResponse.Alternative.builder()
+                .className(ALTERNATIVES[i])
+                .probability(PROBABILITIES[i])
+                .symptomDescription("Dark concentric spots on older leaves")
+                .treatment("Rotate crops and apply fungicide")
+                .recommendedMedicines("Mancozeb")
+                .build());
+        }
+        return AnalyzeResponse.builder()
+            .predictedClass("Tomato___Leaf_Mold")
+            .confidence(0.87)
+            .isValid(true)
+            .isHealthy(false)
+            .description("Analysis completed")
+            .predictionId(predictionId)
+            .symptomDescription("Pale green or yellow spots on upper leaf surfaces")
+            .treatment("Improve air circulation and remove infected leaves")
+            .recommendedMedicines("Chlorothalonil, copper fungicides")
+            .topPredictions(topPredictions)
+            .build();
+    }
+}
@@ -0,0 +1,141 @@
+package plant_village.config.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import plant_village.model.Prediction;
+import plant_village.model.User;
+import plant_village.repository.PredictionRepository;
+import plant_village.repository.UserRepository;
+import plant_village.service.PredictionService;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Read/write routing with two embedded H2 databases (ReplicaDataSourceConfig)
+ *
+ * Both databases get the Flyway schema (app.datasource.replica.migrate=true). Rows inserted
+ * directly into only one of them show which pool served a read: predictions that exist only
+ * on the replica are visible exactly when the read was routed there.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=" + ReplicaRoutingTest.PRIMARY_URL,
+    "app.datasource.replica.jdbc-url=" + ReplicaRoutingTest.REPLICA_URL,
+    "app.datasource.replica.username=sa",
+    "app.datasource.replica.migrate=true",
+    "app.datasource.replica.lag-query=SELECT lag_seconds FROM replica_lag",
+    "app.datasource.replica.max-lag-seconds=5",
+    // Checks are triggered by the tests
+    "app.datasource.replica.check-interval-ms=3600000"
+})
+@ActiveProfiles("local")
+class ReplicaRoutingTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing_primary;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:routing_replica;DB_CLOSE_DELAY=-1";
+
+    private static final JdbcTemplate primary = new JdbcTemplate(new DriverManagerDataSource(PRIMARY_URL, "sa", ""));
+    private static final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    @Autowired
+    private PredictionService predictionService;
+
+    @Autowired
+    private PredictionRepository predictionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ReplicaLagGuard replicaLagGuard;
+
+    @Autowired
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    @Autowired
+    private ReadWriteRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    void replicaInSync() {
+        replica.execute("CREATE TABLE IF NOT EXISTS replica_lag (lag_seconds INT)");
+        replica.update("DELETE FROM replica_lag");
+        replica.update("INSERT INTO replica_lag VALUES (0)");
+        replicaLagGuard.check();
+        assertThat(replicaLagGuard.isReplicaUsable()).isTrue();
+    }
+
+    @Test
+    void readOnlyServiceTransactionReadsFromReplica() {
+        int userId = seedUserWithReplicaOnlyPredictions(9001);
+        long replicaRoutes = routingDataSource.getRouteCounts().get("replica");
+
+        List<Prediction> history = predictionService.getPredictionHistory(userId);
+
+        assertThat(history).hasSize(3);
+        assertThat(routingDataSource.getRouteCounts().get("replica")).isGreaterThan(replicaRoutes);
+    }
+
+    @Test
+    void repositoryCallOutsideServiceTransactionStaysOnPrimary() {
+        int userId = seedUserWithReplicaOnlyPredictions(9002);
+
+        // Spring Data's own read-only transaction does not allow the replica
+        assertThat(predictionRepository.findByUser_IdOrderByCreateAtDesc(userId)).isEmpty();
+    }
+
+    @Test
+    void writesGoToPrimary() {
+        User saved = userRepository.save(User.builder()
+            .userName("routing-write")
+            .email("routing-write@example.com")
+            .passwordHash("x")
+            .role("USER")
+            .build());
+
+        assertThat(primary.queryForObject("SELECT COUNT(*) FROM \"user\" WHERE user_id = ?", Integer.class, saved.getId()))
+            .isEqualTo(1);
+        assertThat(replica.queryForObject("SELECT COUNT(*) FROM \"user\" WHERE email = ?", Integer.class,
+            "routing-write@example.com")).isZero();
+    }
+
+    @Test
+    void recentWriteForKeyReadsFromPrimary() {
+        int userId = seedUserWithReplicaOnlyPredictions(9003);
+        readYourWritesTracker.recordWrite(String.valueOf(userId));
+
+        assertThat(predictionService.getPredictionHistory(userId)).isEmpty();
+    }
+
+    @Test
+    void laggingReplicaFallsBackToPrimary() {
+        int userId = seedUserWithReplicaOnlyPredictions(9004);
+        replica.update("UPDATE replica_lag SET lag_seconds = 60");
+        replicaLagGuard.check();
+        long fallbacks = routingDataSource.getRouteCounts().get("fallbackToPrimary");
+
+        assertThat(replicaLagGuard.isReplicaUsable()).isFalse();
+        assertThat(predictionService.getPredictionHistory(userId)).isEmpty();
+        assertThat(routingDataSource.getRouteCounts().get("fallbackToPrimary")).isGreaterThan(fallbacks);
+    }
+
+    /**
+     * The user exists on both databases, its three predictions only on the replica
+     */
+    private static int seedUserWithReplicaOnlyPredictions(int userId) {
+        for (JdbcTemplate db : List.of(primary, replica)) {
+            db.update("INSERT INTO \"user\" (user_id, user_name, email, password_hash, role) VALUES (?, ?, ?, 'x', 'USER')",
+                userId, "routing" + userId, "routing" + userId + "@example.com");
+        }
+        for (int i = 0; i < 3; i++) {
+            replica.update("INSERT INTO prediction (user_id, prediction_type, confidence, is_valid) " +
+                           "VALUES (?, 'detect-disease', 0.9, TRUE)", userId);
+        }
+        return userId;
+    }
+}
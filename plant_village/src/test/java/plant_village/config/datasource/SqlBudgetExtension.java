@@ -0,0 +1,68 @@
+package plant_village.config.datasource;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JUnit 5 extension enforcing the {@link SqlBudget} declared on controller methods
+ *
+ * Opens a {@link SqlStatementStats} scope around the test method body only (@BeforeEach seeding
+ * is not counted). {@link SqlBudgetInterceptor} records every controller call made in the test with
+ * the budget on the handler and the statements it executed; the test fails when a call exceeded
+ * its handler's budget. The limit is read from the endpoint itself, so the test cannot drift from
+ * what SqlBudgetFilter enforces in production. Handlers without @SqlBudget are not checked, and a
+ * test that called no budgeted handler fails (it would not check anything).
+ *
+ * MockMvc runs the request on the test thread, so the whole request - including lazy loads during
+ * JSON serialization - lands in this scope. Build MockMvc without filters (addFilters = false):
+ * {@link SqlBudgetFilter} opens its own scope per request, which would hide the statements.
+ */
+public class SqlBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(SqlBudgetExtension.class);
+    private static final String PREVIOUS = "previous";
+    private static final String STATS = "stats";
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        ExtensionContext.Store store = context.getStore(NAMESPACE);
+        SqlStatementStats previous = SqlStatementStats.begin();
+        if (previous != null) {
+            store.put(PREVIOUS, previous);
+        }
+        store.put(STATS, SqlStatementStats.current());
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        ExtensionContext.Store store = context.getStore(NAMESPACE);
+        SqlStatementStats stats = store.remove(STATS, SqlStatementStats.class);
+        if (stats == null) {
+            return;
+        }
+        SqlStatementStats.end(store.remove(PREVIOUS, SqlStatementStats.class));
+        if (context.getExecutionException().isPresent()) {
+            // The test already failed, keep its own error
+            return;
+        }
+
+        List<SqlStatementStats.HandlerCall> budgeted = stats.getHandlerCalls().stream()
+                .filter(call -> call.budget() != null)
+                .toList();
+        if (budgeted.isEmpty()) {
+            throw new AssertionError(context.getDisplayName() + " called no controller method with @SqlBudget");
+        }
+        for (SqlStatementStats.HandlerCall call : budgeted) {
+            if (call.overBudget()) {
+                Map.Entry<String, Integer> repeated = stats.mostRepeated().orElse(null);
+                throw new AssertionError(String.format("%s executed %d SQL statements, its @SqlBudget is %d%s",
+                        call.handler(), call.statements(), call.budget(),
+                        repeated != null ? " - most repeated x" + repeated.getValue() + ": " + repeated.getKey() : ""));
+            }
+        }
+    }
+}
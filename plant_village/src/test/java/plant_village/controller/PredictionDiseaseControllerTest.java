@@ -0,0 +1,72 @@
+package plant_village.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import plant_village.config.datasource.SqlBudgetExtension;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Paged prediction-disease listings stay within the @SqlBudget declared on their endpoints
+ * (page query + count) however many rows the page holds - a lazy association loaded per row
+ * would add one per row. SqlBudgetExtension reads the budget from the controller method.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("local")
+@ExtendWith(SqlBudgetExtension.class)
+class PredictionDiseaseControllerTest {
+
+    private static final int USER_ID = 81001;
+    private static final int DISEASE_ID = 81001;
+    private static final int FIRST_PREDICTION_ID = 81001;
+    private static final int LINKS = 120;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seedLinks() {
+        if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM disease WHERE disease_id = ?", Integer.class, DISEASE_ID) > 0) {
+            return;
+        }
+        jdbcTemplate.update("INSERT INTO \"user\" (user_id, user_name, email, password_hash, role) " +
+                            "VALUES (?, 'budget', 'budget@example.com', 'x', 'USER')", USER_ID);
+        jdbcTemplate.update("INSERT INTO disease (disease_id, disease_name) VALUES (?, 'Budget blight')", DISEASE_ID);
+        for (int i = 0; i < LINKS; i++) {
+            int predictionId = FIRST_PREDICTION_ID + i;
+            jdbcTemplate.update("INSERT INTO prediction (prediction_id, user_id, prediction_type, confidence, is_valid) " +
+                                "VALUES (?, ?, 'detect-disease', 0.9, TRUE)", predictionId, USER_ID);
+            jdbcTemplate.update("INSERT INTO prediction_disease (prediction_id, disease_id, is_healthy) VALUES (?, ?, FALSE)",
+                                predictionId, DISEASE_ID);
+        }
+    }
+
+    @Test
+    void predictionsByDiseasePageStaysWithinBudget() throws Exception {
+        mockMvc.perform(get("/api/prediction-diseases/disease/{diseaseId}", DISEASE_ID).param("page", "1").param("size", "50"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content.length()").value(50))
+            .andExpect(jsonPath("$.content[0].diseaseName").value("Budget blight"))
+            .andExpect(jsonPath("$.totalElements").value(LINKS));
+    }
+
+    @Test
+    void allLinksPageStaysWithinBudget() throws Exception {
+        mockMvc.perform(get("/api/prediction-diseases").param("size", "100"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content.length()").value(100));
+    }
+}
@@ -0,0 +1,256 @@
+package plant_village.repository;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import plant_village.config.datasource.SqlStatementStats;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Query plan regression test for the V2/V4 indexes (H2 migrations)
+ *
+ * Runs against its own in-memory H2 database with the Flyway set applied, seeded large enough for
+ * the optimizer to prefer an index over a scan (200k predictions and logs). Each test calls the
+ * real repository method, captures the SQL Hibernate generated for it (SqlStatementStats) and
+ * checks with EXPLAIN that the intended V2/V4 index serves it. A renamed column, a dropped index
+ * or a rewritten query that stops using its index fails here.
+ *
+ * H2 backs every foreign key with its own single-column index, which costs the same as the V2/V4
+ * index for an equality lookup and would be picked instead. SQL Server creates no foreign key
+ * indexes, so the test database drops the foreign key constraints (and their indexes) before
+ * seeding: the remaining candidates are the ones SQL Server has.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=" + QueryIndexPlanTest.URL,
+    // Background jobs would change the seeded rows
+    "app.image-queue.enabled=false"
+})
+@ActiveProfiles("local")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryIndexPlanTest {
+
+    static final String URL = "jdbc:h2:mem:query_index_plan;DB_CLOSE_DELAY=-1";
+
+    private static final int USERS = 2_000;
+    private static final int PREDICTIONS = 200_000;
+    private static final int LOGS = 200_000;
+    private static final int FEEDBACKS = 50_000;
+    private static final int DISEASES = 40;
+    private static final int PLANTS = 40;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private PredictionRepository predictionRepository;
+
+    @Autowired
+    private PredictionFeedbackRepository feedbackRepository;
+
+    @Autowired
+    private PredictionLogRepository logRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DiseaseRepository diseaseRepository;
+
+    @Autowired
+    private PlantRepository plantRepository;
+
+    @Autowired
+    private PredictionDiseaseRepository predictionDiseaseRepository;
+
+    @Autowired
+    private PredictionPlantRepository predictionPlantRepository;
+
+    @BeforeAll
+    void seed() {
+        List<Map<String, Object>> foreignKeys = jdbcTemplate.queryForList(
+            "SELECT TABLE_NAME, CONSTRAINT_NAME FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS " +
+            "WHERE CONSTRAINT_TYPE = 'FOREIGN KEY' AND TABLE_SCHEMA = 'PUBLIC'");
+        for (Map<String, Object> foreignKey : foreignKeys) {
+            jdbcTemplate.execute("ALTER TABLE \"" + foreignKey.get("TABLE_NAME") + "\" DROP CONSTRAINT \"" +
+                                 foreignKey.get("CONSTRAINT_NAME") + "\"");
+        }
+
+        jdbcTemplate.execute("INSERT INTO \"user\" (user_id, user_name, email, password_hash, role) " +
+                   "SELECT X, 'user' || X, 'user' || X || '@example.com', 'x', 'USER' FROM SYSTEM_RANGE(1, " + USERS + ")");
+        jdbcTemplate.execute("INSERT INTO disease (disease_id, disease_name) " +
+                   "SELECT X, 'Disease ' || X FROM SYSTEM_RANGE(1, " + DISEASES + ")");
+        jdbcTemplate.execute("INSERT INTO plant (plant_id, plant_name) " +
+                   "SELECT X, 'Plant ' || X FROM SYSTEM_RANGE(1, " + PLANTS + ")");
+        // One prediction every ~5 minutes over two years, 10% invalid
+        jdbcTemplate.execute("INSERT INTO prediction (prediction_id, user_id, prediction_type, confidence, create_at, is_valid) " +
+                   "SELECT X, MOD(X, " + USERS + ") + 1, 'detect-disease', 0.9, " +
+                   "DATEADD(MINUTE, X * 5, TIMESTAMP '2024-01-01 00:00:00'), MOD(X, 10) <> 0 " +
+                   "FROM SYSTEM_RANGE(1, " + PREDICTIONS + ")");
+        jdbcTemplate.execute("INSERT INTO prediction_disease (prediction_id, disease_id, is_healthy) " +
+                   "SELECT X, MOD(X, " + DISEASES + ") + 1, FALSE FROM SYSTEM_RANGE(1, " + PREDICTIONS + ")");
+        jdbcTemplate.execute("INSERT INTO prediction_plant (prediction_id, plant_id) " +
+                   "SELECT X, MOD(X, " + PLANTS + ") + 1 FROM SYSTEM_RANGE(1, " + PREDICTIONS + ")");
+        jdbcTemplate.execute("INSERT INTO prediction_log (prediction_id, action_type, timestamp) " +
+                   "SELECT X, CASEWHEN(MOD(X, 50) = 0, 'PREDICTION_FAILED', 'PREDICTION_CREATED'), " +
+                   "DATEADD(MINUTE, X * 5, TIMESTAMP '2024-01-01 00:00:00') " +
+                   "FROM SYSTEM_RANGE(1, " + LOGS + ")");
+        // Most feedback already processed, 2% still waiting for its image
+        jdbcTemplate.execute("INSERT INTO prediction_feedback (prediction_id, is_correct, is_approved_from_admin, comment, " +
+                   "created_at, image_added_to_db) " +
+                   "SELECT X, MOD(X, 2) = 0, MOD(X, 3) = 0, 'comment ' || X, " +
+                   "DATEADD(MINUTE, X * 5, TIMESTAMP '2024-01-01 00:00:00'), MOD(X, 50) <> 0 " +
+                   "FROM SYSTEM_RANGE(1, " + FEEDBACKS + ")");
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    // ---------------------------------------------------------------- PredictionRepository
+
+    @Test
+    void predictionHistoryUsesUserIdCreateAtIndex() {
+        assertThat(plan(() -> predictionRepository.findByUser_IdOrderByCreateAtDesc(42)))
+            .contains("IX_PREDICTION_USER_ID_CREATE_AT");
+    }
+
+    @Test
+    void invalidPredictionsOfUserUseUserIdCreateAtIndex() {
+        assertThat(plan(() -> predictionRepository.findByUser_IdAndIsValidFalseOrderByCreateAtDesc(42)))
+            .contains("IX_PREDICTION_USER_ID_CREATE_AT");
+    }
+
+    @Test
+    void archivableIdsUsePrimaryKeyRangeAndFeedbackIndex() {
+        String plan = plan(() -> predictionRepository.findArchivableIds(
+            LocalDateTime.of(2024, 2, 1, 0, 0), 0, PageRequest.of(0, 50)));
+        // Keyset over the primary key, the NOT EXISTS probe per row through the feedback index
+        assertThat(plan).containsPattern("PRIMARY_KEY_\\w+: PREDICTION_ID > ");
+        assertThat(plan).contains("IX_PREDICTION_FEEDBACK_PREDICTION_ID");
+    }
+
+    // ---------------------------------------------------------------- PredictionFeedbackRepository
+
+    @Test
+    void feedbackOfPredictionUsesPredictionIdIndex() {
+        assertThat(plan(() -> feedbackRepository.findByPrediction_Id(42)))
+            .contains("IX_PREDICTION_FEEDBACK_PREDICTION_ID");
+    }
+
+    @Test
+    void pendingImageChunkUsesImagePendingIndex() {
+        assertThat(plan(() -> feedbackRepository.findPendingImageIds(0, PageRequest.of(0, 1000))))
+            .contains("IX_PREDICTION_FEEDBACK_IMAGE_PENDING");
+    }
+
+    @Test
+    void approvedFeedbackUsesApprovedIndex() {
+        assertThat(plan(() -> feedbackRepository.findByIsApprovedFromAdminTrue()))
+            .contains("IX_PREDICTION_FEEDBACK_IS_APPROVED");
+    }
+
+    // ---------------------------------------------------------------- PredictionLogRepository
+
+    @Test
+    void logsOfPredictionUsePredictionIdTimestampIndex() {
+        assertThat(plan(() -> logRepository.findByPrediction_IdOrderByTimestampDesc(42)))
+            .contains("IX_PREDICTION_LOG_PREDICTION_ID_TIMESTAMP");
+    }
+
+    @Test
+    void logTimeRangeUsesTimestampIndex() {
+        assertThat(plan(() -> drain(logRepository.streamLogsBetween(
+                LocalDateTime.of(2025, 6, 1, 0, 0), LocalDateTime.of(2025, 6, 2, 0, 0)))))
+            .contains("IX_PREDICTION_LOG_TIMESTAMP");
+    }
+
+    @Test
+    void logActionTypeUsesActionTypeTimestampIndex() {
+        assertThat(plan(() -> drain(logRepository.streamLogsByActionTypeBetween("PREDICTION_FAILED",
+                LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2026, 1, 1, 0, 0)))))
+            .contains("IX_PREDICTION_LOG_ACTION_TYPE_TIMESTAMP");
+    }
+
+    // ---------------------------------------------------------------- UserRepository, catalog
+
+    @Test
+    void userByEmailUsesUniqueEmailIndex() {
+        assertThat(plan(() -> userRepository.findByEmail("user42@example.com")))
+            .contains("UX_USER_EMAIL");
+    }
+
+    @Test
+    void userByNameUsesUserNameIndex() {
+        assertThat(plan(() -> userRepository.findByUserName("user42")))
+            .contains("IX_USER_USER_NAME");
+    }
+
+    @Test
+    void diseaseByNameUsesNameIndex() {
+        assertThat(plan(() -> diseaseRepository.findByDiseaseName("Disease 7")))
+            .contains("IX_DISEASE_DISEASE_NAME");
+    }
+
+    @Test
+    void plantByNameUsesNameIndex() {
+        assertThat(plan(() -> plantRepository.findByPlantName("Plant 7")))
+            .contains("IX_PLANT_PLANT_NAME");
+    }
+
+    // ---------------------------------------------------------------- Link tables (V4)
+
+    @Test
+    void predictionsOfDiseaseUseReverseLinkIndex() {
+        assertThat(plan(() -> predictionDiseaseRepository.findDtoPageByDiseaseId(7, PageRequest.of(0, 20))))
+            .contains("IX_PREDICTION_DISEASE_DISEASE_ID");
+    }
+
+    @Test
+    void predictionsOfPlantUseReverseLinkIndex() {
+        assertThat(plan(() -> predictionPlantRepository.findDtoPageByPlantId(7, PageRequest.of(0, 20))))
+            .contains("IX_PREDICTION_PLANT_PLANT_ID");
+    }
+
+    /**
+     * EXPLAIN of the first statement the repository call executed (the finder itself; follow-up
+     * statements such as a page count or an eager association load are not checked)
+     */
+    private String plan(Runnable repositoryCall) {
+        List<String> executed = new ArrayList<>();
+        TransactionTemplate readTx = new TransactionTemplate(transactionManager);
+        readTx.setReadOnly(true);
+        SqlStatementStats previous = SqlStatementStats.begin();
+        try {
+            readTx.executeWithoutResult(tx -> repositoryCall.run());
+            executed.addAll(SqlStatementStats.current().getExecutedSql());
+        } finally {
+            SqlStatementStats.end(previous);
+        }
+        assertThat(executed).as("SQL executed by the repository call").isNotEmpty();
+
+        String sql = executed.get(0);
+        String plan = jdbcTemplate.query(con -> con.prepareStatement("EXPLAIN " + sql),
+                rs -> rs.next() ? rs.getString(1) : "");
+        return plan.replace("\"", "");
+    }
+
+    private static void drain(Stream<?> rows) {
+        try (rows) {
+            rows.forEach(row -> { });
+        }
+    }
+}